@@ -0,0 +1,316 @@
+package com.orasi.api.restServices.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpOptions;
+import org.apache.http.client.methods.HttpPatch;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+
+import com.orasi.api.restServices.core.exceptions.RestException;
+import com.orasi.utils.PayloadLogger;
+
+/**
+ * @summary Non-blocking counterpart of {@link RestService}. Requests are sent
+ *          by a small, fixed set of I/O threads, so hundreds of calls can be
+ *          in flight at once without a thread for each. Every call returns a
+ *          Future holding an immutable {@link RestResponse}, and nothing is
+ *          stored on the service, so one instance can be shared by any number
+ *          of threads. <br>
+ *          <br>
+ *          Requests beyond the connection limits wait for a connection to
+ *          free up rather than failing. The service must be closed to stop
+ *          its I/O threads.
+ * @version Created: 10/18/2026
+ */
+public class AsyncRestService implements Closeable {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final CloseableHttpAsyncClient client;
+	private final PoolingNHttpClientConnectionManager connectionManager;
+	private final AtomicLong requests = new AtomicLong();
+	private volatile String userAgent;
+
+	public AsyncRestService() {
+		this(RestClientPool.DEFAULT_MAX_TOTAL, RestClientPool.DEFAULT_MAX_PER_ROUTE, RestClientPool.DEFAULT_CONNECT_TIMEOUT, RestClientPool.DEFAULT_SOCKET_TIMEOUT);
+	}
+
+	/**
+	 * @param maxTotal int: Maximum number of open connections across all hosts
+	 * @param maxPerRoute int: Maximum number of open connections to a single host
+	 * @param connectTimeout int: Milliseconds to wait for a connection to be established or leased from the pool
+	 * @param socketTimeout int: Milliseconds to wait for data from the server before failing
+	 * @throws RestException The I/O threads could not be started
+	 */
+	public AsyncRestService(int maxTotal, int maxPerRoute, int connectTimeout, int socketTimeout) {
+		ThreadFactory threads = new RestThreadFactory("rest-async");
+		IOReactorConfig reactorConfig = IOReactorConfig.custom()
+				.setConnectTimeout(connectTimeout)
+				.setSoTimeout(socketTimeout)
+				.build();
+		try {
+			connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(reactorConfig, threads));
+		} catch (IOReactorException e) {
+			throw new RestException("Failed to start the I/O threads of the async client", e);
+		}
+		connectionManager.setMaxTotal(maxTotal);
+		connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(connectTimeout)
+				.setConnectionRequestTimeout(connectTimeout)
+				.setSocketTimeout(socketTimeout)
+				.build();
+
+		client = HttpAsyncClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setThreadFactory(threads)
+				.build();
+		client.start();
+	}
+
+	public String getUserAgent(){ return this.userAgent; }
+	public void setUserAgent(String userAgent){ this.userAgent = userAgent; }
+
+	/**
+	 * @return Number of requests sent by this service
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * @return Current leased, pending and available connection counts of the service
+	 */
+	public PoolStats getPoolStats() {
+		return connectionManager.getTotalStats();
+	}
+
+	public Future<RestResponse> sendGetRequest(String URL) {
+		return execute(new HttpGet(URL));
+	}
+
+	public Future<RestResponse> sendPostRequest(String URL, List<NameValuePair> params) {
+		return execute(withEntity(new HttpPost(URL), new UrlEncodedFormEntity(params, UTF8)));
+	}
+
+	public Future<RestResponse> sendPostRequest(String URL, HttpEntity entity) {
+		return execute(withEntity(new HttpPost(URL), entity));
+	}
+
+	public Future<RestResponse> sendPutRequest(String URL, List<NameValuePair> params) {
+		return execute(withEntity(new HttpPut(URL), new UrlEncodedFormEntity(params, UTF8)));
+	}
+
+	public Future<RestResponse> sendPatchRequest(String URL, List<NameValuePair> params) {
+		return execute(withEntity(new HttpPatch(URL), new UrlEncodedFormEntity(params, UTF8)));
+	}
+
+	/**
+	 * Depends on the service if a response is returned. If none is returned,
+	 * the body of the response is null.
+	 */
+	public Future<RestResponse> sendDeleteRequest(String URL) {
+		return execute(new HttpDelete(URL));
+	}
+
+	/**
+	 * The allowed methods are returned in a header of the response, usually Allow
+	 */
+	public Future<RestResponse> sendOptionsRequest(String URL) {
+		return execute(new HttpOptions(URL));
+	}
+
+	/**
+	 * @summary Sends any request without waiting for the response
+	 * @param request HttpUriRequest: Request to send
+	 * @return Future holding the response
+	 */
+	public Future<RestResponse> execute(HttpUriRequest request) {
+		return execute(request, null);
+	}
+
+	/**
+	 * @summary Sends any request without waiting for the response, and calls
+	 *          the callback given once it completes. The callback runs on one
+	 *          of the I/O threads, so it should return quickly.
+	 * @param request HttpUriRequest: Request to send
+	 * @param callback FutureCallback: Called with the response or failure, may be null
+	 * @return Future holding the response. Cancelling it aborts the request.
+	 */
+	public Future<RestResponse> execute(HttpUriRequest request, FutureCallback<RestResponse> callback) {
+		final String method = request.getMethod();
+		final String url = request.getURI().toString();
+		final long startTime = System.currentTimeMillis();
+		final long start = System.nanoTime();
+		final RequestFuture future = new RequestFuture(callback);
+
+		String agent = userAgent;
+		if (agent != null) request.setHeader(HttpHeaders.USER_AGENT, agent);
+		requests.incrementAndGet();
+
+		future.request = client.execute(request, new FutureCallback<HttpResponse>() {
+			@Override
+			public void completed(HttpResponse httpResponse) {
+				try {
+					HttpEntity entity = httpResponse.getEntity();
+					String body = entity == null ? null : EntityUtils.toString(entity);
+					if (body != null) PayloadLogger.log("REST RESPONSE [ " + method + " ] " + url, body);
+					future.completed(new RestResponse(method, url, httpResponse.getStatusLine().getStatusCode(),
+							ContentType.getOrDefault(entity).getMimeType().replace("application/", ""),
+							httpResponse.getAllHeaders(), body, startTime, System.nanoTime() - start));
+				} catch (IOException | RuntimeException e) {
+					future.failed(new RestException("Failed to read the response of the [ " + method + " ] request to [ " + url + " ]", e));
+				}
+			}
+
+			@Override
+			public void failed(Exception e) {
+				future.failed(new RestException("Failed to send the [ " + method + " ] request to [ " + url + " ]", e));
+			}
+
+			@Override
+			public void cancelled() {
+				future.cancel();
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * @summary Sends every request at once and waits until all responses have
+	 *          been received
+	 * @param requests Collection: Requests to send
+	 * @return Responses in the same order as the requests were given
+	 * @throws RestException One or more requests failed. Remaining requests
+	 *             are still completed before this is thrown.
+	 */
+	public List<RestResponse> sendAll(Collection<? extends HttpUriRequest> requests) {
+		List<Future<RestResponse>> futures = new ArrayList<Future<RestResponse>>(requests.size());
+		for (HttpUriRequest request : requests) {
+			futures.add(execute(request));
+		}
+		return awaitAll(futures);
+	}
+
+	/**
+	 * @summary Waits until every future has completed
+	 * @param futures Collection: Futures returned by this service
+	 * @return Responses in the same order as the futures were given
+	 * @throws RestException One or more requests failed. Remaining requests
+	 *             are still completed before this is thrown.
+	 */
+	public static List<RestResponse> awaitAll(Collection<Future<RestResponse>> futures) {
+		List<RestResponse> responses = new ArrayList<RestResponse>(futures.size());
+		Throwable failure = null;
+		int failures = 0;
+		try {
+			for (Future<RestResponse> future : futures) {
+				try {
+					responses.add(future.get());
+				} catch (ExecutionException ee) {
+					if (failure == null) failure = ee.getCause();
+					failures++;
+					responses.add(null);
+				}
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new RestException("Interrupted while waiting for responses", ie);
+		}
+
+		if (failure != null) {
+			throw new RestException(failures + " of " + futures.size() + " requests failed", failure);
+		}
+		return responses;
+	}
+
+	/**
+	 * @summary Stops the I/O threads and closes every connection. Requests
+	 *          still in flight fail.
+	 */
+	@Override
+	public void close() {
+		try {
+			client.close();
+		} catch (IOException ioe) {
+			// Client is shut down regardless
+		}
+	}
+
+	private static HttpUriRequest withEntity(HttpEntityEnclosingRequestBase request, HttpEntity entity) {
+		request.setEntity(entity);
+		return request;
+	}
+
+	/**
+	 * Future handed back to the caller, aborting the request it stands for
+	 * when cancelled
+	 */
+	private static class RequestFuture extends BasicFuture<RestResponse> {
+		private volatile Future<HttpResponse> request;
+
+		private RequestFuture(FutureCallback<RestResponse> callback) {
+			super(callback);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			Future<HttpResponse> sent = request;
+			if (cancelled && sent != null) sent.cancel(true);
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Daemon threads so open connections never keep the test JVM alive
+	 */
+	private static class RestThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		private final String prefix;
+
+		private RestThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
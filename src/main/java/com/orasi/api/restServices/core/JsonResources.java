@@ -0,0 +1,136 @@
+package com.orasi.api.restServices.core;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * @summary Jackson mapper shared by the REST services, with an ObjectReader
+ *          and ObjectWriter cached for each class mapped. Creating an
+ *          ObjectMapper and resolving the deserializer for a class costs far
+ *          more than mapping a typical response, so both are done once per
+ *          JVM rather than once per service or per call. Readers and writers
+ *          are immutable and safe to share between threads. <br>
+ *          <br>
+ *          Unknown properties are ignored, as they always have been by
+ *          {@link RestService}. Setting the system property
+ *          rest.json.afterburner to true registers Jackson's Afterburner
+ *          module, which replaces reflection with generated bytecode, when it
+ *          is on the classpath.
+ * @version Created: 10/18/2026
+ */
+public class JsonResources {
+	public static final String AFTERBURNER = "rest.json.afterburner";
+	private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+	private static boolean afterburner;
+	private static final ObjectMapper mapper = createMapper();
+	private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+	private static final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+	private JsonResources() {
+	}
+
+	/**
+	 * @return True if the Afterburner module was registered with the shared mapper
+	 */
+	public static boolean isAfterburnerEnabled() {
+		return afterburner;
+	}
+
+	/**
+	 * @summary Returns the shared mapper. Cached readers and writers keep the
+	 *          configuration the mapper had when they were created, so the
+	 *          mapper must not be reconfigured; configure a copy() instead.
+	 * @return The ObjectMapper shared by the REST services
+	 */
+	public static ObjectMapper getMapper() {
+		return mapper;
+	}
+
+	/**
+	 * @param clazz Class: Class to map JSON to
+	 * @return Reader for the class, created on first use
+	 */
+	public static ObjectReader getReader(Class<?> clazz) {
+		ObjectReader reader = readers.get(clazz);
+		if (reader == null) {
+			reader = mapper.reader(clazz);
+			ObjectReader cached = readers.putIfAbsent(clazz, reader);
+			if (cached != null) reader = cached;
+		}
+		return reader;
+	}
+
+	/**
+	 * @param clazz Class: Class to map to JSON
+	 * @return Writer for the class, created on first use
+	 */
+	public static ObjectWriter getWriter(Class<?> clazz) {
+		ObjectWriter writer = writers.get(clazz);
+		if (writer == null) {
+			writer = mapper.writerFor(clazz);
+			ObjectWriter cached = writers.putIfAbsent(clazz, writer);
+			if (cached != null) writer = cached;
+		}
+		return writer;
+	}
+
+	/**
+	 * @param json String: JSON to map
+	 * @param clazz Class: Class to map the JSON to
+	 * @return Instance of the class
+	 * @throws IOException The JSON is not valid for the class
+	 */
+	public static <T> T readValue(String json, Class<T> clazz) throws IOException {
+		return getReader(clazz).readValue(json);
+	}
+
+	/**
+	 * @param json String: JSON to read
+	 * @return JSON as a tree
+	 * @throws IOException The JSON is not valid
+	 */
+	public static JsonNode readTree(String json) throws IOException {
+		return mapper.readTree(json);
+	}
+
+	/**
+	 * @param value Object: Object to map to JSON
+	 * @return JSON of the object
+	 * @throws JsonProcessingException The object cannot be mapped to JSON
+	 */
+	public static String writeValueAsString(Object value) throws JsonProcessingException {
+		if (value == null) return mapper.writeValueAsString(null);
+		return getWriter(value.getClass()).writeValueAsString(value);
+	}
+
+	/**
+	 * @return Number of classes with a cached reader
+	 */
+	public static int getReaderCount() {
+		return readers.size();
+	}
+
+	private static ObjectMapper createMapper() {
+		ObjectMapper mapper = new ObjectMapper().
+				configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		if (Boolean.getBoolean(AFTERBURNER)) {
+			try {
+				mapper.registerModule((Module) Class.forName(AFTERBURNER_MODULE).newInstance());
+				afterburner = true;
+			} catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+				// Afterburner is optional, mapping works the same without it
+			}
+		}
+		return mapper;
+	}
+}
@@ -0,0 +1,152 @@
+package com.orasi.api.restServices.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ContentType;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.orasi.api.restServices.core.exceptions.RestException;
+
+/**
+ * @summary JSON response read straight from the connection, without
+ *          buffering the body as a String. Large lists can be processed an
+ *          element at a time with {@link #readValues(Class)} or
+ *          {@link #readValues(String, Class)}, or token by token with
+ *          {@link #getParser()}. <br>
+ *          <br>
+ *          The stream holds its connection until it is closed. If the body
+ *          was read to the end, the connection is returned to the pool,
+ *          otherwise it is discarded so the rest of the body is not
+ *          downloaded.
+ * @version Created: 10/18/2026
+ */
+public class JsonResponseStream implements Closeable {
+	private final String method;
+	private final String url;
+	private final CloseableHttpResponse httpResponse;
+	private final InputStream body;
+	private final JsonParser parser;
+	private boolean closed = false;
+
+	JsonResponseStream(String method, String url, CloseableHttpResponse httpResponse) throws IOException {
+		this.method = method;
+		this.url = url;
+		this.httpResponse = httpResponse;
+
+		HttpEntity entity = httpResponse.getEntity();
+		if (entity == null) throw new RestException("No response body was returned by the [ " + method + " ] request to [ " + url + " ]");
+		body = entity.getContent();
+		parser = JsonResources.getMapper().getFactory().createParser(body);
+		// The body is closed here so it is only drained when the connection can be reused
+		parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+	}
+
+	public int getStatusCode() {
+		return httpResponse.getStatusLine().getStatusCode();
+	}
+
+	public String getResponseFormat() {
+		return ContentType.getOrDefault(httpResponse.getEntity()).getMimeType().replace("application/", "");
+	}
+
+	public Header[] getHeaders() {
+		return httpResponse.getAllHeaders();
+	}
+
+	/**
+	 * @return Parser reading the body, for callers that walk the tokens themselves
+	 */
+	public JsonParser getParser() {
+		return parser;
+	}
+
+	/**
+	 * @summary Iterates over the elements of a response that is a JSON array,
+	 *          mapping each to the class given as it is read
+	 * @param clazz Class: Class to map each element to
+	 * @return Iterator over the elements of the array
+	 * @throws RestException The response is not an array, or could not be read
+	 */
+	public <T> MappingIterator<T> readValues(Class<T> clazz) {
+		try {
+			JsonToken token = parser.getCurrentToken() == null ? parser.nextToken() : parser.getCurrentToken();
+			if (token != JsonToken.START_ARRAY) {
+				throw new RestException("Response of the [ " + method + " ] request to [ " + url + " ] is not a JSON array, found [ " + token + " ]");
+			}
+			return iterate(clazz);
+		} catch (IOException e) {
+			throw new RestException("Failed to read the response of the [ " + method + " ] request to [ " + url + " ]", e);
+		}
+	}
+
+	/**
+	 * @summary Iterates over the elements of the first array held by the field
+	 *          given, e.g. "items" in {"count": 2, "items": [{...}, {...}]}.
+	 *          Everything read before the field is skipped without being mapped.
+	 * @param field String: Name of the field holding the array, at any depth
+	 * @param clazz Class: Class to map each element to
+	 * @return Iterator over the elements of the array
+	 * @throws RestException No array is held by the field, or the response could not be read
+	 */
+	public <T> MappingIterator<T> readValues(String field, Class<T> clazz) {
+		try {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (token == JsonToken.FIELD_NAME && field.equals(parser.getCurrentName())) {
+					if (parser.nextToken() == JsonToken.START_ARRAY) return iterate(clazz);
+					parser.skipChildren();
+				}
+			}
+			throw new RestException("No array field [ " + field + " ] was found in the response of the [ " + method + " ] request to [ " + url + " ]");
+		} catch (IOException e) {
+			throw new RestException("Failed to read the response of the [ " + method + " ] request to [ " + url + " ]", e);
+		}
+	}
+
+	/**
+	 * Clears the start of the array so the iterator reads its elements one by
+	 * one and stops at the end of the array
+	 */
+	private <T> MappingIterator<T> iterate(Class<T> clazz) throws IOException {
+		parser.clearCurrentToken();
+		return JsonResources.getReader(clazz).readValues(parser);
+	}
+
+	/**
+	 * @return True once the whole of the top level JSON value has been read
+	 */
+	private boolean isFullyRead() {
+		return parser.getParsingContext().inRoot() && parser.getParsingContext().getEntryCount() > 0;
+	}
+
+	/**
+	 * @summary Releases the connection. The connection is kept for reuse if
+	 *          the body was read to the end, and discarded otherwise.
+	 */
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		try {
+			boolean reusable = isFullyRead();
+			parser.close();
+			// Closing the body reads whatever is left of it, which is only whitespace once fully read
+			if (reusable) body.close();
+		} catch (IOException e) {
+			// The connection is discarded rather than returned to the pool
+		} finally {
+			try {
+				httpResponse.close();
+			} catch (IOException e) {
+				// The connection is discarded rather than returned to the pool
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.orasi.api.restServices.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * @summary Pooled Apache HttpClient used by {@link RestService}. Connections
+ *          are kept alive between requests, so consecutive requests to the
+ *          same host reuse the TCP (and TLS) connection instead of opening a
+ *          new one every time. Safe to share between threads. <br>
+ *          <br>
+ *          Connections are kept for as long as the server's Keep-Alive header
+ *          allows, or the keep alive given here if the server does not say.
+ *          Connections left idle longer than the idle timeout are closed in
+ *          the background.
+ * @version Created: 10/18/2026
+ */
+public class RestClientPool implements Closeable {
+	public static final int DEFAULT_MAX_TOTAL = 200;
+	public static final int DEFAULT_MAX_PER_ROUTE = 50;
+	public static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+	public static final int DEFAULT_SOCKET_TIMEOUT = 60000;
+	public static final long DEFAULT_KEEP_ALIVE = 30000;
+	public static final long DEFAULT_IDLE_TIMEOUT = 30000;
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient client;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong connectionsCreated = new AtomicLong();
+
+	public RestClientPool() {
+		this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_CONNECT_TIMEOUT, DEFAULT_SOCKET_TIMEOUT, DEFAULT_KEEP_ALIVE, DEFAULT_IDLE_TIMEOUT);
+	}
+
+	/**
+	 * @param maxTotal int: Maximum number of open connections across all hosts
+	 * @param maxPerRoute int: Maximum number of open connections to a single host
+	 * @param connectTimeout int: Milliseconds to wait for a connection to be established or leased from the pool
+	 * @param socketTimeout int: Milliseconds to wait for data from the server before failing
+	 * @param keepAlive long: Milliseconds a connection is kept open for reuse when the server does not say
+	 * @param idleTimeout long: Milliseconds a connection may sit unused in the pool before it is closed
+	 */
+	public RestClientPool(int maxTotal, int maxPerRoute, int connectTimeout, int socketTimeout, final long keepAlive, long idleTimeout) {
+		connectionManager = new PoolingHttpClientConnectionManager(new CountingConnectionFactory());
+		connectionManager.setMaxTotal(maxTotal);
+		connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(connectTimeout)
+				.setConnectionRequestTimeout(connectTimeout)
+				.setSocketTimeout(socketTimeout)
+				.build();
+
+		client = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+					@Override
+					public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+						long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+						return duration > 0 ? duration : keepAlive;
+					}
+				})
+				.evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS)
+				.evictExpiredConnections()
+				.build();
+	}
+
+	/**
+	 * @summary Sends a request through the pool. The response must be closed,
+	 *          or its entity read to the end, to return the connection to the pool.
+	 * @param request HttpUriRequest: Request to send
+	 * @return Response of the server
+	 * @throws IOException The request could not be sent or the response read
+	 */
+	public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+		requests.incrementAndGet();
+		return client.execute(request);
+	}
+
+	/**
+	 * @return Client the pool sends requests with, for calls RestService does not cover
+	 */
+	public CloseableHttpClient getClient() {
+		return client;
+	}
+
+	/**
+	 * @return Number of requests sent through this pool
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * @return Number of new connections opened by this pool
+	 */
+	public long getConnectionsCreated() {
+		return connectionsCreated.get();
+	}
+
+	/**
+	 * @return Number of requests that were sent over an already open connection
+	 */
+	public long getConnectionsReused() {
+		return Math.max(0, requests.get() - connectionsCreated.get());
+	}
+
+	/**
+	 * @return Current leased, pending and available connection counts of the pool
+	 */
+	public PoolStats getPoolStats() {
+		return connectionManager.getTotalStats();
+	}
+
+	/**
+	 * @summary Closes every connection of the pool. Requests cannot be sent
+	 *          through the pool afterwards.
+	 */
+	@Override
+	public void close() {
+		try {
+			client.close();
+		} catch (IOException ioe) {
+			// Pool is shut down regardless
+		}
+	}
+
+	/**
+	 * Creates connections exactly as the default factory does, counting them
+	 * along the way so reuse can be reported
+	 */
+	private class CountingConnectionFactory implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+		@Override
+		public ManagedHttpClientConnection create(HttpRoute route, ConnectionConfig config) {
+			connectionsCreated.incrementAndGet();
+			return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.orasi.api.restServices.core;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.orasi.api.restServices.core.exceptions.RestException;
+
+/**
+ * @summary Response to a single request sent by {@link AsyncRestService}.
+ *          Nothing about it changes once it is created, so it can be passed
+ *          between threads and kept after other requests have been sent.
+ * @version Created: 10/18/2026
+ */
+public class RestResponse {
+	private static final Header[] NO_HEADERS = new Header[0];
+
+	private final String method;
+	private final String url;
+	private final int statusCode;
+	private final String responseFormat;
+	private final Header[] headers;
+	private final String body;
+	private final long startTime;
+	private final long elapsedNanos;
+
+	RestResponse(String method, String url, int statusCode, String responseFormat, Header[] headers, String body, long startTime, long elapsedNanos) {
+		this.method = method;
+		this.url = url;
+		this.statusCode = statusCode;
+		this.responseFormat = responseFormat;
+		this.headers = headers == null ? NO_HEADERS : headers.clone();
+		this.body = body;
+		this.startTime = startTime;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getURL() {
+		return url;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return Mime type of the body without "application/", e.g. json
+	 */
+	public String getResponseFormat() {
+		return responseFormat;
+	}
+
+	/**
+	 * @return Copy of every header of the response
+	 */
+	public Header[] getHeaders() {
+		return headers.clone();
+	}
+
+	/**
+	 * @param name String: Name of the header, in any case
+	 * @return Value of the first header with the name given, or null if there is none
+	 */
+	public String getHeader(String name) {
+		for (Header header : headers) {
+			if (header.getName().equalsIgnoreCase(name)) return header.getValue();
+		}
+		return null;
+	}
+
+	/**
+	 * @return Body of the response, or null if none was returned
+	 */
+	public String getBody() {
+		return body;
+	}
+
+	/**
+	 * @return Time in milliseconds since the epoch the request was sent
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @param unit TimeUnit: Unit to return the time in
+	 * @return Time from sending the request until the whole response was read
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param clazz Class: Class to map the body to
+	 * @return Body of the response mapped to the class given
+	 * @throws RestException The body is not valid JSON for the class
+	 */
+	public <T> T mapJSONToObject(Class<T> clazz) {
+		try {
+			return JsonResources.readValue(body, clazz);
+		} catch (IOException e) {
+			throw new RestException("Failed to map the response of the [ " + method + " ] request to [ " + url + " ] to [ " + clazz.getName() + " ]", e);
+		}
+	}
+
+	/**
+	 * @return Body of the response as a JSON tree
+	 * @throws RestException The body is not valid JSON
+	 */
+	public JsonNode mapJSONToTree() {
+		try {
+			return JsonResources.readTree(body);
+		} catch (IOException e) {
+			throw new RestException("Failed to read the response of the [ " + method + " ] request to [ " + url + " ] as JSON", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + url + " [ " + statusCode + " ] in " + getElapsed(TimeUnit.MILLISECONDS) + "ms";
+	}
+}
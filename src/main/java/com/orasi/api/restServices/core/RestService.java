@@ -3,18 +3,19 @@ package com.orasi.api.restServices.core;
 /**
  * Just playing around with some different ways of using rest services with Jackson 
  */
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.util.List;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.ParseException;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
@@ -23,23 +24,22 @@ import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpOptions;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.ContentType;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orasi.api.restServices.core.exceptions.RestException;
+import com.orasi.utils.PayloadLogger;
 
-public class RestService {
+public class RestService implements Closeable {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static RestClientPool defaultClientPool = null;
+
+	private RestClientPool clientPool = null;
 	private int statusCode = 0;
 	private String responseFormat;
 	private String responseAsString = null;
 	private String userAgent; 
 	
-	private ObjectMapper mapper = new ObjectMapper().
-		      configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-	
 	//constructor
 	public RestService() {}
 	
@@ -53,36 +53,73 @@ public class RestService {
 	public String getResponseFormat(){ return responseFormat; }	
 	private void setResponseFormat(HttpResponse httpResponse){ responseFormat = ContentType.getOrDefault(httpResponse.getEntity()).getMimeType().replace("application/", "");	}
 	
+	/**
+	 * @summary Return the pool requests are sent through. Unless one was set
+	 *          with {@link #setClientPool(RestClientPool)}, the pool shared by
+	 *          all services is used.
+	 * @return Returns the RestClientPool for this service
+	 */
+	public RestClientPool getClientPool() {
+		return clientPool != null ? clientPool : getDefaultClientPool();
+	}
+
+	/**
+	 * @summary Used to override the pool for this service only. The pool is
+	 *          closed by {@link #close()}.
+	 * @param clientPool RestClientPool: Pool to send requests through
+	 */
+	public void setClientPool(RestClientPool clientPool) {
+		this.clientPool = clientPool;
+	}
+
+	/**
+	 * @summary Return the pool shared by all services. A {@link RestClientPool}
+	 *          is created on first use.
+	 * @return Returns the shared RestClientPool
+	 */
+	public static synchronized RestClientPool getDefaultClientPool() {
+		if (defaultClientPool == null) defaultClientPool = new RestClientPool();
+		return defaultClientPool;
+	}
+
+	/**
+	 * @summary Replace the pool shared by all services. The previous pool is
+	 *          not closed.
+	 * @param clientPool RestClientPool: Pool to send requests through
+	 */
+	public static synchronized void setDefaultClientPool(RestClientPool clientPool) {
+		defaultClientPool = clientPool;
+	}
+
+	/**
+	 * @summary Closes the pool shared by all services, e.g. at the end of a
+	 *          suite. A new pool is created if a request is sent afterwards.
+	 */
+	public static synchronized void closeDefaultClientPool() {
+		if (defaultClientPool != null) defaultClientPool.close();
+		defaultClientPool = null;
+	}
+
+	/**
+	 * @summary Closes the pool set on this service with
+	 *          {@link #setClientPool(RestClientPool)}. The shared pool is left
+	 *          open for other services.
+	 */
+	@Override
+	public void close() {
+		if (clientPool != null) clientPool.close();
+		clientPool = null;
+	}
+
 	/**
 	 * Sends a GET request
 	 * 
 	 * @param 	URL for the service you are testing
 	 * @return 	response in string format
-	 * @throws 	ClientProtocolException
-	 * @throws 	IOException
+	 * @throws 	RestException The request could not be sent or the response read
 	 */
 	public String sendGetRequest(String URL){
-		HttpUriRequest request = new HttpGet(URL);
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = HttpClientBuilder.create().setUserAgent(getUserAgent()).build().execute( request );
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		try {
-			responseAsString = EntityUtils.toString(httpResponse.getEntity());
-		} catch (ParseException | IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		System.out.println("String response: " + responseAsString);
-		
-		return responseAsString;
+		return send("GET", URL, new HttpGet(URL));
 	}
 	
 	/**
@@ -91,141 +128,39 @@ public class RestService {
 	 * @param 	URL		for the service
 	 * @param 	params	arguments to update
 	 * @return 	response in string format
-	 * @throws 	ClientProtocolException
-	 * @throws 	IOException
+	 * @throws 	RestException The request could not be sent or the response read
 	 */
 	public String sendPostRequest(String URL, List<NameValuePair> params){
-		
-		HttpClient httpclient = HttpClients.createDefault();
 		HttpPost httppost = new HttpPost(URL);
-		try {
-			httppost.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
-		} catch (UnsupportedEncodingException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = httpclient.execute(httppost);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		try {
-			responseAsString = EntityUtils.toString(httpResponse.getEntity());
-		} catch (ParseException | IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		System.out.println("String response: " + responseAsString);		
-		
-		return responseAsString;
+		httppost.setEntity(new UrlEncodedFormEntity(params, UTF8));
+		return send("POST", URL, httppost);
 	}
 	
 	public String sendPostRequest(String URL, HttpEntity entity){
-		
-		 HttpClient httpClient = HttpClientBuilder.create().build(); //Use this instead 
-		 HttpPost httppost = new HttpPost(URL);
-		
+		HttpPost httppost = new HttpPost(URL);
 		httppost.setEntity(entity);
-		//httppost.addHeader("content-type","application/json");
-		//httppost.addHeader("content-type","application/json");
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = httpClient.execute(httppost);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		try {
-			responseAsString = EntityUtils.toString(httpResponse.getEntity());
-		} catch (ParseException | IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-	//	System.out.println("String response: " + responseAsString);		
-		
-		return responseAsString;
+		return send("POST", URL, httppost);
 	}
 	
 	public String sendPostRequest(String URL, List<NameValuePair> params, HttpEntity contentBody){
-		
-		 HttpClient httpClient = HttpClientBuilder.create().build(); //Use this instead 
-		 HttpPost httppost = new HttpPost(URL);
-		
-		try {
-		    httppost.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
-		} catch (UnsupportedEncodingException e1) {
-		    // TODO Auto-generated catch block
-		    e1.printStackTrace();
-		}
+		// The content body replaces the form parameters as the entity sent
+		HttpPost httppost = new HttpPost(URL);
 		httppost.setEntity(contentBody);
-		
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = httpClient.execute(httppost);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		try {
-			responseAsString = EntityUtils.toString(httpResponse.getEntity());
-		} catch (ParseException | IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-	//	System.out.println("String response: " + responseAsString);		
-		
-		return responseAsString;
+		return send("POST", URL, httppost);
 	}
+
 	/**
 	 * Sends a put (create) request, pass in the parameters for the json arguments to create
 	 * 
 	 * @param 	URL		for the service
 	 * @param 	params	arguments to update
 	 * @return 	response in string format
-	 * @throws 	ClientProtocolException
-	 * @throws 	IOException
+	 * @throws 	RestException The request could not be sent or the response read
 	 */
 	public String sendPutRequest(String URL, List<NameValuePair> params){
-		HttpClient httpclient = HttpClients.createDefault();
 		HttpPut putRequest = new HttpPut(URL);
-		try {
-			putRequest.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
-		} catch (UnsupportedEncodingException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = httpclient.execute(putRequest);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		try {
-			responseAsString = EntityUtils.toString(httpResponse.getEntity());
-		} catch (ParseException | IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		System.out.println("String response: " + responseAsString);
-		
-		return responseAsString;
+		putRequest.setEntity(new UrlEncodedFormEntity(params, UTF8));
+		return send("PUT", URL, putRequest);
 	}
 	
 	/**
@@ -234,38 +169,12 @@ public class RestService {
 	 * @param 	URL		for the service
 	 * @param 	params	arguments to update
 	 * @return 	response in string format
-	 * @throws 	ClientProtocolException
-	 * @throws 	IOException
+	 * @throws 	RestException The request could not be sent or the response read
 	 */
 	public String sendPatchRequest(String URL, List<NameValuePair> params){
-		HttpClient httpclient = HttpClients.createDefault();
 		HttpPatch patchRequest = new HttpPatch(URL);
-		try {
-			patchRequest.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
-		} catch (UnsupportedEncodingException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = httpclient.execute(patchRequest);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		try {
-			responseAsString = EntityUtils.toString(httpResponse.getEntity());
-		} catch (ParseException | IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		System.out.println("String response: " + responseAsString);
-		
-		return responseAsString;
+		patchRequest.setEntity(new UrlEncodedFormEntity(params, UTF8));
+		return send("PATCH", URL, patchRequest);
 	}
 	
 	/**
@@ -274,34 +183,10 @@ public class RestService {
 	 * 
 	 * @param 	URL		for the service
 	 * @return 	response in string format or null
-	 * @throws 	ClientProtocolException
-	 * @throws 	IOException
+	 * @throws 	RestException The request could not be sent or the response read
 	 */
 	public String sendDeleteRequest(String URL){
-
-		HttpUriRequest deleteRequest = new HttpDelete(URL);
-		HttpResponse httpResponse = null;
-		try {
-			httpResponse = HttpClientBuilder.create().build().execute( deleteRequest );
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		if (httpResponse.getEntity()!=null){
-			try {
-				responseAsString = EntityUtils.toString(httpResponse.getEntity());
-			} catch (ParseException | IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			System.out.println("String response: " + responseAsString);
-		}		
-		
-		return responseAsString;
+		return send("DELETE", URL, new HttpDelete(URL));
 	}
 	
 	/**
@@ -315,30 +200,115 @@ public class RestService {
 	 * 
 	 * @param 	URL		for the service
 	 * @return 	returns an array of headers
-	 * @throws 	ClientProtocolException
-	 * @throws 	IOException
+	 * @throws 	RestException The request could not be sent or the response read
 	 */
 	public Header[] sendOptionsRequest(String URL ){
-		HttpClient httpclient = HttpClients.createDefault();
-		HttpOptions httpOptions=new HttpOptions(URL);
-		
-		HttpResponse httpResponse = null;
+		CloseableHttpResponse httpResponse = execute("OPTIONS", URL, new HttpOptions(URL));
 		try {
-			httpResponse = httpclient.execute(httpOptions);
+			Header[] headers = httpResponse.getAllHeaders();
+			if (PayloadLogger.isEnabled()) {
+				StringBuilder headerLog = new StringBuilder();
+				for (Header header: headers ){	
+					headerLog.append(header.getName() + " : " + header.getValue() + "\n");
+				}
+				PayloadLogger.log("REST RESPONSE HEADERS [ OPTIONS ] " + URL, headerLog.toString());
+			}
+			
+			setStatusCode(httpResponse);		
+			setResponseFormat(httpResponse);
+			
+			// Read any body so the connection goes back to the pool for reuse
+			EntityUtils.consume(httpResponse.getEntity());
+			return headers;
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			throw new RestException("Failed to read the response of the [ OPTIONS ] request to [ " + URL + " ]", e);
+		} finally {
+			close(httpResponse);
 		}
-		System.out.println("Response Headers: ");
-		Header[] headers = httpResponse.getAllHeaders();
-		for (Header header: headers ){	
-			System.out.println(header.getName() + " : " + header.getValue());
+	}
+
+	/**
+	 * Sends a GET request and streams the JSON response instead of reading it
+	 * into a String, for list endpoints too large to buffer. The response is
+	 * not kept by the service, so it cannot be mapped afterwards with
+	 * {@link #mapJSONToObject(Class)}.
+	 *
+	 * @param 	URL		for the service
+	 * @return 	stream over the response, which must be closed to release the connection
+	 * @throws 	RestException The request could not be sent or no body was returned
+	 */
+	public JsonResponseStream streamGetRequest(String URL){
+		return stream("GET", URL, new HttpGet(URL));
+	}
+
+	/**
+	 * Sends a post request and streams the JSON response instead of reading it
+	 * into a String
+	 *
+	 * @param 	URL		for the service
+	 * @param 	entity	body of the request
+	 * @return 	stream over the response, which must be closed to release the connection
+	 * @throws 	RestException The request could not be sent or no body was returned
+	 */
+	public JsonResponseStream streamPostRequest(String URL, HttpEntity entity){
+		HttpPost httppost = new HttpPost(URL);
+		httppost.setEntity(entity);
+		return stream("POST", URL, httppost);
+	}
+
+	private JsonResponseStream stream(String method, String URL, HttpUriRequest request) {
+		CloseableHttpResponse httpResponse = execute(method, URL, request);
+		try {
+			setStatusCode(httpResponse);
+			setResponseFormat(httpResponse);
+			responseAsString = null;
+			PayloadLogger.log("REST RESPONSE [ " + method + " ] " + URL, "(streamed)");
+			return new JsonResponseStream(method, URL, httpResponse);
+		} catch (IOException | RuntimeException e) {
+			close(httpResponse);
+			if (e instanceof RestException) throw (RestException) e;
+			throw new RestException("Failed to read the response of the [ " + method + " ] request to [ " + URL + " ]", e);
+		}
+	}
+
+	/**
+	 * Sends a request through the pool and reads the response, returning the
+	 * connection to the pool once the body has been read
+	 */
+	private String send(String method, String URL, HttpUriRequest request) {
+		CloseableHttpResponse httpResponse = execute(method, URL, request);
+		try {
+			setStatusCode(httpResponse);		
+			setResponseFormat(httpResponse);
+
+			responseAsString = null;
+			if (httpResponse.getEntity() != null) {
+				responseAsString = EntityUtils.toString(httpResponse.getEntity());
+				PayloadLogger.log("REST RESPONSE [ " + method + " ] " + URL, responseAsString);
+			}
+			return responseAsString;
+		} catch (ParseException | IOException e) {
+			throw new RestException("Failed to read the response of the [ " + method + " ] request to [ " + URL + " ]", e);
+		} finally {
+			close(httpResponse);
+		}
+	}
+
+	private CloseableHttpResponse execute(String method, String URL, HttpUriRequest request) {
+		if (getUserAgent() != null) request.setHeader(HttpHeaders.USER_AGENT, getUserAgent());
+		try {
+			return getClientPool().execute(request);
+		} catch (IOException e) {
+			throw new RestException("Failed to send the [ " + method + " ] request to [ " + URL + " ]", e);
+		}
+	}
+
+	private static void close(CloseableHttpResponse httpResponse) {
+		try {
+			httpResponse.close();
+		} catch (IOException e) {
+			// The connection is discarded rather than returned to the pool
 		}
-		
-		setStatusCode(httpResponse);		
-		setResponseFormat(httpResponse);
-		
-		return headers;
 	}
 	
 	/**
@@ -352,14 +322,15 @@ public class RestService {
 	}
 	
 	/**
-	 * Can pass in any json as a string and map to object
+	 * Can pass in any json as a string and map to object. The reader for the
+	 * class is shared by all services, see {@link JsonResources}
 	 * @param clazz
 	 * @return
 	 * @throws IOException
 	 */
 	public <T> T mapJSONToObject(String stringResponse, Class<T> clazz){
 		try {
-			return mapper.readValue(stringResponse, clazz);
+			return JsonResources.readValue(stringResponse, clazz);
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -376,7 +347,7 @@ public class RestService {
 	public JsonNode mapJSONToTree(String stringResponse){
 				
 		try {
-			return mapper.readTree(stringResponse);
+			return JsonResources.readTree(stringResponse);
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -0,0 +1,19 @@
+package com.orasi.api.restServices.core.exceptions;
+
+import com.orasi.api.WebServiceException;
+
+public class RestException extends WebServiceException{
+	private static final long serialVersionUID = 4460383342765209451L;
+
+	public RestException(){
+		super("REST Error:");
+	}
+	
+	public RestException(String message){
+		super("REST Error: " +  message);
+	}
+	
+	public RestException(String message, Throwable cause){
+		super("REST Error: " + message, cause);
+	}
+}
@@ -0,0 +1,259 @@
+package com.orasi.api.soapServices.core;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.transform.TransformerException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.api.soapServices.core.exceptions.XPathNotFoundException;
+import com.orasi.utils.XMLTools;
+import com.orasi.utils.XPathCache;
+import com.orasi.utils.XmlResources;
+
+/**
+ * @summary A request compiled once into the bytes sent on the wire, with
+ *          named slots where values change from one call to the next.
+ *          Rendering a request only copies the fixed bytes and writes the
+ *          escaped slot values between them, so data driven runs of the same
+ *          request do not clone a Document or evaluate an xpath per row. <br>
+ *          <br>
+ *          Each slot is an xpath to a single element or attribute of the
+ *          operation's request, written the same way as for
+ *          {@link SoapService#setRequestNodeValueByXPath(String, String)}.
+ *          Values are written as is; the value:, attribute: and fx: syntax is
+ *          not supported. A slot given no value keeps the value the request
+ *          held when the template was compiled. <br>
+ *          <br>
+ *          Example: <br>
+ *          <code>GetInfoByState getInfo = new GetInfoByState(); <br>
+ *          Map&lt;String, String&gt; slots = new LinkedHashMap&lt;String, String&gt;(); <br>
+ *          slots.put("state", "/Envelope/Body/GetInfoByState/USState"); <br>
+ *          RequestTemplate template = new RequestTemplate(getInfo, slots); <br>
+ *          getInfo.sendRequest(template, "CO");</code> <br>
+ *          Templates are immutable and may be shared between threads.
+ * @version Created: 10/18/2026
+ */
+public class RequestTemplate {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	// Private use characters that cannot appear in a request or be escaped
+	// when it is printed
+	private static final char MARKER_START = '\uE000';
+	private static final char MARKER_END = '\uE001';
+
+	private final List<String> names;
+	private final String[] defaults;
+	private final boolean[] attributes;
+	private final String envelopeNamespace;
+	/** Fixed bytes of the request, one more than the number of slots */
+	private final byte[][] segments;
+	/** Slot written after each segment but the last */
+	private final int[] order;
+	private final int fixedLength;
+
+	/**
+	 * @summary Compiles the request currently held by an operation
+	 * @param operation SoapService: Operation whose request is compiled. The
+	 *            request is copied and the operation is not changed.
+	 * @param slots Map: Slot names mapped to the xpath of the element or
+	 *            attribute they fill, in the order values are given to
+	 *            {@link #render(Object...)}
+	 * @throws XPathNotFoundException A slot's xpath does not match a node
+	 * @throws SoapException A slot's xpath matches more than one node, or the request could not be compiled
+	 */
+	public RequestTemplate(SoapService operation, Map<String, String> slots) {
+		this(operation.getRequestDocument(), slots);
+	}
+
+	/**
+	 * @summary Compiles a request Document
+	 * @param request Document: Request to compile. The Document is copied and not changed.
+	 * @param slots Map: Slot names mapped to the xpath of the element or
+	 *            attribute they fill, in the order values are given to
+	 *            {@link #render(Object...)}
+	 * @throws XPathNotFoundException A slot's xpath does not match a node
+	 * @throws SoapException A slot's xpath matches more than one node, or the request could not be compiled
+	 */
+	public RequestTemplate(Document request, Map<String, String> slots) {
+		if (request == null) throw new SoapException("No request Document has been loaded to compile");
+		Document copy = (Document) request.cloneNode(true);
+		names = Collections.unmodifiableList(new ArrayList<String>(slots.keySet()));
+		defaults = new String[names.size()];
+		attributes = new boolean[names.size()];
+		envelopeNamespace = XMLTools.getNamespaceURI(copy.getDocumentElement());
+
+		int slot = 0;
+		for (Map.Entry<String, String> entry : slots.entrySet()) {
+			Node node = getSlotNode(copy, entry.getKey(), entry.getValue());
+			defaults[slot] = node.getTextContent();
+			String marker = MARKER_START + String.valueOf(slot) + MARKER_END;
+			switch (node.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				while (node.getFirstChild() != null) {
+					node.removeChild(node.getFirstChild());
+				}
+				node.appendChild(copy.createTextNode(marker));
+				break;
+			case Node.ATTRIBUTE_NODE:
+				attributes[slot] = true;
+				node.setNodeValue(marker);
+				break;
+			case Node.TEXT_NODE:
+				node.setNodeValue(marker);
+				break;
+			default:
+				throw new SoapException("Slot [ " + entry.getKey() + " ] must be an element, attribute or text node. Xpath given was [ " + entry.getValue() + " ]");
+			}
+			slot++;
+		}
+
+		String xml;
+		try {
+			xml = new String(XmlResources.toByteArray(copy), UTF8);
+		} catch (TransformerException te) {
+			throw new SoapException("Failed to compile the request template", te);
+		}
+
+		// Split the printed request around the markers, which may appear in
+		// any order
+		segments = new byte[names.size() + 1][];
+		order = new int[names.size()];
+		int length = 0;
+		int position = 0;
+		for (int index = 0; index < order.length; index++) {
+			int start = xml.indexOf(MARKER_START, position);
+			int end = start < 0 ? -1 : xml.indexOf(MARKER_END, start);
+			if (end < 0) throw new SoapException("Failed to compile the request template. Slot markers were altered when printing the request.");
+			segments[index] = xml.substring(position, start).getBytes(UTF8);
+			order[index] = Integer.parseInt(xml.substring(start + 1, end));
+			length += segments[index].length;
+			position = end + 1;
+		}
+		segments[order.length] = xml.substring(position).getBytes(UTF8);
+		fixedLength = length + segments[order.length].length;
+	}
+
+	private static Node getSlotNode(Document document, String name, String xpath) {
+		NodeList nodes;
+		try {
+			nodes = (NodeList) XPathCache.compile(xpath).evaluate(document, XPathConstants.NODESET);
+		} catch (XPathExpressionException xpee) {
+			throw new SoapException("Slot [ " + name + " ] has an invalid xpath [ " + xpath + " ]", xpee);
+		}
+		if (nodes.getLength() == 0) throw new XPathNotFoundException(xpath);
+		if (nodes.getLength() > 1) {
+			throw new SoapException("Slot [ " + name + " ] matches " + nodes.getLength() + " nodes with the xpath [ " + xpath + " ]. A slot must match a single node.");
+		}
+		return nodes.item(0);
+	}
+
+	/**
+	 * @return Names of the slots, in the order values are given to {@link #render(Object...)}
+	 */
+	public List<String> getSlotNames() {
+		return names;
+	}
+
+	/**
+	 * @return Namespace of the request's SOAP Envelope
+	 */
+	public String getEnvelopeNamespace() {
+		return envelopeNamespace;
+	}
+
+	/**
+	 * @summary Renders the request with values given by slot name
+	 * @param values Map: Slot names mapped to their values. Slots not in the
+	 *            map keep their compiled value.
+	 * @return UTF-8 encoded request
+	 */
+	public byte[] render(Map<String, ?> values) {
+		for (String name : values.keySet()) {
+			if (!names.contains(name)) throw new IllegalArgumentException("No slot named [ " + name + " ]. Slots are " + names);
+		}
+		Object[] ordered = new Object[names.size()];
+		for (int slot = 0; slot < ordered.length; slot++) {
+			ordered[slot] = values.get(names.get(slot));
+		}
+		return render(ordered);
+	}
+
+	/**
+	 * @summary Renders the request with values given in the order of the
+	 *          slots, e.g. a row of a data provider
+	 * @param values Object...: Values of the slots. Null or missing values
+	 *            keep their compiled value.
+	 * @return UTF-8 encoded request
+	 */
+	public byte[] render(Object... values) {
+		if (values.length > names.size()) {
+			throw new IllegalArgumentException("Template has " + names.size() + " slots but " + values.length + " values were given");
+		}
+
+		byte[][] encoded = new byte[order.length][];
+		int length = fixedLength;
+		for (int index = 0; index < order.length; index++) {
+			int slot = order[index];
+			Object value = slot < values.length ? values[slot] : null;
+			encoded[index] = escape(value == null ? defaults[slot] : value.toString(), attributes[slot]).getBytes(UTF8);
+			length += encoded[index].length;
+		}
+
+		byte[] request = new byte[length];
+		int position = 0;
+		for (int index = 0; index < order.length; index++) {
+			System.arraycopy(segments[index], 0, request, position, segments[index].length);
+			position += segments[index].length;
+			System.arraycopy(encoded[index], 0, request, position, encoded[index].length);
+			position += encoded[index].length;
+		}
+		System.arraycopy(segments[order.length], 0, request, position, segments[order.length].length);
+		return request;
+	}
+
+	/**
+	 * @return Values written by a render with no values given, keyed by slot name
+	 */
+	public Map<String, String> getDefaults() {
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		for (int slot = 0; slot < defaults.length; slot++) {
+			values.put(names.get(slot), defaults[slot]);
+		}
+		return values;
+	}
+
+	private static String escape(String value, boolean attribute) {
+		StringBuilder escaped = null;
+		for (int index = 0; index < value.length(); index++) {
+			char character = value.charAt(index);
+			String replacement;
+			switch (character) {
+			case '&': replacement = "&amp;"; break;
+			case '<': replacement = "&lt;"; break;
+			case '>': replacement = "&gt;"; break;
+			case '"': replacement = attribute ? "&quot;" : null; break;
+			case '\t': replacement = attribute ? "&#9;" : null; break;
+			case '\n': replacement = attribute ? "&#10;" : null; break;
+			case '\r': replacement = "&#13;"; break;
+			default: replacement = null; break;
+			}
+			if (replacement == null) {
+				if (escaped != null) escaped.append(character);
+			} else {
+				if (escaped == null) escaped = new StringBuilder(value.length() + 16).append(value, 0, index);
+				escaped.append(replacement);
+			}
+		}
+		return escaped == null ? value : escaped.toString();
+	}
+}
@@ -1,57 +1,60 @@
 package com.orasi.api.soapServices.core;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.xml.soap.MessageFactory;
 import javax.xml.soap.MimeHeaders;
-import javax.xml.soap.SOAPBody;
-import javax.xml.soap.SOAPConnection;
-import javax.xml.soap.SOAPConnectionFactory;
 import javax.xml.soap.SOAPConstants;
 import javax.xml.soap.SOAPException;
-import javax.xml.soap.SOAPFault;
 import javax.xml.soap.SOAPMessage;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
-import jxl.Cell;
-import jxl.Sheet;
-import jxl.Workbook;
-import jxl.read.biff.BiffException;
-
-import org.apache.xmlbeans.XmlException;
 import org.testng.Reporter;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 
-import com.eviware.soapui.impl.wsdl.WsdlInterface;
-import com.eviware.soapui.impl.wsdl.WsdlOperation;
-import com.eviware.soapui.impl.wsdl.WsdlProject;
-import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlImporter;
-import com.eviware.soapui.support.SoapUIException;
+import com.orasi.api.soapServices.core.diff.Difference;
+import com.orasi.api.soapServices.core.diff.ResponseDiff;
+import com.orasi.api.soapServices.core.exceptions.SoapException;
 import com.orasi.api.soapServices.core.exceptions.XPathNotFoundException;
 import com.orasi.api.soapServices.core.exceptions.XPathNullNodeValueException;
+import com.orasi.api.soapServices.core.metrics.CallPhase;
+import com.orasi.api.soapServices.core.metrics.CallTimings;
+import com.orasi.api.soapServices.core.metrics.SoapCallMetrics;
+import com.orasi.api.soapServices.core.scenario.WorkbookCache;
+import com.orasi.api.soapServices.core.transport.PooledHttpSoapTransport;
+import com.orasi.api.soapServices.core.transport.SoapTransport;
+import com.orasi.api.soapServices.core.transport.SoapTransportResponse;
+import com.orasi.utils.PayloadLogger;
 import com.orasi.utils.Randomness;
 import com.orasi.utils.Regex;
+import com.orasi.utils.TestReporter;
 import com.orasi.utils.XMLTools;
+import com.orasi.utils.XmlResources;
+import com.orasi.utils.XPathCache;
 
 public abstract class SoapService{
 
@@ -59,12 +62,31 @@ public abstract class SoapService{
 	private String strServiceName;
 	private String strOperationName;
 	private String strServiceURL = null;
+	private String soapAction = null;
 	private String strResponseURI = null;
 	private String intResponseStatusCode = null;
 	private String responseTemplate = null;
-	private static Document requestDocument = null;
-	private static Document responseDocument = null;
-	protected static StringBuffer buffer = new StringBuffer();
+	private Document responseTemplateDocument = null;
+	private Document requestDocument = null;
+	private Document responseDocument = null;
+	private byte[] responseBytes = null;
+	private byte[] renderedRequest = null;
+	private boolean streamingValidation = false;
+	private CallTimings callTimings = null;
+	protected StringBuffer buffer = new StringBuffer();
+	private SoapTransport transport = null;
+	private static SoapTransport defaultTransport = null;
+	private static ExecutorService asyncExecutor = null;
+	// Characters of an unexpected HTTP response shown in the error
+	private static final int STATUS_BODY_LENGTH = 200;
+	// Longest prefixes first, so the most specific redirect of a URL is applied
+	private static final ConcurrentSkipListMap<String, String> redirects = new ConcurrentSkipListMap<String, String>(new Comparator<String>() {
+		@Override
+		public int compare(String first, String second) {
+			if (first.length() != second.length()) return second.length() - first.length();
+			return String.CASE_INSENSITIVE_ORDER.compare(first, second);
+		}
+	});
 
 	/*****************************
 	 **** Start Gets and Sets ****
@@ -72,7 +94,9 @@ public abstract class SoapService{
 
 	/**
 	 * @summary Takes the current Request XML Document stored in memory and
-	 *          return it as a string for simple output
+	 *          return it as a string for simple output. If the last request
+	 *          was sent from a {@link RequestTemplate}, the rendered request is
+	 *          returned instead.
 	 * @precondition Requires XML Document to be loaded by using
 	 *               {@link #setRequestDocument}
 	 * @author Justin Phlegar
@@ -80,27 +104,13 @@ public abstract class SoapService{
 	 * @return Will return the current Request XML as a string
 	 */
 	public String getRequest() {
-		StringWriter sw = new StringWriter();
-		TransformerFactory tf = TransformerFactory.newInstance();
-		Transformer transformer = null;
-		try {
-			transformer = tf.newTransformer();
-		} catch (TransformerConfigurationException e) {
-			throw new RuntimeException("Failed to create XML Transformer");
-		}
-		transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-		transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-		transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
+		if (renderedRequest != null) return new String(renderedRequest, Charset.forName("UTF-8"));
 		try {
-			transformer.transform(new DOMSource(getRequestDocument()),
-					new StreamResult(sw));
+			return XmlResources.toString(getRequestDocument());
 		} catch (TransformerException e) {
 			throw new RuntimeException(
 					"Failed to transform Request XML Document. Ensure XML Document has been successfully loaded.");
 		}
-		return sw.toString();
 	}
 
 	/**
@@ -113,27 +123,12 @@ public abstract class SoapService{
 	 * @return Will return the current Response XML as a string
 	 */
 	public String getResponse() {
-		StringWriter sw = new StringWriter();
-		TransformerFactory tf = TransformerFactory.newInstance();
-		Transformer transformer = null;
 		try {
-			transformer = tf.newTransformer();
-		} catch (TransformerConfigurationException e) {
-			throw new RuntimeException("Failed to create XML Transformer");
-		}
-		transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-		transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-		transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
-		try {
-			transformer.transform(new DOMSource(getResponseDocument()),
-					new StreamResult(sw));
+			return XmlResources.toString(getResponseDocument());
 		} catch (TransformerException e) {
 			throw new RuntimeException(
 					"Failed to transform Response XML Document. Ensure XML Document has been successfully loaded.");
 		}
-		return sw.toString();
 	}
 
 	/**
@@ -167,7 +162,8 @@ public abstract class SoapService{
 	}
 
 	/**
-	 * @summary Return the URL of the service under test
+	 * @summary Return the URL of the service under test, after applying any
+	 *          redirect added with {@link #redirect(String, String)}
 	 * @precondition The Service URL needs to be set by
 	 *               {@link #setServiceURL(String)}
 	 * @author Justin Phlegar
@@ -175,6 +171,12 @@ public abstract class SoapService{
 	 * @return Returns the Service URL as a String
 	 */
 	public String getServiceURL() {
+		if (strServiceURL == null || redirects.isEmpty()) return strServiceURL;
+		for (Map.Entry<String, String> redirect : redirects.entrySet()) {
+			if (strServiceURL.regionMatches(true, 0, redirect.getKey(), 0, redirect.getKey().length())) {
+				return redirect.getValue() + strServiceURL.substring(redirect.getKey().length());
+			}
+		}
 		return strServiceURL;
 	}
 	
@@ -219,7 +221,17 @@ public abstract class SoapService{
 	 * @version Created: 08/28/2014
 	 * @return Returns the stored Response XML as a Document object
 	 */
-	protected static Document getResponseDocument() {
+	protected Document getResponseDocument() {
+		// With streaming validation the response is only parsed if asked for
+		if (responseDocument == null && responseBytes != null) {
+			try {
+				Document doc = XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(responseBytes));
+				doc.normalize();
+				responseDocument = doc;
+			} catch (SAXException | IOException e) {
+				throw new SoapException("Failed to parse the Response XML", e);
+			}
+		}
 		return responseDocument;
 	}
 
@@ -276,7 +288,7 @@ public abstract class SoapService{
 	 * @param doc
 	 *            Document XML file of the Request to be stored in memory
 	 */
-	protected static void setRequestDocument(Document doc) {
+	protected void setRequestDocument(Document doc) {
 		requestDocument = doc;
 	}
 
@@ -305,6 +317,7 @@ public abstract class SoapService{
 	 */
 	protected void setResponseDocument(Document doc) {
 		responseDocument = doc;
+		responseBytes = null;
 	}
 
 	/**
@@ -318,6 +331,7 @@ public abstract class SoapService{
 	 */
 	protected void setResponseTemplate(String response) {
 		responseTemplate = response;
+		responseTemplateDocument = null;
 	}
 
 	/**
@@ -368,6 +382,115 @@ public abstract class SoapService{
 		strOperationName = name;
 	}
 
+	/**
+	 * @summary Returns the SOAPAction sent with the request, taken from the
+	 *          WSDL by {@link #buildRequestFromWSDL(String)}
+	 * @return SOAPAction of the operation, or null if none is known
+	 */
+	public String getSoapAction() {
+		return soapAction;
+	}
+
+	/**
+	 * @summary Sets the SOAPAction sent with the request, for operations whose
+	 *          request is not built from the WSDL. SOAP 1.1 requests without
+	 *          one send an empty SOAPAction.
+	 * @param action String: SOAPAction of the operation
+	 */
+	protected void setSoapAction(String action) {
+		soapAction = action;
+	}
+
+	/**
+	 * @summary When enabled, {@link #sendRequest()} keeps the response as it
+	 *          was received instead of parsing it into a Document, and
+	 *          {@link #validateResponse(String, String)} validates it in a
+	 *          single streaming pass with {@link StreamingResponseValidator}.
+	 *          The Document is still built if {@link #getResponseDocument()} is
+	 *          called. Meant for responses too large to hold as a DOM.
+	 * @param enabled boolean: True to validate responses as a stream
+	 */
+	public void setStreamingValidation(boolean enabled) {
+		streamingValidation = enabled;
+	}
+
+	/**
+	 * @return True if responses are validated as a stream
+	 */
+	public boolean isStreamingValidation() {
+		return streamingValidation;
+	}
+
+	/**
+	 * @summary Returns how long the last call to {@link #sendRequest()} spent
+	 *          in each phase. Timings of every call can be collected with a
+	 *          {@link com.orasi.api.soapServices.core.metrics.SoapCallListener}.
+	 * @return Timings of the last call, or null if no request has been sent
+	 */
+	public CallTimings getCallTimings() {
+		return callTimings;
+	}
+
+	/**
+	 * @summary Sends every service whose URL starts with one prefix to another
+	 *          instead, keeping the rest of the URL. Used to point the service
+	 *          classes at a stub server or another environment without
+	 *          changing them, e.g. <br>
+	 *          <code>redirect("http://www.webservicex.net", "http://127.0.0.1:8080")</code>
+	 *          When several prefixes match a URL, the longest one is used.
+	 * @param fromPrefix String: Start of the service URLs to redirect, matched without regard to case
+	 * @param toPrefix String: Replacement for the prefix
+	 */
+	public static void redirect(String fromPrefix, String toPrefix) {
+		redirects.put(fromPrefix, toPrefix);
+	}
+
+	/**
+	 * @summary Removes every redirect added with {@link #redirect(String, String)}
+	 */
+	public static void clearRedirects() {
+		redirects.clear();
+	}
+
+	/**
+	 * @summary Return the transport used by {@link #sendRequest()} for this
+	 *          operation. Unless one was set with {@link #setTransport(SoapTransport)},
+	 *          the transport shared by all operations is used.
+	 * @return Returns the SoapTransport for this operation
+	 */
+	public SoapTransport getTransport() {
+		return transport != null ? transport : getDefaultTransport();
+	}
+
+	/**
+	 * @summary Used to override the transport for this operation only
+	 * @param transport
+	 *            SoapTransport: Transport to send requests with
+	 */
+	public void setTransport(SoapTransport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * @summary Return the transport shared by all operations. A
+	 *          {@link PooledHttpSoapTransport} is created on first use.
+	 * @return Returns the shared SoapTransport
+	 */
+	public static synchronized SoapTransport getDefaultTransport() {
+		if (defaultTransport == null) defaultTransport = new PooledHttpSoapTransport();
+		return defaultTransport;
+	}
+
+	/**
+	 * @summary Replace the transport shared by all operations. The previous
+	 *          transport is not closed.
+	 * @param transport
+	 *            SoapTransport: Transport to send requests with
+	 */
+	public static synchronized void setDefaultTransport(SoapTransport transport) {
+		defaultTransport = transport;
+	}
+
 	public int getNumberOfRequestNodesByXPath(String xpath){
 		try{
 			return XMLTools.getNodeList(getRequestDocument(), xpath).getLength();
@@ -424,13 +547,15 @@ public abstract class SoapService{
 	 * @param xpath
 	 *            String: xpath to evaluate
 	 */
-	public static String getResponseNodeValueByXPath(String xpath) {
+	public String getResponseNodeValueByXPath(String xpath) {
 		return XMLTools.getValueByXpath(getResponseDocument(), xpath);
 	}
 
 	/**
 	 * @summary Find and open the excel file sent. If successful, look and find
 	 *          the matching scenario name then return its xpath and value data.
+	 *          Workbooks are read once and served from {@link WorkbookCache}
+	 *          until the file changes.
 	 * @author Justin Phlegar
 	 * @version Created: 08/28/2014
 	 * @param file
@@ -440,135 +565,341 @@ public abstract class SoapService{
 	 *            String: Name of the scenario to poll data for
 	 */
 	protected Object[][] getTestScenario(String file, String scenario) {
+		return WorkbookCache.getWorkbook(file).getScenario(scenario);
+	}
 
-		String[][] tabArray = null;
+	/**
+	 * @summary Takes the pre-built Request XML in memory and sends to the
+	 *          service using the {@link SoapTransport} returned by {@link #getTransport()}
+	 * @author Justin Phlegar
+	 * @version Created: 08/28/2014
+	 */
+	public SOAPMessage sendRequest() {
+		long started = System.nanoTime();
+		byte[] request;
 		try {
+			// Serialize the request document straight to the bytes sent on the
+			// wire rather than building and re-serializing a SOAPMessage
+			request = XmlResources.toByteArray(getRequestDocument());
+		} catch (TransformerException te) {
+			throw new RuntimeException(
+					"Failed to transform Request XML Document. Ensure XML Document has been successfully loaded.", te);
+		}
+		renderedRequest = null;
+		return sendRequest(request, getMimeHeaders(XMLTools.getNamespaceURI(getRequestDocument().getDocumentElement())), started);
+	}
 
-			// Get the file location from the project main/resources folder
-			String filePath = getClass().getResource(file).getPath();
-
-			// in case file path has a %20 for a whitespace, replace with actual
-			// whitespace
-			filePath = filePath.replace("%20", " ");
-
-			// Open excel workbook to work and from file from the path
-			Workbook workbook = Workbook.getWorkbook(new File(filePath));
-			Sheet sheet = workbook.getSheet(0);
-			int startRow, startCol, endRow, endCol, ci, cj;
-
-			// Find the specific cell containing the scenario to run.
-			Cell tableStart = sheet.findCell(scenario);
-			startRow = tableStart.getRow();
-			startCol = tableStart.getColumn();
-
-			// Loop through cell in Regex column to find the first blank cell.
-			// This is set as the last row
-			for (int i = startRow + 1;; i++) {
-				try {
-					if (sheet.getCell(startCol + 1, i).getContents().toString()
-							.equals("")) {
-						endRow = i;
-						break;
-					}
-				} catch (ArrayIndexOutOfBoundsException arrayError) {
-					endRow = i;
-					break;
-				}
-
-			}
-			endCol = startCol + 3;
+	/**
+	 * @summary Sends a request rendered from a template instead of the Request
+	 *          XML Document in memory. The Document is not read or changed, and
+	 *          the response is stored exactly as it is by {@link #sendRequest()}.
+	 *          {@link #getRequest()} returns the rendered request until the
+	 *          next call to {@link #sendRequest()}.
+	 * @param template RequestTemplate: Compiled request, usually of this operation
+	 * @param values Object...: Values of the template's slots, in slot order
+	 * @return SOAPMessage returned by the service
+	 */
+	public SOAPMessage sendRequest(RequestTemplate template, Object... values) {
+		long started = System.nanoTime();
+		renderedRequest = template.render(values);
+		return sendRequest(renderedRequest, getMimeHeaders(template.getEnvelopeNamespace()), started);
+	}
 
-			// Create array based on size of columns and rows found
-			tabArray = new String[endRow - startRow - 1][endCol - startCol - 1];
-			ci = 0;
+	/**
+	 * @summary Sends a request rendered from a template with values given by
+	 *          slot name. See {@link #sendRequest(RequestTemplate, Object...)}
+	 * @param template RequestTemplate: Compiled request, usually of this operation
+	 * @param values Map: Slot names mapped to their values
+	 * @return SOAPMessage returned by the service
+	 */
+	public SOAPMessage sendRequest(RequestTemplate template, Map<String, ?> values) {
+		long started = System.nanoTime();
+		renderedRequest = template.render(values);
+		return sendRequest(renderedRequest, getMimeHeaders(template.getEnvelopeNamespace()), started);
+	}
 
-			// Feed results to the dual array
-			for (int i = startRow + 1; i < endRow; i++, ci++) {
-				cj = 0;
-				for (int j = startCol + 1; j < endCol; j++, cj++) {
-					tabArray[ci][cj] = sheet.getCell(j, i).getContents();
-				}
-			}
-		} catch (FileNotFoundException fnfe) {
-			throw new RuntimeException(fnfe.getCause());
-		} catch (BiffException be) {
-			throw new RuntimeException(be.getCause());
-		} catch (IOException ioe) {
-			throw new RuntimeException("Unable to open file " + file + "\n"
-					+ ioe.getCause());
-		}
-		return (tabArray);
+	/**
+	 * @summary Fails the call when the service answered with something other
+	 *          than a response or a SOAP fault, e.g. an error page of a proxy
+	 * @param url String: Endpoint the request was sent to
+	 * @param statusCode int: HTTP status code returned
+	 * @param body byte[]: Body returned
+	 * @throws SoapException The status code is neither 2xx nor 500
+	 */
+	private static void checkStatusCode(String url, int statusCode, byte[] body) {
+		if ((statusCode >= 200 && statusCode < 300) || statusCode == 500) return;
+		String start = new String(body, 0, Math.min(body.length, STATUS_BODY_LENGTH), Charset.forName("UTF-8"));
+		throw new SoapException("Response from [ " + url + " ] returned HTTP status [ " + statusCode + " ]: " + start);
 	}
 
 	/**
-	 * @summary Takes the pre-built Request XML in memory and sends to the
-	 *          service
-	 * @author Justin Phlegar
-	 * @version Created: 08/28/2014
+	 * @summary Sends serialized request bytes and stores the response
+	 * @param started long: System.nanoTime() when serializing the request began
 	 */
-	public SOAPMessage sendRequest() {
-		SOAPMessage request = null;
+	private SOAPMessage sendRequest(byte[] request, MimeHeaders headers, long started) {
 		SOAPMessage response = null;
-		SOAPConnectionFactory connectionFactory = null;
-		SOAPConnection connection = null;
-		SOAPBody responseBody = null;
-		MessageFactory messageFactory = null;
+		Document doc = null;
 
 		// Get the service endpoint from previously stored URL
 		String url = getServiceURL();
 
+		SoapTransportResponse transportResponse = null;
+		long serialized = System.nanoTime();
+		long received;
 		try {
-			messageFactory = MessageFactory
-					.newInstance(SOAPConstants.SOAP_1_2_PROTOCOL);
-			// Convert XML Request to SoapMessage
-			InputStream in = new ByteArrayInputStream(getRequest().getBytes(Charset.defaultCharset()));
-			request = messageFactory.createMessage(new MimeHeaders(),in);	
-
-			request.writeTo(System.out);
-
-			// Send out Soap Request to the endopoint
-			connectionFactory = SOAPConnectionFactory.newInstance();
-
-			connection = connectionFactory.createConnection();
-			response = connection.call(request, url);
-
-			// Normalize Response and get the soap body
-			response.getSOAPBody().normalize();
-			responseBody = response.getSOAPBody();
+			PayloadLogger.log("SOAP REQUEST [ " + getServiceName() + "#" + getOperationName() + " ] " + url, request);
+
+			// Send out Soap Request to the endpoint
+			transportResponse = getTransport().send(url, request, headers);
+			received = System.nanoTime();
+
+			// The SOAPMessage handed back to callers is only parsed by SAAJ if
+			// it is used, the response in memory is parsed once from the same
+			// bytes
+			byte[] body = transportResponse.getBody();
+			PayloadLogger.log("SOAP RESPONSE [ " + getServiceName() + "#" + getOperationName() + " ] " + url, body);
+			checkStatusCode(url, transportResponse.getStatusCode(), body);
+			response = XmlResources.getMessageFactory(SOAPConstants.DYNAMIC_SOAP_PROTOCOL)
+					.createMessage(transportResponse.getHeaders(), new ByteArrayInputStream(body));
+			if (streamingValidation) {
+				setStreamedResponse(url, body);
+				setCallTimings(url, transportResponse, started, serialized, received);
+				return response;
+			}
+			doc = XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(body));
 		} catch (UnsupportedOperationException uoe) {
 			throw new RuntimeException(
 					"Operation given did not match any operations in the service"
 							+ uoe.getCause());
 		} catch (SOAPException soape) {
 			throw new RuntimeException(soape.getCause());
+		} catch (SAXException | XMLStreamException xmle) {
+			throw new SoapException("Response from [ " + url + " ] is not valid XML", xmle);
 		} catch (IOException ioe) {
 			throw new RuntimeException("Failed to read the request properly"
 					+ ioe.getCause());
 		}
 
+		Element responseBody = XMLTools.getChildElement(doc.getDocumentElement(), "Body");
+		if (responseBody == null) {
+			throw new SoapException("Response from [ " + url + " ] is not a SOAP Envelope");
+		}
+
 		// Check for faults and report
-		if (responseBody.hasFault()) {
-			SOAPFault newFault = responseBody.getFault();
-			setRepsonseStatusCode(newFault.getFaultCode());
-			System.out.println("sendSoapReq FAULT:  " + newFault.getFaultCode());
+		Element fault = XMLTools.getChildElement(responseBody, "Fault");
+		setFaultCode(fault == null ? null : getFaultCode(fault));
+
+		// Set the parsed Response in memory
+		doc.normalize();
+		setResponseDocument(doc);
+		setResponseBaseURI(XMLTools.getNamespaceURI(responseBody));
+		setCallTimings(url, transportResponse, started, serialized, received);
+		return response;
+	}	
+
+	/**
+	 * @summary Stores the timings of the call just completed and hands them to
+	 *          any registered listeners. Transports that cannot tell their
+	 *          phases apart are charged entirely to {@link CallPhase#FIRST_BYTE}.
+	 */
+	private void setCallTimings(String url, SoapTransportResponse transportResponse, long started, long serialized, long received) {
+		long[] phases = new long[CallPhase.values().length];
+		long parsed = System.nanoTime();
+		phases[CallPhase.SERIALIZE.ordinal()] = serialized - started;
+		phases[CallPhase.PARSE.ordinal()] = parsed - received;
+		if (transportResponse.getFirstByteNanos() < 0) {
+			phases[CallPhase.FIRST_BYTE.ordinal()] = received - serialized;
+		} else {
+			phases[CallPhase.CONNECT.ordinal()] = Math.max(0, transportResponse.getConnectNanos());
+			phases[CallPhase.FIRST_BYTE.ordinal()] = transportResponse.getFirstByteNanos();
+			phases[CallPhase.READ.ordinal()] = Math.max(0, transportResponse.getReadNanos());
+		}
+
+		callTimings = new CallTimings(getServiceName(), getOperationName(), url, getResponseStatusCode(), phases);
+		if (SoapCallMetrics.hasListeners()) SoapCallMetrics.publish(callTimings);
+	}
+
+	/**
+	 * @summary Keeps the response as received for streaming validation. Only
+	 *          the start of the Envelope is read, to report its fault code and
+	 *          namespace.
+	 * @param url String: Endpoint the response came from
+	 * @param body byte[]: Response XML
+	 * @throws XMLStreamException The response is not well formed XML
+	 */
+	private void setStreamedResponse(String url, byte[] body) throws XMLStreamException {
+		StreamingResponseValidator.Envelope envelope = StreamingResponseValidator.Envelope.read(new ByteArrayInputStream(body));
+		if (!envelope.isSoap()) {
+			throw new SoapException("Response from [ " + url + " ] is not a SOAP Envelope");
+		}
+
+		setFaultCode(envelope.getFaultCode());
+		setResponseDocument(null);
+		responseBytes = body;
+		setResponseBaseURI(envelope.getNamespaceURI());
+	}
+
+	/**
+	 * @summary Reports a fault as the response status code. The fault is
+	 *          logged at the TestReporter INFO level.
+	 * @param faultCode String: Fault code of the response, or null if there was no fault
+	 */
+	private void setFaultCode(String faultCode) {
+		if (faultCode != null) {
+			setRepsonseStatusCode(faultCode);
+			TestReporter.logInfo("sendSoapReq FAULT: " + faultCode);
 		} else {
 			setRepsonseStatusCode("200");
 		}
+	}
+
+	/**
+	 * @summary Builds the MIME headers for a request from the version of its
+	 *          SOAP Envelope and the operation's SOAPAction
+	 * @param envelopeNamespace String: Namespace of the request's Envelope
+	 * @return Content-Type and SOAPAction headers for SOAP 1.1, or the
+	 *         Content-Type with its action parameter for SOAP 1.2
+	 */
+	private MimeHeaders getMimeHeaders(String envelopeNamespace) {
+		MimeHeaders headers = new MimeHeaders();
+		String action = soapAction == null ? "" : soapAction;
+		if (SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE.equals(envelopeNamespace)) {
+			// SOAP 1.1 requires the header, even when the operation has no action
+			headers.addHeader("Content-Type", SOAPConstants.SOAP_1_1_CONTENT_TYPE + "; charset=utf-8");
+			headers.addHeader("SOAPAction", "\"" + action + "\"");
+		} else if (action.isEmpty()) {
+			headers.addHeader("Content-Type", SOAPConstants.SOAP_1_2_CONTENT_TYPE + "; charset=utf-8");
+		} else {
+			headers.addHeader("Content-Type", SOAPConstants.SOAP_1_2_CONTENT_TYPE + "; charset=utf-8; action=\"" + action + "\"");
+		}
+		return headers;
+	}
+
+	/**
+	 * @summary Reads the fault code the same way SAAJ reports it, from
+	 *          faultcode in SOAP 1.1 or Code/Value in SOAP 1.2
+	 * @param fault Element: Fault element of the response
+	 * @return Fault code, including its prefix
+	 */
+	private static String getFaultCode(Element fault) {
+		Element code = XMLTools.getChildElement(fault, "faultcode");
+		if (code == null) {
+			code = XMLTools.getChildElement(XMLTools.getChildElement(fault, "Code"), "Value");
+		}
+		return code == null ? "" : code.getTextContent().trim();
+	}
+
+	/**
+	 * @summary Sends the pre-built Request XML in memory on a background
+	 *          thread. The response is stored on this operation exactly as it
+	 *          is by {@link #sendRequest()} once the returned Future completes.
+	 * @return Future holding the SOAPMessage returned by the service
+	 */
+	public Future<SOAPMessage> sendRequestAsync() {
+		return sendRequestAsync(getAsyncExecutor());
+	}
+
+	/**
+	 * @summary Sends the pre-built Request XML in memory using the given
+	 *          executor. See {@link #sendRequestAsync()}
+	 * @param executor
+	 *            ExecutorService: Executor to send the request on
+	 * @return Future holding the SOAPMessage returned by the service
+	 */
+	public Future<SOAPMessage> sendRequestAsync(ExecutorService executor) {
+		return executor.submit(new Callable<SOAPMessage>() {
+			@Override
+			public SOAPMessage call() {
+				return sendRequest();
+			}
+		});
+	}
+
+	/**
+	 * @summary Sends every operation in the collection, running up to twice
+	 *          the number of available processors at once. See
+	 *          {@link #sendAll(Collection, int)}
+	 * @param services
+	 *            Collection: Operations with their requests already built
+	 * @return Responses in the same order as the operations were given
+	 */
+	public static List<SOAPMessage> sendAll(Collection<? extends SoapService> services) {
+		return sendAll(services, Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * @summary Sends every operation in the collection, running no more than
+	 *          maxConcurrency requests at once, and waits until all responses
+	 *          have been received. Each operation keeps its own response, so
+	 *          the usual validations can be run on each one afterwards.
+	 * @param services
+	 *            Collection: Operations with their requests already built
+	 * @param maxConcurrency
+	 *            int: Maximum number of requests in flight at the same time
+	 * @return Responses in the same order as the operations were given
+	 * @throws SoapException
+	 *             One or more requests failed to send. Remaining requests are
+	 *             still sent before this is thrown.
+	 */
+	public static List<SOAPMessage> sendAll(Collection<? extends SoapService> services, int maxConcurrency) {
+		List<SOAPMessage> responses = new ArrayList<SOAPMessage>(services.size());
+		if (services.isEmpty()) return responses;
+		if (maxConcurrency < 1) throw new IllegalArgumentException("Concurrency needs to be 1 or greater. Concurrency entered was: " + maxConcurrency);
 
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, services.size()), new SoapThreadFactory("soap-batch"));
 		try {
-			connection.close();
+			List<Future<SOAPMessage>> futures = new ArrayList<Future<SOAPMessage>>(services.size());
+			for (SoapService service : services) {
+				futures.add(service.sendRequestAsync(executor));
+			}
 
-		} catch (SOAPException soape) {
-			throw new RuntimeException(soape.getCause());
+			Throwable failure = null;
+			int failures = 0;
+			for (Future<SOAPMessage> future : futures) {
+				try {
+					responses.add(future.get());
+				} catch (ExecutionException ee) {
+					if (failure == null) failure = ee.getCause();
+					failures++;
+					responses.add(null);
+				}
+			}
+
+			if (failure != null) {
+				throw new SoapException(failures + " of " + services.size() + " requests failed", failure);
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new SoapException("Interrupted while waiting for responses", ie);
+		} finally {
+			executor.shutdownNow();
 		}
+		return responses;
+	}
 
-		// Covert Soap Response to XML and set it as Response in memory
-		Document doc = XMLTools.makeXMLDocument(response);
-		doc.normalize();
-		setResponseDocument(doc);
-		setResponseBaseURI(responseBody.getNamespaceURI());
-		return response;
-	}	
+	private static synchronized ExecutorService getAsyncExecutor() {
+		if (asyncExecutor == null) asyncExecutor = Executors.newCachedThreadPool(new SoapThreadFactory("soap-async"));
+		return asyncExecutor;
+	}
+
+	/**
+	 * Daemon threads so pending requests never keep the test JVM alive
+	 */
+	private static class SoapThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		private final String prefix;
+
+		private SoapThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 	
 	/**
 	 * @summary Update an XPath node or attribute based on the value. The value
@@ -593,15 +924,13 @@ public abstract class SoapService{
 	 *             Could not match xPath to a node, element or attribute
 	 */
 	protected  void setRequestNodeValueByXPath(Document doc, String xpath, String value) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		//Document doc = getRequestDocument();
 	//	Element element = (Element) doc.getElementsByTagName("pmtInfo");
 		//Find the node based on xpath expression
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		}catch (XPathExpressionException xpe) {		
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -680,15 +1009,13 @@ public abstract class SoapService{
 	}
 
 protected static boolean validateNodeContainsValueByXPath(Document doc, String xpath, String testValue) {
-     XPathFactory xPathFactory = XPathFactory.newInstance();
-     XPath xPath = xPathFactory.newXPath();
      XPathExpression expr;
      NodeList nList = null;
      int element = 0;
      boolean isContained = false;
 
      try{
-         expr = xPath.compile(xpath);
+         expr = XPathCache.compile(xpath);
          nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
      }catch(XPathExpressionException e1){
      	throw new RuntimeException("Xpath expression '" + xpath + "' did not exist." );
@@ -772,21 +1099,72 @@ protected static boolean validateNodeContainsValueByXPath(Document doc, String x
 	 */
 	public boolean validateNodeValueByXPath(Document doc, Object[][] scenarios) {
 		boolean status = true;
+		startValidationTable();
+		for (int x = 0; x < scenarios.length; x++) {
+			if (!validateNodeValueByXPath(doc, scenarios[x][0].toString(),
+					scenarios[x][1].toString())) {
+				status = false;
+			}
+		}
+		endValidationTable();
+		return status;
+	}
+
+	/**
+	 * @summary Validates a response in a single streaming pass and reports
+	 *          findings in the same table as
+	 *          {@link #validateNodeValueByXPath(Document, Object[][])}. No
+	 *          Document is built, see {@link StreamingResponseValidator} for
+	 *          the xpaths supported.
+	 * @param response InputStream: Response XML to evaluate
+	 * @param scenarios Object[][]: Rows of xpath and expected value
+	 * @return True if every row passed
+	 */
+	public boolean validateNodeValueByXPath(InputStream response, Object[][] scenarios) {
+		List<StreamingResponseValidator.Result> results = null;
+		try {
+			results = new StreamingResponseValidator(scenarios).validate(response);
+		} catch (XMLStreamException xmlse) {
+			throw new SoapException("Failed to read the Response XML", xmlse);
+		}
+
+		boolean status = true;
+		startValidationTable();
+		for (StreamingResponseValidator.Result result : results) {
+			appendValidationRow(result.getXPath(), result.getRegex(),
+					result.getError() != null ? result.getError() : result.getValue(), result.isPassed());
+			if (!result.isPassed()) status = false;
+		}
+		endValidationTable();
+		return status;
+	}
+
+	private void startValidationTable() {
 		buffer.setLength(0);
 		buffer.append("<table border='1' width='100%'>");
 		buffer.append("<tr><td style='width: 100px; color: black; text-align: center;'><b>XPath</b></td>");
 		buffer.append("<td style='width: 100px; color: black; text-align: center;'><b>Regex</b></td>");
 		buffer.append("<td style='width: 100px; color: black; text-align: center;'><b>Value</b></td>");
 		buffer.append("<td style='width: 100px; color: black; text-align: center;'><b>Status</b></td></tr>");
-		for (int x = 0; x < scenarios.length; x++) {
-			if (!validateNodeValueByXPath(doc, scenarios[x][0].toString(),
-					scenarios[x][1].toString())) {
-				status = false;
-			}
+	}
+
+	private void appendValidationRow(String xpath, String regexValue, String value, boolean passed) {
+		buffer.append("<tr><td style='width: 100px; color: black; text-align: left;'>"
+				+ xpath + "</td>");
+		buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
+				+ regexValue + "</td>");
+		buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
+				+ value + "</td>");
+		if (passed) {
+			buffer.append("<td style='width: 100px; color: green; text-align: center;'><b>Pass</b></td></tr>");
+		} else {
+			buffer.append("<td style='width: 100px; color: red; text-align: center;'><b>Fail</b></td></tr>");
 		}
+	}
+
+	private void endValidationTable() {
 		buffer.append("</table>");
 		Reporter.log(buffer.toString()+ "<br/>");
-		return status;
 	}
 	/**
 	 * @summary Main validation function that validates and reports findings
@@ -802,8 +1180,6 @@ protected static boolean validateNodeContainsValueByXPath(Document doc, String x
 	 *            
 	 */
 	protected boolean validateNodeValueByXPath(Document doc, String xpath, String regexValue) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		String xPathValue = "";
@@ -811,7 +1187,7 @@ protected static boolean validateNodeContainsValueByXPath(Document doc, String x
 		
 		//Find the node based on xpath expression
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		}catch (XPathExpressionException xpe) {
 			errorMessage = "Failed to build xpath [ " + xpath + " ]. Please check format.";
@@ -850,44 +1226,91 @@ protected static boolean validateNodeContainsValueByXPath(Document doc, String x
 
 		//Validate expected value with actual value and report in html table 
 		if(!errorMessage.isEmpty()){
-			buffer.append("<tr><td style='width: 100px; color: black; text-align: left;'>"
-					+ xpath + "</td>");
-			buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
-					+ regexValue + "</td>");
-			buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
-					+ errorMessage + "</td>");
-			buffer.append("<td style='width: 100px; color: red; text-align: center;'><b>Fail</b></td></tr>");
-		}else if (regex.match(regexValue, xPathValue)) {		
-			buffer.append("<tr><td style='width: 100px; color: black; text-align: left;'>"
-					+ xpath + "</td>");
-			buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
-					+ regexValue + "</td>");
-			buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
-					+ xPathValue + "</td>");
-			buffer.append("<td style='width: 100px; color: green; text-align: center;'><b>Pass</b></td></tr>");
+			appendValidationRow(xpath, regexValue, errorMessage, false);
 		} else {
-			buffer.append("<tr><td style='width: 100px; color: black; text-align: left;'>"
-					+ xpath + "</td>");
-			buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
-					+ regexValue + "</td>");
-			buffer.append("<td style='width: 100px; color: black; text-align: center;'>"
-					+ xPathValue + "</td>");
-			buffer.append("<td style='width: 100px; color: red; text-align: center;'><b>Fail</b></td></tr>");
+			appendValidationRow(xpath, regexValue, xPathValue, regex.match(regexValue, xPathValue));
 		}
 		//return boolean
 		return regex.match(regexValue, xPathValue);
 	}
 
 	/**
-	 * @summary Validate XML Response and reports findings
+	 * @summary Validate XML Response and reports findings. If the response
+	 *          was kept for streaming validation and has not been parsed, it is
+	 *          validated in a single pass without building a Document.
 	 * @author Justin Phlegar
 	 * @version Created: 08/28/2014
 	 * @param resourcePath: path of file to read
 	 * @param scenario String: scenario to validate 
 	 */
 	public boolean validateResponse(String resourcePath, String scenario) {
-		return validateNodeValueByXPath(getResponseDocument(),
-				getTestScenario(resourcePath, scenario));
+		return validateResponse(getTestScenario(resourcePath, scenario));
+	}
+
+	/**
+	 * @summary Validate XML Response against xpaths and expected values and
+	 *          reports findings. A response kept for streaming validation that
+	 *          has not been parsed is validated in a single pass without
+	 *          building a Document.
+	 * @param scenarios Object[][]: xpath in the first column and the expected
+	 *            value in the second, as read by {@link #getTestScenario(String, String)}
+	 */
+	public boolean validateResponse(Object[][] scenarios) {
+		if (responseDocument == null && responseBytes != null) {
+			return validateNodeValueByXPath(new ByteArrayInputStream(responseBytes), scenarios);
+		}
+		return validateNodeValueByXPath(getResponseDocument(), scenarios);
+	}
+
+	/**
+	 * @summary Compares the whole response against the response template
+	 *          generated from the WSDL and reports every difference in one
+	 *          table. Template values of ? match any value, and elements the
+	 *          template marks as optional or repeating may be missing or
+	 *          repeat. The SOAP Header is not compared.
+	 * @precondition Requires the template to be loaded by {@link #buildRequestFromWSDL(String)}
+	 * @param ignore String...: Paths of volatile nodes to leave out, see {@link ResponseDiff#ignore(String...)}
+	 * @return True if no differences were found
+	 */
+	public boolean validateResponseAgainstTemplate(String... ignore) {
+		if (getResponseTemplate() == null) {
+			throw new SoapException("No response template has been loaded. Ensure the request was built from the WSDL.");
+		}
+		if (responseTemplateDocument == null) responseTemplateDocument = XMLTools.makeXMLDocument(getResponseTemplate());
+		return validateResponse(responseTemplateDocument, ResponseDiff.forTemplate().ignore("/Envelope/Header").ignore(ignore));
+	}
+
+	/**
+	 * @summary Compares the whole response against a golden file and reports
+	 *          every difference in one table
+	 * @param resourcePath String: Path of the expected response in the project
+	 * @param ignore String...: Paths of volatile nodes to leave out, see {@link ResponseDiff#ignore(String...)}
+	 * @return True if no differences were found
+	 */
+	public boolean validateResponseAgainstFile(String resourcePath, String... ignore) {
+		return validateResponse(XMLTools.loadXMLFromProject(resourcePath), new ResponseDiff().ignore(ignore));
+	}
+
+	/**
+	 * @summary Compares the whole response against an expected message in a
+	 *          single pass and reports every difference in one table
+	 * @param expected Document: Message the response should match
+	 * @param diff ResponseDiff: Rules of the comparison
+	 * @return True if no differences were found
+	 */
+	public boolean validateResponse(Document expected, ResponseDiff diff) {
+		List<Difference> differences = diff.compare(expected, getResponseDocument());
+		startValidationTable();
+		if (differences.isEmpty()) {
+			appendValidationRow("/" + XMLTools.getLocalName(expected.getDocumentElement()), "Expected message", "No differences", true);
+		}
+		for (Difference difference : differences) {
+			appendValidationRow(difference.getPath(),
+					difference.getExpected() == null ? difference.getType().getDescription() : difference.getExpected(),
+					difference.getActual() == null ? difference.getType().getDescription() : difference.getActual(), false);
+		}
+		endValidationTable();
+		return differences.isEmpty();
 	}
 
 /*	*//**
@@ -901,33 +1324,16 @@ protected static boolean validateNodeContainsValueByXPath(Document doc, String x
 	}*/
 
 	/**
-	 * @summary Opens the WSDL file that was loaded with the {@link setEnvironmentServiceURL} and load a XML Template for selected operation
+	 * @summary Opens the WSDL file that was loaded with the {@link setEnvironmentServiceURL} and load a XML Template for selected operation.
+	 * 			The WSDL is only imported the first time a service URL is used, later calls are served from {@link WsdlCache}
 	 * @author Justin Phlegar
 	 * @version Created: 08/28/2014
 	 * @param operation String: operation to load
 	 */
 	protected String buildRequestFromWSDL(String operation) {
-		WsdlProject project = null;
-		WsdlInterface[] wsdls = null;
-		try {
-			project = new WsdlProject();
-			wsdls = WsdlImporter.importWsdl(project, getServiceURL());
-		} catch (XmlException xmle) {
-			throw new RuntimeException("Error loading XML: " + xmle.getCause());
-		} catch (IOException ioe) {
-			throw new RuntimeException("Error reading WSDL file: " + ioe.getCause());		
-		} catch (SoapUIException e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
-		} catch (Exception e) {
-		    // TODO Auto-generated catch block
-		    e.printStackTrace();
-		}
-		
-		WsdlInterface wsdl = wsdls[0];
-		WsdlOperation wsdlOperation = wsdl.getOperationByName(operation);
-		setResponseTemplate(wsdlOperation.createResponse(true));
-		return wsdlOperation.createRequest(true);
+		setResponseTemplate(WsdlCache.getResponseTemplate(getServiceURL(), operation));
+		setSoapAction(WsdlCache.getSoapAction(getServiceURL(), operation));
+		return WsdlCache.getRequestTemplate(getServiceURL(), operation);
 	}
 
 	protected void removeComments() {
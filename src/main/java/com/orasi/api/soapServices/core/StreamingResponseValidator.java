@@ -0,0 +1,376 @@
+package com.orasi.api.soapServices.core;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.orasi.utils.Regex;
+import com.orasi.utils.XmlResources;
+
+/**
+ * @summary Validates a response against xpath/regex scenario rows in a single
+ *          StAX pass, without building a DOM. Reading stops as soon as every
+ *          row has found its node, so memory stays flat no matter how large
+ *          the response is. <br>
+ *          Rows follow the same syntax as
+ *          {@link SoapService#validateNodeValueByXPath(org.w3c.dom.Document, Object[][])}.
+ *          Xpaths are limited to absolute paths of element names, optionally
+ *          with a position such as <b>Table[3]</b>, and may end with
+ *          <b>@attribute</b> or <b>text()</b>. As with the DOM validation,
+ *          names are written without namespace prefixes and the first
+ *          matching node is validated.
+ * @version Created: 10/18/2026
+ */
+public class StreamingResponseValidator {
+	private static final Pattern STEP = Pattern.compile("([\\w.\\-]+|\\*)(?:\\[(\\d+)\\])?");
+
+	private final List<Rule> rules = new ArrayList<Rule>();
+
+	/**
+	 * @param scenarios Object[][]: Rows of xpath and expected value, as read from a scenario sheet
+	 */
+	public StreamingResponseValidator(Object[][] scenarios) {
+		for (Object[] scenario : scenarios) {
+			rules.add(new Rule(scenario[0].toString(), scenario[1].toString()));
+		}
+	}
+
+	/**
+	 * @summary Reads the response and validates every scenario row
+	 * @param response InputStream: Response XML. The stream is not closed.
+	 * @return One result per scenario row, in the order the rows were given
+	 * @throws XMLStreamException The response is not well formed XML
+	 */
+	public List<Result> validate(InputStream response) throws XMLStreamException {
+		List<Rule> pending = new ArrayList<Rule>();
+		for (Rule rule : rules) {
+			rule.reset();
+			if (rule.error == null) pending.add(rule);
+		}
+
+		XMLStreamReader reader = XmlResources.getXMLInputFactory().createXMLStreamReader(response);
+		try {
+			String[] names = new String[16];
+			int[] positions = new int[16];
+			int depth = 0;
+			Deque<Map<String, Integer>> siblings = new ArrayDeque<Map<String, Integer>>();
+			siblings.push(new HashMap<String, Integer>());
+			List<Rule> capturing = new ArrayList<Rule>();
+
+			while (!pending.isEmpty() && reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					String name = reader.getLocalName();
+					Integer previous = siblings.peek().get(name);
+					int position = previous == null ? 1 : previous + 1;
+					siblings.peek().put(name, position);
+					siblings.push(new HashMap<String, Integer>());
+
+					// A child element ends the first text node of its parent
+					endTextCaptures(capturing, pending, depth);
+
+					if (depth == names.length) {
+						names = Arrays.copyOf(names, depth * 2);
+						positions = Arrays.copyOf(positions, depth * 2);
+					}
+					names[depth] = name;
+					positions[depth] = position;
+					depth++;
+
+					for (Rule rule : new ArrayList<Rule>(pending)) {
+						if (rule.captured != null || !rule.matches(names, positions, depth)) continue;
+						if (rule.attribute != null) {
+							String value = getAttribute(reader, rule.attribute);
+							if (value != null) {
+								rule.resolve(value);
+								pending.remove(rule);
+							}
+						} else {
+							rule.captureDepth = depth;
+							rule.captured = new StringBuilder();
+							capturing.add(rule);
+						}
+					}
+					break;
+
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					for (Rule rule : capturing) {
+						if (!rule.text || rule.captureDepth == depth) {
+							rule.captured.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						}
+					}
+					break;
+
+				case XMLStreamConstants.END_ELEMENT:
+					endTextCaptures(capturing, pending, depth);
+					for (Rule rule : new ArrayList<Rule>(capturing)) {
+						if (rule.captureDepth != depth) continue;
+						capturing.remove(rule);
+						// text() only matches once a text node has been seen,
+						// otherwise the next matching element is tried
+						if (!rule.text || rule.captured.length() > 0) {
+							rule.resolve(rule.captured.toString());
+							pending.remove(rule);
+						} else {
+							rule.captured = null;
+						}
+					}
+					siblings.pop();
+					depth--;
+					break;
+
+				default:
+					break;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		List<Result> results = new ArrayList<Result>();
+		for (Rule rule : rules) {
+			if (!rule.resolved && rule.error == null) {
+				rule.error = "No xpath was found with the path [ " + rule.xpath + " ] ";
+			}
+			results.add(new Result(rule.xpath, rule.regex, rule.value, rule.error));
+		}
+		return results;
+	}
+
+	private static void endTextCaptures(List<Rule> capturing, List<Rule> pending, int depth) {
+		for (Rule rule : new ArrayList<Rule>(capturing)) {
+			if (rule.text && rule.captureDepth == depth && rule.captured.length() > 0) {
+				capturing.remove(rule);
+				rule.resolve(rule.captured.toString());
+				pending.remove(rule);
+			}
+		}
+	}
+
+	private static String getAttribute(XMLStreamReader reader, String attribute) {
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			if (attribute.equals(reader.getAttributeLocalName(index))) {
+				return reader.getAttributeValue(index);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @summary Outcome of a single scenario row
+	 */
+	public static class Result {
+		private final String xpath;
+		private final String regex;
+		private final String value;
+		private final String error;
+
+		private Result(String xpath, String regex, String value, String error) {
+			this.xpath = xpath;
+			this.regex = regex;
+			this.value = value;
+			this.error = error;
+		}
+
+		public String getXPath() {
+			return xpath;
+		}
+
+		/**
+		 * @return Regex the value was validated against, with any value: or attribute: prefix removed
+		 */
+		public String getRegex() {
+			return regex;
+		}
+
+		/**
+		 * @return Value found in the response, or null if the node was not found
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * @return Reason the node could not be validated, or null if it was found
+		 */
+		public String getError() {
+			return error;
+		}
+
+		public boolean isPassed() {
+			return error == null && Regex.match(regex, value);
+		}
+	}
+
+	private static class Rule {
+		private final String xpath;
+		private final String regex;
+		private final List<String> names = new ArrayList<String>();
+		private final List<Integer> positions = new ArrayList<Integer>();
+		private String attribute = null;
+		private boolean text = false;
+		private final String unsupported;
+
+		private String value;
+		private String error;
+		private boolean resolved;
+		private int captureDepth;
+		private StringBuilder captured;
+
+		private Rule(String xpath, String regexValue) {
+			this.xpath = xpath;
+
+			// Handle prefix types the same way the DOM validation does
+			String attributeName = null;
+			if (regexValue.trim().toLowerCase().contains("value:")) {
+				regexValue = regexValue.substring(regexValue.indexOf(":") + 1).trim();
+			} else if (regexValue.trim().toLowerCase().startsWith("attribute:")) {
+				String[] attributeParams = regexValue.substring(regexValue.indexOf(":") + 1).split(",", 2);
+				attributeName = attributeParams[0].trim();
+				regexValue = attributeParams.length > 1 ? attributeParams[1].trim() : "";
+			}
+			this.regex = regexValue;
+
+			if (!parse(xpath.trim())) {
+				unsupported = "Streaming validation does not support the xpath [ " + xpath + " ]";
+			} else {
+				unsupported = null;
+				if (attributeName != null && attribute == null && !text) attribute = attributeName;
+			}
+			error = unsupported;
+		}
+
+		private boolean parse(String path) {
+			if (!path.startsWith("/") || path.startsWith("//") || path.length() == 1) return false;
+
+			String[] steps = path.substring(1).split("/", -1);
+			for (int index = 0; index < steps.length; index++) {
+				String step = steps[index];
+				boolean last = index == steps.length - 1;
+				if (last && index > 0 && step.startsWith("@") && step.length() > 1) {
+					attribute = step.substring(1);
+					return true;
+				}
+				if (last && index > 0 && step.equals("text()")) {
+					text = true;
+					return true;
+				}
+
+				Matcher matcher = STEP.matcher(step);
+				if (!matcher.matches()) return false;
+				names.add(matcher.group(1));
+				positions.add(matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2)));
+			}
+			return true;
+		}
+
+		private boolean matches(String[] path, int[] pathPositions, int depth) {
+			if (depth != names.size()) return false;
+			for (int index = depth - 1; index >= 0; index--) {
+				String name = names.get(index);
+				int position = positions.get(index);
+				if (!name.equals("*") && !name.equals(path[index])) return false;
+				if (position != 0 && position != pathPositions[index]) return false;
+			}
+			return true;
+		}
+
+		private void resolve(String found) {
+			value = found;
+			resolved = true;
+			captured = null;
+		}
+
+		private void reset() {
+			value = null;
+			resolved = false;
+			captured = null;
+			error = unsupported;
+		}
+	}
+
+	/**
+	 * @summary Version and fault of a SOAP response, read from the start of
+	 *          the Envelope only
+	 */
+	static class Envelope {
+		private String namespaceURI = null;
+		private String faultCode = null;
+		private boolean soap = false;
+
+		/**
+		 * @summary Reads the Envelope up to the first element of the Body, and
+		 *          the fault code if that element is a Fault
+		 * @param response InputStream: Response XML
+		 * @return Namespace and fault of the Envelope
+		 * @throws XMLStreamException The response is not well formed XML
+		 */
+		static Envelope read(InputStream response) throws XMLStreamException {
+			Envelope envelope = new Envelope();
+			XMLStreamReader reader = XmlResources.getXMLInputFactory().createXMLStreamReader(response);
+			try {
+				List<String> path = new ArrayList<String>();
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event == XMLStreamConstants.END_ELEMENT) {
+						path.remove(path.size() - 1);
+						if (path.size() < 2 && envelope.soap) break;
+						continue;
+					}
+					if (event != XMLStreamConstants.START_ELEMENT) continue;
+
+					path.add(reader.getLocalName());
+					if (path.equals(Arrays.asList("Envelope", "Body"))) {
+						envelope.soap = true;
+						envelope.namespaceURI = reader.getNamespaceURI();
+					} else if (path.size() == 3 && envelope.soap) {
+						if (!path.get(2).equals("Fault")) break;
+						envelope.faultCode = "";
+					} else if (path.size() > 3 && envelope.soap
+							&& (path.subList(3, path.size()).equals(Collections.singletonList("faultcode"))
+									|| path.subList(3, path.size()).equals(Arrays.asList("Code", "Value")))) {
+						envelope.faultCode = reader.getElementText().trim();
+						break;
+					} else if (path.size() == 1 && !path.get(0).equals("Envelope")) {
+						break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+			return envelope;
+		}
+
+		/**
+		 * @return True if the document was a SOAP Envelope with a Body
+		 */
+		boolean isSoap() {
+			return soap;
+		}
+
+		String getNamespaceURI() {
+			return namespaceURI;
+		}
+
+		/**
+		 * @return Fault code, including its prefix, or null if the Body held no Fault
+		 */
+		String getFaultCode() {
+			return faultCode;
+		}
+	}
+}
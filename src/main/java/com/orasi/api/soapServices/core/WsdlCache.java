@@ -0,0 +1,237 @@
+package com.orasi.api.soapServices.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xmlbeans.XmlException;
+
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlImporter;
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+
+/**
+ * @summary Process-wide cache of imported WSDL interfaces and the request and
+ *          response templates generated from them. Importing a WSDL through
+ *          SoapUI is far more expensive than the service call itself, so each
+ *          service URL is imported once per JVM and each operation template is
+ *          generated once per service URL, along with its SOAPAction. <br>
+ *          If the system property {@value #CACHE_DIRECTORY_PROPERTY} names a
+ *          directory, generated templates are also written there and read back
+ *          by later runs without importing the WSDL at all.
+ * @version Created: 10/18/2026
+ */
+public class WsdlCache {
+	/** System property naming the directory used to persist templates between runs */
+	public static final String CACHE_DIRECTORY_PROPERTY = "soapservice.wsdlCacheDir";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String REQUEST_SUFFIX = ".request.xml";
+	private static final String RESPONSE_SUFFIX = ".response.xml";
+	private static final String ACTION_SUFFIX = ".action.txt";
+
+	private static final ConcurrentHashMap<String, WsdlInterface[]> interfaces = new ConcurrentHashMap<String, WsdlInterface[]>();
+	private static final ConcurrentHashMap<String, OperationTemplates> templates = new ConcurrentHashMap<String, OperationTemplates>();
+	private static final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
+	private static final AtomicInteger imports = new AtomicInteger();
+
+	private WsdlCache() {
+	}
+
+	/**
+	 * @summary Returns the request template for an operation, importing the
+	 *          WSDL for the service URL only if it has not been seen before
+	 * @param serviceURL String: URL of the WSDL
+	 * @param operation String: Name of the operation in the WSDL
+	 * @return Request XML template as a String
+	 */
+	public static String getRequestTemplate(String serviceURL, String operation) {
+		return getTemplates(serviceURL, operation).request;
+	}
+
+	/**
+	 * @summary Returns the response template for an operation, importing the
+	 *          WSDL for the service URL only if it has not been seen before
+	 * @param serviceURL String: URL of the WSDL
+	 * @param operation String: Name of the operation in the WSDL
+	 * @return Response XML template as a String
+	 */
+	public static String getResponseTemplate(String serviceURL, String operation) {
+		return getTemplates(serviceURL, operation).response;
+	}
+
+	/**
+	 * @summary Returns the SOAPAction the WSDL binding declares for an
+	 *          operation, importing the WSDL for the service URL only if it has
+	 *          not been seen before
+	 * @param serviceURL String: URL of the WSDL
+	 * @param operation String: Name of the operation in the WSDL
+	 * @return SOAPAction of the operation, or an empty String if it has none
+	 */
+	public static String getSoapAction(String serviceURL, String operation) {
+		return getTemplates(serviceURL, operation).action;
+	}
+
+	/**
+	 * @summary Returns the interfaces imported from a WSDL. The import is done
+	 *          once per service URL and shared by every caller afterwards.
+	 * @param serviceURL String: URL of the WSDL
+	 * @return Array of interfaces defined in the WSDL
+	 */
+	public static WsdlInterface[] getInterfaces(String serviceURL) {
+		WsdlInterface[] wsdls = interfaces.get(serviceURL);
+		if (wsdls != null) return wsdls;
+
+		synchronized (lockFor(serviceURL)) {
+			wsdls = interfaces.get(serviceURL);
+			if (wsdls == null) {
+				wsdls = importWsdl(serviceURL);
+				interfaces.put(serviceURL, wsdls);
+			}
+		}
+		return wsdls;
+	}
+
+	/**
+	 * @return Number of WSDLs imported through SoapUI since the JVM started
+	 */
+	public static int getImportCount() {
+		return imports.get();
+	}
+
+	/**
+	 * @summary Drops every cached interface and template held in memory.
+	 *          Templates persisted on disk are left untouched.
+	 */
+	public static void clear() {
+		interfaces.clear();
+		templates.clear();
+		locks.clear();
+	}
+
+	private static OperationTemplates getTemplates(String serviceURL, String operation) {
+		String key = serviceURL + "#" + operation;
+		OperationTemplates operationTemplates = templates.get(key);
+		if (operationTemplates != null) return operationTemplates;
+
+		synchronized (lockFor(key)) {
+			operationTemplates = templates.get(key);
+			if (operationTemplates == null) {
+				operationTemplates = readFromDisk(key);
+				if (operationTemplates == null) {
+					operationTemplates = createTemplates(serviceURL, operation);
+					writeToDisk(key, operationTemplates);
+				}
+				templates.put(key, operationTemplates);
+			}
+		}
+		return operationTemplates;
+	}
+
+	private static OperationTemplates createTemplates(String serviceURL, String operation) {
+		WsdlInterface wsdl = getInterfaces(serviceURL)[0];
+
+		// SoapUI model objects are not thread safe, so only one template is
+		// generated at a time per interface
+		synchronized (wsdl) {
+			WsdlOperation wsdlOperation = wsdl.getOperationByName(operation);
+			if (wsdlOperation == null) {
+				throw new SoapException("Operation [ " + operation + " ] was not found in the WSDL [ " + serviceURL + " ]");
+			}
+			String action = wsdlOperation.getAction();
+			return new OperationTemplates(wsdlOperation.createRequest(true), wsdlOperation.createResponse(true), action == null ? "" : action);
+		}
+	}
+
+	private static WsdlInterface[] importWsdl(String serviceURL) {
+		WsdlInterface[] wsdls = null;
+		imports.incrementAndGet();
+		try {
+			wsdls = WsdlImporter.importWsdl(new WsdlProject(), serviceURL);
+		} catch (XmlException xmle) {
+			throw new SoapException("Error loading XML from [ " + serviceURL + " ]", xmle);
+		} catch (IOException ioe) {
+			throw new SoapException("Error reading WSDL file [ " + serviceURL + " ]", ioe);
+		} catch (Exception e) {
+			throw new SoapException("Failed to import WSDL [ " + serviceURL + " ]", e);
+		}
+
+		if (wsdls == null || wsdls.length == 0) {
+			throw new SoapException("No interfaces were found in the WSDL [ " + serviceURL + " ]");
+		}
+		return wsdls;
+	}
+
+	private static Object lockFor(String key) {
+		Object lock = new Object();
+		Object existing = locks.putIfAbsent(key, lock);
+		return existing == null ? lock : existing;
+	}
+
+	private static File getCacheDirectory() {
+		String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+		if (directory == null || directory.trim().isEmpty()) return null;
+		return new File(directory.trim());
+	}
+
+	private static String toFileName(String key) {
+		try {
+			return URLEncoder.encode(key, "UTF-8").replace("*", "%2A");
+		} catch (UnsupportedEncodingException uee) {
+			throw new SoapException("UTF-8 encoding is not supported", uee);
+		}
+	}
+
+	private static OperationTemplates readFromDisk(String key) {
+		File directory = getCacheDirectory();
+		if (directory == null) return null;
+
+		File request = new File(directory, toFileName(key) + REQUEST_SUFFIX);
+		File response = new File(directory, toFileName(key) + RESPONSE_SUFFIX);
+		File action = new File(directory, toFileName(key) + ACTION_SUFFIX);
+		if (!request.isFile() || !response.isFile() || !action.isFile()) return null;
+
+		try {
+			return new OperationTemplates(new String(Files.readAllBytes(request.toPath()), UTF8),
+					new String(Files.readAllBytes(response.toPath()), UTF8),
+					new String(Files.readAllBytes(action.toPath()), UTF8));
+		} catch (IOException ioe) {
+			// A damaged cache file is not fatal, the WSDL will be imported instead
+			return null;
+		}
+	}
+
+	private static void writeToDisk(String key, OperationTemplates operationTemplates) {
+		File directory = getCacheDirectory();
+		if (directory == null) return;
+
+		try {
+			Files.createDirectories(directory.toPath());
+			Files.write(new File(directory, toFileName(key) + REQUEST_SUFFIX).toPath(), operationTemplates.request.getBytes(UTF8));
+			Files.write(new File(directory, toFileName(key) + RESPONSE_SUFFIX).toPath(), operationTemplates.response.getBytes(UTF8));
+			Files.write(new File(directory, toFileName(key) + ACTION_SUFFIX).toPath(), operationTemplates.action.getBytes(UTF8));
+		} catch (IOException ioe) {
+			// Persisting is only an optimization for the next run, the
+			// templates are still cached in memory
+		}
+	}
+
+	private static class OperationTemplates {
+		private final String request;
+		private final String response;
+		private final String action;
+
+		private OperationTemplates(String request, String response, String action) {
+			this.request = request;
+			this.response = response;
+			this.action = action;
+		}
+	}
+}
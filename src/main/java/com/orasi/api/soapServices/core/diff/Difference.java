@@ -0,0 +1,79 @@
+package com.orasi.api.soapServices.core.diff;
+
+/**
+ * @summary A single way a response differs from the message it was compared
+ *          to by {@link ResponseDiff}
+ * @version Created: 10/18/2026
+ */
+public class Difference {
+	public enum Type {
+		/** An element of the expected message is not in the response */
+		MISSING_NODE("Missing node"),
+		/** An element of the response is not in the expected message */
+		UNEXPECTED_NODE("Unexpected node"),
+		/** An element's text differs */
+		TEXT("Text differs"),
+		/** An attribute of the expected message is not in the response */
+		MISSING_ATTRIBUTE("Missing attribute"),
+		/** An attribute of the response is not in the expected message */
+		UNEXPECTED_ATTRIBUTE("Unexpected attribute"),
+		/** An attribute's value differs */
+		ATTRIBUTE("Attribute differs");
+
+		private final String description;
+
+		private Type(String description) {
+			this.description = description;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	private final Type type;
+	private final String path;
+	private final String expected;
+	private final String actual;
+
+	Difference(Type type, String path, String expected, String actual) {
+		this.type = type;
+		this.path = path;
+		this.expected = expected;
+		this.actual = actual;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return Xpath of the node in the response, or in the expected message
+	 *         if it is missing from the response. Positions are given for
+	 *         repeated elements after the first, e.g. /Envelope/Body/Table[2]/CITY
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return Expected text or attribute value, or null if the node was not expected
+	 */
+	public String getExpected() {
+		return expected;
+	}
+
+	/**
+	 * @return Text or attribute value of the response, or null if the node is missing
+	 */
+	public String getActual() {
+		return actual;
+	}
+
+	@Override
+	public String toString() {
+		return type.getDescription() + " at [ " + path + " ]"
+				+ (expected == null ? "" : " expected [ " + expected + " ]")
+				+ (actual == null ? "" : " actual [ " + actual + " ]");
+	}
+}
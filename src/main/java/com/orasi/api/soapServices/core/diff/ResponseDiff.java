@@ -0,0 +1,350 @@
+package com.orasi.api.soapServices.core.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.orasi.utils.XMLTools;
+
+/**
+ * @summary Compares a whole response against an expected message in a single
+ *          walk of both trees, and returns every difference found rather than
+ *          stopping at the first. One comparison replaces a separate xpath
+ *          evaluation for each node checked. <br>
+ *          <br>
+ *          Elements and attributes are matched by name without their
+ *          namespace prefix, so a response using different prefixes than the
+ *          expected message still matches. Comments, namespace declarations
+ *          and whitespace between elements are not compared, and text is
+ *          compared with leading and trailing whitespace removed. <br>
+ *          <br>
+ *          Volatile nodes such as timestamps or generated ids are left out
+ *          with {@link #ignore(String...)}. Paths are written as simple
+ *          xpaths of names without prefixes: <br>
+ *          <b>/Envelope/Body/GetInfoResponse/Timestamp</b> -- The node at that path <br>
+ *          <b>/Envelope/Body/&#42;/Timestamp</b> -- &#42; matches any one name <br>
+ *          <b>//Timestamp</b> -- A Timestamp node at any depth <br>
+ *          <b>//Table/@id</b> -- The id attribute of any Table <br>
+ *          An ignored node is not compared, whether or not it is present. <br>
+ *          <br>
+ *          {@link #forTemplate()} compares against a response template
+ *          generated from a WSDL, where every value is ? and the comments
+ *          SoapUI writes mark optional and repeated elements.
+ * @version Created: 10/18/2026
+ */
+public class ResponseDiff {
+	/** Text or attribute value of a template that matches any value */
+	public static final String TEMPLATE_WILDCARD = "?";
+	private static final int MAX_VALUE_LENGTH = 200;
+
+	private final List<IgnoreRule> ignored = new ArrayList<IgnoreRule>();
+	private String wildcard = null;
+	private boolean templateHints = false;
+
+	/**
+	 * @summary Creates a diff that expects the response to match exactly,
+	 *          e.g. a golden file saved from an earlier run
+	 */
+	public ResponseDiff() {
+	}
+
+	/**
+	 * @summary Creates a diff for comparing against a response template
+	 *          generated from a WSDL. Values of ? match any value, and an
+	 *          element whose value is ? matches any content. Elements SoapUI
+	 *          marks as Optional or Zero or more may be missing, and elements
+	 *          marked with repetitions may repeat.
+	 * @return Diff for response templates
+	 */
+	public static ResponseDiff forTemplate() {
+		ResponseDiff diff = new ResponseDiff();
+		diff.wildcard = TEMPLATE_WILDCARD;
+		diff.templateHints = true;
+		return diff;
+	}
+
+	/**
+	 * @param paths String...: Paths of nodes to leave out of the comparison
+	 * @return This diff
+	 */
+	public ResponseDiff ignore(String... paths) {
+		for (String path : paths) {
+			ignored.add(new IgnoreRule(path));
+		}
+		return this;
+	}
+
+	/**
+	 * @param wildcard String: Expected text or attribute value that matches
+	 *            any value, or null to always compare values
+	 * @return This diff
+	 */
+	public ResponseDiff setWildcard(String wildcard) {
+		this.wildcard = wildcard;
+		return this;
+	}
+
+	/**
+	 * @param expected Document: Message the response should match
+	 * @param actual Document: Response to check
+	 * @return Every difference found, in document order. Empty if the response matches.
+	 */
+	public List<Difference> compare(Document expected, Document actual) {
+		return compare(expected.getDocumentElement(), actual.getDocumentElement());
+	}
+
+	/**
+	 * @param expected Element: Root of the message the response should match
+	 * @param actual Element: Root of the response to check
+	 * @return Every difference found, in document order. Empty if the response matches.
+	 */
+	public List<Difference> compare(Element expected, Element actual) {
+		List<Difference> differences = new ArrayList<Difference>();
+		List<String> names = new ArrayList<String>();
+		String expectedName = XMLTools.getLocalName(expected);
+		String actualName = XMLTools.getLocalName(actual);
+		if (!expectedName.equals(actualName)) {
+			differences.add(new Difference(Difference.Type.MISSING_NODE, "/" + expectedName, null, null));
+			differences.add(new Difference(Difference.Type.UNEXPECTED_NODE, "/" + actualName, null, summarize(actual.getTextContent())));
+			return differences;
+		}
+
+		names.add(expectedName);
+		if (!isIgnored(names)) compareElement(expected, actual, "/" + expectedName, names, differences);
+		return differences;
+	}
+
+	private void compareElement(Element expected, Element actual, String path, List<String> names, List<Difference> differences) {
+		compareAttributes(expected, actual, path, names, differences);
+
+		List<Element> expectedChildren = getChildElements(expected);
+		if (expectedChildren.isEmpty()) {
+			String expectedText = getText(expected);
+			// A template value of ? stands for any content, including child elements
+			if (expectedText.equals(wildcard)) return;
+			String actualText = getText(actual);
+			if (!expectedText.equals(actualText)) {
+				differences.add(new Difference(Difference.Type.TEXT, path, expectedText, summarize(actualText)));
+			}
+		}
+		compareChildren(expectedChildren, getChildElements(actual), path, names, differences);
+	}
+
+	private void compareAttributes(Element expected, Element actual, String path, List<String> names, List<Difference> differences) {
+		Map<String, Attr> actualAttributes = getAttributes(actual);
+		for (Map.Entry<String, Attr> attribute : getAttributes(expected).entrySet()) {
+			String name = attribute.getKey();
+			Attr actualAttribute = actualAttributes.remove(name);
+			if (isIgnored(names, "@" + name)) continue;
+
+			String expectedValue = attribute.getValue().getValue();
+			if (actualAttribute == null) {
+				differences.add(new Difference(Difference.Type.MISSING_ATTRIBUTE, path + "/@" + name, expectedValue, null));
+			} else if (!expectedValue.equals(wildcard) && !expectedValue.equals(actualAttribute.getValue())) {
+				differences.add(new Difference(Difference.Type.ATTRIBUTE, path + "/@" + name, expectedValue, summarize(actualAttribute.getValue())));
+			}
+		}
+		for (Map.Entry<String, Attr> attribute : actualAttributes.entrySet()) {
+			if (isIgnored(names, "@" + attribute.getKey())) continue;
+			differences.add(new Difference(Difference.Type.UNEXPECTED_ATTRIBUTE, path + "/@" + attribute.getKey(), null,
+					summarize(attribute.getValue().getValue())));
+		}
+	}
+
+	private void compareChildren(List<Element> expected, List<Element> actual, String path, List<String> names, List<Difference> differences) {
+		String[] actualPaths = getPaths(actual, path);
+		String[] expectedPaths = getPaths(expected, path);
+
+		int next = 0;
+		for (int index = 0; index < expected.size(); index++) {
+			Element child = expected.get(index);
+			String name = XMLTools.getLocalName(child);
+			names.add(name);
+			try {
+				if (isIgnored(names)) {
+					// An ignored node may or may not be present
+					while (next < actual.size() && name.equals(XMLTools.getLocalName(actual.get(next)))) {
+						next++;
+					}
+					continue;
+				}
+
+				int match = find(actual, next, name);
+				if (match < 0) {
+					if (!isOptional(child)) differences.add(new Difference(Difference.Type.MISSING_NODE, expectedPaths[index], null, null));
+					continue;
+				}
+				// Nodes passed over to reach the match were not expected
+				for (; next < match; next++) {
+					addUnexpected(actual.get(next), actualPaths[next], names, differences);
+				}
+				compareElement(child, actual.get(next), actualPaths[next], names, differences);
+				next++;
+				if (isRepeating(child)) {
+					for (; next < actual.size() && name.equals(XMLTools.getLocalName(actual.get(next))); next++) {
+						compareElement(child, actual.get(next), actualPaths[next], names, differences);
+					}
+				}
+			} finally {
+				names.remove(names.size() - 1);
+			}
+		}
+
+		for (; next < actual.size(); next++) {
+			addUnexpected(actual.get(next), actualPaths[next], names, differences);
+		}
+	}
+
+	private void addUnexpected(Element element, String path, List<String> names, List<Difference> differences) {
+		names.add(XMLTools.getLocalName(element));
+		try {
+			if (!isIgnored(names)) {
+				differences.add(new Difference(Difference.Type.UNEXPECTED_NODE, path, null, summarize(element.getTextContent().trim())));
+			}
+		} finally {
+			names.remove(names.size() - 1);
+		}
+	}
+
+	private static int find(List<Element> elements, int from, String name) {
+		for (int index = from; index < elements.size(); index++) {
+			if (name.equals(XMLTools.getLocalName(elements.get(index)))) return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Xpath of each element, with its position among siblings of the same
+	 * name after the first
+	 */
+	private static String[] getPaths(List<Element> elements, String parent) {
+		String[] paths = new String[elements.size()];
+		Map<String, Integer> positions = new HashMap<String, Integer>();
+		for (int index = 0; index < paths.length; index++) {
+			String name = XMLTools.getLocalName(elements.get(index));
+			Integer position = positions.get(name);
+			position = position == null ? 1 : position + 1;
+			positions.put(name, position);
+			paths[index] = parent + "/" + name + (position > 1 ? "[" + position + "]" : "");
+		}
+		return paths;
+	}
+
+	private boolean isOptional(Element element) {
+		String hints = getHints(element);
+		return hints.contains("Optional") || hints.contains("Zero or more");
+	}
+
+	private boolean isRepeating(Element element) {
+		return getHints(element).contains("repetitions");
+	}
+
+	/**
+	 * Comments written by SoapUI between an element and the element before it
+	 */
+	private String getHints(Element element) {
+		if (!templateHints) return "";
+		StringBuilder hints = new StringBuilder();
+		for (Node node = element.getPreviousSibling(); node != null && node.getNodeType() != Node.ELEMENT_NODE; node = node.getPreviousSibling()) {
+			if (node.getNodeType() == Node.COMMENT_NODE) hints.append(node.getNodeValue());
+		}
+		return hints.toString();
+	}
+
+	private boolean isIgnored(List<String> names) {
+		return isIgnored(names, null);
+	}
+
+	private boolean isIgnored(List<String> names, String attribute) {
+		for (IgnoreRule rule : ignored) {
+			if (rule.matches(names, attribute)) return true;
+		}
+		return false;
+	}
+
+	private static List<Element> getChildElements(Element element) {
+		List<Element> children = new ArrayList<Element>();
+		for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE) children.add((Element) child);
+		}
+		return children;
+	}
+
+	/**
+	 * Attributes keyed by name without prefix, leaving out namespace declarations
+	 */
+	private static Map<String, Attr> getAttributes(Element element) {
+		Map<String, Attr> attributes = new HashMap<String, Attr>();
+		NamedNodeMap map = element.getAttributes();
+		for (int index = 0; index < map.getLength(); index++) {
+			Attr attribute = (Attr) map.item(index);
+			String name = attribute.getName();
+			if (name.equals("xmlns") || name.startsWith("xmlns:")) continue;
+			attributes.put(XMLTools.getLocalName(attribute), attribute);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Text directly inside an element, not that of its children
+	 */
+	private static String getText(Element element) {
+		StringBuilder text = new StringBuilder();
+		for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+				text.append(child.getNodeValue());
+			}
+		}
+		return text.toString().trim();
+	}
+
+	private static String summarize(String value) {
+		if (value == null || value.length() <= MAX_VALUE_LENGTH) return value;
+		return value.substring(0, MAX_VALUE_LENGTH) + "...";
+	}
+
+	private static class IgnoreRule {
+		private final String[] steps;
+		private final boolean anywhere;
+
+		private IgnoreRule(String path) {
+			String trimmed = path.trim();
+			anywhere = trimmed.startsWith("//");
+			while (trimmed.startsWith("/")) {
+				trimmed = trimmed.substring(1);
+			}
+			if (trimmed.isEmpty()) throw new IllegalArgumentException("Path to ignore cannot be empty");
+			steps = trimmed.split("/");
+			for (int index = 0; index < steps.length; index++) {
+				// Prefixes are not compared, so they are dropped from the path
+				String step = steps[index];
+				boolean attribute = step.startsWith("@");
+				String name = attribute ? step.substring(1) : step;
+				steps[index] = (attribute ? "@" : "") + name.substring(name.indexOf(':') + 1);
+			}
+		}
+
+		private boolean matches(List<String> names, String attribute) {
+			int length = names.size() + (attribute == null ? 0 : 1);
+			if (anywhere ? steps.length > length : steps.length != length) return false;
+
+			int offset = length - steps.length;
+			for (int index = 0; index < steps.length; index++) {
+				int position = offset + index;
+				String name = position < names.size() ? names.get(position) : attribute;
+				String step = steps[index];
+				if (step.equals("*") && !name.startsWith("@")) continue;
+				if (step.equals("@*") && name.startsWith("@")) continue;
+				if (!step.equals(name)) return false;
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.orasi.api.soapServices.core.load;
+
+import com.orasi.api.soapServices.core.SoapService;
+
+/**
+ * @summary Builds the operation sent for each request of a load run
+ * @version Created: 10/18/2026
+ */
+public interface LoadOperationFactory {
+	/**
+	 * @summary Creates an operation with its request built from a row of test
+	 *          data. Called on the worker thread that sends the request, so a
+	 *          new operation must be returned on every call.
+	 * @param row Object[]: Row of the data source, chosen in turn for each request
+	 * @return Operation ready to be sent
+	 */
+	SoapService create(Object[] row);
+}
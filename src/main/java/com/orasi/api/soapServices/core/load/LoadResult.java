@@ -0,0 +1,180 @@
+package com.orasi.api.soapServices.core.load;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.testng.Reporter;
+
+/**
+ * @summary Outcome of a {@link LoadRunner} run. Requests are grouped by the
+ *          value of {@link com.orasi.api.soapServices.core.SoapService#getResponseStatusCode()},
+ *          or by the name of the exception thrown if no response was read.
+ *          Every status other than 200 counts as an error. Latencies are
+ *          recorded in microseconds.
+ * @version Created: 10/18/2026
+ */
+public class LoadResult {
+	/** Percentiles shown by {@link #toString()} and {@link #report()} */
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+	private static final String SUCCESS = "200";
+
+	private final long elapsedNanos;
+	private final double targetRate;
+	private final int workers;
+	private final Histogram latencies;
+	private final Map<String, Long> statusCodes;
+	private final long requests;
+	private final long errors;
+
+	LoadResult(long elapsedNanos, double targetRate, int workers, Histogram latencies, Map<String, Long> statusCodes) {
+		this.elapsedNanos = elapsedNanos;
+		this.targetRate = targetRate;
+		this.workers = workers;
+		this.latencies = latencies;
+		this.statusCodes = Collections.unmodifiableMap(new TreeMap<String, Long>(statusCodes));
+
+		long total = 0;
+		long failed = 0;
+		for (Map.Entry<String, Long> status : statusCodes.entrySet()) {
+			total += status.getValue();
+			if (!SUCCESS.equals(status.getKey())) failed += status.getValue();
+		}
+		this.requests = total;
+		this.errors = failed;
+	}
+
+	/**
+	 * @return Number of requests attempted while measuring
+	 */
+	public long getRequestCount() {
+		return requests;
+	}
+
+	/**
+	 * @return Number of requests that did not return a 200 status
+	 */
+	public long getErrorCount() {
+		return errors;
+	}
+
+	/**
+	 * @return Fraction of requests that did not return a 200 status, from 0 to 1
+	 */
+	public double getErrorRate() {
+		return requests == 0 ? 0 : (double) errors / requests;
+	}
+
+	/**
+	 * @return Requests completed per second while measuring
+	 */
+	public double getThroughput() {
+		return requests / (elapsedNanos / 1000000000d);
+	}
+
+	/**
+	 * @return Rate requests were scheduled at, or 0 if they were sent back to back
+	 */
+	public double getTargetRate() {
+		return targetRate;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * @param unit TimeUnit: Unit to return the time in
+	 * @return Time spent measuring
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return Number of requests for each status code, ordered by status
+	 */
+	public Map<String, Long> getStatusCodes() {
+		return statusCodes;
+	}
+
+	/**
+	 * @return Latencies of every request that was sent, in microseconds
+	 */
+	public Histogram getLatencyHistogram() {
+		return latencies;
+	}
+
+	/**
+	 * @param percentile double: Percentile from 0 to 100, e.g. 99.9
+	 * @return Latency in milliseconds at or below which the percentile of
+	 *         requests completed
+	 */
+	public double getPercentile(double percentile) {
+		return latencies.getValueAtPercentile(percentile) / 1000d;
+	}
+
+	/**
+	 * @return Mean latency in milliseconds
+	 */
+	public double getMean() {
+		return latencies.getMean() / 1000d;
+	}
+
+	/**
+	 * @return Highest latency in milliseconds
+	 */
+	public double getMax() {
+		return latencies.getMaxValue() / 1000d;
+	}
+
+	/**
+	 * @summary Logs the result as a table to the TestNG report
+	 */
+	public void report() {
+		StringBuilder table = new StringBuilder();
+		table.append("<table border='1' width='100%'>");
+		row(table, "<b>Measure</b>", "<b>Value</b>");
+		row(table, "Workers", String.valueOf(workers));
+		row(table, "Target Rate", targetRate > 0 ? String.format("%.1f/sec", targetRate) : "Closed");
+		row(table, "Requests", String.valueOf(requests));
+		row(table, "Throughput", String.format("%.1f/sec", getThroughput()));
+		row(table, "Error Rate", String.format("%.2f%%", getErrorRate() * 100));
+		for (Map.Entry<String, Long> status : statusCodes.entrySet()) {
+			row(table, "Status " + status.getKey(), String.valueOf(status.getValue()));
+		}
+		row(table, "Mean", String.format("%.3f ms", getMean()));
+		for (double percentile : PERCENTILES) {
+			row(table, "p" + format(percentile), String.format("%.3f ms", getPercentile(percentile)));
+		}
+		row(table, "Max", String.format("%.3f ms", getMax()));
+		table.append("</table>");
+		Reporter.log(table.toString() + "<br/>");
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(String.format("%d requests in %.1fs by %d workers (%s): %.1f requests/sec, %.2f%% errors %s",
+				requests, elapsedNanos / 1000000000d, workers,
+				targetRate > 0 ? String.format("target %.1f/sec", targetRate) : "closed",
+				getThroughput(), getErrorRate() * 100, statusCodes));
+		summary.append(String.format(", latency mean %.3fms", getMean()));
+		for (double percentile : PERCENTILES) {
+			summary.append(String.format(" p%s %.3fms", format(percentile), getPercentile(percentile)));
+		}
+		summary.append(String.format(" max %.3fms", getMax()));
+		return summary.toString();
+	}
+
+	private static void row(StringBuilder table, String name, String value) {
+		table.append("<tr><td style='width: 100px; color: black; text-align: left;'>" + name + "</td>");
+		table.append("<td style='width: 100px; color: black; text-align: center;'>" + value + "</td></tr>");
+	}
+
+	private static String format(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+	}
+}
@@ -0,0 +1,279 @@
+package com.orasi.api.soapServices.core.load;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+
+/**
+ * @summary Drives an existing operation as a load generator. Each request is
+ *          built by a {@link LoadOperationFactory} from the next row of a data
+ *          source and sent with {@link SoapService#sendRequest()}, so the
+ *          operations used for functional tests can be reused unchanged. <br>
+ *          <br>
+ *          Without a target rate the run is a closed model: every worker sends
+ *          its next request as soon as the last one returns. With a target
+ *          rate the run is an open model: requests are scheduled at fixed
+ *          intervals whether or not earlier ones have returned, and latency is
+ *          measured from the time each request was scheduled to start. A
+ *          server that stalls is then charged for the requests that queued
+ *          behind the stall instead of hiding them. Enough workers need to be
+ *          given to keep up with the rate.<br>
+ *          <br>
+ *          Example: <br>
+ *          <code>LoadResult result = new LoadRunner(GetInfoByState.class, new Object[][] { { "/Envelope/Body/GetInfoByState/USState", "CO" } })
+ *          <br>.setWorkers(8).setTargetRate(100).setDuration(30, TimeUnit.SECONDS).run();</code>
+ * @version Created: 10/18/2026
+ */
+public class LoadRunner {
+	private final LoadOperationFactory factory;
+	private final Object[][] data;
+	private int workers = Runtime.getRuntime().availableProcessors();
+	private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+	private long warmupNanos = 0;
+	private double targetRate = 0;
+
+	/**
+	 * @summary Creates a runner that builds each request by creating the
+	 *          operation with its no-argument constructor, then setting the
+	 *          request values of a data row with
+	 *          {@link SoapService#setRequestNodeValueByXPath(String, String)}.
+	 *          Each row holds pairs of xpath and value, e.g. <br>
+	 *          <code>{ "/Envelope/Body/GetInfoByState/USState", "CO" }</code>
+	 * @param operation Class: Operation to send
+	 * @param data Object[][]: Rows of xpath and value pairs, used in turn. A
+	 *            single empty row sends the request as the operation builds it.
+	 */
+	public LoadRunner(final Class<? extends SoapService> operation, Object[][] data) {
+		this(new LoadOperationFactory() {
+			@Override
+			public SoapService create(Object[] row) {
+				SoapService service;
+				try {
+					service = operation.newInstance();
+				} catch (InstantiationException | IllegalAccessException e) {
+					throw new SoapException("Failed to create operation [ " + operation.getName() + " ]. Ensure it has a public no-argument constructor.", e);
+				}
+				for (int index = 0; index + 1 < row.length; index += 2) {
+					service.setRequestNodeValueByXPath(String.valueOf(row[index]), String.valueOf(row[index + 1]));
+				}
+				return service;
+			}
+		}, data);
+	}
+
+	/**
+	 * @param factory LoadOperationFactory: Builds the operation for each request
+	 * @param data Object[][]: Rows handed to the factory in turn, e.g. the
+	 *            rows of a data provider
+	 */
+	public LoadRunner(LoadOperationFactory factory, Object[][] data) {
+		if (data == null || data.length == 0) throw new IllegalArgumentException("At least one row of data is needed to build requests");
+		this.factory = factory;
+		this.data = data;
+	}
+
+	/**
+	 * @param workers int: Number of threads sending requests. Defaults to the number of processors.
+	 * @return This runner
+	 */
+	public LoadRunner setWorkers(int workers) {
+		if (workers < 1) throw new IllegalArgumentException("Workers needs to be 1 or greater. Workers entered was: " + workers);
+		this.workers = workers;
+		return this;
+	}
+
+	/**
+	 * @param duration long: How long requests are measured for. Defaults to 10 seconds.
+	 * @param unit TimeUnit: Unit of the duration
+	 * @return This runner
+	 */
+	public LoadRunner setDuration(long duration, TimeUnit unit) {
+		if (duration <= 0) throw new IllegalArgumentException("Duration needs to be greater than 0. Duration entered was: " + duration);
+		this.durationNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * @summary Sends requests for a time before measuring starts, so the
+	 *          results are not skewed by class loading, JIT compilation and
+	 *          connection setup. Defaults to none.
+	 * @param warmup long: How long requests are sent before measuring
+	 * @param unit TimeUnit: Unit of the warmup
+	 * @return This runner
+	 */
+	public LoadRunner setWarmup(long warmup, TimeUnit unit) {
+		if (warmup < 0) throw new IllegalArgumentException("Warmup cannot be negative. Warmup entered was: " + warmup);
+		this.warmupNanos = unit.toNanos(warmup);
+		return this;
+	}
+
+	/**
+	 * @param requestsPerSecond double: Rate requests are scheduled at across
+	 *            all workers, or 0 to send requests back to back
+	 * @return This runner
+	 */
+	public LoadRunner setTargetRate(double requestsPerSecond) {
+		if (requestsPerSecond < 0) throw new IllegalArgumentException("Target rate cannot be negative. Rate entered was: " + requestsPerSecond);
+		this.targetRate = requestsPerSecond;
+		return this;
+	}
+
+	/**
+	 * @summary Sends requests for the warmup and then the duration, and waits
+	 *          for every worker to finish its last request
+	 * @return Throughput, status codes and latencies of the measured requests
+	 */
+	public LoadResult run() {
+		ExecutorService executor = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "soap-load-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			if (warmupNanos > 0) execute(executor, warmupNanos);
+			long start = System.nanoTime();
+			List<Worker> finished = execute(executor, durationNanos);
+			long elapsed = System.nanoTime() - start;
+
+			Histogram latencies = new Histogram(3);
+			Map<String, Long> statusCodes = new HashMap<String, Long>();
+			for (Worker worker : finished) {
+				latencies.add(worker.latencies);
+				for (Map.Entry<String, Long> status : worker.statusCodes.entrySet()) {
+					Long count = statusCodes.get(status.getKey());
+					statusCodes.put(status.getKey(), count == null ? status.getValue() : count + status.getValue());
+				}
+			}
+			return new LoadResult(elapsed, targetRate, workers, latencies, statusCodes);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<Worker> execute(ExecutorService executor, long nanos) {
+		long start = System.nanoTime();
+		Schedule schedule = new Schedule(start, start + nanos, targetRate);
+		List<Worker> started = new ArrayList<Worker>();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int index = 0; index < workers; index++) {
+			Worker worker = new Worker(schedule);
+			started.add(worker);
+			futures.add(executor.submit(worker));
+		}
+
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new SoapException("Interrupted while waiting for the load run to finish", ie);
+		} catch (ExecutionException ee) {
+			throw new SoapException("Load worker failed", ee.getCause());
+		}
+		return started;
+	}
+
+	/**
+	 * Hands out request numbers and the time each request is due to start
+	 */
+	private static class Schedule {
+		private final AtomicLong tickets = new AtomicLong();
+		private final long start;
+		private final long end;
+		private final double intervalNanos;
+
+		private Schedule(long start, long end, double rate) {
+			this.start = start;
+			this.end = end;
+			this.intervalNanos = rate > 0 ? 1000000000d / rate : 0;
+		}
+
+		private boolean isOpen() {
+			return intervalNanos > 0;
+		}
+
+		/**
+		 * @return Time the ticket's request is due, or the current time if
+		 *         requests are sent back to back
+		 */
+		private long dueAt(long ticket) {
+			return isOpen() ? start + (long) (ticket * intervalNanos) : System.nanoTime();
+		}
+	}
+
+	private class Worker implements Runnable {
+		private final Schedule schedule;
+		private final Histogram latencies = new Histogram(3);
+		private final Map<String, Long> statusCodes = new HashMap<String, Long>();
+
+		private Worker(Schedule schedule) {
+			this.schedule = schedule;
+		}
+
+		@Override
+		public void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				long ticket = schedule.tickets.getAndIncrement();
+				long due = schedule.dueAt(ticket);
+				if (due >= schedule.end) return;
+
+				// The operation is built before waiting for its turn, so only
+				// the call to the service is measured
+				SoapService operation;
+				try {
+					operation = factory.create(data[(int) (ticket % data.length)]);
+				} catch (RuntimeException re) {
+					// Never sent, so counted as an error without a latency
+					count(re.getClass().getSimpleName());
+					continue;
+				}
+
+				for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+					LockSupport.parkNanos(wait);
+					if (Thread.currentThread().isInterrupted()) return;
+				}
+
+				if (!schedule.isOpen()) due = System.nanoTime();
+				String status;
+				try {
+					operation.sendRequest();
+					status = operation.getResponseStatusCode();
+				} catch (RuntimeException re) {
+					status = re.getClass().getSimpleName();
+				}
+				record(status, System.nanoTime() - due);
+			}
+		}
+
+		private void record(String status, long nanos) {
+			latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+			count(status);
+		}
+
+		private void count(String status) {
+			Long count = statusCodes.get(status);
+			statusCodes.put(status, count == null ? 1 : count + 1);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.orasi.api.soapServices.core.metrics;
+
+/**
+ * @summary Phases a call to {@link com.orasi.api.soapServices.core.SoapService#sendRequest()}
+ *          is timed in, in the order they happen
+ * @version Created: 10/18/2026
+ */
+public enum CallPhase {
+	/** Printing the request Document to the bytes sent on the wire */
+	SERIALIZE("serialize"),
+	/** Leasing a pooled connection, or opening and handshaking a new one */
+	CONNECT("connect"),
+	/** Sending the request until the response headers arrive, mostly server time */
+	FIRST_BYTE("firstByte"),
+	/** Reading the response body */
+	READ("read"),
+	/** Building the response Document, or reading the Envelope when validation is streamed */
+	PARSE("parse");
+
+	private final String label;
+
+	private CallPhase(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * @return Name of the phase used in exported reports
+	 */
+	public String getLabel() {
+		return label;
+	}
+}
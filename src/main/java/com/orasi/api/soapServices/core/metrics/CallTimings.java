@@ -0,0 +1,84 @@
+package com.orasi.api.soapServices.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @summary Time spent in each {@link CallPhase} of a single call to a service
+ * @version Created: 10/18/2026
+ */
+public class CallTimings {
+	private final String serviceName;
+	private final String operationName;
+	private final String url;
+	private final String statusCode;
+	private final long[] phases;
+
+	/**
+	 * @param serviceName String: Name of the service called
+	 * @param operationName String: Name of the operation called
+	 * @param url String: Endpoint the request was sent to
+	 * @param statusCode String: Status code of the response, 200 or the fault code
+	 * @param phaseNanos long[]: Nanoseconds spent in each phase, in the order of {@link CallPhase#values()}
+	 */
+	public CallTimings(String serviceName, String operationName, String url, String statusCode, long[] phaseNanos) {
+		if (phaseNanos.length != CallPhase.values().length) {
+			throw new IllegalArgumentException("Expected " + CallPhase.values().length + " phase timings but received [ " + phaseNanos.length + " ]");
+		}
+		this.serviceName = serviceName;
+		this.operationName = operationName;
+		this.url = url;
+		this.statusCode = statusCode;
+		this.phases = phaseNanos.clone();
+	}
+
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	public String getOperationName() {
+		return operationName;
+	}
+
+	/**
+	 * @return Service and operation the timings are aggregated under, e.g. USZip#GetInfoByState
+	 */
+	public String getKey() {
+		return serviceName + "#" + operationName;
+	}
+
+	public String getURL() {
+		return url;
+	}
+
+	public String getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @param phase CallPhase: Phase of the call
+	 * @return Nanoseconds spent in the phase
+	 */
+	public long getNanos(CallPhase phase) {
+		return phases[phase.ordinal()];
+	}
+
+	/**
+	 * @return Nanoseconds spent in all phases
+	 */
+	public long getTotalNanos() {
+		long total = 0;
+		for (long phase : phases) {
+			total += phase;
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder timings = new StringBuilder(getKey()).append(" [").append(statusCode).append("]");
+		for (CallPhase phase : CallPhase.values()) {
+			timings.append(' ').append(phase.getLabel()).append('=').append(TimeUnit.NANOSECONDS.toMicros(getNanos(phase))).append("us");
+		}
+		return timings.append(" total=").append(TimeUnit.NANOSECONDS.toMicros(getTotalNanos())).append("us").toString();
+	}
+}
@@ -0,0 +1,137 @@
+package com.orasi.api.soapServices.core.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * @summary Listener that aggregates call timings per service and operation,
+ *          keeping a latency histogram in microseconds for every
+ *          {@link CallPhase} and for the whole call
+ * @version Created: 10/18/2026
+ */
+public class LatencyAggregator implements SoapCallListener {
+	private final ConcurrentMap<String, OperationLatency> operations = new ConcurrentHashMap<String, OperationLatency>();
+
+	@Override
+	public void onCall(CallTimings timings) {
+		OperationLatency operation = operations.get(timings.getKey());
+		if (operation == null) {
+			OperationLatency created = new OperationLatency(timings.getServiceName(), timings.getOperationName());
+			operation = operations.putIfAbsent(timings.getKey(), created);
+			if (operation == null) operation = created;
+		}
+		operation.record(timings);
+	}
+
+	/**
+	 * @return Snapshot of the latencies recorded so far, keyed and ordered by
+	 *         service#operation
+	 */
+	public Map<String, OperationLatency> getOperations() {
+		Map<String, OperationLatency> snapshot = new TreeMap<String, OperationLatency>();
+		for (Map.Entry<String, OperationLatency> operation : operations.entrySet()) {
+			snapshot.put(operation.getKey(), operation.getValue().copy());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @summary Discards every recorded timing
+	 */
+	public void clear() {
+		operations.clear();
+	}
+
+	/**
+	 * @summary Latencies of one operation of a service
+	 */
+	public static class OperationLatency {
+		private final String serviceName;
+		private final String operationName;
+		private final Map<CallPhase, Histogram> phases = new EnumMap<CallPhase, Histogram>(CallPhase.class);
+		private final Histogram total = new Histogram(3);
+		private final Map<String, Long> statusCodes = new TreeMap<String, Long>();
+
+		private OperationLatency(String serviceName, String operationName) {
+			this.serviceName = serviceName;
+			this.operationName = operationName;
+			for (CallPhase phase : CallPhase.values()) {
+				phases.put(phase, new Histogram(3));
+			}
+		}
+
+		private synchronized void record(CallTimings timings) {
+			for (CallPhase phase : CallPhase.values()) {
+				phases.get(phase).recordValue(TimeUnit.NANOSECONDS.toMicros(timings.getNanos(phase)));
+			}
+			total.recordValue(TimeUnit.NANOSECONDS.toMicros(timings.getTotalNanos()));
+			Long count = statusCodes.get(timings.getStatusCode());
+			statusCodes.put(timings.getStatusCode(), count == null ? 1 : count + 1);
+		}
+
+		private synchronized OperationLatency copy() {
+			OperationLatency copy = new OperationLatency(serviceName, operationName);
+			for (CallPhase phase : CallPhase.values()) {
+				copy.phases.get(phase).add(phases.get(phase));
+			}
+			copy.total.add(total);
+			copy.statusCodes.putAll(statusCodes);
+			return copy;
+		}
+
+		public String getServiceName() {
+			return serviceName;
+		}
+
+		public String getOperationName() {
+			return operationName;
+		}
+
+		/**
+		 * @return Number of calls recorded
+		 */
+		public long getCount() {
+			return total.getTotalCount();
+		}
+
+		/**
+		 * @return Number of calls that did not return a 200 status
+		 */
+		public long getErrorCount() {
+			long errors = 0;
+			for (Map.Entry<String, Long> status : statusCodes.entrySet()) {
+				if (!"200".equals(status.getKey())) errors += status.getValue();
+			}
+			return errors;
+		}
+
+		/**
+		 * @return Number of calls for each status code
+		 */
+		public Map<String, Long> getStatusCodes() {
+			return Collections.unmodifiableMap(statusCodes);
+		}
+
+		/**
+		 * @param phase CallPhase: Phase of the call
+		 * @return Latencies of the phase in microseconds
+		 */
+		public Histogram getHistogram(CallPhase phase) {
+			return phases.get(phase);
+		}
+
+		/**
+		 * @return Latencies of the whole call in microseconds
+		 */
+		public Histogram getTotalHistogram() {
+			return total;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.orasi.api.soapServices.core.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orasi.api.soapServices.core.metrics.LatencyAggregator.OperationLatency;
+
+/**
+ * @summary Writes the latencies collected by a {@link LatencyAggregator} to
+ *          CSV or JSON, one entry per service and operation, so latency can be
+ *          compared from one build to the next. All times are in
+ *          milliseconds.
+ * @version Created: 10/18/2026
+ */
+public class LatencyReportExporter {
+	private static final double[] PERCENTILES = { 50, 90, 99 };
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private LatencyReportExporter() {
+	}
+
+	/**
+	 * @summary Writes one row per service and operation with the count, errors
+	 *          and the mean, percentiles and max of every phase
+	 * @param aggregator LatencyAggregator: Latencies to write
+	 * @param file File: File to write, replaced if it exists
+	 * @throws IOException The file could not be written
+	 */
+	public static void writeCsv(LatencyAggregator aggregator, File file) throws IOException {
+		Writer writer = open(file);
+		try {
+			List<String> header = new ArrayList<String>();
+			header.add("service");
+			header.add("operation");
+			header.add("count");
+			header.add("errors");
+			for (String phase : getPhaseLabels()) {
+				header.add(phase + "Mean");
+				for (double percentile : PERCENTILES) {
+					header.add(phase + "P" + (long) percentile);
+				}
+				header.add(phase + "Max");
+			}
+			writeCsvLine(writer, header);
+
+			for (OperationLatency operation : aggregator.getOperations().values()) {
+				List<String> row = new ArrayList<String>();
+				row.add(operation.getServiceName());
+				row.add(operation.getOperationName());
+				row.add(String.valueOf(operation.getCount()));
+				row.add(String.valueOf(operation.getErrorCount()));
+				for (Histogram histogram : getHistograms(operation)) {
+					row.add(millis(histogram.getMean()));
+					for (double percentile : PERCENTILES) {
+						row.add(millis(histogram.getValueAtPercentile(percentile)));
+					}
+					row.add(millis(histogram.getMaxValue()));
+				}
+				writeCsvLine(writer, row);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @summary Writes an array with one object per service and operation,
+	 *          holding the count, errors, status codes and a summary of every
+	 *          phase
+	 * @param aggregator LatencyAggregator: Latencies to write
+	 * @param file File: File to write, replaced if it exists
+	 * @throws IOException The file could not be written
+	 */
+	public static void writeJson(LatencyAggregator aggregator, File file) throws IOException {
+		List<Map<String, Object>> report = new ArrayList<Map<String, Object>>();
+		for (OperationLatency operation : aggregator.getOperations().values()) {
+			Map<String, Object> entry = new LinkedHashMap<String, Object>();
+			entry.put("service", operation.getServiceName());
+			entry.put("operation", operation.getOperationName());
+			entry.put("count", operation.getCount());
+			entry.put("errors", operation.getErrorCount());
+			entry.put("statusCodes", operation.getStatusCodes());
+
+			Map<String, Object> phases = new LinkedHashMap<String, Object>();
+			List<String> labels = getPhaseLabels();
+			List<Histogram> histograms = getHistograms(operation);
+			for (int index = 0; index < labels.size(); index++) {
+				Histogram histogram = histograms.get(index);
+				Map<String, Object> summary = new LinkedHashMap<String, Object>();
+				summary.put("mean", histogram.getMean() / 1000d);
+				for (double percentile : PERCENTILES) {
+					summary.put("p" + (long) percentile, histogram.getValueAtPercentile(percentile) / 1000d);
+				}
+				summary.put("max", histogram.getMaxValue() / 1000d);
+				phases.put(labels.get(index), summary);
+			}
+			entry.put("phases", phases);
+			report.add(entry);
+		}
+
+		Writer writer = open(file);
+		try {
+			mapper.writerWithDefaultPrettyPrinter().writeValue(writer, report);
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static List<String> getPhaseLabels() {
+		List<String> labels = new ArrayList<String>();
+		for (CallPhase phase : CallPhase.values()) {
+			labels.add(phase.getLabel());
+		}
+		labels.add("total");
+		return labels;
+	}
+
+	private static List<Histogram> getHistograms(OperationLatency operation) {
+		List<Histogram> histograms = new ArrayList<Histogram>();
+		for (CallPhase phase : CallPhase.values()) {
+			histograms.add(operation.getHistogram(phase));
+		}
+		histograms.add(operation.getTotalHistogram());
+		return histograms;
+	}
+
+	private static Writer open(File file) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (directory != null && !directory.exists() && !directory.mkdirs()) {
+			throw new IOException("Failed to create directory [ " + directory + " ]");
+		}
+		return new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+	}
+
+	private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+		for (int index = 0; index < values.size(); index++) {
+			if (index > 0) writer.write(',');
+			String value = values.get(index) == null ? "" : values.get(index);
+			if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+				value = "\"" + value.replace("\"", "\"\"") + "\"";
+			}
+			writer.write(value);
+		}
+		writer.write("\n");
+	}
+
+	private static String millis(double micros) {
+		return String.format(Locale.ENGLISH, "%.3f", micros / 1000d);
+	}
+}
@@ -0,0 +1,45 @@
+package com.orasi.api.soapServices.core.metrics;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * @summary TestNG listener that records the latency of every service call
+ *          made during a suite and writes latency-report.csv and
+ *          latency-report.json to the suite's output directory when it
+ *          finishes. Register it in the suite xml: <br>
+ *          <code>&lt;listener class-name="com.orasi.api.soapServices.core.metrics.LatencyReportListener" /&gt;</code>
+ * @version Created: 10/18/2026
+ */
+public class LatencyReportListener implements ISuiteListener {
+	private final LatencyAggregator aggregator = new LatencyAggregator();
+
+	@Override
+	public void onStart(ISuite suite) {
+		SoapCallMetrics.addListener(aggregator);
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		SoapCallMetrics.removeListener(aggregator);
+		if (aggregator.getOperations().isEmpty()) return;
+
+		File directory = new File(suite.getOutputDirectory());
+		try {
+			LatencyReportExporter.writeCsv(aggregator, new File(directory, "latency-report.csv"));
+			LatencyReportExporter.writeJson(aggregator, new File(directory, "latency-report.json"));
+		} catch (IOException ioe) {
+			throw new RuntimeException("Failed to write the latency report to [ " + directory + " ]", ioe);
+		}
+	}
+
+	/**
+	 * @return Latencies recorded during the suite
+	 */
+	public LatencyAggregator getAggregator() {
+		return aggregator;
+	}
+}
@@ -0,0 +1,17 @@
+package com.orasi.api.soapServices.core.metrics;
+
+/**
+ * @summary Receives the timings of every call made through
+ *          {@link com.orasi.api.soapServices.core.SoapService#sendRequest()}.
+ *          Register with {@link SoapCallMetrics#addListener(SoapCallListener)}.
+ * @version Created: 10/18/2026
+ */
+public interface SoapCallListener {
+	/**
+	 * @summary Called on the thread that sent the request, once the response
+	 *          has been read. Implementations must be thread safe and should
+	 *          return quickly, as the time spent here delays the caller.
+	 * @param timings CallTimings: Timings of the call
+	 */
+	void onCall(CallTimings timings);
+}
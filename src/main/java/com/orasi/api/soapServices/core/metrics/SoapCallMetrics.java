@@ -0,0 +1,60 @@
+package com.orasi.api.soapServices.core.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.orasi.utils.TestReporter;
+
+/**
+ * @summary Process wide registry of {@link SoapCallListener}s. Timings are
+ *          only collected while at least one listener is registered.
+ * @version Created: 10/18/2026
+ */
+public class SoapCallMetrics {
+	private static final List<SoapCallListener> listeners = new CopyOnWriteArrayList<SoapCallListener>();
+
+	private SoapCallMetrics() {
+	}
+
+	/**
+	 * @param listener SoapCallListener: Listener to notify of every call
+	 */
+	public static void addListener(SoapCallListener listener) {
+		if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener SoapCallListener: Listener to stop notifying
+	 */
+	public static void removeListener(SoapCallListener listener) {
+		listeners.remove(listener);
+	}
+
+	public static void clearListeners() {
+		listeners.clear();
+	}
+
+	/**
+	 * @return True if any listener is registered
+	 */
+	public static boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * @summary Hands the timings of a call to every listener. A listener that
+	 *          fails does not fail the call or stop other listeners from being
+	 *          notified.
+	 * @param timings CallTimings: Timings of the call
+	 */
+	public static void publish(CallTimings timings) {
+		for (SoapCallListener listener : listeners) {
+			try {
+				listener.onCall(timings);
+			} catch (RuntimeException re) {
+				TestReporter.logFailure("SOAP call listener [ " + listener.getClass().getName() + " ] failed: " + re);
+			}
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package com.orasi.api.soapServices.core.scenario;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Reporter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * @summary Results of the scenarios run by one or more {@link ScenarioRunner}s.
+ *          Each shard can write its report with {@link #writeJson(File)} and
+ *          the files read back and combined with {@link #merge(File...)} once
+ *          every shard has finished.
+ * @version Created: 10/18/2026
+ */
+public class ScenarioReport {
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final String workbook;
+	private final long elapsedNanos;
+	private final List<ScenarioResult> results;
+
+	ScenarioReport(String workbook, long elapsedNanos, List<ScenarioResult> results) {
+		this.workbook = workbook;
+		this.elapsedNanos = elapsedNanos;
+		this.results = Collections.unmodifiableList(new ArrayList<ScenarioResult>(results));
+	}
+
+	/**
+	 * @summary Combines the reports of several shards. The elapsed time is
+	 *          that of the slowest shard, as shards run side by side.
+	 * @param reports ScenarioReport...: Reports to combine
+	 * @return Report holding the results of every shard
+	 */
+	public static ScenarioReport merge(ScenarioReport... reports) {
+		long elapsed = 0;
+		TreeSet<String> workbooks = new TreeSet<String>();
+		List<ScenarioResult> results = new ArrayList<ScenarioResult>();
+		for (ScenarioReport report : reports) {
+			elapsed = Math.max(elapsed, report.elapsedNanos);
+			workbooks.add(report.workbook);
+			results.addAll(report.results);
+		}
+		return new ScenarioReport(workbooks.size() == 1 ? workbooks.first() : workbooks.toString(), elapsed, results);
+	}
+
+	/**
+	 * @summary Reads and combines reports written by {@link #writeJson(File)}
+	 * @param files File...: Reports to combine
+	 * @return Report holding the results of every file
+	 * @throws IOException A file could not be read
+	 */
+	public static ScenarioReport merge(File... files) throws IOException {
+		ScenarioReport[] reports = new ScenarioReport[files.length];
+		for (int index = 0; index < files.length; index++) {
+			reports[index] = readJson(files[index]);
+		}
+		return merge(reports);
+	}
+
+	/**
+	 * @param file File: Report written by {@link #writeJson(File)}
+	 * @return Report read from the file
+	 * @throws IOException The file could not be read
+	 */
+	public static ScenarioReport readJson(File file) throws IOException {
+		JsonNode report = mapper.readTree(file);
+		List<ScenarioResult> results = new ArrayList<ScenarioResult>();
+		for (JsonNode result : report.path("results")) {
+			results.add(new ScenarioResult(result.path("scenario").asText(), result.path("shard").asInt(),
+					result.path("passed").asBoolean(), TimeUnit.MICROSECONDS.toNanos(result.path("elapsedMicros").asLong()),
+					result.hasNonNull("error") ? result.get("error").asText() : null));
+		}
+		return new ScenarioReport(report.path("workbook").asText(),
+				TimeUnit.MICROSECONDS.toNanos(report.path("elapsedMicros").asLong()), results);
+	}
+
+	/**
+	 * @summary Writes the report so it can be merged with the reports of other shards
+	 * @param file File: File to write, replaced if it exists
+	 * @throws IOException The file could not be written
+	 */
+	public void writeJson(File file) throws IOException {
+		List<Map<String, Object>> entries = new ArrayList<Map<String, Object>>();
+		for (ScenarioResult result : results) {
+			Map<String, Object> entry = new LinkedHashMap<String, Object>();
+			entry.put("scenario", result.getScenario());
+			entry.put("shard", result.getShard());
+			entry.put("passed", result.isPassed());
+			entry.put("elapsedMicros", result.getElapsed(TimeUnit.MICROSECONDS));
+			entry.put("error", result.getError());
+			entries.add(entry);
+		}
+		Map<String, Object> report = new LinkedHashMap<String, Object>();
+		report.put("workbook", workbook);
+		report.put("elapsedMicros", getElapsed(TimeUnit.MICROSECONDS));
+		report.put("results", entries);
+
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (directory != null && !directory.exists() && !directory.mkdirs()) {
+			throw new IOException("Failed to create directory [ " + directory + " ]");
+		}
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			mapper.writerWithDefaultPrettyPrinter().writeValue(writer, report);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @return Name of the workbook the scenarios were read from
+	 */
+	public String getWorkbook() {
+		return workbook;
+	}
+
+	/**
+	 * @param unit TimeUnit: Unit to return the time in
+	 * @return Time taken to run every scenario
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return Result of every scenario, in the order they were given to the runners
+	 */
+	public List<ScenarioResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return Results of the scenarios that failed
+	 */
+	public List<ScenarioResult> getFailures() {
+		List<ScenarioResult> failures = new ArrayList<ScenarioResult>();
+		for (ScenarioResult result : results) {
+			if (!result.isPassed()) failures.add(result);
+		}
+		return failures;
+	}
+
+	public int getScenarioCount() {
+		return results.size();
+	}
+
+	public int getPassedCount() {
+		return results.size() - getFailures().size();
+	}
+
+	public int getFailedCount() {
+		return getFailures().size();
+	}
+
+	/**
+	 * @return True if every scenario passed
+	 */
+	public boolean isPassed() {
+		return getFailures().isEmpty();
+	}
+
+	/**
+	 * @summary Logs the totals and every failed scenario as a table to the TestNG report
+	 */
+	public void report() {
+		StringBuilder table = new StringBuilder();
+		table.append("<table border='1' width='100%'>");
+		row(table, "<b>Scenario</b>", "<b>Result</b>");
+		row(table, "Workbook", workbook);
+		row(table, "Scenarios", String.valueOf(getScenarioCount()));
+		row(table, "Passed", String.valueOf(getPassedCount()));
+		row(table, "Failed", String.valueOf(getFailedCount()));
+		row(table, "Elapsed", String.format("%.1fs", elapsedNanos / 1000000000d));
+		for (ScenarioResult failure : getFailures()) {
+			row(table, failure.getScenario(), failure.getError() == null ? "Failed" : failure.getError());
+		}
+		table.append("</table>");
+		Reporter.log(table.toString() + "<br/>");
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d scenarios from %s in %.1fs: %d passed, %d failed", getScenarioCount(), workbook,
+				elapsedNanos / 1000000000d, getPassedCount(), getFailedCount());
+	}
+
+	private static void row(StringBuilder table, String name, String value) {
+		table.append("<tr><td style='width: 100px; color: black; text-align: left;'>" + name + "</td>");
+		table.append("<td style='width: 100px; color: black; text-align: center;'>" + value + "</td></tr>");
+	}
+}
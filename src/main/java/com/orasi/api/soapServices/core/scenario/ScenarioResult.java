@@ -0,0 +1,60 @@
+package com.orasi.api.soapServices.core.scenario;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @summary Outcome of a single scenario run by a {@link ScenarioRunner}
+ * @version Created: 10/18/2026
+ */
+public class ScenarioResult {
+	private final String scenario;
+	private final int shard;
+	private final boolean passed;
+	private final long elapsedNanos;
+	private final String error;
+
+	ScenarioResult(String scenario, int shard, boolean passed, long elapsedNanos, String error) {
+		this.scenario = scenario;
+		this.shard = shard;
+		this.passed = passed;
+		this.elapsedNanos = elapsedNanos;
+		this.error = error;
+	}
+
+	public String getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * @return Index of the shard the scenario was run in
+	 */
+	public int getShard() {
+		return shard;
+	}
+
+	public boolean isPassed() {
+		return passed;
+	}
+
+	/**
+	 * @param unit TimeUnit: Unit to return the time in
+	 * @return Time taken to run the scenario
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return Exception or assertion the scenario failed with, or null if it
+	 *         passed or only returned false
+	 */
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return scenario + (passed ? " passed" : " failed") + String.format(" in %.3fms", elapsedNanos / 1000000d)
+				+ (error == null ? "" : ": " + error);
+	}
+}
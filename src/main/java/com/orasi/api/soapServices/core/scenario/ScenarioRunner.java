@@ -0,0 +1,140 @@
+package com.orasi.api.soapServices.core.scenario;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+
+/**
+ * @summary Runs every scenario of a {@link ScenarioWorkbook} on a pool of
+ *          worker threads. The workbook is read once, and workers take the
+ *          next scenario as soon as they finish the last, so a slow scenario
+ *          does not hold up the rest of a shard. <br>
+ *          <br>
+ *          Scenarios can also be split between JVMs, e.g. parallel CI jobs.
+ *          The shard run defaults to the system properties
+ *          <b>scenario.shard.index</b> and <b>scenario.shard.count</b>, or
+ *          every scenario if they are not set. Each job writes its report with
+ *          {@link ScenarioReport#writeJson(java.io.File)} and the reports are
+ *          combined with {@link ScenarioReport#merge(java.io.File...)}. <br>
+ *          <br>
+ *          Example: <br>
+ *          <code>ScenarioReport report = new ScenarioRunner(WorkbookCache.getWorkbook("/excelsheets/tempConvert.xls"), new ScenarioTask() { <br>
+ *          &nbsp;&nbsp;public boolean run(String scenario, Object[][] values) { <br>
+ *          &nbsp;&nbsp;&nbsp;&nbsp;ChangeTemperatureUnit convert = new ChangeTemperatureUnit(scenario); <br>
+ *          &nbsp;&nbsp;&nbsp;&nbsp;convert.sendRequest(); <br>
+ *          &nbsp;&nbsp;&nbsp;&nbsp;return convert.getNumberOfResults() &gt; 0; <br>
+ *          &nbsp;&nbsp;} <br>
+ *          }).setWorkers(8).run();</code>
+ * @version Created: 10/18/2026
+ */
+public class ScenarioRunner {
+	/** System property holding the index of the shard to run, from 0 */
+	public static final String SHARD_INDEX = "scenario.shard.index";
+	/** System property holding the number of shards the scenarios are split between */
+	public static final String SHARD_COUNT = "scenario.shard.count";
+
+	private final ScenarioWorkbook workbook;
+	private final ScenarioTask task;
+	private int workers = Runtime.getRuntime().availableProcessors();
+	private int shardIndex = Integer.getInteger(SHARD_INDEX, 0);
+	private int shardCount = Integer.getInteger(SHARD_COUNT, 1);
+
+	/**
+	 * @param workbook ScenarioWorkbook: Scenarios to run
+	 * @param task ScenarioTask: Runs each scenario
+	 */
+	public ScenarioRunner(ScenarioWorkbook workbook, ScenarioTask task) {
+		this.workbook = workbook;
+		this.task = task;
+	}
+
+	/**
+	 * @param workers int: Number of threads running scenarios. Defaults to the number of processors.
+	 * @return This runner
+	 */
+	public ScenarioRunner setWorkers(int workers) {
+		if (workers < 1) throw new IllegalArgumentException("Workers needs to be 1 or greater. Workers entered was: " + workers);
+		this.workers = workers;
+		return this;
+	}
+
+	/**
+	 * @summary Runs only the scenarios of one shard, see {@link ScenarioWorkbook#getShard(int, int)}
+	 * @param index int: Shard to run, from 0 to count - 1
+	 * @param count int: Number of shards
+	 * @return This runner
+	 */
+	public ScenarioRunner setShard(int index, int count) {
+		workbook.getShard(index, count);
+		this.shardIndex = index;
+		this.shardCount = count;
+		return this;
+	}
+
+	/**
+	 * @summary Runs the scenarios of the shard and waits for every worker to finish
+	 * @return Result of every scenario, in sheet order
+	 */
+	public ScenarioReport run() {
+		final List<String> scenarios = workbook.getShard(shardIndex, shardCount);
+		final ScenarioResult[] results = new ScenarioResult[scenarios.size()];
+		final AtomicInteger next = new AtomicInteger();
+		int threads = Math.max(1, Math.min(workers, scenarios.size()));
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "soap-scenario-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int index = 0; index < threads; index++) {
+				futures.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						for (int scenario = next.getAndIncrement(); scenario < results.length; scenario = next.getAndIncrement()) {
+							results[scenario] = runScenario(scenarios.get(scenario));
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new SoapException("Interrupted while waiting for the scenarios to finish", ie);
+		} catch (ExecutionException ee) {
+			throw new SoapException("Scenario worker failed", ee.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		return new ScenarioReport(workbook.getName(), System.nanoTime() - start, Arrays.asList(results));
+	}
+
+	private ScenarioResult runScenario(String scenario) {
+		long start = System.nanoTime();
+		boolean passed = false;
+		String error = null;
+		try {
+			passed = task.run(scenario, workbook.getScenario(scenario));
+		} catch (Exception | AssertionError e) {
+			error = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+		}
+		return new ScenarioResult(scenario, shardIndex, passed, System.nanoTime() - start, error);
+	}
+}
@@ -0,0 +1,18 @@
+package com.orasi.api.soapServices.core.scenario;
+
+/**
+ * @summary Runs one scenario of a workbook, e.g. builds an operation with the
+ *          scenario's values, sends it and validates the response
+ * @version Created: 10/18/2026
+ */
+public interface ScenarioTask {
+	/**
+	 * @summary Called on a worker thread of the {@link ScenarioRunner}, so
+	 *          operations must not be shared between calls
+	 * @param scenario String: Name of the scenario
+	 * @param values Object[][]: Rows of xpath and value of the scenario
+	 * @return True if the scenario passed
+	 * @throws Exception Counted as a failure of the scenario, as is a failed assertion
+	 */
+	boolean run(String scenario, Object[][] values) throws Exception;
+}
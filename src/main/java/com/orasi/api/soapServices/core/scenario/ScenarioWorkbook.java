@@ -0,0 +1,180 @@
+package com.orasi.api.soapServices.core.scenario;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+
+import jxl.Cell;
+import jxl.Sheet;
+import jxl.Workbook;
+import jxl.read.biff.BiffException;
+
+/**
+ * @summary Every scenario of a workbook, read in a single pass. The first sheet
+ *          is laid out as for {@link com.orasi.api.soapServices.core.SoapService#getTestScenario(String, String)}:
+ *          a cell holding the scenario name, followed on the rows below by
+ *          the xpath in the next column and the value in the column after
+ *          that, until the xpath column is blank. <br>
+ *          <br>
+ *          The contents of the sheet are held in memory with an index of the
+ *          first cell holding each value, so a scenario is found exactly as
+ *          Sheet.findCell would find it without searching the sheet again.
+ *          The workbook itself is closed once it has been read. <br>
+ *          <br>
+ *          For {@link #getScenarioNames()}, a cell is taken to start a
+ *          scenario when the cell below it is blank and the cell below and to
+ *          the right holds an xpath.
+ * @version Created: 10/18/2026
+ */
+public class ScenarioWorkbook {
+	private final String name;
+	private final String[][] cells;
+	/** Row and column of the first cell holding each value, searching row by row */
+	private final Map<String, int[]> index = new HashMap<String, int[]>();
+	private final List<String> scenarioNames;
+
+	/**
+	 * @summary Reads the scenarios of a sheet already opened
+	 * @param name String: Name of the workbook used in reports
+	 * @param sheet Sheet: Sheet holding the scenarios
+	 */
+	public ScenarioWorkbook(String name, Sheet sheet) {
+		this.name = name;
+		this.cells = readCells(sheet);
+
+		List<String> names = new ArrayList<String>();
+		for (int row = 0; row < cells.length; row++) {
+			for (int column = 0; column < cells[row].length; column++) {
+				String value = get(row, column);
+				if (value.isEmpty() || index.containsKey(value)) continue;
+				index.put(value, new int[] { row, column });
+				if (get(row + 1, column).isEmpty() && !get(row + 1, column + 1).isEmpty()) names.add(value);
+			}
+		}
+		this.scenarioNames = Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * @summary Opens a workbook and reads every scenario of its first sheet
+	 * @param file String: Resource path of the workbook in the project, e.g.
+	 *            /excelsheets/tempConvert.xls, or a path on the hard disk
+	 * @return Scenarios of the workbook
+	 * @throws SoapException The workbook could not be opened or read
+	 */
+	public static ScenarioWorkbook load(String file) {
+		return load(getFile(file));
+	}
+
+	/**
+	 * @summary Opens a workbook and reads every scenario of its first sheet
+	 * @param file File: Workbook on the hard disk
+	 * @return Scenarios of the workbook
+	 * @throws SoapException The workbook could not be opened or read
+	 */
+	public static ScenarioWorkbook load(File file) {
+		Workbook workbook;
+		try {
+			workbook = Workbook.getWorkbook(file);
+		} catch (IOException | BiffException e) {
+			throw new SoapException("Unable to open file [ " + file + " ]", e);
+		}
+		try {
+			return new ScenarioWorkbook(file.getPath(), workbook.getSheet(0));
+		} finally {
+			workbook.close();
+		}
+	}
+
+	static File getFile(String file) {
+		URL resource = ScenarioWorkbook.class.getResource(file);
+		if (resource == null) return new File(file);
+		// in case file path has a %20 for a whitespace, replace with actual
+		// whitespace
+		return new File(resource.getPath().replace("%20", " "));
+	}
+
+	private static String[][] readCells(Sheet sheet) {
+		String[][] cells = new String[sheet.getRows()][];
+		for (int row = 0; row < cells.length; row++) {
+			Cell[] cellRow = sheet.getRow(row);
+			cells[row] = new String[cellRow.length];
+			for (int column = 0; column < cellRow.length; column++) {
+				cells[row][column] = cellRow[column].getContents();
+			}
+		}
+		return cells;
+	}
+
+	private String get(int row, int column) {
+		if (row >= cells.length || column >= cells[row].length || cells[row][column] == null) return "";
+		return cells[row][column];
+	}
+
+	/**
+	 * @return Name of the workbook used in reports
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Scenario names in the order they appear in the sheet, row by row
+	 */
+	public List<String> getScenarioNames() {
+		return scenarioNames;
+	}
+
+	/**
+	 * @param scenario String: Name of the scenario
+	 * @return True if a cell of the sheet holds the name
+	 */
+	public boolean hasScenario(String scenario) {
+		return index.containsKey(scenario);
+	}
+
+	/**
+	 * @summary Returns a new copy of a scenario's values each time, so callers
+	 *          are free to change it
+	 * @param scenario String: Name of the scenario
+	 * @return Rows of xpath and value of the scenario
+	 * @throws SoapException No cell of the sheet holds the name
+	 */
+	public Object[][] getScenario(String scenario) {
+		int[] start = index.get(scenario);
+		if (start == null) throw new SoapException("No scenario [ " + scenario + " ] was found in the workbook [ " + name + " ]");
+
+		int end = start[0] + 1;
+		while (!get(end, start[1] + 1).isEmpty()) {
+			end++;
+		}
+		String[][] values = new String[end - start[0] - 1][];
+		for (int row = 0; row < values.length; row++) {
+			values[row] = new String[] { get(start[0] + 1 + row, start[1] + 1), get(start[0] + 1 + row, start[1] + 2) };
+		}
+		return values;
+	}
+
+	/**
+	 * @summary Splits the scenarios between a number of shards, e.g. separate
+	 *          JVMs, taking every count'th scenario from the index
+	 * @param index int: Shard to return, from 0 to count - 1
+	 * @param count int: Number of shards
+	 * @return Names of the scenarios run by the shard, in sheet order
+	 */
+	public List<String> getShard(int index, int count) {
+		if (count < 1) throw new IllegalArgumentException("Shard count needs to be 1 or greater. Count entered was: " + count);
+		if (index < 0 || index >= count) throw new IllegalArgumentException("Shard index needs to be from 0 to " + (count - 1) + ". Index entered was: " + index);
+		List<String> shard = new ArrayList<String>();
+		for (int position = index; position < scenarioNames.size(); position += count) {
+			shard.add(scenarioNames.get(position));
+		}
+		return shard;
+	}
+}
@@ -0,0 +1,117 @@
+package com.orasi.api.soapServices.core.scenario;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+
+/**
+ * @summary Process-wide cache of the workbooks scenarios are read from. Each
+ *          workbook is parsed once and closed, and its scenarios are served
+ *          from memory to every operation built from it afterwards. A
+ *          workbook is read again if the file's size or modified time
+ *          changes, so a sheet edited during a session is picked up by the
+ *          next call.
+ * @version Created: 10/18/2026
+ */
+public class WorkbookCache {
+	private static final ConcurrentHashMap<File, CachedWorkbook> workbooks = new ConcurrentHashMap<File, CachedWorkbook>();
+	private static final ConcurrentHashMap<File, Object> locks = new ConcurrentHashMap<File, Object>();
+
+	private WorkbookCache() {
+	}
+
+	/**
+	 * @param file String: Resource path of the workbook in the project, e.g.
+	 *            /excelsheets/tempConvert.xls, or a path on the hard disk
+	 * @return Scenarios of the workbook, read only if the file has not been
+	 *         seen before or has changed since it was read
+	 */
+	public static ScenarioWorkbook getWorkbook(String file) {
+		return getWorkbook(ScenarioWorkbook.getFile(file));
+	}
+
+	/**
+	 * @param file File: Workbook on the hard disk
+	 * @return Scenarios of the workbook, read only if the file has not been
+	 *         seen before or has changed since it was read
+	 */
+	public static ScenarioWorkbook getWorkbook(File file) {
+		File key = getKey(file);
+		long modified = key.lastModified();
+		long length = key.length();
+
+		CachedWorkbook cached = workbooks.get(key);
+		if (cached != null && cached.isCurrent(modified, length)) return cached.workbook;
+
+		synchronized (lockFor(key)) {
+			cached = workbooks.get(key);
+			if (cached == null || !cached.isCurrent(modified, length)) {
+				cached = new CachedWorkbook(ScenarioWorkbook.load(key), modified, length);
+				workbooks.put(key, cached);
+			}
+		}
+		return cached.workbook;
+	}
+
+	/**
+	 * @param file File: Workbook on the hard disk
+	 * @param scenario String: Name of the scenario
+	 * @return Rows of xpath and value of the scenario
+	 * @throws SoapException The workbook could not be read or has no scenario with the name
+	 */
+	public static Object[][] getScenario(File file, String scenario) {
+		return getWorkbook(file).getScenario(scenario);
+	}
+
+	/**
+	 * @summary Drops a workbook so it is read again on its next use
+	 * @param file File: Workbook on the hard disk
+	 */
+	public static void invalidate(File file) {
+		File key = getKey(file);
+		workbooks.remove(key);
+		locks.remove(key);
+	}
+
+	/**
+	 * @summary Drops every cached workbook
+	 */
+	public static void clear() {
+		workbooks.clear();
+		locks.clear();
+	}
+
+	/**
+	 * @return Number of workbooks held in memory
+	 */
+	public static int size() {
+		return workbooks.size();
+	}
+
+	private static File getKey(File file) {
+		return file.getAbsoluteFile();
+	}
+
+	private static Object lockFor(File key) {
+		Object lock = new Object();
+		Object existing = locks.putIfAbsent(key, lock);
+		return existing == null ? lock : existing;
+	}
+
+	private static class CachedWorkbook {
+		private final ScenarioWorkbook workbook;
+		private final long modified;
+		private final long length;
+
+		private CachedWorkbook(ScenarioWorkbook workbook, long modified, long length) {
+			this.workbook = workbook;
+			this.modified = modified;
+			this.length = length;
+		}
+
+		private boolean isCurrent(long modified, long length) {
+			return this.modified == modified && this.length == length;
+		}
+	}
+}
@@ -0,0 +1,329 @@
+package com.orasi.api.soapServices.core.stub;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.xml.soap.SOAPConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.orasi.utils.XmlResources;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * @summary Embedded SOAP server for testing services without a network. Each
+ *          service is registered on a path, serves its WSDL to GET requests
+ *          and answers POSTed requests with canned or scripted responses per
+ *          operation, optionally after a delay or with an injected fault. <br>
+ *          Existing service classes can be pointed at the stub without
+ *          changes by redirecting their host, for example: <br>
+ *          <code>SoapService.redirect("http://www.webservicex.net", stub.getBaseURL());</code> <br>
+ *          Run the JVM with <code>-Dsun.net.httpserver.nodelay=true</code> when
+ *          timing calls against the stub, otherwise the JDK server adds ~40ms
+ *          to small responses on kept-alive connections (Nagle).
+ * @version Created: 10/18/2026
+ */
+public class SoapStubServer {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final Pattern ENVELOPE = Pattern.compile("^\\s*(<\\?xml[^>]*\\?>\\s*)?<([\\w.\\-]+:)?Envelope[\\s>/].*", Pattern.DOTALL);
+
+	private final ConcurrentHashMap<String, StubService> services = new ConcurrentHashMap<String, StubService>();
+	private final AtomicLong requests = new AtomicLong();
+	private HttpServer server = null;
+	private ExecutorService executor = null;
+
+	/**
+	 * @summary Starts the server on a free port of the loopback address
+	 */
+	public void start() {
+		start(0);
+	}
+
+	/**
+	 * @summary Starts the server on the loopback address
+	 * @param port int: Port to listen on, 0 for any free port
+	 */
+	public synchronized void start(int port) {
+		if (server != null) throw new IllegalStateException("Stub server is already running at [ " + getBaseURL() + " ]");
+		try {
+			server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		} catch (IOException ioe) {
+			throw new RuntimeException("Failed to start the stub server on port [ " + port + " ]", ioe);
+		}
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "SoapStubServer-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		server.createContext("/", new StubHandler());
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * @summary Stops the server, closing any open connections
+	 */
+	public synchronized void stop() {
+		if (server == null) return;
+		server.stop(0);
+		executor.shutdownNow();
+		server = null;
+		executor = null;
+	}
+
+	/**
+	 * @return Scheme, host and port of the running server, e.g. http://127.0.0.1:50123
+	 */
+	public synchronized String getBaseURL() {
+		if (server == null) throw new IllegalStateException("Stub server has not been started");
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * @param path String: Path of a service
+	 * @return Full URL of the path on the running server
+	 */
+	public String getURL(String path) {
+		return getBaseURL() + (path.startsWith("/") ? path : "/" + path);
+	}
+
+	/**
+	 * @summary Registers a service on a path. Paths are matched without
+	 *          regard to case, as IIS does for the .asmx services under test.
+	 * @param path String: Path of the service, e.g. /uszip.asmx
+	 * @param wsdl String: WSDL to return for GET requests, may be null
+	 * @return Service to add operations to
+	 */
+	public StubService addService(String path, String wsdl) {
+		StubService service = new StubService(path, wsdl);
+		StubService existing = services.putIfAbsent(key(path), service);
+		if (existing != null) {
+			existing.setWsdl(wsdl);
+			return existing;
+		}
+		return service;
+	}
+
+	/**
+	 * @param path String: Path of the service
+	 * @return The registered service, or null if none is registered on the path
+	 */
+	public StubService getService(String path) {
+		return services.get(key(path));
+	}
+
+	/**
+	 * @return Number of requests received by the server
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	private static String key(String path) {
+		return (path.startsWith("/") ? path : "/" + path).toLowerCase(Locale.ENGLISH);
+	}
+
+	private class StubHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				requests.incrementAndGet();
+				byte[] body = read(exchange.getRequestBody());
+				StubService service = services.get(key(exchange.getRequestURI().getPath()));
+
+				if (service == null) {
+					send(exchange, 404, "text/plain; charset=utf-8", "No stub service at [ " + exchange.getRequestURI().getPath() + " ]");
+				} else if (exchange.getRequestMethod().equalsIgnoreCase("GET")) {
+					if (service.getWsdl() == null) {
+						send(exchange, 404, "text/plain; charset=utf-8", "No WSDL for [ " + service.getPath() + " ]");
+					} else {
+						send(exchange, 200, "text/xml; charset=utf-8", service.getWsdl());
+					}
+				} else {
+					answer(exchange, service, body);
+				}
+			} finally {
+				exchange.close();
+			}
+		}
+
+		private void answer(HttpExchange exchange, StubService service, byte[] body) throws IOException {
+			String namespace = SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE;
+			String operationName = null;
+			try {
+				String[] envelope = readEnvelope(body);
+				namespace = envelope[0];
+				operationName = envelope[1];
+			} catch (XMLStreamException xmlse) {
+				sendFault(exchange, namespace, true, "Request is not valid XML: " + xmlse.getMessage());
+				return;
+			}
+			if (namespace == null) {
+				sendFault(exchange, SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE, true, "Request is not a SOAP Envelope");
+				return;
+			}
+
+			StubOperation operation = operationName == null ? null : service.getOperation(operationName);
+			if (operation == null) {
+				String action = getSoapAction(exchange);
+				if (action != null) operation = service.getOperation(action);
+			}
+			if (operation == null) {
+				sendFault(exchange, namespace, true, "No stub is registered for operation [ " + operationName + " ] at [ " + service.getPath() + " ]");
+				return;
+			}
+
+			long latency = operation.nextLatency();
+			if (latency > 0) {
+				try {
+					TimeUnit.MILLISECONDS.sleep(latency);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+
+			if (operation.nextIsFault()) {
+				sendFault(exchange, namespace, false, operation.getFaultCode(), operation.getFaultReason());
+				return;
+			}
+
+			String response = null;
+			try {
+				response = operation.respond(new StubRequest(service.getPath(), operationName, namespace, exchange.getRequestHeaders(), body));
+			} catch (RuntimeException re) {
+				sendFault(exchange, namespace, false, "Stub responder failed: " + re);
+				return;
+			}
+			if (response == null) {
+				sendFault(exchange, namespace, false, "No response is configured for operation [ " + operation.getName() + " ]");
+				return;
+			}
+
+			if (!ENVELOPE.matcher(response).matches()) response = wrap(namespace, response);
+			send(exchange, 200, contentType(namespace), response);
+		}
+
+		private void sendFault(HttpExchange exchange, String namespace, boolean client, String reason) throws IOException {
+			sendFault(exchange, namespace, client, null, reason);
+		}
+
+		private void sendFault(HttpExchange exchange, String namespace, boolean client, String code, String reason) throws IOException {
+			boolean soap12 = SOAPConstants.URI_NS_SOAP_1_2_ENVELOPE.equals(namespace);
+			if (code == null) {
+				code = soap12 ? (client ? "soap:Sender" : "soap:Receiver") : (client ? "soap:Client" : "soap:Server");
+			}
+
+			String fault;
+			if (soap12) {
+				fault = "<soap:Fault><soap:Code><soap:Value>" + escape(code) + "</soap:Value></soap:Code>"
+						+ "<soap:Reason><soap:Text xml:lang=\"en\">" + escape(reason) + "</soap:Text></soap:Reason></soap:Fault>";
+			} else {
+				fault = "<soap:Fault><faultcode>" + escape(code) + "</faultcode><faultstring>" + escape(reason) + "</faultstring></soap:Fault>";
+			}
+			send(exchange, 500, contentType(namespace), wrap(namespace, fault));
+		}
+
+		private void send(HttpExchange exchange, int status, String contentType, String content) throws IOException {
+			byte[] bytes = content.getBytes(UTF8);
+			exchange.getResponseHeaders().set("Content-Type", contentType);
+			exchange.sendResponseHeaders(status, bytes.length);
+			OutputStream out = exchange.getResponseBody();
+			out.write(bytes);
+			out.close();
+		}
+	}
+
+	/**
+	 * @return Namespace of the Envelope and name of the first element in the
+	 *         Body. The namespace is null if the request is not an Envelope.
+	 */
+	private static String[] readEnvelope(byte[] body) throws XMLStreamException {
+		XMLStreamReader reader = XmlResources.getXMLInputFactory().createXMLStreamReader(new ByteArrayInputStream(body));
+		try {
+			int depth = 0;
+			String namespace = null;
+			boolean inBody = false;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+					if (inBody && depth < 2) break;
+				} else if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					if (depth == 1) {
+						if (!reader.getLocalName().equals("Envelope")) break;
+						namespace = reader.getNamespaceURI();
+					} else if (depth == 2 && reader.getLocalName().equals("Body")) {
+						inBody = true;
+					} else if (depth == 3 && inBody) {
+						return new String[] { namespace, reader.getLocalName() };
+					}
+				}
+			}
+			return new String[] { namespace, null };
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static String getSoapAction(HttpExchange exchange) {
+		String action = exchange.getRequestHeaders().getFirst("SOAPAction");
+		if (action == null) {
+			// SOAP 1.2 carries the action as a parameter of the content type
+			String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+			if (contentType != null && contentType.contains("action=")) {
+				action = contentType.substring(contentType.indexOf("action=") + 7).split(";")[0];
+			}
+		}
+		if (action == null) return null;
+
+		action = action.replace("\"", "").trim();
+		return action.substring(action.lastIndexOf('/') + 1);
+	}
+
+	private static String wrap(String namespace, String content) {
+		return "<soap:Envelope xmlns:soap=\"" + namespace + "\"><soap:Body>" + content + "</soap:Body></soap:Envelope>";
+	}
+
+	private static String contentType(String namespace) {
+		return SOAPConstants.URI_NS_SOAP_1_2_ENVELOPE.equals(namespace)
+				? SOAPConstants.SOAP_1_2_CONTENT_TYPE + "; charset=utf-8"
+				: SOAPConstants.SOAP_1_1_CONTENT_TYPE + "; charset=utf-8";
+	}
+
+	private static String escape(String text) {
+		return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	private static byte[] read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		for (int read = in.read(chunk); read != -1; read = in.read(chunk)) {
+			out.write(chunk, 0, read);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,136 @@
+package com.orasi.api.soapServices.core.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @summary Canned or scripted behavior of a single operation served by
+ *          {@link SoapStubServer}, including the latency to add before
+ *          answering and how often to answer with a fault instead. Settings
+ *          may be changed while the server is running.
+ * @version Created: 10/18/2026
+ */
+public class StubOperation {
+	private final String name;
+	private volatile String response = null;
+	private volatile StubResponder responder = null;
+	private volatile long minLatency = 0;
+	private volatile long maxLatency = 0;
+	private volatile double faultRate = 0;
+	private volatile String faultCode = null;
+	private volatile String faultReason = "Fault injected by stub server";
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong faults = new AtomicLong();
+
+	StubOperation(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @summary Answers every request with the same response
+	 * @param response String: Complete SOAP Envelope, or only the content of the Body
+	 */
+	public void setResponse(String response) {
+		this.response = response;
+		this.responder = null;
+	}
+
+	/**
+	 * @summary Builds the response for each request
+	 * @param responder StubResponder: Script to call for every request
+	 */
+	public void setResponder(StubResponder responder) {
+		this.responder = responder;
+		this.response = null;
+	}
+
+	/**
+	 * @summary Delays every response by a fixed time
+	 * @param millis long: Milliseconds to wait before answering
+	 */
+	public void setLatency(long millis) {
+		setLatency(millis, millis);
+	}
+
+	/**
+	 * @summary Delays every response by a random time between two bounds
+	 * @param minMillis long: Shortest wait in milliseconds
+	 * @param maxMillis long: Longest wait in milliseconds
+	 */
+	public void setLatency(long minMillis, long maxMillis) {
+		if (minMillis < 0 || maxMillis < minMillis) {
+			throw new IllegalArgumentException("Latency range [ " + minMillis + ", " + maxMillis + " ] is not valid");
+		}
+		this.minLatency = minMillis;
+		this.maxLatency = maxMillis;
+	}
+
+	/**
+	 * @summary Answers a share of requests with a SOAP Fault instead of the
+	 *          response
+	 * @param rate double: 0 for never, 1 for every request
+	 */
+	public void setFaultRate(double rate) {
+		if (rate < 0 || rate > 1) throw new IllegalArgumentException("Fault rate needs to be between 0 and 1. Rate entered was: " + rate);
+		this.faultRate = rate;
+	}
+
+	/**
+	 * @summary Sets the fault returned when one is injected. Unless set, the
+	 *          code is soap:Server for SOAP 1.1 and soap:Receiver for SOAP 1.2.
+	 * @param code String: Fault code, including its prefix
+	 * @param reason String: Fault string or reason text
+	 */
+	public void setFault(String code, String reason) {
+		this.faultCode = code;
+		this.faultReason = reason;
+	}
+
+	/**
+	 * @return Number of requests received for this operation
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * @return Number of requests answered with an injected fault
+	 */
+	public long getFaultCount() {
+		return faults.get();
+	}
+
+	String getFaultCode() {
+		return faultCode;
+	}
+
+	String getFaultReason() {
+		return faultReason;
+	}
+
+	/**
+	 * @return True if this request should be answered with a fault
+	 */
+	boolean nextIsFault() {
+		requests.incrementAndGet();
+		boolean fault = faultRate > 0 && ThreadLocalRandom.current().nextDouble() < faultRate;
+		if (fault) faults.incrementAndGet();
+		return fault;
+	}
+
+	long nextLatency() {
+		long min = minLatency;
+		long max = maxLatency;
+		return max > min ? min + ThreadLocalRandom.current().nextLong(max - min + 1) : min;
+	}
+
+	String respond(StubRequest request) {
+		StubResponder currentResponder = responder;
+		if (currentResponder != null) return currentResponder.respond(request);
+		return response;
+	}
+}
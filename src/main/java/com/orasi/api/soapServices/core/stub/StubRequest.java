@@ -0,0 +1,96 @@
+package com.orasi.api.soapServices.core.stub;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.utils.XMLTools;
+import com.orasi.utils.XmlResources;
+
+/**
+ * @summary Request received by {@link SoapStubServer}, as handed to a
+ *          {@link StubResponder}
+ * @version Created: 10/18/2026
+ */
+public class StubRequest {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final String path;
+	private final String operation;
+	private final String envelopeNamespace;
+	private final Map<String, List<String>> headers;
+	private final byte[] body;
+	private Document document = null;
+
+	StubRequest(String path, String operation, String envelopeNamespace, Map<String, List<String>> headers, byte[] body) {
+		this.path = path;
+		this.operation = operation;
+		this.envelopeNamespace = envelopeNamespace;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	/**
+	 * @return Path of the service the request was sent to
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return Name of the operation, taken from the first element of the Body
+	 */
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return Namespace of the request Envelope, identifying its SOAP version
+	 */
+	public String getEnvelopeNamespace() {
+		return envelopeNamespace;
+	}
+
+	/**
+	 * @param name String: Name of the HTTP header
+	 * @return First value of the header, or null if it was not sent
+	 */
+	public String getHeader(String name) {
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (header.getKey() != null && header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+				return header.getValue().get(0);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return Request XML as it was received
+	 */
+	public String getBody() {
+		return new String(body, UTF8);
+	}
+
+	/**
+	 * @summary Returns the value of a node in the request. The request is
+	 *          parsed the first time this is called.
+	 * @param xpath String: xpath to evaluate, written without namespace prefixes
+	 * @return Text content of the first node found
+	 */
+	public String getValueByXPath(String xpath) {
+		if (document == null) {
+			try {
+				document = XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(body));
+			} catch (SAXException | IOException e) {
+				throw new SoapException("Failed to parse the stub request", e);
+			}
+		}
+		return XMLTools.getValueByXpath(document, xpath);
+	}
+}
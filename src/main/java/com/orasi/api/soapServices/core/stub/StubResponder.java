@@ -0,0 +1,16 @@
+package com.orasi.api.soapServices.core.stub;
+
+/**
+ * @summary Scripted response for a stubbed operation. Called on the stub
+ *          server's request threads, so implementations must be thread safe.
+ * @version Created: 10/18/2026
+ */
+public interface StubResponder {
+	/**
+	 * @param request StubRequest: Request received by the stub server
+	 * @return Response XML. Either a complete SOAP Envelope or only the
+	 *         content of the Body, which is then wrapped in an Envelope of the
+	 *         same SOAP version as the request.
+	 */
+	String respond(StubRequest request);
+}
@@ -0,0 +1,57 @@
+package com.orasi.api.soapServices.core.stub;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @summary A service served by {@link SoapStubServer} on a single path: its
+ *          WSDL and the operations it answers
+ * @version Created: 10/18/2026
+ */
+public class StubService {
+	private final String path;
+	private volatile String wsdl;
+	private final ConcurrentHashMap<String, StubOperation> operations = new ConcurrentHashMap<String, StubOperation>();
+
+	StubService(String path, String wsdl) {
+		this.path = path;
+		this.wsdl = wsdl;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return WSDL returned for GET requests, or null if none is served
+	 */
+	public String getWsdl() {
+		return wsdl;
+	}
+
+	/**
+	 * @param wsdl String: WSDL returned for GET requests to the service
+	 */
+	public void setWsdl(String wsdl) {
+		this.wsdl = wsdl;
+	}
+
+	/**
+	 * @summary Returns the stubbed operation with the given name, adding it if
+	 *          it has not been added before
+	 * @param name String: Name of the operation, as the first element of the request Body
+	 * @return Operation to configure
+	 */
+	public StubOperation addOperation(String name) {
+		StubOperation operation = new StubOperation(name);
+		StubOperation existing = operations.putIfAbsent(name, operation);
+		return existing == null ? operation : existing;
+	}
+
+	/**
+	 * @param name String: Name of the operation
+	 * @return The stubbed operation, or null if it was never added
+	 */
+	public StubOperation getOperation(String name) {
+		return operations.get(name);
+	}
+}
@@ -0,0 +1,193 @@
+package com.orasi.api.soapServices.core.transport;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.soap.MimeHeader;
+import javax.xml.soap.MimeHeaders;
+
+import org.apache.http.Header;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * @summary Default {@link SoapTransport}. Requests are sent through a single
+ *          pooled Apache HttpClient that keeps connections alive between
+ *          calls, so consecutive requests to the same host reuse the TCP (and
+ *          TLS) connection instead of opening a new one every time. Safe to
+ *          share between threads. Responses report the time spent getting a
+ *          connection, waiting for the response headers and reading the body.
+ * @version Created: 10/18/2026
+ */
+public class PooledHttpSoapTransport implements SoapTransport {
+	public static final int DEFAULT_MAX_TOTAL = 200;
+	public static final int DEFAULT_MAX_PER_ROUTE = 50;
+	public static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+	public static final int DEFAULT_SOCKET_TIMEOUT = 60000;
+	public static final int DEFAULT_IDLE_TIMEOUT = 30000;
+
+	private static final String CONNECTED = "soap.transport.connected";
+	private static final String HEADERS_RECEIVED = "soap.transport.headersReceived";
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient client;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong connectionsCreated = new AtomicLong();
+
+	public PooledHttpSoapTransport() {
+		this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_CONNECT_TIMEOUT, DEFAULT_SOCKET_TIMEOUT);
+	}
+
+	/**
+	 * @param maxTotal int: Maximum number of open connections across all hosts
+	 * @param maxPerRoute int: Maximum number of open connections to a single host
+	 * @param connectTimeout int: Milliseconds to wait for a connection to be established or leased from the pool
+	 * @param socketTimeout int: Milliseconds to wait for data from the server before failing
+	 */
+	public PooledHttpSoapTransport(int maxTotal, int maxPerRoute, int connectTimeout, int socketTimeout) {
+		connectionManager = new PoolingHttpClientConnectionManager(new CountingConnectionFactory());
+		connectionManager.setMaxTotal(maxTotal);
+		connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(connectTimeout)
+				.setConnectionRequestTimeout(connectTimeout)
+				.setSocketTimeout(socketTimeout)
+				.build();
+
+		client = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setRequestExecutor(new TimingRequestExecutor())
+				.evictIdleConnections(DEFAULT_IDLE_TIMEOUT, TimeUnit.MILLISECONDS)
+				.evictExpiredConnections()
+				.build();
+	}
+
+	@Override
+	public SoapTransportResponse send(String url, byte[] request, MimeHeaders headers) throws IOException {
+		HttpPost post = new HttpPost(url);
+		Iterator<?> mimeHeaders = headers.getAllHeaders();
+		while (mimeHeaders.hasNext()) {
+			MimeHeader header = (MimeHeader) mimeHeaders.next();
+			// The content length is calculated by the entity
+			if (!header.getName().equalsIgnoreCase("Content-Length")) {
+				post.addHeader(header.getName(), header.getValue());
+			}
+		}
+		post.setEntity(new ByteArrayEntity(request));
+
+		requests.incrementAndGet();
+		HttpClientContext context = HttpClientContext.create();
+		long start = System.nanoTime();
+		CloseableHttpResponse response = client.execute(post, context);
+		try {
+			MimeHeaders responseHeaders = new MimeHeaders();
+			for (Header header : response.getAllHeaders()) {
+				responseHeaders.addHeader(header.getName(), header.getValue());
+			}
+
+			// Reading the entity to the end releases the connection back to the pool
+			HttpEntity entity = response.getEntity();
+			byte[] body = entity == null ? new byte[0] : EntityUtils.toByteArray(entity);
+			long end = System.nanoTime();
+
+			Long connected = (Long) context.getAttribute(CONNECTED);
+			Long headersReceived = (Long) context.getAttribute(HEADERS_RECEIVED);
+			if (connected == null || headersReceived == null) {
+				return new SoapTransportResponse(response.getStatusLine().getStatusCode(), responseHeaders, body);
+			}
+			return new SoapTransportResponse(response.getStatusLine().getStatusCode(), responseHeaders, body,
+					connected - start, headersReceived - connected, end - headersReceived);
+		} finally {
+			response.close();
+		}
+	}
+
+	/**
+	 * @return Number of requests sent through this transport
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * @return Number of new connections opened by this transport
+	 */
+	public long getConnectionsCreated() {
+		return connectionsCreated.get();
+	}
+
+	/**
+	 * @return Number of requests that were sent over an already open connection
+	 */
+	public long getConnectionsReused() {
+		return Math.max(0, requests.get() - connectionsCreated.get());
+	}
+
+	/**
+	 * @return Current leased, pending and available connection counts of the pool
+	 */
+	public PoolStats getPoolStats() {
+		return connectionManager.getTotalStats();
+	}
+
+	@Override
+	public void close() {
+		try {
+			client.close();
+		} catch (IOException ioe) {
+			// Pool is shut down regardless
+		}
+	}
+
+	/**
+	 * Notes when the connection is ready and when the response headers have
+	 * been read, so the time before, during and after the exchange can be told
+	 * apart
+	 */
+	private static class TimingRequestExecutor extends HttpRequestExecutor {
+		@Override
+		public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context) throws IOException, HttpException {
+			// Retries and redirects are charged to the exchange, not the connection
+			if (context.getAttribute(CONNECTED) == null) context.setAttribute(CONNECTED, System.nanoTime());
+			HttpResponse response = super.execute(request, connection, context);
+			context.setAttribute(HEADERS_RECEIVED, System.nanoTime());
+			return response;
+		}
+	}
+
+	/**
+	 * Creates connections exactly as the default factory does, counting them
+	 * along the way so reuse can be reported
+	 */
+	private class CountingConnectionFactory implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+		@Override
+		public ManagedHttpClientConnection create(HttpRoute route, ConnectionConfig config) {
+			connectionsCreated.incrementAndGet();
+			return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+		}
+	}
+}
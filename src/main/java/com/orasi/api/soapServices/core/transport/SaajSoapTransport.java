@@ -0,0 +1,62 @@
+package com.orasi.api.soapServices.core.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.xml.soap.MimeHeaders;
+import javax.xml.soap.SOAPConnection;
+import javax.xml.soap.SOAPConnectionFactory;
+import javax.xml.soap.SOAPConstants;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.utils.XmlResources;
+
+/**
+ * @summary Transport using the SAAJ {@link SOAPConnection}. A new connection
+ *          is opened and closed for every request, so each call pays the full
+ *          TCP (and TLS) handshake. Kept for endpoints that only behave with
+ *          the JDK client; {@link PooledHttpSoapTransport} is the default. <br>
+ *          SAAJ opens the connection inside the call, so the connect time is
+ *          reported as part of the time to the first byte.
+ * @version Created: 10/18/2026
+ */
+public class SaajSoapTransport implements SoapTransport {
+
+	@Override
+	public SoapTransportResponse send(String url, byte[] request, MimeHeaders headers) throws IOException {
+		SOAPConnection connection = null;
+		try {
+			SOAPMessage message = XmlResources.getMessageFactory(SOAPConstants.DYNAMIC_SOAP_PROTOCOL)
+					.createMessage(headers, new ByteArrayInputStream(request));
+			connection = SOAPConnectionFactory.newInstance().createConnection();
+			long start = System.nanoTime();
+			SOAPMessage response = connection.call(message, url);
+			long received = System.nanoTime();
+
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			response.writeTo(body);
+
+			// SAAJ does not expose the HTTP status, faults are returned as a message
+			return new SoapTransportResponse(200, response.getMimeHeaders(), body.toByteArray(),
+					-1, received - start, System.nanoTime() - received);
+		} catch (SOAPException soape) {
+			throw new SoapException("Failed to send request to [ " + url + " ]", soape);
+		} finally {
+			if (connection != null) {
+				try {
+					connection.close();
+				} catch (SOAPException soape) {
+					// Nothing left to release
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		// Connections are closed after every request
+	}
+}
@@ -0,0 +1,32 @@
+package com.orasi.api.soapServices.core.transport;
+
+import java.io.IOException;
+
+import javax.xml.soap.MimeHeaders;
+
+/**
+ * @summary Sends a serialized SOAP request to an endpoint and returns the raw
+ *          response. {@link com.orasi.api.soapServices.core.SoapService#sendRequest()}
+ *          delegates the network call to an implementation of this interface,
+ *          allowing the HTTP client to be swapped without changing the
+ *          operation classes.
+ * @version Created: 10/18/2026
+ */
+public interface SoapTransport {
+
+	/**
+	 * @summary Sends a request to the endpoint and blocks until the whole
+	 *          response has been read
+	 * @param url String: Endpoint of the service
+	 * @param request byte[]: Serialized SOAP envelope
+	 * @param headers MimeHeaders: Headers to send with the request, such as Content-Type and SOAPAction
+	 * @return The status, headers and body of the response
+	 * @throws IOException The request could not be sent or the response could not be read
+	 */
+	SoapTransportResponse send(String url, byte[] request, MimeHeaders headers) throws IOException;
+
+	/**
+	 * @summary Releases any connections held by the transport
+	 */
+	void close();
+}
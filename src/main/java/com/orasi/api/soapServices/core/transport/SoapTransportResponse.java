@@ -0,0 +1,93 @@
+package com.orasi.api.soapServices.core.transport;
+
+import javax.xml.soap.MimeHeaders;
+
+/**
+ * @summary Raw response returned by a {@link SoapTransport}, along with how
+ *          long the transport spent connecting, waiting for the response and
+ *          reading it when the transport can tell them apart
+ * @version Created: 10/18/2026
+ */
+public class SoapTransportResponse {
+	private final int statusCode;
+	private final MimeHeaders headers;
+	private final byte[] body;
+	private final long connectNanos;
+	private final long firstByteNanos;
+	private final long readNanos;
+
+	/**
+	 * @summary Creates a response without phase timings
+	 */
+	public SoapTransportResponse(int statusCode, MimeHeaders headers, byte[] body) {
+		this(statusCode, headers, body, -1, -1, -1);
+	}
+
+	/**
+	 * @param statusCode int: HTTP status code of the response
+	 * @param headers MimeHeaders: Headers returned with the response
+	 * @param body byte[]: Body of the response
+	 * @param connectNanos long: Time spent getting a connection, or -1 if not measured
+	 * @param firstByteNanos long: Time from sending the request to receiving the response headers, or -1 if not measured
+	 * @param readNanos long: Time spent reading the body, or -1 if not measured
+	 */
+	public SoapTransportResponse(int statusCode, MimeHeaders headers, byte[] body, long connectNanos, long firstByteNanos, long readNanos) {
+		this.statusCode = statusCode;
+		this.headers = headers;
+		this.body = body;
+		this.connectNanos = connectNanos;
+		this.firstByteNanos = firstByteNanos;
+		this.readNanos = readNanos;
+	}
+
+	/**
+	 * @return HTTP status code of the response
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return Headers returned with the response
+	 */
+	public MimeHeaders getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return Content type of the response or null if none was returned
+	 */
+	public String getContentType() {
+		String[] contentType = headers.getHeader("Content-Type");
+		return contentType == null || contentType.length == 0 ? null : contentType[0];
+	}
+
+	/**
+	 * @return Body of the response
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * @return Nanoseconds spent leasing or opening a connection, or -1 if not measured
+	 */
+	public long getConnectNanos() {
+		return connectNanos;
+	}
+
+	/**
+	 * @return Nanoseconds from sending the request to receiving the response
+	 *         headers, or -1 if not measured
+	 */
+	public long getFirstByteNanos() {
+		return firstByteNanos;
+	}
+
+	/**
+	 * @return Nanoseconds spent reading the response body, or -1 if not measured
+	 */
+	public long getReadNanos() {
+		return readNanos;
+	}
+}
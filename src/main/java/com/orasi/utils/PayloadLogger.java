@@ -0,0 +1,214 @@
+package com.orasi.utils;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @summary Writes request and response payloads to the console without
+ *          holding up the thread that sent them. Payloads are queued and
+ *          printed by a single background thread, so parallel requests no
+ *          longer contend on System.out. If the queue is full the payload is
+ *          dropped and counted rather than making the caller wait. <br>
+ *          <br>
+ *          Output is controlled by a level using the same values as
+ *          {@link TestReporter#setDebugLevel(int)}: <br>
+ *          <b>TestReporter.NONE</b> -- (Default) Nothing is printed <br>
+ *          <b>TestReporter.INFO</b> -- Payloads are printed, cut to the maximum length <br>
+ *          <b>TestReporter.DEBUG</b> -- Payloads are printed in full <br>
+ *          Payloads can also be sampled so only 1 in N is printed.
+ * @version Created: 10/18/2026
+ */
+public class PayloadLogger {
+	/** Characters of a payload printed at the INFO level unless changed with {@link #setMaxLength(int)} */
+	public static final int DEFAULT_MAX_LENGTH = 2048;
+	private static final int QUEUE_CAPACITY = 1024;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static volatile int level = TestReporter.NONE;
+	private static volatile int maxLength = DEFAULT_MAX_LENGTH;
+	private static volatile int sampleRate = 1;
+	private static volatile PrintStream out = System.out;
+
+	private static final AtomicLong offered = new AtomicLong();
+	private static final AtomicLong dropped = new AtomicLong();
+	private static final AtomicLong pending = new AtomicLong();
+	private static final BlockingQueue<Entry> queue = new LinkedBlockingQueue<Entry>(QUEUE_CAPACITY);
+	private static volatile Thread writer = null;
+
+	private PayloadLogger() {
+	}
+
+	/**
+	 * @param level int: TestReporter.NONE, TestReporter.INFO or TestReporter.DEBUG
+	 */
+	public static void setLevel(int level) {
+		PayloadLogger.level = level;
+	}
+
+	public static int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @param length int: Number of characters of each payload printed at the
+	 *            INFO level, or 0 to always print payloads in full
+	 */
+	public static void setMaxLength(int length) {
+		if (length < 0) throw new IllegalArgumentException("Max length cannot be negative. Length entered was: " + length);
+		maxLength = length;
+	}
+
+	public static int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * @param rate int: Print 1 in every rate payloads. Defaults to 1, every payload.
+	 */
+	public static void setSampleRate(int rate) {
+		if (rate < 1) throw new IllegalArgumentException("Sample rate needs to be 1 or greater. Rate entered was: " + rate);
+		sampleRate = rate;
+	}
+
+	public static int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * @param stream PrintStream: Stream payloads are printed to. Defaults to System.out.
+	 */
+	public static void setOutput(PrintStream stream) {
+		out = stream;
+	}
+
+	/**
+	 * @return True if payloads are being printed. Callers can check this
+	 *         before building a payload that is only needed for logging.
+	 */
+	public static boolean isEnabled() {
+		return level > TestReporter.NONE;
+	}
+
+	/**
+	 * @summary Queues a UTF-8 payload to be printed. The bytes are only
+	 *          decoded on the logging thread and must not be changed
+	 *          afterwards.
+	 * @param label String: Line printed before the payload, e.g. the operation and endpoint
+	 * @param payload byte[]: UTF-8 encoded payload
+	 */
+	public static void log(String label, byte[] payload) {
+		if (isEnabled()) offer(new Entry(label, null, payload));
+	}
+
+	/**
+	 * @summary Queues a payload to be printed
+	 * @param label String: Line printed before the payload, e.g. the operation and endpoint
+	 * @param payload String: Payload to print
+	 */
+	public static void log(String label, String payload) {
+		if (isEnabled()) offer(new Entry(label, payload, null));
+	}
+
+	/**
+	 * @summary Cuts a payload to the maximum length used at the INFO level,
+	 *          noting how much was removed. Payloads are returned whole when
+	 *          payload logging is off, at the DEBUG level or if no maximum is
+	 *          set.
+	 * @param payload String: Payload to cut
+	 * @return Payload no longer than the maximum length, plus the note
+	 */
+	public static String truncate(String payload) {
+		int length = !isEnabled() || level >= TestReporter.DEBUG ? 0 : maxLength;
+		if (payload == null || length == 0 || payload.length() <= length) return payload;
+		return payload.substring(0, length) + "... [ truncated " + (payload.length() - length) + " of " + payload.length() + " characters ]";
+	}
+
+	/**
+	 * @summary Waits until every queued payload has been printed
+	 * @param timeout long: Longest time to wait
+	 * @param unit TimeUnit: Unit of the timeout
+	 * @return True if the queue was emptied before the timeout
+	 */
+	public static boolean flush(long timeout, TimeUnit unit) {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (pending.get() > 0) {
+			if (System.nanoTime() >= deadline) return false;
+			try {
+				TimeUnit.MILLISECONDS.sleep(1);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		out.flush();
+		return true;
+	}
+
+	/**
+	 * @return Number of sampled payloads that were dropped because the queue was full
+	 */
+	public static long getDroppedCount() {
+		return dropped.get();
+	}
+
+	private static void offer(Entry entry) {
+		if (sampleRate > 1 && offered.getAndIncrement() % sampleRate != 0) return;
+		if (writer == null) startWriter();
+		pending.incrementAndGet();
+		if (!queue.offer(entry)) {
+			pending.decrementAndGet();
+			dropped.incrementAndGet();
+		}
+	}
+
+	private static synchronized void startWriter() {
+		if (writer != null) return;
+		writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (true) {
+					Entry entry;
+					try {
+						entry = queue.take();
+					} catch (InterruptedException ie) {
+						return;
+					}
+					try {
+						out.println(entry.label);
+						out.println(entry.getPayload());
+					} finally {
+						pending.decrementAndGet();
+					}
+				}
+			}
+		}, "payload-logger");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	private static class Entry {
+		private final String label;
+		private final String text;
+		private final byte[] bytes;
+
+		private Entry(String label, String text, byte[] bytes) {
+			this.label = label;
+			this.text = text;
+			this.bytes = bytes;
+		}
+
+		private String getPayload() {
+			if (bytes == null) return truncate(text);
+			// Only decode as much of the payload as will be printed
+			int max = level >= TestReporter.DEBUG ? 0 : maxLength;
+			int length = max == 0 ? bytes.length : Math.min(bytes.length, max * 4);
+			String payload = new String(bytes, 0, length, UTF8);
+			if (length == bytes.length) return truncate(payload);
+			return payload.substring(0, Math.min(max, payload.length())) + "... [ truncated, " + bytes.length + " bytes in total ]";
+		}
+	}
+}
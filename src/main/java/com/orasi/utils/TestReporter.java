@@ -297,18 +297,26 @@ public class TestReporter {
 	    logFailure(message);
 	}
 	logNoHtmlTrim("<font size = 2><b>Endpoint: " + bs.getServiceURL() + "</b></font><br/>"+failFormat+ "<b>SOAP REQUEST [ " + bs.getServiceName() + "#" + bs.getOperationName() + " ] </b></font>");
-	Reporter.setEscapeHtml(true);
-	logNoXmlTrim(bs.getRequest().replaceAll("</*>", "</*>"));
-	Reporter.setEscapeHtml(false);
-	Reporter.log("<br/>");
+	logPayload("SOAP REQUEST [ " + bs.getServiceName() + "#" + bs.getOperationName() + " ]", bs.getRequest());
 	logNoHtmlTrim(failFormat + "<b>SOAP RESPONSE [ " + bs.getServiceName() + "#" + bs.getOperationName() + " ] </b></font>" );
-	Reporter.setEscapeHtml(true);
-	logNoXmlTrim(bs.getResponse());
-	Reporter.setEscapeHtml(false);
-	Reporter.log("<br/>");
+	logPayload("SOAP RESPONSE [ " + bs.getServiceName() + "#" + bs.getOperationName() + " ]", bs.getResponse());
 
 	if(fail){
 	    throw new SoapException(message);
 	}
     }
-}
\ No newline at end of file
+
+    /**
+     * Logs a payload to the report, cut to the length set with
+     * {@link PayloadLogger#setMaxLength(int)} only while payload logging is
+     * enabled. The console copy is only handed to the {@link PayloadLogger},
+     * so it follows the payload logging level.
+     */
+    private static void logPayload(String label, String payload){
+	Reporter.setEscapeHtml(true);
+	Reporter.log(PayloadLogger.truncate(payload));
+	Reporter.setEscapeHtml(false);
+	Reporter.log("<br/>");
+	if(getPrintToConsole()) PayloadLogger.log(label, payload);
+    }
+}
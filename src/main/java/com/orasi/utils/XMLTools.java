@@ -1,25 +1,18 @@
 package com.orasi.utils;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.soap.MessageFactory;
-import javax.xml.soap.MimeHeaders;
-import javax.xml.soap.SOAPConstants;
 import javax.xml.soap.SOAPException;
 import javax.xml.soap.SOAPMessage;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -34,12 +27,10 @@ import com.orasi.api.soapServices.core.exceptions.XPathNotFoundException;
 public class XMLTools{
 
 	public static Document addAttribute(Document doc, String attributeName, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -56,12 +47,10 @@ public class XMLTools{
 	}
 	
 	public static Document removeAttribute(Document doc, String attributeName, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -78,15 +67,13 @@ public class XMLTools{
 	}
 	
 	public static Document addNamespace(Document doc, String namespace, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		String[] values = namespace.split(",");
 		String namespaceName = values[0];
 		String namespaceURL = values[1];
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -114,13 +101,11 @@ public class XMLTools{
 	 * @throws RuntimeException Could not match xPath to a node, element or attribute
 	 */
 	public static Document addNode(Document doc, String nodeName, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -150,14 +135,12 @@ public class XMLTools{
 	 */
 	public static String getValueByXpath(Document doc, String xpath) {
 
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;		
 
 		//Evaluate the xpath 
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -177,59 +160,47 @@ public class XMLTools{
 	 * @param xpath String: xpath to evaluate
 	 */
 	public static Document loadXML(String inFile) {
-		SOAPMessage soapMessage = null;
-		MessageFactory messageFactory = null;
-		try {
-			messageFactory = MessageFactory.newInstance(SOAPConstants.SOAP_1_1_PROTOCOL);
-			
-			soapMessage = messageFactory.createMessage(new MimeHeaders(),new ByteArrayInputStream(inFile.getBytes()));
-		} catch (SOAPException se) {
-			throw new RuntimeException("Failed to create a SOAP message", se.getCause());
-		} catch (IOException ioe) {
-			throw new RuntimeException("Could not find a file located at [ " + inFile + " ]", ioe.getCause());
-		}
-		return makeXMLDocument(soapMessage);
+		// Parsed once straight into the Document, there is no need to build a
+		// SOAPMessage only to serialize it again
+		return makeXMLDocument(inFile);
 	}
 
 	public static Document loadXMLFromProject(String file) {
-		SOAPMessage soapMessage = null;
-		MessageFactory messageFactory = null;
-
+		Document doc = null;
+		InputStream in = null;
 		try {
-
 			URL fileURL = XMLTools.class.getResource(file);
-			messageFactory = MessageFactory
-					.newInstance(SOAPConstants.SOAP_1_1_PROTOCOL);
-			soapMessage = messageFactory.createMessage(new MimeHeaders(),
-					new FileInputStream(fileURL.getPath()));
-		} catch (SOAPException se) {
-			throw new RuntimeException("Failed to create a SOAP message", se.getCause());
+			in = new FileInputStream(fileURL.getPath());
+			doc = XmlResources.getDocumentBuilder().parse(in);
+		} catch (SAXException saxe) {
+			throw new RuntimeException("Failed to parse the xml", saxe.getCause());
 		} catch (IOException ioe) {
 			throw new RuntimeException("Could not find a file located at [ " + file + " ]", ioe.getCause());
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException ioe) {
+					// Nothing left to read
+				}
+			}
 		}
-		
-		return makeXMLDocument(soapMessage);
+
+		return doc;
 	}
 
 	public static Document makeXMLDocument(SOAPMessage soapXML) {
 
 		Document doc = null;
 
-		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ReadableOutputStream outputStream = new ReadableOutputStream();
 		try {
 			soapXML.writeTo(outputStream);
-			DocumentBuilderFactory factory = DocumentBuilderFactory
-					.newInstance();
-			factory.setNamespaceAware(false);
-			factory.setIgnoringElementContentWhitespace(true);
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			doc = builder.parse(new ByteArrayInputStream(outputStream.toByteArray()));
+			// Read back the buffers written to rather than a copy of them
+			doc = XmlResources.getDocumentBuilder().parse(outputStream.toInputStream());
 		} catch (SOAPException | IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
-		} catch (ParserConfigurationException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
 		} catch (SAXException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -239,18 +210,11 @@ public class XMLTools{
 	}
 
 	public static Document makeXMLDocument(String xml)  {
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setNamespaceAware(false);
-		factory.setIgnoringElementContentWhitespace(true);
-		DocumentBuilder builder;
 		Document doc = null;
 		try {
-			builder = factory.newDocumentBuilder();
 			InputSource source = new InputSource(new ByteArrayInputStream(xml
 					.toString().getBytes()));
-			 doc = builder.parse(source);
-		} catch (ParserConfigurationException pce) {
-			throw new RuntimeException("Failed to create a Document Builder Factory", pce.getCause());
+			 doc = XmlResources.getDocumentBuilder().parse(source);
 		} catch (SAXException saxe) {
 			 throw new RuntimeException("Failed to parse the xml", saxe.getCause());
 		} catch (IOException ioe) {
@@ -262,14 +226,60 @@ public class XMLTools{
 
 	}
 	
+	/**
+	 * @summary Returns the first child element with the given name, ignoring
+	 *          any namespace prefix
+	 * @param parent Node: Node to search the children of. May be null.
+	 * @param localName String: Name of the element without its prefix
+	 * @return Matching element, or null if none was found
+	 */
+	public static Element getChildElement(Node parent, String localName) {
+		if (parent == null) return null;
+		for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE && localName.equals(getLocalName(child))) {
+				return (Element) child;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @summary Resolves the namespace of an element. Documents in this project
+	 *          are parsed without namespace awareness, so the prefix is looked
+	 *          up in the xmlns attributes of the element and its ancestors.
+	 * @param element Element: Element to resolve the namespace of
+	 * @return Namespace URI, or null if the element is not in a namespace
+	 */
+	public static String getNamespaceURI(Element element) {
+		if (element.getNamespaceURI() != null) return element.getNamespaceURI();
+
+		String name = element.getNodeName();
+		String attribute = name.indexOf(':') == -1 ? "xmlns" : "xmlns:" + name.substring(0, name.indexOf(':'));
+		for (Node node = element; node != null && node.getNodeType() == Node.ELEMENT_NODE; node = node.getParentNode()) {
+			if (((Element) node).hasAttribute(attribute)) return ((Element) node).getAttribute(attribute);
+		}
+		return null;
+	}
+
+	/**
+	 * @summary Returns the name of an element or attribute without its
+	 *          namespace prefix, whether or not the Document was parsed with
+	 *          namespace awareness
+	 * @param node Node: Element or attribute
+	 * @return Name without the prefix
+	 */
+	public static String getLocalName(Node node) {
+		if (node.getLocalName() != null) return node.getLocalName();
+		String name = node.getNodeName();
+		return name.substring(name.indexOf(':') + 1);
+	}
+
 	public static Document removeNode(Document doc, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException e1) {
 			// TODO Auto-generated catch block
@@ -300,10 +310,9 @@ public class XMLTools{
 	}
 	
 	public static Document removeWhiteSpace(Document doc) {
-		XPath xp = XPathFactory.newInstance().newXPath();
 		NodeList nl = null;
 		try {
-			nl = (NodeList) xp.evaluate("//text()[normalize-space(.)='']", doc,
+			nl = (NodeList) XPathCache.compile("//text()[normalize-space(.)='']").evaluate(doc,
 					XPathConstants.NODESET);
 		} catch (XPathExpressionException e) {
 			// TODO Auto-generated catch block
@@ -745,12 +754,10 @@ public static boolean validateNodeContainsValueByXPath(Document doc, String xpat
 
 	
 	public static NodeList getNodeList(Document doc, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new XPathNotFoundException("Xpath evaluation failed with xpath [ " + xpath + " ] ");	
@@ -763,12 +770,10 @@ public static boolean validateNodeContainsValueByXPath(Document doc, String xpat
 	}
 	
 	public static NodeList getNodeList(Node nodeList, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(nodeList, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -781,12 +786,10 @@ public static boolean validateNodeContainsValueByXPath(Document doc, String xpat
 	}
 	
 	public static Node getNode(Node nodeList, String xpath) {
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-		XPath xPath = xPathFactory.newXPath();
 		XPathExpression expr;
 		NodeList nList = null;
 		try {
-			expr = xPath.compile(xpath);
+			expr = XPathCache.compile(xpath);
 			nList = (NodeList) expr.evaluate(nodeList, XPathConstants.NODESET);
 		} catch (XPathExpressionException xpe) {
 			throw new RuntimeException("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());	
@@ -797,4 +800,13 @@ public static boolean validateNodeContainsValueByXPath(Document doc, String xpat
 
 		return nList.item(0);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Output stream whose buffer can be read back without copying it
+	 */
+	private static class ReadableOutputStream extends ByteArrayOutputStream {
+		private InputStream toInputStream() {
+			return new ByteArrayInputStream(buf, 0, count);
+		}
+	}
+}
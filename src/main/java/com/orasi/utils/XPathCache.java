@@ -0,0 +1,122 @@
+package com.orasi.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+/**
+ * @summary Bounded cache of compiled {@link XPathExpression}s shared by
+ *          SoapService and XMLTools. Neither XPath nor XPathExpression is
+ *          thread safe, so each thread keeps its own least-recently-used set
+ *          of compiled expressions while hit and miss counts are kept for the
+ *          whole process.
+ * @version Created: 10/18/2026
+ */
+public class XPathCache {
+	/** Number of expressions kept per thread unless changed with {@link #setMaxSize(int)} */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	private static volatile int maxSize = DEFAULT_MAX_SIZE;
+	private static final AtomicInteger generation = new AtomicInteger();
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
+	private static final ThreadLocal<ExpressionCache> caches = new ThreadLocal<ExpressionCache>() {
+		@Override
+		protected ExpressionCache initialValue() {
+			return new ExpressionCache();
+		}
+	};
+
+	private XPathCache() {
+	}
+
+	/**
+	 * @summary Returns the compiled form of an xpath, compiling it only if the
+	 *          current thread has not compiled it before. The expression
+	 *          returned must not be handed to another thread.
+	 * @param xpath String: xpath to compile
+	 * @return Compiled XPathExpression
+	 * @throws XPathExpressionException The xpath could not be compiled
+	 */
+	public static XPathExpression compile(String xpath) throws XPathExpressionException {
+		ExpressionCache cache = caches.get();
+		if (cache.generation != generation.get()) {
+			cache.clear();
+			cache.generation = generation.get();
+		}
+
+		XPathExpression expression = cache.get(xpath);
+		if (expression != null) {
+			hits.incrementAndGet();
+			return expression;
+		}
+
+		misses.incrementAndGet();
+		expression = cache.xPath.compile(xpath);
+		cache.put(xpath, expression);
+		return expression;
+	}
+
+	/**
+	 * @return Number of compilations served from the cache
+	 */
+	public static long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return Number of xpaths that had to be compiled
+	 */
+	public static long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @summary Sets the number of expressions each thread keeps. Takes effect
+	 *          as new expressions are added.
+	 * @param size int: Maximum number of expressions per thread
+	 */
+	public static void setMaxSize(int size) {
+		if (size < 1) throw new IllegalArgumentException("Cache size needs to be 1 or greater. Size entered was: " + size);
+		maxSize = size;
+	}
+
+	/**
+	 * @return Maximum number of expressions kept per thread
+	 */
+	public static int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @summary Discards the compiled expressions of every thread and resets
+	 *          the hit and miss counts
+	 */
+	public static void clear() {
+		generation.incrementAndGet();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	private static class ExpressionCache extends LinkedHashMap<String, XPathExpression> {
+		private static final long serialVersionUID = -2206370386414364539L;
+		private final XPath xPath = XPathFactory.newInstance().newXPath();
+		private int generation = XPathCache.generation.get();
+
+		private ExpressionCache() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+			return size() > maxSize;
+		}
+	}
+}
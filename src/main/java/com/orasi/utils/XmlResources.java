@@ -0,0 +1,158 @@
+package com.orasi.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.SOAPException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Node;
+
+/**
+ * @summary Per-thread pool of the JAXP and SAAJ objects used to parse and
+ *          print XML. Looking up a DocumentBuilderFactory, TransformerFactory,
+ *          XMLInputFactory or MessageFactory goes through service loading on every call and
+ *          costs more than parsing a small SOAP message, so each thread
+ *          creates them once and reuses them afterwards. None of the pooled
+ *          objects are thread safe, so they must not be handed to another
+ *          thread. <br>
+ *          Compiled xpaths are pooled the same way by {@link XPathCache}.
+ * @version Created: 10/18/2026
+ */
+public class XmlResources {
+	private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<DocumentBuilder>() {
+		@Override
+		protected DocumentBuilder initialValue() {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(false);
+			factory.setIgnoringElementContentWhitespace(true);
+			try {
+				return factory.newDocumentBuilder();
+			} catch (ParserConfigurationException pce) {
+				throw new RuntimeException("Failed to create a Document Builder", pce);
+			}
+		}
+	};
+
+	private static final ThreadLocal<Transformer> transformers = new ThreadLocal<Transformer>() {
+		@Override
+		protected Transformer initialValue() {
+			try {
+				return TransformerFactory.newInstance().newTransformer();
+			} catch (TransformerConfigurationException tce) {
+				throw new RuntimeException("Failed to create XML Transformer", tce);
+			}
+		}
+	};
+
+	private static final ThreadLocal<XMLInputFactory> inputFactories = new ThreadLocal<XMLInputFactory>() {
+		@Override
+		protected XMLInputFactory initialValue() {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			return factory;
+		}
+	};
+
+	private static final ThreadLocal<Map<String, MessageFactory>> messageFactories = new ThreadLocal<Map<String, MessageFactory>>() {
+		@Override
+		protected Map<String, MessageFactory> initialValue() {
+			return new HashMap<String, MessageFactory>();
+		}
+	};
+
+	private XmlResources() {
+	}
+
+	/**
+	 * @summary Returns the current thread's DocumentBuilder, reset so no state
+	 *          is carried over from its last use. Documents are parsed without
+	 *          namespace awareness so xpaths can be written without prefixes.
+	 * @return DocumentBuilder owned by the current thread
+	 */
+	public static DocumentBuilder getDocumentBuilder() {
+		DocumentBuilder builder = documentBuilders.get();
+		builder.reset();
+		return builder;
+	}
+
+	/**
+	 * @summary Returns the current thread's Transformer, reset and configured
+	 *          to print indented UTF-8 XML with its declaration
+	 * @return Transformer owned by the current thread
+	 */
+	public static Transformer getTransformer() {
+		Transformer transformer = transformers.get();
+		transformer.reset();
+		transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+		transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+		transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+		return transformer;
+	}
+
+	/**
+	 * @summary Returns the current thread's XMLInputFactory, used to read XML
+	 *          as a stream of events without building a Document
+	 * @return XMLInputFactory owned by the current thread
+	 */
+	public static XMLInputFactory getXMLInputFactory() {
+		return inputFactories.get();
+	}
+
+	/**
+	 * @summary Returns the current thread's MessageFactory for a SOAP protocol
+	 * @param protocol String: One of the protocols defined in {@link javax.xml.soap.SOAPConstants}
+	 * @return MessageFactory owned by the current thread
+	 * @throws SOAPException The factory could not be created for the protocol
+	 */
+	public static MessageFactory getMessageFactory(String protocol) throws SOAPException {
+		Map<String, MessageFactory> factories = messageFactories.get();
+		MessageFactory factory = factories.get(protocol);
+		if (factory == null) {
+			factory = MessageFactory.newInstance(protocol);
+			factories.put(protocol, factory);
+		}
+		return factory;
+	}
+
+	/**
+	 * @summary Serializes a node and its children to UTF-8 bytes with the
+	 *          transformer returned by {@link #getTransformer()}
+	 * @param node Node: Document or element to serialize
+	 * @return UTF-8 encoded XML
+	 * @throws TransformerException The node could not be serialized
+	 */
+	public static byte[] toByteArray(Node node) throws TransformerException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		getTransformer().transform(new DOMSource(node), new StreamResult(out));
+		return out.toByteArray();
+	}
+
+	/**
+	 * @summary Prints a node and its children with the transformer returned by
+	 *          {@link #getTransformer()}
+	 * @param node Node: Document or element to print
+	 * @return XML as a String
+	 * @throws TransformerException The node could not be printed
+	 */
+	public static String toString(Node node) throws TransformerException {
+		StringWriter writer = new StringWriter();
+		getTransformer().transform(new DOMSource(node), new StreamResult(writer));
+		return writer.toString();
+	}
+}
@@ -1,78 +1,149 @@
 package com.orasi.utils.dataProviders;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 public class CSVDataProvider {
 
 	/**
-	 * This gets the test data from a csv file.  It returns all the data 
-	 * as a 2d array
-	 * 
+	 * This gets the test data from a csv file.  It returns all the data
+	 * as a 2d array. Fields may be quoted, as described by {@link CSVReader}.
+	 * Use {@link #getTestScenarioIterator(String)} for files too large to
+	 * hold in memory.
+	 *
 	 * @param	filePath		the file path of the CSV file
 	 * @version	12/18/2014
 	 * @author 	Jessica Marshall
 	 * @return 	2d array of test data
 	 */
 	public static Object[][] getTestScenarioData(String filePath){
-		BufferedReader br = null;
-		String line = "";
-		String csvSplitBy = ",";
-		String[][] dataArray = null;
-		List<String>csvRowList = new ArrayList<String>();
-		String[] rowSplit;
-		int columnCount = 0;
-		int rowCount = 0;
-		
+		List<String[]> rows = new ArrayList<String[]>();
+		Iterator<Object[]> iterator = getTestScenarioIterator(filePath);
+		while (iterator.hasNext()) {
+			rows.add((String[]) iterator.next());
+		}
+		return rows.toArray(new String[rows.size()][]);
+	}
+
+	/**
+	 * @summary Reads the test data from a csv file as TestNG asks for each row,
+	 *          so a file of any size can drive a @DataProvider without being
+	 *          loaded into memory: <br>
+	 *          <br>
+	 *          &#64;DataProvider(name = "scenarios") <br>
+	 *          public Iterator&lt;Object[]&gt; scenarios() { return
+	 *          CSVDataProvider.getTestScenarioIterator("/data/Scenarios.csv"); } <br>
+	 *          <br>
+	 *          The first row holds the column headings and is not returned.
+	 *          Each row has as many values as there are headings, with missing
+	 *          values blank. The file is closed once the last row is read.
+	 * @version Created: 10/18/2026
+	 * @param filePath String: File path of the CSV file, or its path in the project resources
+	 * @return Iterator over the rows of test data
+	 * @throws RuntimeException The file could not be read
+	 */
+	public static Iterator<Object[]> getTestScenarioIterator(String filePath){
+		filePath = resolvePath(filePath);
+		CSVReader reader = null;
+		try {
+			reader = new CSVReader(filePath);
+			String[] headings = reader.readRecord();
+			return new RowIterator(reader, filePath, headings == null ? 0 : headings.length);
+		} catch (IOException e) {
+			close(reader);
+			throw new RuntimeException("Failed to read CSV file [ " + filePath + " ]", e);
+		}
+	}
+
+	private static String resolvePath(String filePath){
 		// Get the file location from the project main/resources folder
-		if(!filePath.contains(":")) filePath =  CSVDataProvider.class.getResource(filePath).getPath();
+		if(!filePath.contains(":")) {
+			URL resource = CSVDataProvider.class.getResource(filePath);
+			if (resource != null) filePath = resource.getPath();
+		}
 
 		// in case file path has a %20 for a whitespace, replace with actual
 		// whitespace
-		filePath = filePath.replace("%20", " ");
-		
-		
-		//open the CSV and add each line into a list		
+		return filePath.replace("%20", " ");
+	}
+
+	private static void close(CSVReader reader){
+		if (reader == null) return;
 		try {
-			br = new BufferedReader(new FileReader(filePath));
-			while((line = br.readLine()) !=null) {
-				csvRowList.add(line);
-			}
-			br.close();
+			reader.close();
 		} catch (IOException e) {
-			
-			e.printStackTrace();
+			// Nothing left to read from the file
+		}
+	}
+
+	/**
+	 * Reads each row only when TestNG asks for it
+	 */
+	private static class RowIterator implements Iterator<Object[]> {
+		private final CSVReader reader;
+		private final String filePath;
+		private final int columnCount;
+		private String[] next = null;
+		private boolean finished;
+
+		private RowIterator(CSVReader reader, String filePath, int columnCount) {
+			this.reader = reader;
+			this.filePath = filePath;
+			this.columnCount = columnCount;
+			finished = columnCount == 0;
+			if (finished) close(reader);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null && !finished) {
+				try {
+					next = read();
+				} catch (IOException e) {
+					finished = true;
+					throw new RuntimeException("Failed to read row [ " + reader.getRecordNumber() + " ] of CSV file [ " + filePath + " ]", e);
+				}
+				finished = next == null;
+			}
+			return next != null;
 		}
-		
-		//column count, split the first row and get the length 
-		columnCount = csvRowList.get(0).split(csvSplitBy).length;
-		
-		//row count - use size of list -1, since the first row is the header
-		rowCount = csvRowList.size()-1;
-		
-		//create size of array, 
-		dataArray = new String[rowCount][columnCount];
-		
-		
-		
-		//transform the list into 2d array
-		//start at row 1 since, first row 0 is column headings
-		for (int rowNum = 1; rowNum <= rowCount; rowNum++) {
-			
-			//take the row which is a string, and split it
-			rowSplit = csvRowList.get(rowNum).split(csvSplitBy);
-			
-			for (int colNum = 0; colNum < columnCount; colNum++ ) {
-				dataArray[rowNum-1][colNum] = rowSplit[colNum];
-				//System.out.println(dataArray[rowNum-1][colNum]);
+
+		@Override
+		public Object[] next() {
+			if (!hasNext()) throw new NoSuchElementException("All rows of CSV file [ " + filePath + " ] have been read");
+			String[] row = next;
+			next = null;
+			return row;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Test data cannot be removed");
+		}
+
+		private String[] read() throws IOException {
+			String[] row;
+			try {
+				row = reader.readRecord();
+			} catch (IOException e) {
+				close(reader);
+				throw e;
+			}
+			if (row == null) {
+				close(reader);
+				return null;
+			}
+			if (row.length == columnCount) return row;
+			String[] sized = Arrays.copyOf(row, columnCount);
+			for (int colNum = row.length; colNum < columnCount; colNum++) {
+				sized[colNum] = "";
 			}
-			//System.out.println("");
+			return sized;
 		}
-		
-		return dataArray;
 	}
-	
 }
@@ -0,0 +1,177 @@
+package com.orasi.utils.dataProviders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @summary Reads the records of a CSV file one at a time, as described by RFC
+ *          4180. Fields may be quoted, and quoted fields may hold commas, line
+ *          breaks and quotes written as two quotes (""). Records may end with
+ *          CRLF, LF or CR, and blank lines are skipped. The file is read
+ *          through a fixed buffer, so only the current record is held in
+ *          memory however large the file.
+ * @version Created: 10/18/2026
+ */
+public class CSVReader implements Closeable {
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	private static final char SEPARATOR = ',';
+	private static final char QUOTE = '"';
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	private final Reader reader;
+	private final char[] buffer;
+	private int position = 0;
+	private int limit = 0;
+	private long recordNumber = 0;
+	private final List<String> fields = new ArrayList<String>();
+	// Only used for fields that are quoted or run past the end of the buffer
+	private final StringBuilder field = new StringBuilder();
+
+	/**
+	 * @param filePath String: Path of the CSV file, read in the platform's default encoding
+	 * @throws IOException The file could not be opened
+	 */
+	public CSVReader(String filePath) throws IOException {
+		this(Channels.newReader(FileChannel.open(Paths.get(filePath), StandardOpenOption.READ), Charset.defaultCharset().newDecoder(), DEFAULT_BUFFER_SIZE));
+	}
+
+	/**
+	 * @param reader Reader: Source of the CSV text. Closed with this CSVReader.
+	 */
+	public CSVReader(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[DEFAULT_BUFFER_SIZE];
+	}
+
+	/**
+	 * @return Number of records read so far
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	/**
+	 * @summary Reads the next record
+	 * @return Values of each field of the record, or null at the end of the file
+	 * @throws IOException The file could not be read, or it ends inside a quoted field
+	 */
+	public String[] readRecord() throws IOException {
+		int next = peek();
+		if (recordNumber == 0 && next == BYTE_ORDER_MARK) {
+			position++;
+			next = peek();
+		}
+		while (next == '\r' || next == '\n') {
+			position++;
+			next = peek();
+		}
+		if (next == -1) return null;
+
+		recordNumber++;
+		fields.clear();
+		int end;
+		do {
+			end = readField();
+		} while (end == SEPARATOR);
+		return fields.toArray(new String[fields.size()]);
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Reads one field and the character that ends it
+	 * @return The separator, CR, LF, or -1 at the end of the file
+	 */
+	private int readField() throws IOException {
+		if (peek() == QUOTE) {
+			position++;
+			readQuoted();
+		}
+		return readUnquoted();
+	}
+
+	/**
+	 * Reads up to the closing quote, leaving the value in the field builder
+	 */
+	private void readQuoted() throws IOException {
+		int start = position;
+		while (true) {
+			if (position == limit) {
+				field.append(buffer, start, position - start);
+				if (!fill()) throw new IOException("Quoted field of record [ " + recordNumber + " ] is not closed before the end of the file");
+				start = position;
+			}
+			if (buffer[position++] != QUOTE) continue;
+			field.append(buffer, start, position - 1 - start);
+			if (peek() != QUOTE) return;
+			// Two quotes in a row are one quote in the value
+			field.append(QUOTE);
+			start = ++position;
+		}
+	}
+
+	/**
+	 * Reads up to the end of the field. Text between the closing quote of a
+	 * quoted field and the separator is kept rather than rejecting the file.
+	 */
+	private int readUnquoted() throws IOException {
+		int start = position;
+		while (true) {
+			while (position < limit) {
+				char c = buffer[position];
+				if (c == SEPARATOR || c == '\n' || c == '\r') {
+					addField(start, position++);
+					return c;
+				}
+				position++;
+			}
+			field.append(buffer, start, position - start);
+			if (!fill()) {
+				addField(position, position);
+				return -1;
+			}
+			start = position;
+		}
+	}
+
+	private void addField(int start, int end) {
+		if (field.length() == 0) {
+			// Field is whole in the buffer, so it is copied only once
+			fields.add(new String(buffer, start, end - start));
+		} else {
+			field.append(buffer, start, end - start);
+			fields.add(field.toString());
+			field.setLength(0);
+		}
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) return -1;
+		return buffer[position];
+	}
+
+	/**
+	 * Replaces the buffer with the next chars of the file
+	 * @return False at the end of the file
+	 */
+	private boolean fill() throws IOException {
+		int read;
+		do {
+			read = reader.read(buffer, 0, buffer.length);
+		} while (read == 0);
+		position = 0;
+		limit = Math.max(read, 0);
+		return read > 0;
+	}
+}
@@ -45,15 +45,20 @@ public class DatabaseDataProvider {
     
     private Object[][] queryTestDataTable(String testName, String scenario){
 	String filterScenario = "";
+	Object[] params = new Object[]{testName};
 	/*
 	 * Allow option to pull a specific scenario. 
 	 * If "0" is used, then do not filter on SCENARIO_NUM to pull all scenarios
 	 */
-	if (!scenario.equals("0")) filterScenario+= " AND SCENARIO_NUM  = " + scenario;
-	String metaSql = "SELECT MAX(Scenario_Num) NUMROWS,  MAX(Data_Field_Order) NUMCOLUMNS  FROM justin.testdata WHERE TEST_NAME= '" + testName + "'" +filterScenario;
-	String sql = "SELECT DATA_FIELD_NAME, DATA_FIELD_VALUE FROM justin.testdata WHERE TEST_NAME= '" + testName + "' " + filterScenario + " ORDER BY SCENARIO_NUM, DATA_FIELD_ORDER";;
+	if (!scenario.equals("0")) {
+	    filterScenario+= " AND SCENARIO_NUM = ?";
+	    params = new Object[]{testName, scenario};
+	}
+	// Parameters keep the SQL the same for every test, so each statement is prepared once per pooled connection
+	String metaSql = "SELECT MAX(Scenario_Num) NUMROWS,  MAX(Data_Field_Order) NUMCOLUMNS  FROM justin.testdata WHERE TEST_NAME = ?" +filterScenario;
+	String sql = "SELECT DATA_FIELD_NAME, DATA_FIELD_VALUE FROM justin.testdata WHERE TEST_NAME = ?" + filterScenario + " ORDER BY SCENARIO_NUM, DATA_FIELD_ORDER";
 
-	Recordset metaRs = new Recordset(db.getResultSet(metaSql));
+	Recordset metaRs = new Recordset(db.getResultSet(metaSql, params));
 	/*
 	 * Allow option to pull a specific scenario. 
 	 * If "0" is not used, then only one scenario is run
@@ -63,7 +68,7 @@ public class DatabaseDataProvider {
 	
 	int numberColumns = Integer.parseInt(metaRs.getValue("NUMCOLUMNS")); 
 	
-	return transformDataObject(db.getResultSet(sql), numberRows, numberColumns);
+	return transformDataObject(db.getResultSet(sql, params), numberRows, numberColumns);
     }
     
     private Object[][] transformDataObject(Object[][] oldData, int numberRows, int numberColumns){
@@ -0,0 +1,212 @@
+package com.orasi.utils.dataProviders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import com.orasi.utils.database.Database;
+import com.orasi.utils.database.DatabaseException;
+import com.orasi.utils.database.StreamingRecordset;
+
+/**
+ * @summary Feeds TestNG data providers from queries run in the background on
+ *          the database's connection pool. Queries started together with
+ *          {@link #prefetch(String, Object...)}, e.g. in a @BeforeClass, run
+ *          at the same time rather than one after another, and each row is
+ *          handed to TestNG as soon as it has been read, so tests start
+ *          before the last row arrives: <br>
+ *          <br>
+ *          &#64;DataProvider(name = "users") <br>
+ *          public Iterator&lt;Object[]&gt; users() { return
+ *          provider.getTestData("SELECT NAME, CITY FROM USERS WHERE CITY = ?",
+ *          "Atlanta"); } <br>
+ *          <br>
+ *          The rows of each query are kept for the rest of the suite, per
+ *          connection string, user, SQL and parameters, so every later data
+ *          provider asking for the same rows is served without querying the
+ *          database again.
+ * @version Created: 10/18/2026
+ */
+public class ParallelDatabaseDataProvider {
+	private static final ConcurrentMap<String, QueryResult> results = new ConcurrentHashMap<String, QueryResult>();
+	private static ExecutorService executor = null;
+	private final Database db;
+
+	/**
+	 * @param db Database: Database to query, with its user and password already set
+	 */
+	public ParallelDatabaseDataProvider(Database db) {
+		this.db = db;
+	}
+
+	/**
+	 * @summary Starts the query in the background, unless its rows have
+	 *          already been fetched or are being fetched, and returns
+	 *          without waiting for it
+	 * @param sql String: Query with a ? for each parameter
+	 * @param params Object...: Values of the parameters, in order
+	 * @return This provider, so several queries can be started in one statement
+	 */
+	public ParallelDatabaseDataProvider prefetch(String sql, Object... params) {
+		fetch(sql, params);
+		return this;
+	}
+
+	/**
+	 * @summary Returns the rows of the query for a TestNG data provider, one
+	 *          Object[] of column values per row. The query is started if it
+	 *          has not been already. Each row is returned as soon as it has
+	 *          been read, blocking only when the next row has not arrived yet.
+	 * @param sql String: Query with a ? for each parameter
+	 * @param params Object...: Values of the parameters, in order
+	 * @return Iterator over the rows of the query
+	 * @throws DatabaseException Thrown by the iterator if the query fails
+	 */
+	public Iterator<Object[]> getTestData(String sql, Object... params) {
+		return new RowIterator(fetch(sql, params));
+	}
+
+	/**
+	 * @summary Discards the rows kept for every query, e.g. at the end of a
+	 *          suite. Queries still running finish in the background.
+	 */
+	public static void clearCache() {
+		results.clear();
+	}
+
+	private QueryResult fetch(final String sql, final Object[] params) {
+		BasicDataSource dataSource = db.getDataSource();
+		final String key = dataSource.getUrl() + "|" + dataSource.getUsername() + "|" + sql + "|" + Arrays.deepToString(params);
+		QueryResult result = results.get(key);
+		if (result != null) return result;
+
+		final QueryResult started = new QueryResult();
+		result = results.putIfAbsent(key, started);
+		if (result != null) return result;
+
+		getExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					StreamingRecordset rs = db.getStreamingRecordset(sql, params);
+					try {
+						while (rs.hasNext()) {
+							started.add(rs.getValues());
+							rs.moveNext();
+						}
+					} finally {
+						rs.close();
+					}
+					started.complete(null);
+				} catch (Throwable e) {
+					// Failures are not kept, so the query is run again the next time it is asked for
+					results.remove(key, started);
+					started.complete(e);
+				}
+			}
+		});
+		return started;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) executor = Executors.newCachedThreadPool(new DatabaseThreadFactory("database-provider"));
+		return executor;
+	}
+
+	/**
+	 * Rows of a query, added as they are read and readable while the query
+	 * is still running
+	 */
+	private static class QueryResult {
+		private final List<Object[]> rows = new ArrayList<Object[]>();
+		private boolean complete = false;
+		private Throwable failure = null;
+
+		private synchronized void add(Object[] row) {
+			rows.add(row);
+			notifyAll();
+		}
+
+		private synchronized void complete(Throwable failure) {
+			this.failure = failure;
+			complete = true;
+			notifyAll();
+		}
+
+		/**
+		 * Waits until the row has been read, or the query has finished
+		 * without returning it
+		 * @return The row, or null if the query returned fewer rows
+		 */
+		private synchronized Object[] get(int row) {
+			while (row >= rows.size() && !complete) {
+				try {
+					wait();
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new DatabaseException("Interrupted while waiting for row [ " + (row + 1) + " ]", ie);
+				}
+			}
+			if (row < rows.size()) return rows.get(row);
+			if (failure != null) throw new DatabaseException("Failed to fetch test data", failure);
+			return null;
+		}
+	}
+
+	private static class RowIterator implements Iterator<Object[]> {
+		private final QueryResult result;
+		private int row = 0;
+
+		private RowIterator(QueryResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return result.get(row) != null;
+		}
+
+		@Override
+		public Object[] next() {
+			Object[] values = result.get(row);
+			if (values == null) throw new NoSuchElementException("All [ " + row + " ] rows have been returned");
+			row++;
+			// Copied so a test changing its parameters does not change the kept rows
+			return values.clone();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Test data cannot be removed");
+		}
+	}
+
+	/**
+	 * Daemon threads so running queries never keep the test JVM alive
+	 */
+	private static class DatabaseThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		private final String prefix;
+
+		private DatabaseThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
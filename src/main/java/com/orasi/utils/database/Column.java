@@ -0,0 +1,463 @@
+package com.orasi.utils.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @summary Values of one column of a {@link Recordset}, held in a single
+ *          array of the column's type rather than as an Object per value.
+ *          Whole numbers, decimals and booleans are kept as primitives, and
+ *          text is dictionary encoded so a value repeated in many rows is
+ *          only stored once. Null values are read back as "NULL", the same
+ *          as from {@link Database#getResultSet(String)}.
+ * @version Created: 10/18/2026
+ */
+public abstract class Column {
+	public enum Type {
+		LONG, DOUBLE, BOOLEAN, STRING
+	}
+
+	static final String NULL = "NULL";
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final String name;
+	private final BitSet nulls = new BitSet();
+	int size = 0;
+
+	Column(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @summary Creates the column best suited to hold values of a JDBC type.
+	 *          Decimals with a scale are held as text so no precision is lost.
+	 * @param name String: Name of the column
+	 * @param sqlType int: Type of the column from {@link java.sql.Types}
+	 * @param precision int: Number of digits of a numeric column
+	 * @param scale int: Number of digits after the decimal point of a numeric column
+	 * @return Empty column
+	 */
+	static Column forSqlType(String name, int sqlType, int precision, int scale) {
+		switch (sqlType) {
+		case Types.BIGINT:
+		case Types.INTEGER:
+		case Types.SMALLINT:
+		case Types.TINYINT:
+			return new LongColumn(name);
+		case Types.NUMERIC:
+		case Types.DECIMAL:
+			if (scale == 0 && precision > 0 && precision < 19) return new LongColumn(name);
+			return new StringColumn(name, sqlType);
+		case Types.DOUBLE:
+		case Types.FLOAT:
+		case Types.REAL:
+			return new DoubleColumn(name);
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return new BooleanColumn(name);
+		default:
+			return new StringColumn(name, sqlType);
+		}
+	}
+
+	/**
+	 * @summary Creates the column best suited to hold the given values. Longs,
+	 *          Integers, Shorts and Bytes are held as whole numbers, Doubles
+	 *          and Floats as decimals, Booleans as booleans and anything else
+	 *          as text.
+	 * @param name String: Name of the column
+	 * @param table Object[][]: Rows of values, with the column names in the first row
+	 * @param column int: Position of the column starting at 0
+	 * @return Column holding every value of the column
+	 */
+	static Column fromValues(String name, Object[][] table, int column) {
+		Type type = null;
+		for (int row = 1; row < table.length && type != Type.STRING; row++) {
+			Object value = table[row][column];
+			if (value == null) continue;
+			Type valueType = value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ? Type.LONG
+					: value instanceof Double || value instanceof Float ? Type.DOUBLE
+					: value instanceof Boolean ? Type.BOOLEAN : Type.STRING;
+			type = type == null || type == valueType ? valueType : Type.STRING;
+		}
+
+		Column values = type == Type.LONG ? new LongColumn(name)
+				: type == Type.DOUBLE ? new DoubleColumn(name)
+				: type == Type.BOOLEAN ? new BooleanColumn(name) : new StringColumn(name, Types.VARCHAR);
+		for (int row = 1; row < table.length; row++) {
+			Object value = table[row][column];
+			if (value == null) values.addNull();
+			else values.add(value);
+		}
+		values.trim();
+		return values;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public abstract Type getType();
+
+	/**
+	 * @return Number of rows in the column
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param row int: Row starting at 0
+	 * @return True if the value of the row is null
+	 */
+	public boolean isNull(int row) {
+		return nulls.get(row);
+	}
+
+	/**
+	 * @param row int: Row starting at 0
+	 * @return Value of the row as text, or "NULL"
+	 */
+	public abstract String getString(int row);
+
+	/**
+	 * @param row int: Row starting at 0
+	 * @return Value of the row as a whole number
+	 * @throws DatabaseException The value is null or is not a number
+	 */
+	public long getLong(int row) {
+		String value = getNotNull(row);
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new DatabaseException("Value [ " + value + " ] of column [ " + name + " ] in row [ " + (row + 1) + " ] is not a whole number", e);
+		}
+	}
+
+	/**
+	 * @param row int: Row starting at 0
+	 * @return Value of the row as a decimal
+	 * @throws DatabaseException The value is null or is not a number
+	 */
+	public double getDouble(int row) {
+		String value = getNotNull(row);
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw new DatabaseException("Value [ " + value + " ] of column [ " + name + " ] in row [ " + (row + 1) + " ] is not a number", e);
+		}
+	}
+
+	/**
+	 * @param row int: Row starting at 0
+	 * @return True if the value of the row is true, or 1
+	 * @throws DatabaseException The value is null
+	 */
+	public boolean getBoolean(int row) {
+		String value = getNotNull(row);
+		return value.equalsIgnoreCase("true") || value.equals("1");
+	}
+
+	String getNotNull(int row) {
+		checkNotNull(row);
+		return getString(row);
+	}
+
+	void checkNotNull(int row) {
+		if (isNull(row)) throw new DatabaseException("Value of column [ " + name + " ] in row [ " + (row + 1) + " ] is NULL");
+	}
+
+	/**
+	 * Reads the value of the column from the current row of the result
+	 */
+	abstract void read(ResultSet resultSet, int column) throws SQLException;
+
+	abstract void add(Object value);
+
+	void addNull() {
+		grow();
+		nulls.set(size);
+		size++;
+	}
+
+	/**
+	 * Makes room for one more value
+	 */
+	abstract void grow();
+
+	/**
+	 * Releases the space left over once every value has been added
+	 */
+	abstract void trim();
+
+	static int grownCapacity(int capacity) {
+		return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+	}
+
+	static class LongColumn extends Column {
+		private long[] values = new long[0];
+
+		LongColumn(String name) {
+			super(name);
+		}
+
+		@Override
+		public Type getType() {
+			return Type.LONG;
+		}
+
+		@Override
+		public String getString(int row) {
+			long value = values[row];
+			return isNull(row) ? NULL : String.valueOf(value);
+		}
+
+		@Override
+		public long getLong(int row) {
+			checkNotNull(row);
+			return values[row];
+		}
+
+		@Override
+		public double getDouble(int row) {
+			return getLong(row);
+		}
+
+		@Override
+		public boolean getBoolean(int row) {
+			return getLong(row) != 0;
+		}
+
+		@Override
+		void read(ResultSet resultSet, int column) throws SQLException {
+			long value = resultSet.getLong(column);
+			if (resultSet.wasNull()) addNull();
+			else add(value);
+		}
+
+		@Override
+		void add(Object value) {
+			add(((Number) value).longValue());
+		}
+
+		void add(long value) {
+			grow();
+			values[size++] = value;
+		}
+
+		@Override
+		void grow() {
+			if (size == values.length) values = Arrays.copyOf(values, grownCapacity(size));
+		}
+
+		@Override
+		void trim() {
+			if (size < values.length) values = Arrays.copyOf(values, size);
+		}
+	}
+
+	static class DoubleColumn extends Column {
+		private double[] values = new double[0];
+
+		DoubleColumn(String name) {
+			super(name);
+		}
+
+		@Override
+		public Type getType() {
+			return Type.DOUBLE;
+		}
+
+		@Override
+		public String getString(int row) {
+			double value = values[row];
+			return isNull(row) ? NULL : String.valueOf(value);
+		}
+
+		@Override
+		public long getLong(int row) {
+			return (long) getDouble(row);
+		}
+
+		@Override
+		public double getDouble(int row) {
+			checkNotNull(row);
+			return values[row];
+		}
+
+		@Override
+		public boolean getBoolean(int row) {
+			return getDouble(row) != 0;
+		}
+
+		@Override
+		void read(ResultSet resultSet, int column) throws SQLException {
+			double value = resultSet.getDouble(column);
+			if (resultSet.wasNull()) addNull();
+			else add(value);
+		}
+
+		@Override
+		void add(Object value) {
+			add(((Number) value).doubleValue());
+		}
+
+		void add(double value) {
+			grow();
+			values[size++] = value;
+		}
+
+		@Override
+		void grow() {
+			if (size == values.length) values = Arrays.copyOf(values, grownCapacity(size));
+		}
+
+		@Override
+		void trim() {
+			if (size < values.length) values = Arrays.copyOf(values, size);
+		}
+	}
+
+	static class BooleanColumn extends Column {
+		private boolean[] values = new boolean[0];
+
+		BooleanColumn(String name) {
+			super(name);
+		}
+
+		@Override
+		public Type getType() {
+			return Type.BOOLEAN;
+		}
+
+		@Override
+		public String getString(int row) {
+			boolean value = values[row];
+			return isNull(row) ? NULL : String.valueOf(value);
+		}
+
+		@Override
+		public long getLong(int row) {
+			return getBoolean(row) ? 1 : 0;
+		}
+
+		@Override
+		public double getDouble(int row) {
+			return getLong(row);
+		}
+
+		@Override
+		public boolean getBoolean(int row) {
+			checkNotNull(row);
+			return values[row];
+		}
+
+		@Override
+		void read(ResultSet resultSet, int column) throws SQLException {
+			boolean value = resultSet.getBoolean(column);
+			if (resultSet.wasNull()) addNull();
+			else add(value);
+		}
+
+		@Override
+		void add(Object value) {
+			add(((Boolean) value).booleanValue());
+		}
+
+		void add(boolean value) {
+			grow();
+			values[size++] = value;
+		}
+
+		@Override
+		void grow() {
+			if (size == values.length) values = Arrays.copyOf(values, grownCapacity(size));
+		}
+
+		@Override
+		void trim() {
+			if (size < values.length) values = Arrays.copyOf(values, size);
+		}
+	}
+
+	/**
+	 * Text column holding each distinct value once, and a code per row
+	 * pointing at its value
+	 */
+	static class StringColumn extends Column {
+		private final int sqlType;
+		private int[] codes = new int[0];
+		private String[] dictionary = new String[0];
+		private int distinct = 0;
+		private Map<String, Integer> dictionaryCodes = new HashMap<String, Integer>();
+
+		StringColumn(String name, int sqlType) {
+			super(name);
+			this.sqlType = sqlType;
+		}
+
+		@Override
+		public Type getType() {
+			return Type.STRING;
+		}
+
+		@Override
+		public String getString(int row) {
+			int code = codes[row];
+			return code == -1 ? NULL : dictionary[code];
+		}
+
+		/**
+		 * @return Number of distinct values held by the column
+		 */
+		int getDistinctCount() {
+			return distinct;
+		}
+
+		@Override
+		void read(ResultSet resultSet, int column) throws SQLException {
+			String value = Database.readString(resultSet, sqlType, column);
+			if (value == null) addNull();
+			else add(value);
+		}
+
+		@Override
+		void add(Object value) {
+			String text = value.toString();
+			Integer code = dictionaryCodes.get(text);
+			if (code == null) {
+				if (distinct == dictionary.length) dictionary = Arrays.copyOf(dictionary, grownCapacity(distinct));
+				code = distinct;
+				dictionary[distinct++] = text;
+				dictionaryCodes.put(text, code);
+			}
+			grow();
+			codes[size++] = code;
+		}
+
+		@Override
+		void addNull() {
+			grow();
+			codes[size] = -1;
+			super.addNull();
+		}
+
+		@Override
+		void grow() {
+			if (size == codes.length) codes = Arrays.copyOf(codes, grownCapacity(size));
+		}
+
+		@Override
+		void trim() {
+			if (size < codes.length) codes = Arrays.copyOf(codes, size);
+			if (distinct < dictionary.length) dictionary = Arrays.copyOf(dictionary, distinct);
+			// Only needed while values are being added
+			dictionaryCodes = null;
+		}
+	}
+}
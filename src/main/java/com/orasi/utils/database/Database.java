@@ -1,14 +1,32 @@
 package com.orasi.utils.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.dbcp2.BasicDataSource;
+
+/**
+ * @summary Base of the supported databases. Connections are borrowed from a
+ *          pooled DataSource shared by every Database with the same driver,
+ *          connection string and user, and returned to it once each query has
+ *          been read. Each pooled connection keeps a cache of prepared
+ *          statements, so a parameterized query is only prepared once per
+ *          connection no matter how many times it is run.
+ */
 public abstract class Database {
+	public static final int DEFAULT_MAX_CONNECTIONS = 8;
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+	public static final long DEFAULT_MAX_WAIT = 30000;
+	public static final int DEFAULT_FETCH_SIZE = 500;
+	private static final ConcurrentMap<String, BasicDataSource> dataSources = new ConcurrentHashMap<String, BasicDataSource>();
 
 	protected String strDriver = null;	
 	private String strDbHost = null;
@@ -17,6 +35,9 @@ public abstract class Database {
 	private String strDbUser= null;
 	private String strDbPassword= null;
 	protected String strConnectionString= null; 
+	private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+	private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+	private int fetchSize = DEFAULT_FETCH_SIZE;
 	
 	protected abstract void setDbDriver(String driver);
 	
@@ -70,115 +91,370 @@ public abstract class Database {
 		return strConnectionString;
 	}
 		
+	/**
+	 * @summary Query used to check a pooled connection is still open before
+	 *          it is handed out. When null, the driver's Connection.isValid()
+	 *          is used, which older drivers do not support.
+	 * @return Validation query for the database, or null
+	 */
+	protected String getValidationQuery(){
+		return null;
+	}
+	
+	/**
+	 * @summary Maximum number of connections the pool opens to the database.
+	 *          Only used when the pool is created by the first query.
+	 * @param max int: Maximum number of open connections
+	 */
+	public void setMaxConnections(int max){
+		if(max < 1) throw new IllegalArgumentException("Max connections needs to be 1 or greater. Max connections entered was: " + max);
+		maxConnections = max;
+	}
+	
+	public int getMaxConnections(){
+		return maxConnections;
+	}
+	
+	/**
+	 * @summary Number of prepared statements cached by each pooled connection.
+	 *          Only used when the pool is created by the first query.
+	 * @param size int: Maximum number of cached statements per connection
+	 */
+	public void setStatementCacheSize(int size){
+		if(size < 1) throw new IllegalArgumentException("Statement cache size needs to be 1 or greater. Statement cache size entered was: " + size);
+		statementCacheSize = size;
+	}
+	
+	public int getStatementCacheSize(){
+		return statementCacheSize;
+	}
+	
+	/**
+	 * @summary Number of rows the driver fetches from the database at a time.
+	 *          Larger sizes mean fewer round trips, smaller sizes less memory
+	 *          held by a {@link StreamingRecordset}.
+	 * @param size int: Rows fetched per round trip
+	 */
+	public void setFetchSize(int size){
+		if(size < 1) throw new IllegalArgumentException("Fetch size needs to be 1 or greater. Fetch size entered was: " + size);
+		fetchSize = size;
+	}
+	
+	public int getFetchSize(){
+		return fetchSize;
+	}
+	
+	/**
+	 * @summary Returns the pool connections to this database are borrowed
+	 *          from, creating it on first use. The pool is shared with every
+	 *          Database that has the same driver, connection string and user.
+	 * @return Pooled DataSource for the database
+	 */
+	public BasicDataSource getDataSource(){
+		String key = getDataSourceKey();
+		BasicDataSource dataSource = dataSources.get(key);
+		if (dataSource == null) {
+			dataSource = createDataSource();
+			BasicDataSource existing = dataSources.putIfAbsent(key, dataSource);
+			if (existing != null) {
+				close(dataSource);
+				dataSource = existing;
+			}
+		}
+		return dataSource;
+	}
+	
+	/**
+	 * @summary Closes the pool of this database, and of every other Database
+	 *          sharing it. A new pool is created if a query is run afterwards.
+	 */
+	public void closeDataSource(){
+		BasicDataSource dataSource = dataSources.remove(getDataSourceKey());
+		if (dataSource != null) close(dataSource);
+	}
+	
+	/**
+	 * @summary Closes the pools of every database, e.g. at the end of a suite
+	 */
+	public static void closeDataSources(){
+		for (String key : dataSources.keySet()) {
+			BasicDataSource dataSource = dataSources.remove(key);
+			if (dataSource != null) close(dataSource);
+		}
+	}
+	
+	/**
+	 * @summary Borrows a connection from the pool. Closing the connection
+	 *          returns it to the pool.
+	 * @return Open connection to the database
+	 * @throws DatabaseException No connection could be opened
+	 */
+	public Connection getConnection(){
+		try {
+			return getDataSource().getConnection();
+		} catch (SQLException e) {
+			throw new DatabaseException("Failed to connect to [ " + getDbConnectionString() + " ]", e);
+		}
+	}
+	
+	/**
+	 * @summary Runs the query and returns the column names followed by every
+	 *          row returned
+	 * @param query String: Query to run
+	 * @return Column names in the first row, and the values of each row returned after it
+	 * @throws DatabaseException The query failed
+	 */
 	public Object[][] getResultSet(String query) {
-	    loadDriver();
-		
-	    Connection connection = null;
+		return getResultSet(query, new Object[0]);
+	}
+	
+	/**
+	 * @summary Runs a parameterized query, e.g. "SELECT * FROM USERS WHERE
+	 *          NAME = ?", and returns the column names followed by every row
+	 *          returned. The statement is prepared once per pooled connection
+	 *          and reused for every later run of the same query.
+	 * @param query String: Query with a ? for each parameter
+	 * @param params Object...: Values of the parameters, in order
+	 * @return Column names in the first row, and the values of each row returned after it
+	 * @throws DatabaseException The query failed
+	 */
+	public Object[][] getResultSet(String query, Object... params) {
+		Connection connection = getConnection();
 		try {
-			
-			connection = DriverManager.getConnection(getDbConnectionString(), getDbUserName(), getDbPassword());
+			PreparedStatement statement = prepare(connection, query, params);
+			try {
+				ResultSet resultSet = statement.executeQuery();
+				try {
+					return extract(resultSet);
+				} finally {
+					resultSet.close();
+				}
+			} finally {
+				// Returns the statement to the connection's cache
+				statement.close();
+			}
 		} catch (SQLException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			throw new DatabaseException("Failed to run query [ " + query + " ]", e);
+		} finally {
+			close(connection);
 		}
-	    
-		ResultSet rs = (runQuery(connection, query));
-	    try {
-			return extract(rs);
+	}
+	
+	/**
+	 * @summary Runs a parameterized query and returns the rows as a
+	 *          {@link Recordset} held column by column. Whole number, decimal
+	 *          and boolean columns are kept as primitives, and text columns
+	 *          hold each distinct value once.
+	 * @param query String: Query with a ? for each parameter
+	 * @param params Object...: Values of the parameters, in order
+	 * @return Recordset positioned on the first row
+	 * @throws DatabaseException The query failed
+	 */
+	public Recordset getRecordset(String query, Object... params) {
+		Connection connection = getConnection();
+		try {
+			PreparedStatement statement = prepare(connection, query, params);
+			try {
+				ResultSet resultSet = statement.executeQuery();
+				try {
+					return new Recordset(extractColumns(resultSet));
+				} finally {
+					resultSet.close();
+				}
+			} finally {
+				// Returns the statement to the connection's cache
+				statement.close();
+			}
 		} catch (SQLException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			throw new DatabaseException("Failed to run query [ " + query + " ]", e);
+		} finally {
+			close(connection);
 		}
-		return null;
 	}
-	 
 	
-	private void loadDriver(){			
-		try{
-			  Class.forName(getDbDriver());
-		} catch(ClassNotFoundException cnfe) {
-		      System.err.println("Error loading driver: " + cnfe);
-		}		 
+	/**
+	 * @summary Runs a parameterized insert, update, delete or DDL statement
+	 * @param sql String: Statement with a ? for each parameter
+	 * @param params Object...: Values of the parameters, in order
+	 * @return Number of rows changed
+	 * @throws DatabaseException The statement failed
+	 */
+	public int executeUpdate(String sql, Object... params) {
+		Connection connection = getConnection();
+		try {
+			PreparedStatement statement = prepare(connection, sql, params);
+			try {
+				return statement.executeUpdate();
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw new DatabaseException("Failed to run statement [ " + sql + " ]", e);
+		} finally {
+			close(connection);
+		}
+	}
+	
+	/**
+	 * @summary Runs a parameterized query and returns a forward-only
+	 *          recordset that reads the rows as they are moved through,
+	 *          rather than copying them all into memory first. The recordset
+	 *          holds a pooled connection until it is read to the end or
+	 *          closed.
+	 * @param query String: Query with a ? for each parameter
+	 * @param params Object...: Values of the parameters, in order
+	 * @return Recordset positioned on the first row
+	 * @throws DatabaseException The query failed
+	 */
+	public StreamingRecordset getStreamingRecordset(String query, Object... params) {
+		Connection connection = getConnection();
+		try {
+			return new StreamingRecordset(connection, prepare(connection, query, params), query);
+		} catch (SQLException e) {
+			close(connection);
+			throw new DatabaseException("Failed to run query [ " + query + " ]", e);
+		} catch (RuntimeException e) {
+			close(connection);
+			throw e;
+		}
 	}
-
-	private static ResultSet runQuery(Connection connection, String query) {
-	    try {
-	      Statement statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-	      ResultSet resultSet = statement.executeQuery(query);
 	
-	      return(resultSet);
-	      
-	    } catch(SQLException sqle) {
-	      System.err.println("Error executing query: " + sqle);
-	      return(null);	     
-	    } 
+	private String getDataSourceKey(){
+		return getDbDriver() + "|" + getDbConnectionString() + "|" + getDbUserName();
+	}
+	
+	private BasicDataSource createDataSource(){
+		BasicDataSource dataSource = new BasicDataSource();
+		dataSource.setDriverClassName(getDbDriver());
+		dataSource.setUrl(getDbConnectionString());
+		dataSource.setUsername(getDbUserName());
+		dataSource.setPassword(getDbPassword());
+		dataSource.setMaxTotal(maxConnections);
+		dataSource.setMaxIdle(maxConnections);
+		dataSource.setMaxWaitMillis(DEFAULT_MAX_WAIT);
+		dataSource.setPoolPreparedStatements(true);
+		dataSource.setMaxOpenPreparedStatements(statementCacheSize);
+		dataSource.setTestOnBorrow(true);
+		if (getValidationQuery() != null) dataSource.setValidationQuery(getValidationQuery());
+		return dataSource;
+	}
+	
+	private PreparedStatement prepare(Connection connection, String query, Object[] params) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			statement.setFetchSize(fetchSize);
+			for (int param = 0; param < params.length; param++) {
+				statement.setObject(param + 1, params[param]);
+			}
+		} catch (SQLException e) {
+			statement.close();
+			throw e;
+		}
+		return statement;
+	}
+	
+	private static void close(Connection connection){
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// The connection is discarded rather than returned to the pool
+		}
+	}
+	
+	private static void close(BasicDataSource dataSource){
+		try {
+			dataSource.close();
+		} catch (SQLException e) {
+			// Pool is shut down regardless
+		}
 	}
 	
     /** 
-     * Returns an ArrayList of ArrayLists of Strings extracted from a 
-     * ResultSet retrieved from the database. 
+     * Returns the column names followed by every row of a ResultSet retrieved
+     * from the database. The rows are read forward only, one at a time.
      * @param resultSet ResultSet to extract Strings from 
-     * @return an ArrayList of ArrayLists of Strings 
+     * @return the column names in the first row, and the values of each row after it
      * @throws SQLException if an SQL exception occurs 
      */  
     private static Object[][] extract(ResultSet resultSet)  
     throws SQLException {  
-        // get row and column count
-        int rowCount = 0;
-        try {
-            resultSet.last();
-            rowCount = resultSet.getRow();
-            resultSet.beforeFirst();
-        }
-        catch(Exception ex) {
-        	rowCount = 0;
-        }
-       
-        int columnCount = resultSet.getMetaData().getColumnCount();  
-      
-        Object[][] table = new String[rowCount+1][columnCount];  
         ResultSetMetaData rsmd = resultSet.getMetaData();        
-        
-        for(int rowNum = 0; rowNum <= rowCount; rowNum++) {  
-            for(int colNum = 0, rsColumn = 1; colNum < columnCount; colNum++, rsColumn++){
-            	
-            	if(rowNum == 0){
-            		table[rowNum][colNum] = resultSet.getMetaData().getColumnName(rsColumn);   
-            	}else if(resultSet.getString(colNum+1) == null){
-            		//System.out.println("null");
-            		table[rowNum][colNum] = "NULL";
-            	}else{
-            		try{
-            			
-	            		//
-	            		switch (rsmd.getColumnType(rsColumn)){
-	            		
-	            		case Types.DATE:
-	            			table[rowNum][colNum] = String.valueOf(resultSet.getTimestamp(rsColumn));
-	            			break;
-	
-	            		case Types.TIMESTAMP:
-	            			table[rowNum][colNum] = String.valueOf(resultSet.getTimestamp(rsColumn));
-	            			break;
-	            			
-	            		case Types.TIME:
-	            			table[rowNum][colNum] = resultSet.getTime(rsColumn);
-	            			break;	            				            	
-	            			
-	            		default:
-	            			table[rowNum][colNum] = resultSet.getString(rsColumn).intern();
-	            			break;
-	            		}
-            		}catch (Exception e){
-            			table[rowNum][colNum] = resultSet.getString(rsColumn).intern();
-            		}
-            		//System.out.println(resultSet.getString(c).intern());
-            		//table[rowNum][colNum] = resultSet.getString(colNum+1).intern();              
-            	}
-           }
-            resultSet.next();
-        }  
-        return table;  
+        List<String[]> table = new ArrayList<String[]>();
+        table.add(getColumnNames(rsmd));
+        while (resultSet.next()) {
+            table.add(readRow(resultSet, rsmd));
+        }
+        return table.toArray(new String[table.size()][]);  
     }  
+    
+    /**
+     * Reads every row of a ResultSet into a column per column of the result,
+     * typed from the ResultSet's metadata
+     */
+    private static Column[] extractColumns(ResultSet resultSet)
+    throws SQLException {
+        ResultSetMetaData rsmd = resultSet.getMetaData();
+        Column[] columns = new Column[rsmd.getColumnCount()];
+        for(int colNum = 0; colNum < columns.length; colNum++){
+            columns[colNum] = Column.forSqlType(rsmd.getColumnName(colNum + 1), rsmd.getColumnType(colNum + 1),
+                    rsmd.getPrecision(colNum + 1), rsmd.getScale(colNum + 1));
+        }
+        while (resultSet.next()) {
+            for(int colNum = 0; colNum < columns.length; colNum++){
+                columns[colNum].read(resultSet, colNum + 1);
+            }
+        }
+        for (Column column : columns) {
+            column.trim();
+        }
+        return columns;
+    }
+    
+    static String[] getColumnNames(ResultSetMetaData rsmd) throws SQLException {
+        String[] names = new String[rsmd.getColumnCount()];
+        for(int colNum = 0; colNum < names.length; colNum++){
+            names[colNum] = rsmd.getColumnName(colNum + 1);
+        }
+        return names;
+    }
+    
+    /**
+     * Reads the values of the current row. Nulls are returned as "NULL", and
+     * dates and timestamps in Timestamp format.
+     */
+    static String[] readRow(ResultSet resultSet, ResultSetMetaData rsmd) throws SQLException {
+        String[] row = new String[rsmd.getColumnCount()];
+        for(int colNum = 0, rsColumn = 1; colNum < row.length; colNum++, rsColumn++){
+            int type;
+            try{
+                type = rsmd.getColumnType(rsColumn);
+            }catch (Exception e){
+                type = Types.OTHER;
+            }
+            String value = readString(resultSet, type, rsColumn);
+            row[colNum] = value == null ? "NULL" : value;
+        }
+        return row;
+    }
+    
+    /**
+     * Reads the value of a column of the current row as text, with dates and
+     * timestamps in Timestamp format. Returns null when the value is null.
+     */
+    static String readString(ResultSet resultSet, int sqlType, int rsColumn) throws SQLException {
+        String value = resultSet.getString(rsColumn);
+        if(value == null) return null;
+        try{
+            switch (sqlType){
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return String.valueOf(resultSet.getTimestamp(rsColumn));
+            default:
+                return value;
+            }
+        }catch (Exception e){
+            return value;
+        }
+    }
 	
 }
@@ -0,0 +1,18 @@
+package com.orasi.utils.database;
+
+/**
+ * @summary Raised when a {@link Database} cannot be connected to or a query
+ *          against it fails
+ * @version Created: 10/18/2026
+ */
+public class DatabaseException extends RuntimeException {
+	private static final long serialVersionUID = 2186329437116581927L;
+
+	public DatabaseException(String message) {
+		super("Database Error: " + message);
+	}
+
+	public DatabaseException(String message, Throwable cause) {
+		super("Database Error: " + message, cause);
+	}
+}
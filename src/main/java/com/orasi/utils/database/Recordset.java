@@ -1,46 +1,79 @@
 package com.orasi.utils.database;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @summary Rows returned by a query, held column by column. Each column keeps
+ *          its values in one array of its type (see {@link Column}), and
+ *          column names are indexed once so looking up a value by name does
+ *          not scan the column names.
+ */
 public class Recordset {
-	private int columnRow = 0;
 	private int startRow = 1;
 	private int totalRows = 0;
 	private int totalColumns = 0;
 	private int currentRow = 1;
-	private Object[][] rs = null;
-	
-	
+	private final Column[] columns;
+	private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+
+
+	/**
+	 * @param rs Object[][]: Column names in the first row, and the values of each row after it
+	 */
 	public Recordset(Object[][] rs){
-		this.rs = rs;
-		this.totalRows = rs.length -1;
-		this.totalColumns = rs[columnRow].length;		
+		this(toColumns(rs));
 	}
-	
+
+	Recordset(Column[] columns){
+		this.columns = columns;
+		this.totalColumns = columns.length;
+		this.totalRows = columns.length == 0 ? 0 : columns[0].size();
+		for (int columnIndex = totalColumns - 1 ; columnIndex >= 0 ; columnIndex--){
+			// Looped backwards so the first of any duplicate names is kept
+			columnIndexes.put(key(columns[columnIndex].getName()), columnIndex + 1);
+		}
+	}
+
+	/**
+	 * @return New array holding the column names in the first row, and the
+	 *         values of each row as text after it
+	 */
 	public Object[][] getArray(){
+		Object[][] rs = new Object[totalRows + 1][totalColumns];
+		for (int columnIndex = 0 ; columnIndex < totalColumns ; columnIndex++){
+			rs[0][columnIndex] = columns[columnIndex].getName();
+			for (int row = 0 ; row < totalRows ; row++){
+				rs[row + 1][columnIndex] = columns[columnIndex].getString(row);
+			}
+		}
 		return rs;
 	}
 	public int getRowCount(){
 		return totalRows;
 	}
-	
+
 	public int getColumnCount(){
 		return totalColumns;
 	}
-	
+
 	public void moveFirst(){
 		currentRow = startRow;
 	}
-	
+
 	public void moveNext(){
-		if (currentRow <= totalRows+1) currentRow++;		
+		if (currentRow <= totalRows+1) currentRow++;
 	}
-	
+
 	public void movePrevious(){
-		if (currentRow > startRow) currentRow--;		
+		if (currentRow > startRow) currentRow--;
 	}
-	
+
 	public void moveLast(){
 		currentRow = totalRows;
 	}
-	
+
 	public boolean isFirst(){
 		if (currentRow == startRow){
 			return true;
@@ -48,7 +81,7 @@ public class Recordset {
 			return false;
 		}
 	}
-	
+
 	public boolean hasNext(){
 		if (currentRow <= totalRows){
 			return true;
@@ -56,7 +89,7 @@ public class Recordset {
 			return false;
 		}
 	}
-	
+
 	public boolean isLast(){
 		if (currentRow > totalRows){
 			return true;
@@ -64,52 +97,123 @@ public class Recordset {
 			return false;
 		}
 	}
-	
+
 	public int getColumnIndex(String name){
-		int index = 0;
-		for (int columnIndex = 0 ; columnIndex < totalColumns ; columnIndex++){
-			if (rs[columnRow][ columnIndex].toString().equalsIgnoreCase(name)) {
-				index = columnIndex + 1;
-				break;
-			}
-		}
-		return index;
+		Integer index = columnIndexes.get(key(name));
+		return index == null ? 0 : index;
 	}
-	
+
+	/**
+	 * @param columnName String: Name of the column, in any case
+	 * @return Type the values of the column are held as
+	 */
+	public Column.Type getColumnType(String columnName){
+		return getColumn(columnName).getType();
+	}
+
 
 	public String getValue(String columnName){
-		int index = -1;
-		if(columnName.isEmpty()) throw new RuntimeException("Column name cannot be blank. Column name entered was: " + columnName);
-		index = getColumnIndex(columnName)-1;
-		if (index == -1) return ""; // Return blank value if no column found
-		return rs[currentRow][index].toString();
+		return getValue(columnName, currentRow);
 	}
-	
+
 	public String getValue(String columnName, int row){
 		int index = -1;
 		if(columnName.isEmpty()) throw new RuntimeException("Column name cannot be blank. Column name entered was: " + columnName);
 		if(row < 0 ) throw new RuntimeException("Start row value needs to be 1 or greater. Start row entered was: " + row);
 		index = getColumnIndex(columnName)-1;
 		if (index == -1) return ""; // Return blank value if no column found
-		return rs[row][index].toString();
+		return getValue(columns[index], row);
 	}
-	
+
 	public String getValue(int column, int row){
 		if(column < 0 ) throw new RuntimeException("Start row value needs to be 1 or greater. Start row entered was: " + column);
 		if(row < 0 ) throw new RuntimeException("Start row value needs to be 1 or greater. Start row entered was: " + row);
-		return rs[row][--column].toString();
+		return getValue(columns[--column], row);
+	}
+
+	public boolean isNull(String columnName){
+		return isNull(columnName, currentRow);
+	}
+
+	public boolean isNull(String columnName, int row){
+		return getColumn(columnName).isNull(row - 1);
+	}
+
+	/**
+	 * @param columnName String: Name of the column, in any case
+	 * @return Value of the column in the current row as a whole number
+	 * @throws DatabaseException The value is null or is not a number
+	 */
+	public long getLong(String columnName){
+		return getLong(columnName, currentRow);
+	}
+
+	public long getLong(String columnName, int row){
+		return getColumn(columnName).getLong(row - 1);
+	}
+
+	/**
+	 * @param columnName String: Name of the column, in any case
+	 * @return Value of the column in the current row as a decimal
+	 * @throws DatabaseException The value is null or is not a number
+	 */
+	public double getDouble(String columnName){
+		return getDouble(columnName, currentRow);
+	}
+
+	public double getDouble(String columnName, int row){
+		return getColumn(columnName).getDouble(row - 1);
+	}
+
+	/**
+	 * @param columnName String: Name of the column, in any case
+	 * @return Value of the column in the current row as a boolean. Text is
+	 *         true when it is "true" or "1".
+	 * @throws DatabaseException The value is null
+	 */
+	public boolean getBoolean(String columnName){
+		return getBoolean(columnName, currentRow);
 	}
-	
+
+	public boolean getBoolean(String columnName, int row){
+		return getColumn(columnName).getBoolean(row - 1);
+	}
+
 	public void removeColumn(String columnName){
-		
+
 	}
-	
+
 	public String printString(){
-	    return PrettyPrinter.print(rs);
+	    return PrettyPrinter.print(getArray());
 	}
-	
+
 	public void print(){
-	    System.out.println(PrettyPrinter.print(rs));
-	}	
-	
+	    System.out.println(PrettyPrinter.print(getArray()));
+	}
+
+	private Column getColumn(String columnName){
+		int index = getColumnIndex(columnName)-1;
+		if (index == -1) throw new RuntimeException("No column found with name [ " + columnName + " ]");
+		return columns[index];
+	}
+
+	/**
+	 * Row 0 holds the column names, as it does in the array the recordset
+	 * was created from
+	 */
+	private static String getValue(Column column, int row){
+		return row == 0 ? column.getName() : column.getString(row - 1);
+	}
+
+	private static String key(String name){
+		return name.toUpperCase(Locale.ENGLISH);
+	}
+
+	private static Column[] toColumns(Object[][] rs){
+		Column[] columns = new Column[rs[0].length];
+		for (int columnIndex = 0 ; columnIndex < columns.length ; columnIndex++){
+			columns[columnIndex] = Column.fromValues(rs[0][columnIndex].toString(), rs, columnIndex);
+		}
+		return columns;
+	}
 }
@@ -0,0 +1,171 @@
+package com.orasi.utils.database;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * @summary Forward-only counterpart of {@link Recordset}. Rows are read from
+ *          the database as the recordset is moved through, a fetch size at a
+ *          time, so only the current row is held in memory however large
+ *          the result. Values are read with the same getValue and moveNext
+ *          calls as a Recordset: <br>
+ *          <br>
+ *          while (rs.hasNext()) { rs.getValue("NAME"); rs.moveNext(); } <br>
+ *          <br>
+ *          Rows cannot be revisited. The connection is returned to the pool
+ *          as soon as the last row has been read, or when the recordset is
+ *          closed.
+ * @version Created: 10/18/2026
+ */
+public class StreamingRecordset implements Closeable {
+	private final String query;
+	private final Connection connection;
+	private final PreparedStatement statement;
+	private final ResultSet resultSet;
+	private final ResultSetMetaData metaData;
+	private final String[] columnNames;
+	private String[] row = null;
+	private int currentRow = 0;
+	private boolean closed = false;
+
+	StreamingRecordset(Connection connection, PreparedStatement statement, String query) throws SQLException {
+		this.query = query;
+		this.connection = connection;
+		this.statement = statement;
+		try {
+			resultSet = statement.executeQuery();
+			metaData = resultSet.getMetaData();
+			columnNames = Database.getColumnNames(metaData);
+		} catch (SQLException | RuntimeException e) {
+			statement.close();
+			throw e;
+		}
+		moveNext();
+	}
+
+	/**
+	 * @return Copy of the names of every column, in order
+	 */
+	public String[] getColumnNames() {
+		return columnNames.clone();
+	}
+
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 * @param name String: Name of the column, in any case
+	 * @return Position of the column starting at 1, or 0 if there is no such column
+	 */
+	public int getColumnIndex(String name) {
+		for (int columnIndex = 0; columnIndex < columnNames.length; columnIndex++) {
+			if (columnNames[columnIndex].equalsIgnoreCase(name)) return columnIndex + 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * @return Number of the current row starting at 1
+	 */
+	public int getRowNumber() {
+		return currentRow;
+	}
+
+	public boolean isFirst() {
+		return currentRow == 1 && row != null;
+	}
+
+	/**
+	 * @return True while there is a current row to read
+	 */
+	public boolean hasNext() {
+		return row != null;
+	}
+
+	/**
+	 * @return True once every row has been read
+	 */
+	public boolean isLast() {
+		return row == null;
+	}
+
+	/**
+	 * @summary Reads the next row from the database. Once the last row has
+	 *          been read the recordset is closed.
+	 * @throws DatabaseException The row could not be read
+	 */
+	public void moveNext() {
+		if (closed) return;
+		try {
+			if (resultSet.next()) {
+				row = Database.readRow(resultSet, metaData);
+				currentRow++;
+			} else {
+				close();
+			}
+		} catch (SQLException e) {
+			close();
+			throw new DatabaseException("Failed to read row [ " + (currentRow + 1) + " ] of query [ " + query + " ]", e);
+		}
+	}
+
+	public String getValue(String columnName) {
+		if (columnName.isEmpty()) throw new RuntimeException("Column name cannot be blank. Column name entered was: " + columnName);
+		int index = getColumnIndex(columnName) - 1;
+		if (index == -1) return ""; // Return blank value if no column found
+		return getRow()[index];
+	}
+
+	/**
+	 * @param column int: Position of the column starting at 1
+	 * @return Value of the column in the current row
+	 */
+	public String getValue(int column) {
+		if (column < 1 || column > columnNames.length) throw new RuntimeException("Column value needs to be between 1 and " + columnNames.length + ". Column entered was: " + column);
+		return getRow()[column - 1];
+	}
+
+	/**
+	 * @return Copy of every value of the current row
+	 */
+	public String[] getValues() {
+		return getRow().clone();
+	}
+
+	private String[] getRow() {
+		if (row == null) throw new DatabaseException("No current row, all [ " + currentRow + " ] rows of query [ " + query + " ] have been read");
+		return row;
+	}
+
+	/**
+	 * @summary Returns the connection to the pool. Rows not yet read are
+	 *          discarded.
+	 */
+	@Override
+	public void close() {
+		row = null;
+		if (closed) return;
+		closed = true;
+		try {
+			resultSet.close();
+		} catch (SQLException e) {
+			// Closed with the statement regardless
+		}
+		try {
+			// Returns the statement to the connection's cache
+			statement.close();
+		} catch (SQLException e) {
+			// Closed with the connection regardless
+		}
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// The connection is discarded rather than returned to the pool
+		}
+	}
+}
@@ -17,5 +17,10 @@ public class DB2Database extends Database {
 	protected void setDbConnectionString(String connection) {
 		super.strConnectionString = connection;
 	}
+
+	@Override
+	protected String getValidationQuery() {
+		return "SELECT 1 FROM SYSIBM.SYSDUMMY1";
+	}
 	
 }
@@ -5,7 +5,8 @@ import com.orasi.utils.database.Database;
 public class MySQLDatabase extends Database {
 	public MySQLDatabase(String host, String port, String dbName){
 		setDbDriver("com.mysql.jdbc.Driver");
-		setDbConnectionString("jdbc:mysql://" + host + ":" + port + "/"+ dbName );		
+		// Connector/J reads the whole result into memory unless cursor fetch is on
+		setDbConnectionString("jdbc:mysql://" + host + ":" + port + "/"+ dbName + "?useCursorFetch=true");		
 	}
 
 	@Override
@@ -17,4 +18,9 @@ public class MySQLDatabase extends Database {
 	protected void setDbConnectionString(String connection) {
 		super.strConnectionString = connection;
 	}
+
+	@Override
+	protected String getValidationQuery() {
+		return "SELECT 1";
+	}
 }
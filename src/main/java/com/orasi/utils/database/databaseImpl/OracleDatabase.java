@@ -32,4 +32,9 @@ public class OracleDatabase extends Database {
 	super.strConnectionString = connection;
     }
 
+    @Override
+    protected String getValidationQuery() {
+	return "SELECT 1 FROM DUAL";
+    }
+
 }
@@ -17,4 +17,9 @@ public class SQLServerDatabase extends Database {
 	protected void setDbConnectionString(String connection) {
 		super.strConnectionString = connection;
 	}
+
+	@Override
+	protected String getValidationQuery() {
+		return "SELECT 1";
+	}
 }
@@ -0,0 +1,239 @@
+package com.orasi.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.message.BasicNameValuePair;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.restServices.core.AsyncRestService;
+import com.orasi.api.restServices.core.RestClientPool;
+import com.orasi.api.restServices.core.RestResponse;
+import com.orasi.api.restServices.core.RestService;
+import com.orasi.api.restServices.core.exceptions.RestException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestAsyncRestService {
+	private static final int REQUESTS = 300;
+	private static final int DELAY = 50;
+
+	private HttpServer server;
+	private ExecutorService serverThreads;
+	private String url;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	@BeforeClass(alwaysRun = true)
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), REQUESTS);
+		server.createContext("/users", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				int current = inFlight.incrementAndGet();
+				try {
+					int max;
+					while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current));
+
+					String method = exchange.getRequestMethod();
+					String query = exchange.getRequestURI().getQuery();
+					exchange.getRequestBody().close();
+					if (query != null && query.startsWith("delay")) Thread.sleep(DELAY);
+					if (method.equals("DELETE")) {
+						exchange.sendResponseHeaders(204, -1);
+						return;
+					}
+					if (method.equals("OPTIONS")) {
+						exchange.getResponseHeaders().add("Allow", "GET, POST, PUT, PATCH, DELETE, OPTIONS");
+						exchange.sendResponseHeaders(200, -1);
+						return;
+					}
+					String agent = exchange.getRequestHeaders().getFirst("User-Agent");
+					byte[] body = ("{\"method\":\"" + method + "\",\"agent\":\"" + agent + "\",\"query\":\"" + query + "\"}").getBytes("UTF-8");
+					exchange.getResponseHeaders().add("Content-Type", "application/json");
+					exchange.sendResponseHeaders(method.equals("POST") ? 201 : 200, body.length);
+					OutputStream out = exchange.getResponseBody();
+					out.write(body);
+					out.close();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					inFlight.decrementAndGet();
+					exchange.close();
+				}
+			}
+		});
+		serverThreads = Executors.newCachedThreadPool();
+		server.setExecutor(serverThreads);
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/users";
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		if (server != null) server.stop(0);
+		if (serverThreads != null) serverThreads.shutdownNow();
+	}
+
+	@Features("API")
+	@Stories("AsyncRestService")
+	@Test(groups = { "regression", "rest" })
+	public void everyMethodReturnsAnImmutableResponse() throws Exception {
+		AsyncRestService rest = new AsyncRestService();
+		try {
+			List<NameValuePair> params = new ArrayList<NameValuePair>();
+			params.add(new BasicNameValuePair("name", "value"));
+			rest.setUserAgent("orasi-test");
+
+			Future<RestResponse> get = rest.sendGetRequest(url);
+			Future<RestResponse> post = rest.sendPostRequest(url, params);
+			Future<RestResponse> put = rest.sendPutRequest(url, params);
+			Future<RestResponse> patch = rest.sendPatchRequest(url, params);
+			Future<RestResponse> delete = rest.sendDeleteRequest(url);
+			Future<RestResponse> options = rest.sendOptionsRequest(url);
+
+			RestResponse response = get.get(10, TimeUnit.SECONDS);
+			Assert.assertEquals(response.getStatusCode(), 200);
+			Assert.assertEquals(response.getResponseFormat(), "json");
+			Assert.assertEquals(response.getHeader("content-type"), "application/json");
+			Assert.assertEquals(response.mapJSONToTree().get("agent").asText(), "orasi-test");
+			Assert.assertTrue(response.getElapsed(TimeUnit.NANOSECONDS) > 0);
+			Assert.assertTrue(response.getStartTime() <= System.currentTimeMillis());
+			Assert.assertEquals(response.getMethod(), "GET");
+			Assert.assertEquals(response.getURL(), url);
+
+			Assert.assertEquals(post.get(10, TimeUnit.SECONDS).getStatusCode(), 201);
+			Assert.assertTrue(put.get(10, TimeUnit.SECONDS).getBody().contains("PUT"));
+			Assert.assertTrue(patch.get(10, TimeUnit.SECONDS).getBody().contains("PATCH"));
+			Assert.assertEquals(delete.get(10, TimeUnit.SECONDS).getStatusCode(), 204);
+			Assert.assertNull(delete.get().getBody());
+			Assert.assertTrue(options.get(10, TimeUnit.SECONDS).getHeader("Allow").contains("PATCH"));
+			Assert.assertEquals(rest.getRequestCount(), 6);
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("AsyncRestService")
+	@Test(groups = { "regression", "rest" })
+	public void hundredsOfRequestsAreInFlightAtOnce() throws Exception {
+		AsyncRestService rest = new AsyncRestService(REQUESTS, REQUESTS, 30000, 60000);
+		try {
+			maxInFlight.set(0);
+			final CountDownLatch done = new CountDownLatch(REQUESTS);
+			final AtomicInteger succeeded = new AtomicInteger();
+			FutureCallback<RestResponse> callback = new FutureCallback<RestResponse>() {
+				@Override
+				public void completed(RestResponse response) {
+					if (response.getStatusCode() == 200) succeeded.incrementAndGet();
+					done.countDown();
+				}
+
+				@Override
+				public void failed(Exception e) {
+					done.countDown();
+				}
+
+				@Override
+				public void cancelled() {
+					done.countDown();
+				}
+			};
+
+			for (int request = 0; request < REQUESTS; request++) {
+				rest.execute(new HttpGet(url + "?delay=" + request), callback);
+			}
+			Assert.assertTrue(done.await(30, TimeUnit.SECONDS), "Every request should complete");
+			Assert.assertEquals(succeeded.get(), REQUESTS);
+			Assert.assertTrue(maxInFlight.get() >= 50, "Requests in flight at once: " + maxInFlight.get());
+			Assert.assertEquals(rest.getPoolStats().getLeased(), 0);
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("AsyncRestService")
+	@Test(groups = { "regression", "rest" })
+	public void failuresAreReportedOnceEveryRequestCompletes() throws IOException {
+		ServerSocket closed = new ServerSocket(0);
+		String unreachable = "http://127.0.0.1:" + closed.getLocalPort() + "/users";
+		closed.close();
+
+		AsyncRestService rest = new AsyncRestService();
+		try {
+			List<HttpUriRequest> requests = new ArrayList<HttpUriRequest>();
+			requests.add(new HttpGet(url + "?first"));
+			requests.add(new HttpGet(unreachable));
+			requests.add(new HttpGet(url + "?last"));
+			try {
+				rest.sendAll(requests);
+				Assert.fail("An unreachable host should fail the batch");
+			} catch (RestException e) {
+				Assert.assertTrue(e.getMessage().contains("1 of 3 requests failed"), e.getMessage());
+			}
+
+			requests.remove(1);
+			List<RestResponse> responses = rest.sendAll(requests);
+			Assert.assertTrue(responses.get(0).getBody().contains("first"));
+			Assert.assertTrue(responses.get(1).getBody().contains("last"));
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("AsyncRestService")
+	@Test(groups = { "benchmark", "rest" })
+	public void fanOutIsFasterThanSequentialRequests() {
+		AsyncRestService async = new AsyncRestService(REQUESTS, REQUESTS, 30000, 60000);
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			List<HttpUriRequest> requests = new ArrayList<HttpUriRequest>();
+			for (int request = 0; request < REQUESTS; request++) {
+				requests.add(new HttpGet(url + "?delay=" + request));
+			}
+
+			long start = System.nanoTime();
+			for (int request = 0; request < REQUESTS / 10; request++) {
+				rest.sendGetRequest(url + "?delay=" + request);
+			}
+			// Only a tenth are sent one at a time to keep the test short
+			double sequentialMillis = (System.nanoTime() - start) / 1000000d * 10;
+
+			start = System.nanoTime();
+			Assert.assertEquals(async.sendAll(requests).size(), REQUESTS);
+			double fanOutMillis = (System.nanoTime() - start) / 1000000d;
+
+			Reporter.log(String.format("%d requests with %dms latency: sequential %.1fms (projected), fan-out %.1fms (%.1fx)<br/>",
+					REQUESTS, DELAY, sequentialMillis, fanOutMillis, sequentialMillis / fanOutMillis), true);
+		} finally {
+			async.close();
+			rest.close();
+		}
+	}
+}
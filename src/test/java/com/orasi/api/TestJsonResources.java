@@ -0,0 +1,143 @@
+package com.orasi.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.orasi.api.restServices.core.JsonResources;
+import com.orasi.api.restServices.core.RestService;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestJsonResources {
+	private static final int ITERATIONS = 2000;
+
+	@Features("API")
+	@Stories("JsonResources")
+	@Test(groups = { "regression", "rest" })
+	public void readersAndWritersAreCachedPerClass() {
+		Assert.assertSame(JsonResources.getReader(Order.class), JsonResources.getReader(Order.class));
+		Assert.assertNotSame(JsonResources.getReader(Order.class), JsonResources.getReader(Customer.class));
+		Assert.assertSame(JsonResources.getWriter(Order.class), JsonResources.getWriter(Order.class));
+	}
+
+	@Features("API")
+	@Stories("JsonResources")
+	@Test(groups = { "regression", "rest" })
+	public void servicesMapThroughTheSharedReaders() throws Exception {
+		String json = order(3).replace("{\"id\":", "{\"unknown\":true,\"id\":");
+		RestService rest = new RestService();
+		Order order = rest.mapJSONToObject(json, Order.class);
+		Assert.assertEquals(order.id, 3);
+		Assert.assertEquals(order.customer.name, "Customer 3");
+		Assert.assertEquals(order.lines.size(), 5);
+		Assert.assertEquals(rest.mapJSONToTree(json).get("lines").size(), 5);
+
+		Order copy = JsonResources.readValue(JsonResources.writeValueAsString(order), Order.class);
+		Assert.assertEquals(copy.lines.get(4).sku, order.lines.get(4).sku);
+		Assert.assertEquals(copy.total, order.total, 0.001);
+	}
+
+	@Features("API")
+	@Stories("JsonResources")
+	@Test(groups = { "benchmark", "rest" })
+	public void cachedReaderIsFasterThanMapperPerService() throws Exception {
+		List<String> payloads = new ArrayList<String>();
+		for (int order = 0; order < 50; order++) {
+			payloads.add(order(order));
+		}
+		ObjectMapper shared = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		ObjectReader afterburner = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+				.registerModule(new AfterburnerModule()).reader(Order.class);
+		ObjectReader cached = JsonResources.getReader(Order.class);
+
+		// Warm up every path before measuring
+		for (int pass = 0; pass < 2; pass++) {
+			mapperPerService(payloads, ITERATIONS / 10);
+			sharedMapper(shared, payloads, ITERATIONS);
+			reader(cached, payloads, ITERATIONS);
+			reader(afterburner, payloads, ITERATIONS);
+		}
+
+		double perService = mapperPerService(payloads, ITERATIONS / 10) * 10;
+		double sharedMapper = sharedMapper(shared, payloads, ITERATIONS);
+		double cachedReader = reader(cached, payloads, ITERATIONS);
+		double afterburnerReader = reader(afterburner, payloads, ITERATIONS);
+
+		int parses = ITERATIONS * payloads.size();
+		Reporter.log(String.format("%d orders: mapper per service %.0f/sec, shared mapper %.0f/sec, cached reader %.0f/sec, afterburner reader %.0f/sec<br/>",
+				parses, parses / perService, parses / sharedMapper, parses / cachedReader, parses / afterburnerReader), true);
+	}
+
+	/**
+	 * Maps the way RestService used to, with a new mapper for every service
+	 */
+	private static double mapperPerService(List<String> payloads, int iterations) throws Exception {
+		long start = System.nanoTime();
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+			for (String payload : payloads) {
+				Assert.assertNotNull(mapper.readValue(payload, Order.class));
+			}
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	private static double sharedMapper(ObjectMapper mapper, List<String> payloads, int iterations) throws Exception {
+		long start = System.nanoTime();
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			for (String payload : payloads) {
+				Assert.assertNotNull(mapper.readValue(payload, Order.class));
+			}
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	private static double reader(ObjectReader reader, List<String> payloads, int iterations) throws Exception {
+		long start = System.nanoTime();
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			for (String payload : payloads) {
+				Assert.assertNotNull(reader.readValue(payload));
+			}
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	private static String order(int id) {
+		StringBuilder json = new StringBuilder("{\"id\":" + id + ",\"status\":\"SHIPPED\",\"total\":" + (id * 10.5)
+				+ ",\"customer\":{\"id\":" + id + ",\"name\":\"Customer " + id + "\",\"email\":\"customer" + id + "@example.com\",\"vip\":" + (id % 2 == 0) + "},\"lines\":[");
+		for (int line = 0; line < 5; line++) {
+			json.append(line == 0 ? "" : ",").append("{\"sku\":\"SKU-" + id + "-" + line + "\",\"quantity\":" + (line + 1) + ",\"price\":" + (line + 0.99) + "}");
+		}
+		return json.append("]}").toString();
+	}
+
+	public static class Order {
+		public int id;
+		public String status;
+		public double total;
+		public Customer customer;
+		public List<Line> lines;
+	}
+
+	public static class Customer {
+		public int id;
+		public String name;
+		public String email;
+		public boolean vip;
+	}
+
+	public static class Line {
+		public String sku;
+		public int quantity;
+		public double price;
+	}
+}
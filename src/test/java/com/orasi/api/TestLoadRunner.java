@@ -0,0 +1,157 @@
+package com.orasi.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.LocationSearchModule.USZip_Service.operations_USZip.GetInfoByState;
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.load.LoadOperationFactory;
+import com.orasi.api.soapServices.core.load.LoadResult;
+import com.orasi.api.soapServices.core.load.LoadRunner;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubOperation;
+import com.orasi.api.soapServices.core.stub.StubRequest;
+import com.orasi.api.soapServices.core.stub.StubResponder;
+import com.orasi.utils.XMLTools;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestLoadRunner {
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><Echo><Value>?</Value></Echo></soap:Body></soap:Envelope>";
+
+	private SoapStubServer stub;
+	private StubOperation echo;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() throws IOException {
+		stub = new SoapStubServer();
+		stub.start();
+
+		stub.addService("/uszip.asmx", readResource("/stub/uszip.wsdl")).addOperation("GetInfoByState").setResponder(new StubResponder() {
+			@Override
+			public String respond(StubRequest request) {
+				return "<GetInfoByStateResponse xmlns=\"http://www.webserviceX.NET\"><GetInfoByStateResult><NewDataSet><Table><STATE>"
+						+ request.getValueByXPath("/Envelope/Body/GetInfoByState/USState") + "</STATE></Table></NewDataSet></GetInfoByStateResult></GetInfoByStateResponse>";
+			}
+		});
+		echo = stub.addService("/echo", null).addOperation("Echo");
+		echo.setResponse("<EchoResponse><EchoResult>1</EchoResult></EchoResponse>");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (stub != null) stub.stop();
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void resetEcho() {
+		SoapService.clearRedirects();
+		echo.setLatency(0);
+		echo.setFaultRate(0);
+	}
+
+	@Features("API")
+	@Stories("LoadRunner")
+	@Test(groups = { "regression", "soap", "load" })
+	public void operationClassDrivesLoad() {
+		SoapService.redirect("http://www.webservicex.net", stub.getBaseURL());
+
+		LoadResult result = new LoadRunner(GetInfoByState.class, new Object[][] {
+				{ "/Envelope/Body/GetInfoByState/USState", "CO" },
+				{ "/Envelope/Body/GetInfoByState/USState", "NC" } })
+				.setWorkers(4)
+				.setDuration(1, TimeUnit.SECONDS)
+				.run();
+
+		Assert.assertTrue(result.getRequestCount() > 0, "Requests should have been sent");
+		Assert.assertEquals(result.getErrorCount(), 0, result.toString());
+		Assert.assertEquals(result.getStatusCodes().get("200"), Long.valueOf(result.getRequestCount()));
+		Assert.assertEquals(result.getLatencyHistogram().getTotalCount(), result.getRequestCount());
+	}
+
+	@Features("API")
+	@Stories("LoadRunner")
+	@Test(groups = { "regression", "soap", "load" })
+	public void openModelHoldsTargetRate() {
+		echo.setLatency(5);
+		LoadResult result = new LoadRunner(new EchoFactory(), new Object[][] { {} })
+				.setWorkers(8)
+				.setTargetRate(100)
+				.setWarmup(200, TimeUnit.MILLISECONDS)
+				.setDuration(2, TimeUnit.SECONDS)
+				.run();
+
+		Assert.assertEquals(result.getErrorCount(), 0, result.toString());
+		Assert.assertTrue(Math.abs(result.getRequestCount() - 200) <= 10, "Expected about 200 requests: " + result);
+		Assert.assertTrue(result.getPercentile(50) >= 5, "Latency should include the stub delay: " + result);
+	}
+
+	@Features("API")
+	@Stories("LoadRunner")
+	@Test(groups = { "regression", "soap", "load" })
+	public void errorsAreCountedByStatusCode() {
+		echo.setFaultRate(0.5);
+		// Warmed up first, so the first calls of the JVM don't take up the whole second
+		LoadResult result = new LoadRunner(new EchoFactory(), new Object[][] { {} })
+				.setWorkers(4)
+				.setWarmup(200, TimeUnit.MILLISECONDS)
+				.setDuration(1, TimeUnit.SECONDS)
+				.run();
+
+		Long faults = result.getStatusCodes().get("soap:Receiver");
+		Assert.assertNotNull(faults, "Injected faults should be reported: " + result);
+		Assert.assertEquals(result.getErrorCount(), faults.longValue());
+		Assert.assertTrue(result.getErrorRate() > 0.3 && result.getErrorRate() < 0.7, "Expected about half the requests to fault: " + result);
+	}
+
+	@Features("API")
+	@Stories("LoadRunner")
+	@Test(groups = { "benchmark", "soap", "load" })
+	public void closedModelThroughput() {
+		echo.setLatency(1, 5);
+		LoadResult result = new LoadRunner(new EchoFactory(), new Object[][] { {} })
+				.setWorkers(16)
+				.setWarmup(1, TimeUnit.SECONDS)
+				.setDuration(3, TimeUnit.SECONDS)
+				.run();
+
+		result.report();
+		Reporter.log(result.toString() + "<br/>", true);
+	}
+
+	private class EchoFactory implements LoadOperationFactory {
+		@Override
+		public SoapService create(Object[] row) {
+			return new EchoService();
+		}
+	}
+
+	private class EchoService extends SoapService {
+		public EchoService() {
+			setServiceName("EchoService");
+			setServiceURL(stub.getURL("/echo"));
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.makeXMLDocument(REQUEST));
+		}
+	}
+
+	private static String readResource(String path) throws IOException {
+		InputStream in = TestLoadRunner.class.getResourceAsStream(path);
+		try {
+			return new Scanner(in, "UTF-8").useDelimiter("\\A").next();
+		} finally {
+			in.close();
+		}
+	}
+}
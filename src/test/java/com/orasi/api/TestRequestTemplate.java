@@ -0,0 +1,184 @@
+package com.orasi.api;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.RequestTemplate;
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.api.soapServices.core.exceptions.XPathNotFoundException;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubRequest;
+import com.orasi.api.soapServices.core.stub.StubResponder;
+import com.orasi.utils.XMLTools;
+import com.orasi.utils.XmlResources;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestRequestTemplate {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final int ROWS = 5000;
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><Echo><Value>?</Value><Options mode=\"plain\"><Count>1</Count></Options></Echo></soap:Body></soap:Envelope>";
+	private static final String VALUE = "/Envelope/Body/Echo/Value";
+	private static final String MODE = "/Envelope/Body/Echo/Options/@mode";
+
+	private SoapStubServer stub;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() {
+		stub = new SoapStubServer();
+		stub.start();
+		stub.addService("/echo", null).addOperation("Echo").setResponder(new StubResponder() {
+			@Override
+			public String respond(StubRequest request) {
+				return "<EchoResponse><EchoResult>" + request.getValueByXPath(VALUE) + "</EchoResult>"
+						+ "<Mode>" + request.getValueByXPath(MODE) + "</Mode></EchoResponse>";
+			}
+		});
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (stub != null) stub.stop();
+	}
+
+	@Features("API")
+	@Stories("RequestTemplate")
+	@Test(groups = { "regression", "soap" })
+	public void renderMatchesDocumentChanges() throws Exception {
+		EchoService operation = new EchoService();
+		RequestTemplate template = new RequestTemplate(operation, slots());
+
+		for (String value : new String[] { "plain", "a & b", "<tag>", "unicode \u00e9\u4e2d" }) {
+			operation.setRequestNodeValueByXPath(VALUE, value);
+			operation.setRequestNodeValueByXPath(MODE, value);
+			Assert.assertEquals(new String(template.render(value, value), UTF8),
+					new String(XmlResources.toByteArray(operation.getRequestDocument()), UTF8));
+		}
+	}
+
+	@Features("API")
+	@Stories("RequestTemplate")
+	@Test(groups = { "regression", "soap" })
+	public void missingValuesKeepCompiledValue() {
+		RequestTemplate template = new RequestTemplate(new EchoService(), slots());
+		Assert.assertEquals(template.getDefaults().get("mode"), "plain");
+
+		String rendered = new String(template.render(Collections.singletonMap("value", "only")), UTF8);
+		Assert.assertTrue(rendered.contains("<Value>only</Value>"), rendered);
+		Assert.assertTrue(rendered.contains("mode=\"plain\""), rendered);
+	}
+
+	@Features("API")
+	@Stories("RequestTemplate")
+	@Test(groups = { "regression", "soap" })
+	public void invalidSlotsAreRejected() {
+		Map<String, String> slots = new LinkedHashMap<String, String>();
+		slots.put("missing", "/Envelope/Body/Echo/Missing");
+		try {
+			new RequestTemplate(new EchoService(), slots);
+			Assert.fail("Missing xpath should not compile");
+		} catch (XPathNotFoundException expected) {
+			// Expected
+		}
+
+		slots.clear();
+		slots.put("many", "/Envelope/Body/Echo/*");
+		try {
+			new RequestTemplate(new EchoService(), slots);
+			Assert.fail("Xpath matching many nodes should not compile");
+		} catch (SoapException expected) {
+			Assert.assertTrue(expected.getMessage().contains("matches 2 nodes"), expected.getMessage());
+		}
+	}
+
+	@Features("API")
+	@Stories("RequestTemplate")
+	@Test(groups = { "regression", "soap" })
+	public void templateRequestIsSent() {
+		EchoService operation = new EchoService();
+		RequestTemplate template = new RequestTemplate(operation, slots());
+
+		for (int row = 0; row < 10; row++) {
+			operation.sendRequest(template, "row-" + row, "mode-" + row);
+			Assert.assertEquals(operation.getResponseStatusCode(), "200");
+			Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"), "row-" + row);
+			Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/Mode"), "mode-" + row);
+			Assert.assertTrue(operation.getRequest().contains("<Value>row-" + row + "</Value>"), "Rendered request should be reported");
+		}
+		Assert.assertEquals(operation.getRequestNodeValueByXPath(VALUE), "?", "Request Document should not be changed");
+	}
+
+	@Features("API")
+	@Stories("RequestTemplate")
+	@Test(groups = { "benchmark", "soap" })
+	public void renderIsFasterThanDocumentChanges() throws Exception {
+		EchoService operation = new EchoService();
+		RequestTemplate template = new RequestTemplate(operation, slots());
+
+		// Warm up both paths before measuring
+		documentRows(operation, 500);
+		templateRows(template, 500);
+
+		long start = System.nanoTime();
+		long documentBytes = documentRows(operation, ROWS);
+		double documentMillis = (System.nanoTime() - start) / 1000000d;
+
+		start = System.nanoTime();
+		long templateBytes = templateRows(template, ROWS);
+		double templateMillis = (System.nanoTime() - start) / 1000000d;
+
+		Assert.assertEquals(templateBytes, documentBytes);
+		Reporter.log(String.format("%d rows: set xpath + serialize %.1fms, template render %.1fms (%.1fx)<br/>",
+				ROWS, documentMillis, templateMillis, documentMillis / templateMillis), true);
+	}
+
+	private static long documentRows(EchoService operation, int rows) throws Exception {
+		long bytes = 0;
+		for (int row = 0; row < rows; row++) {
+			operation.setRequestNodeValueByXPath(VALUE, "row-" + row);
+			operation.setRequestNodeValueByXPath(MODE, "mode-" + row);
+			bytes += XmlResources.toByteArray(operation.getRequestDocument()).length;
+		}
+		return bytes;
+	}
+
+	private static long templateRows(RequestTemplate template, int rows) {
+		long bytes = 0;
+		for (int row = 0; row < rows; row++) {
+			bytes += template.render("row-" + row, "mode-" + row).length;
+		}
+		return bytes;
+	}
+
+	private static Map<String, String> slots() {
+		Map<String, String> slots = new LinkedHashMap<String, String>();
+		slots.put("value", VALUE);
+		slots.put("mode", MODE);
+		return slots;
+	}
+
+	private class EchoService extends SoapService {
+		public EchoService() {
+			setServiceName("EchoService");
+			setServiceURL(stub.getURL("/echo"));
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.makeXMLDocument(REQUEST));
+		}
+
+		@Override
+		public org.w3c.dom.Document getRequestDocument() {
+			return super.getRequestDocument();
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.orasi.api;
+
+import java.util.List;
+
+import javax.xml.xpath.XPathConstants;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.diff.Difference;
+import com.orasi.api.soapServices.core.diff.ResponseDiff;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubOperation;
+import com.orasi.utils.XMLTools;
+import com.orasi.utils.XPathCache;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestResponseDiff {
+	private static final int ROWS = 500;
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><GetInfo><State>CO</State></GetInfo></soap:Body></soap:Envelope>";
+	private static final String TEMPLATE = "<soapenv:Envelope xmlns:soapenv=\"http://www.w3.org/2003/05/soap-envelope\" xmlns:web=\"http://www.webserviceX.NET\">"
+			+ "<soapenv:Header/><soapenv:Body><web:GetInfoResponse>"
+			+ "<web:State>?</web:State>"
+			+ "<!--Optional:--><web:Note>?</web:Note>"
+			+ "<!--Zero or more repetitions:--><web:Table id=\"?\"><web:City>?</web:City><web:Zip>?</web:Zip></web:Table>"
+			+ "<web:Timestamp>?</web:Timestamp>"
+			+ "</web:GetInfoResponse></soapenv:Body></soapenv:Envelope>";
+
+	private SoapStubServer stub;
+	private StubOperation getInfo;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() {
+		stub = new SoapStubServer();
+		stub.start();
+		getInfo = stub.addService("/info", null).addOperation("GetInfo");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (stub != null) stub.stop();
+	}
+
+	@Features("API")
+	@Stories("ResponseDiff")
+	@Test(groups = { "regression", "soap" })
+	public void responseMatchesTemplate() {
+		List<Difference> differences = ResponseDiff.forTemplate().ignore("/Envelope/Header")
+				.compare(XMLTools.makeXMLDocument(TEMPLATE), XMLTools.makeXMLDocument(envelope(response(3))));
+		Assert.assertTrue(differences.isEmpty(), differences.toString());
+	}
+
+	@Features("API")
+	@Stories("ResponseDiff")
+	@Test(groups = { "regression", "soap" })
+	public void everyDifferenceIsReported() {
+		Document expected = XMLTools.makeXMLDocument(envelope(response(2)));
+		Document actual = XMLTools.makeXMLDocument(envelope("<GetInfoResponse xmlns=\"http://www.webserviceX.NET\">"
+				+ "<State>NC</State>"
+				+ "<Table id=\"0\" extra=\"1\"><City>City0</City><Zip>00000</Zip></Table>"
+				+ "<Table><City>Elsewhere</City><Zip>00001</Zip><County>Wake</County></Table>"
+				+ "<Timestamp>2026-10-18</Timestamp></GetInfoResponse>"));
+
+		List<Difference> differences = new ResponseDiff().compare(expected, actual);
+		Assert.assertEquals(differences.size(), 6, differences.toString());
+		assertDifference(differences.get(0), Difference.Type.TEXT, "/Envelope/Body/GetInfoResponse/State", "CO", "NC");
+		assertDifference(differences.get(1), Difference.Type.UNEXPECTED_ATTRIBUTE, "/Envelope/Body/GetInfoResponse/Table/@extra", null, "1");
+		assertDifference(differences.get(2), Difference.Type.MISSING_ATTRIBUTE, "/Envelope/Body/GetInfoResponse/Table[2]/@id", "1", null);
+		assertDifference(differences.get(3), Difference.Type.TEXT, "/Envelope/Body/GetInfoResponse/Table[2]/City", "City1", "Elsewhere");
+		assertDifference(differences.get(4), Difference.Type.UNEXPECTED_NODE, "/Envelope/Body/GetInfoResponse/Table[2]/County", null, "Wake");
+		assertDifference(differences.get(5), Difference.Type.TEXT, "/Envelope/Body/GetInfoResponse/Timestamp", "2026-01-01", "2026-10-18");
+	}
+
+	@Features("API")
+	@Stories("ResponseDiff")
+	@Test(groups = { "regression", "soap" })
+	public void missingNodesAreReported() {
+		Document expected = XMLTools.makeXMLDocument(envelope(response(2)));
+		Document actual = XMLTools.makeXMLDocument(envelope(response(1).replace("<State>CO</State>", "")));
+
+		List<Difference> differences = new ResponseDiff().compare(expected, actual);
+		Assert.assertEquals(differences.size(), 2, differences.toString());
+		assertDifference(differences.get(0), Difference.Type.MISSING_NODE, "/Envelope/Body/GetInfoResponse/State", null, null);
+		assertDifference(differences.get(1), Difference.Type.MISSING_NODE, "/Envelope/Body/GetInfoResponse/Table[2]", null, null);
+	}
+
+	@Features("API")
+	@Stories("ResponseDiff")
+	@Test(groups = { "regression", "soap" })
+	public void ignoredNodesAreNotCompared() {
+		Document expected = XMLTools.makeXMLDocument(envelope(response(2)));
+		Document actual = XMLTools.makeXMLDocument(envelope(response(2)
+				.replace("2026-01-01", "2026-10-18").replace("id=\"1\"", "id=\"99\"").replace("<State>CO</State>", "")));
+
+		Assert.assertFalse(new ResponseDiff().compare(expected, actual).isEmpty());
+		List<Difference> differences = new ResponseDiff().ignore("//Timestamp", "//Table/@id", "/Envelope/Body/*/State").compare(expected, actual);
+		Assert.assertTrue(differences.isEmpty(), differences.toString());
+	}
+
+	@Features("API")
+	@Stories("ResponseDiff")
+	@Test(groups = { "regression", "soap" })
+	public void responseIsValidatedAgainstTemplate() {
+		getInfo.setResponse(response(2));
+		InfoService operation = new InfoService();
+		operation.sendRequest();
+		Assert.assertTrue(operation.validateResponseAgainstTemplate());
+
+		getInfo.setResponse(response(2).replace("<Timestamp>2026-01-01</Timestamp>", ""));
+		operation.sendRequest();
+		Assert.assertFalse(operation.validateResponseAgainstTemplate());
+		Assert.assertTrue(operation.validateResponseAgainstTemplate("//Timestamp"));
+	}
+
+	@Features("API")
+	@Stories("ResponseDiff")
+	@Test(groups = { "benchmark", "soap" })
+	public void diffIsFasterThanXPathPerNode() throws Exception {
+		Document expected = XMLTools.makeXMLDocument(envelope(response(ROWS)));
+		Document actual = XMLTools.makeXMLDocument(envelope(response(ROWS)));
+		ResponseDiff diff = new ResponseDiff();
+
+		// Warm up both paths before measuring
+		diff.compare(expected, actual);
+		evaluateEveryNode(actual, 50);
+
+		long start = System.nanoTime();
+		Assert.assertTrue(diff.compare(expected, actual).isEmpty());
+		double diffMillis = (System.nanoTime() - start) / 1000000d;
+
+		start = System.nanoTime();
+		evaluateEveryNode(actual, ROWS);
+		double xpathMillis = (System.nanoTime() - start) / 1000000d;
+
+		Reporter.log(String.format("%d rows: one diff %.1fms, one xpath per node %.1fms (%.1fx)<br/>",
+				ROWS, diffMillis, xpathMillis, xpathMillis / diffMillis), true);
+	}
+
+	private static void evaluateEveryNode(Document document, int rows) throws Exception {
+		for (int row = 1; row <= rows; row++) {
+			String table = "/Envelope/Body/GetInfoResponse/Table[" + row + "]";
+			Assert.assertEquals(XPathCache.compile(table + "/@id").evaluate(document, XPathConstants.STRING), String.valueOf(row - 1));
+			Assert.assertEquals(XPathCache.compile(table + "/City").evaluate(document, XPathConstants.STRING), "City" + (row - 1));
+			Assert.assertEquals(XPathCache.compile(table + "/Zip").evaluate(document, XPathConstants.STRING), String.format("%05d", row - 1));
+		}
+	}
+
+	private static void assertDifference(Difference difference, Difference.Type type, String path, String expected, String actual) {
+		Assert.assertEquals(difference.getType(), type, difference.toString());
+		Assert.assertEquals(difference.getPath(), path, difference.toString());
+		Assert.assertEquals(difference.getExpected(), expected, difference.toString());
+		Assert.assertEquals(difference.getActual(), actual, difference.toString());
+	}
+
+	private static String envelope(String body) {
+		return "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Body>" + body + "</soap:Body></soap:Envelope>";
+	}
+
+	private static String response(int rows) {
+		StringBuilder response = new StringBuilder("<GetInfoResponse xmlns=\"http://www.webserviceX.NET\"><State>CO</State>");
+		for (int row = 0; row < rows; row++) {
+			response.append("<Table id=\"" + row + "\"><City>City" + row + "</City><Zip>" + String.format("%05d", row) + "</Zip></Table>");
+		}
+		return response.append("<Timestamp>2026-01-01</Timestamp></GetInfoResponse>").toString();
+	}
+
+	private class InfoService extends SoapService {
+		public InfoService() {
+			setServiceName("InfoService");
+			setServiceURL(stub.getURL("/info"));
+			setOperationName("GetInfo");
+			setRequestDocument(XMLTools.makeXMLDocument(REQUEST));
+			setResponseTemplate(TEMPLATE);
+		}
+	}
+}
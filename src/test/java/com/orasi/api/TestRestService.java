@@ -0,0 +1,373 @@
+package com.orasi.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.Header;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.orasi.api.restServices.core.JsonResponseStream;
+import com.orasi.api.restServices.core.RestClientPool;
+import com.orasi.api.restServices.core.RestService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestRestService {
+	private static final int REQUESTS = 200;
+	private static final int ELEMENTS = 100000;
+
+	private HttpServer server;
+	private ExecutorService serverThreads;
+	private String url;
+
+	@BeforeClass(alwaysRun = true)
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/users", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					String method = exchange.getRequestMethod();
+					exchange.getRequestBody().close();
+					if (method.equals("DELETE")) {
+						exchange.sendResponseHeaders(204, -1);
+						return;
+					}
+					if (method.equals("OPTIONS")) {
+						exchange.getResponseHeaders().add("Allow", "GET, POST, PUT, PATCH, DELETE, OPTIONS");
+						exchange.sendResponseHeaders(200, -1);
+						return;
+					}
+					String agent = exchange.getRequestHeaders().getFirst("User-Agent");
+					byte[] body = ("{\"method\":\"" + method + "\",\"agent\":\"" + agent + "\"}").getBytes("UTF-8");
+					exchange.getResponseHeaders().add("Content-Type", "application/json");
+					exchange.sendResponseHeaders(method.equals("POST") ? 201 : 200, body.length);
+					OutputStream out = exchange.getResponseBody();
+					out.write(body);
+					out.close();
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		server.createContext("/list", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					String query = exchange.getRequestURI().getQuery();
+					int count = Integer.parseInt(query.replaceAll(".*count=(\\d+).*", "$1"));
+					boolean wrapped = query.contains("wrapped");
+					exchange.getResponseHeaders().add("Content-Type", "application/json");
+					exchange.sendResponseHeaders(200, 0);
+					Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), "UTF-8"));
+					out.write(wrapped ? "{\"count\":" + count + ",\"tags\":[\"a\"],\"items\":[" : "[");
+					for (int id = 0; id < count; id++) {
+						out.write((id == 0 ? "" : ",") + "{\"id\":" + id + ",\"name\":\"User " + id + "\",\"active\":true}");
+					}
+					out.write(wrapped ? "]}" : "]");
+					out.close();
+				} catch (IOException e) {
+					// Client stopped reading early
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		serverThreads = Executors.newCachedThreadPool();
+		server.setExecutor(serverThreads);
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/users";
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		if (server != null) server.stop(0);
+		if (serverThreads != null) serverThreads.shutdownNow();
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "regression", "rest" })
+	public void everyMethodIsSentThroughThePool() {
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			List<NameValuePair> params = new ArrayList<NameValuePair>();
+			params.add(new BasicNameValuePair("name", "value"));
+
+			rest.setUserAgent("orasi-test");
+			Assert.assertEquals(rest.sendGetRequest(url), "{\"method\":\"GET\",\"agent\":\"orasi-test\"}");
+			Assert.assertEquals(rest.getStatusCode(), 200);
+			Assert.assertEquals(rest.getResponseFormat(), "json");
+			Assert.assertTrue(rest.sendPostRequest(url, params).contains("POST"));
+			Assert.assertEquals(rest.getStatusCode(), 201);
+			Assert.assertTrue(rest.sendPutRequest(url, params).contains("PUT"));
+			Assert.assertTrue(rest.sendPatchRequest(url, params).contains("PATCH"));
+			Assert.assertNull(rest.sendDeleteRequest(url));
+			Assert.assertEquals(rest.getStatusCode(), 204);
+
+			boolean allowed = false;
+			for (Header header : rest.sendOptionsRequest(url)) {
+				if (header.getName().equalsIgnoreCase("Allow")) allowed = header.getValue().contains("PATCH");
+			}
+			Assert.assertTrue(allowed, "Allow header should be returned");
+
+			RestClientPool pool = rest.getClientPool();
+			Assert.assertEquals(pool.getRequestCount(), 6);
+			Assert.assertEquals(pool.getConnectionsCreated(), 1, "Every request should reuse the first connection");
+			Assert.assertEquals(pool.getPoolStats().getLeased(), 0, "Every connection should be returned to the pool");
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "regression", "rest" })
+	public void poolIsSharedBetweenThreads() throws Exception {
+		final RestClientPool pool = new RestClientPool();
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int thread = 0; thread < 8; thread++) {
+				results.add(threads.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						RestService rest = new RestService();
+						rest.setClientPool(pool);
+						int ok = 0;
+						for (int request = 0; request < 25; request++) {
+							rest.sendGetRequest(url);
+							if (rest.getStatusCode() == 200) ok++;
+						}
+						return ok;
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				Assert.assertEquals(result.get().intValue(), 25);
+			}
+			Assert.assertEquals(pool.getRequestCount(), 200);
+			Assert.assertTrue(pool.getConnectionsCreated() <= 8, "Connections created: " + pool.getConnectionsCreated());
+			Assert.assertEquals(pool.getPoolStats().getLeased(), 0);
+		} finally {
+			threads.shutdownNow();
+			pool.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "benchmark", "rest" })
+	public void pooledClientIsFasterThanClientPerRequest() throws IOException {
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			// Warm up both paths before measuring
+			for (int request = 0; request < 20; request++) {
+				rest.sendGetRequest(url);
+				sendWithNewClient();
+			}
+
+			long start = System.nanoTime();
+			for (int request = 0; request < REQUESTS; request++) {
+				sendWithNewClient();
+			}
+			double perRequestMillis = (System.nanoTime() - start) / 1000000d;
+
+			start = System.nanoTime();
+			for (int request = 0; request < REQUESTS; request++) {
+				rest.sendGetRequest(url);
+			}
+			double pooledMillis = (System.nanoTime() - start) / 1000000d;
+
+			Reporter.log(String.format("%d GET requests: client per request %.1fms, pooled %.1fms (%.1fx), %d connections opened<br/>",
+					REQUESTS, perRequestMillis, pooledMillis, perRequestMillis / pooledMillis, rest.getClientPool().getConnectionsCreated()), true);
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "regression", "rest" })
+	public void arrayResponseIsStreamedElementByElement() {
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			for (int pass = 0; pass < 2; pass++) {
+				JsonResponseStream stream = rest.streamGetRequest(url("/list?count=1000"));
+				try {
+					Assert.assertEquals(stream.getStatusCode(), 200);
+					Assert.assertEquals(rest.getResponseFormat(), "json");
+					int expected = 0;
+					MappingIterator<User> users = stream.readValues(User.class);
+					while (users.hasNext()) {
+						User user = users.next();
+						Assert.assertEquals(user.id, expected);
+						Assert.assertEquals(user.name, "User " + expected++);
+					}
+					Assert.assertEquals(expected, 1000);
+				} finally {
+					stream.close();
+				}
+			}
+			RestClientPool pool = rest.getClientPool();
+			Assert.assertEquals(pool.getConnectionsCreated(), 1, "A fully read stream should return its connection for reuse");
+			Assert.assertEquals(pool.getPoolStats().getLeased(), 0);
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "regression", "rest" })
+	public void nestedArrayIsStreamedFromItsField() throws IOException {
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			JsonResponseStream stream = rest.streamGetRequest(url("/list?count=3&wrapped"));
+			try {
+				MappingIterator<JsonNode> items = stream.readValues("items", JsonNode.class);
+				List<JsonNode> read = items.readAll();
+				Assert.assertEquals(read.size(), 3);
+				Assert.assertEquals(read.get(2).get("name").asText(), "User 2");
+			} finally {
+				stream.close();
+			}
+
+			stream = rest.streamGetRequest(url("/list?count=0"));
+			try {
+				Assert.assertFalse(stream.readValues(User.class).hasNext());
+			} finally {
+				stream.close();
+			}
+			Assert.assertEquals(rest.getClientPool().getPoolStats().getLeased(), 0);
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "regression", "rest" })
+	public void closingEarlyDiscardsTheConnection() {
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			JsonResponseStream stream = rest.streamGetRequest(url("/list?count=" + ELEMENTS));
+			try {
+				Assert.assertEquals(stream.readValues(User.class).next().id, 0);
+			} finally {
+				stream.close();
+			}
+			RestClientPool pool = rest.getClientPool();
+			Assert.assertEquals(pool.getPoolStats().getLeased(), 0);
+			Assert.assertEquals(pool.getPoolStats().getAvailable(), 0, "A partly read stream should not be reused");
+			Assert.assertTrue(rest.sendGetRequest(url).contains("GET"));
+		} finally {
+			rest.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("RestService")
+	@Test(groups = { "benchmark", "rest" })
+	public void streamingIsFasterThanBufferingLargeLists() {
+		RestService rest = new RestService();
+		rest.setClientPool(new RestClientPool());
+		try {
+			// Warm up both paths before measuring
+			readBuffered(rest);
+			readStreamed(rest);
+
+			long start = System.nanoTime();
+			Assert.assertEquals(readBuffered(rest), ELEMENTS);
+			double bufferedMillis = (System.nanoTime() - start) / 1000000d;
+
+			start = System.nanoTime();
+			Assert.assertEquals(readStreamed(rest), ELEMENTS);
+			double streamedMillis = (System.nanoTime() - start) / 1000000d;
+
+			Reporter.log(String.format("%d elements: buffered %.1fms, streamed %.1fms (%.1fx)<br/>",
+					ELEMENTS, bufferedMillis, streamedMillis, bufferedMillis / streamedMillis), true);
+		} finally {
+			rest.close();
+		}
+	}
+
+	private int readBuffered(RestService rest) {
+		rest.sendGetRequest(url("/list?count=" + ELEMENTS));
+		return rest.mapJSONToObject(User[].class).length;
+	}
+
+	private int readStreamed(RestService rest) {
+		JsonResponseStream stream = rest.streamGetRequest(url("/list?count=" + ELEMENTS));
+		try {
+			int read = 0;
+			MappingIterator<User> users = stream.readValues(User.class);
+			while (users.hasNext()) {
+				users.next();
+				read++;
+			}
+			return read;
+		} finally {
+			stream.close();
+		}
+	}
+
+	private String url(String path) {
+		return url.replace("/users", path);
+	}
+
+	/**
+	 * Sends a request the way RestService used to, with a client built for the request
+	 */
+	private void sendWithNewClient() throws IOException {
+		CloseableHttpClient client = HttpClients.createDefault();
+		try {
+			CloseableHttpResponse response = client.execute(new HttpGet(url));
+			try {
+				EntityUtils.toString(response.getEntity());
+			} finally {
+				response.close();
+			}
+		} finally {
+			client.close();
+		}
+	}
+
+	public static class User {
+		public int id;
+		public String name;
+		public boolean active;
+	}
+}
@@ -0,0 +1,184 @@
+package com.orasi.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.scenario.ScenarioReport;
+import com.orasi.api.soapServices.core.scenario.ScenarioResult;
+import com.orasi.api.soapServices.core.scenario.ScenarioRunner;
+import com.orasi.api.soapServices.core.scenario.ScenarioTask;
+import com.orasi.api.soapServices.core.scenario.ScenarioWorkbook;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubOperation;
+import com.orasi.api.soapServices.core.stub.StubRequest;
+import com.orasi.api.soapServices.core.stub.StubResponder;
+import com.orasi.utils.XMLTools;
+
+import jxl.Workbook;
+import jxl.write.Label;
+import jxl.write.WritableSheet;
+import jxl.write.WritableWorkbook;
+import jxl.write.WriteException;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestScenarioRunner {
+	private static final int SCENARIOS = 120;
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><Echo><Value>?</Value><Count>0</Count></Echo></soap:Body></soap:Envelope>";
+	private static final String VALUE = "/Envelope/Body/Echo/Value";
+	private static final String COUNT = "/Envelope/Body/Echo/Count";
+
+	private SoapStubServer stub;
+	private StubOperation echo;
+	private File file;
+
+	@BeforeClass(alwaysRun = true)
+	public void createWorkbook() throws IOException, WriteException {
+		stub = new SoapStubServer();
+		stub.start();
+		echo = stub.addService("/echo", null).addOperation("Echo");
+		echo.setResponder(new StubResponder() {
+			@Override
+			public String respond(StubRequest request) {
+				return "<EchoResponse><EchoResult>" + request.getValueByXPath(VALUE) + "</EchoResult></EchoResponse>";
+			}
+		});
+
+		// Laid out the same way as the workbooks under /excelsheets, with the
+		// scenarios in two side by side tables
+		file = File.createTempFile("scenarios", ".xls");
+		WritableWorkbook workbook = Workbook.createWorkbook(file);
+		WritableSheet sheet = workbook.createSheet("Scenarios", 0);
+		for (int scenario = 0; scenario < SCENARIOS; scenario++) {
+			int column = scenario % 2 == 0 ? 0 : 4;
+			int row = (scenario / 2) * 4;
+			sheet.addCell(new Label(column, row, "Scenario" + scenario));
+			sheet.addCell(new Label(column + 1, row, "XPath"));
+			sheet.addCell(new Label(column + 2, row, "Value"));
+			sheet.addCell(new Label(column + 1, row + 1, VALUE));
+			sheet.addCell(new Label(column + 2, row + 1, "value-" + scenario));
+			sheet.addCell(new Label(column + 1, row + 2, COUNT));
+			sheet.addCell(new Label(column + 2, row + 2, String.valueOf(scenario)));
+		}
+		workbook.write();
+		workbook.close();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void removeWorkbook() {
+		if (stub != null) stub.stop();
+		if (file != null) file.delete();
+	}
+
+	@Features("API")
+	@Stories("ScenarioRunner")
+	@Test(groups = { "regression", "soap" })
+	public void everyScenarioIsRead() {
+		ScenarioWorkbook workbook = ScenarioWorkbook.load(file.getAbsolutePath());
+		Assert.assertEquals(workbook.getScenarioNames().size(), SCENARIOS);
+		Assert.assertEquals(workbook.getScenarioNames().get(0), "Scenario0");
+		Assert.assertEquals(workbook.getScenarioNames().get(1), "Scenario1");
+
+		Object[][] values = workbook.getScenario("Scenario7");
+		Assert.assertEquals(values.length, 2);
+		Assert.assertEquals(values[0], new Object[] { VALUE, "value-7" });
+		Assert.assertEquals(values[1], new Object[] { COUNT, "7" });
+	}
+
+	@Features("API")
+	@Stories("ScenarioRunner")
+	@Test(groups = { "regression", "soap" })
+	public void shardsAreMergedIntoOneReport() throws IOException {
+		ScenarioWorkbook workbook = ScenarioWorkbook.load(file.getAbsolutePath());
+		File[] reports = new File[3];
+		try {
+			for (int shard = 0; shard < reports.length; shard++) {
+				reports[shard] = File.createTempFile("scenario-report", ".json");
+				new ScenarioRunner(workbook, new EchoTask()).setWorkers(4).setShard(shard, reports.length).run().writeJson(reports[shard]);
+			}
+
+			ScenarioReport report = ScenarioReport.merge(reports);
+			Assert.assertEquals(report.getScenarioCount(), SCENARIOS);
+			Assert.assertTrue(report.isPassed(), report.getFailures().toString());
+			Set<String> scenarios = new HashSet<String>();
+			for (ScenarioResult result : report.getResults()) {
+				Assert.assertTrue(scenarios.add(result.getScenario()), "Scenario run twice: " + result.getScenario());
+			}
+			Assert.assertEquals(scenarios, new HashSet<String>(workbook.getScenarioNames()));
+		} finally {
+			for (File report : reports) {
+				if (report != null) report.delete();
+			}
+		}
+	}
+
+	@Features("API")
+	@Stories("ScenarioRunner")
+	@Test(groups = { "regression", "soap" })
+	public void failuresAreReported() {
+		ScenarioReport report = new ScenarioRunner(ScenarioWorkbook.load(file.getAbsolutePath()), new ScenarioTask() {
+			@Override
+			public boolean run(String scenario, Object[][] values) {
+				int count = Integer.parseInt(values[1][1].toString());
+				if (count % 10 == 0) throw new IllegalStateException("Failed " + scenario);
+				return count % 10 != 5;
+			}
+		}).setWorkers(4).run();
+
+		Assert.assertEquals(report.getScenarioCount(), SCENARIOS);
+		Assert.assertEquals(report.getFailedCount(), SCENARIOS / 5);
+		Assert.assertEquals(report.getResults().get(10).getError(), "IllegalStateException: Failed Scenario10");
+		Assert.assertFalse(report.getResults().get(15).isPassed());
+		Assert.assertNull(report.getResults().get(15).getError());
+	}
+
+	@Features("API")
+	@Stories("ScenarioRunner")
+	@Test(groups = { "benchmark", "soap" })
+	public void scenariosRunInParallel() {
+		ScenarioWorkbook workbook = ScenarioWorkbook.load(file.getAbsolutePath());
+		echo.setLatency(10);
+		try {
+			ScenarioReport serial = new ScenarioRunner(workbook, new EchoTask()).setWorkers(1).run();
+			ScenarioReport parallel = new ScenarioRunner(workbook, new EchoTask()).setWorkers(8).run();
+
+			Assert.assertTrue(serial.isPassed(), serial.getFailures().toString());
+			Assert.assertTrue(parallel.isPassed(), parallel.getFailures().toString());
+			Assert.assertTrue(parallel.getElapsed(TimeUnit.NANOSECONDS) < serial.getElapsed(TimeUnit.NANOSECONDS),
+					serial + " / " + parallel);
+			Reporter.log(String.format("%s with 1 worker, %s with 8 workers<br/>", serial, parallel), true);
+		} finally {
+			echo.setLatency(0);
+		}
+	}
+
+	private class EchoTask implements ScenarioTask {
+		@Override
+		public boolean run(String scenario, Object[][] values) {
+			EchoService operation = new EchoService();
+			operation.setRequestNodeValueByXPath(values);
+			operation.sendRequest();
+			return operation.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult").equals(values[0][1]);
+		}
+	}
+
+	private class EchoService extends SoapService {
+		public EchoService() {
+			setServiceName("EchoService");
+			setServiceURL(stub.getURL("/echo"));
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.makeXMLDocument(REQUEST));
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.orasi.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.metrics.CallPhase;
+import com.orasi.api.soapServices.core.metrics.CallTimings;
+import com.orasi.api.soapServices.core.metrics.LatencyAggregator;
+import com.orasi.api.soapServices.core.metrics.LatencyAggregator.OperationLatency;
+import com.orasi.api.soapServices.core.metrics.LatencyReportExporter;
+import com.orasi.api.soapServices.core.metrics.SoapCallMetrics;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubOperation;
+import com.orasi.utils.XMLTools;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestSoapCallMetrics {
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><Echo><Value>1</Value></Echo></soap:Body></soap:Envelope>";
+
+	private SoapStubServer stub;
+	private StubOperation echo;
+	private LatencyAggregator aggregator;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() {
+		stub = new SoapStubServer();
+		stub.start();
+		echo = stub.addService("/echo", null).addOperation("Echo");
+		echo.setResponse("<EchoResponse><EchoResult>1</EchoResult></EchoResponse>");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (stub != null) stub.stop();
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void removeAggregator() {
+		if (aggregator != null) SoapCallMetrics.removeListener(aggregator);
+		echo.setLatency(0);
+		echo.setFaultRate(0);
+	}
+
+	@Features("API")
+	@Stories("SoapCallMetrics")
+	@Test(groups = { "regression", "soap" })
+	public void serverTimeIsReportedAsFirstByte() {
+		echo.setLatency(100);
+		EchoService operation = new EchoService();
+		operation.sendRequest();
+
+		CallTimings timings = operation.getCallTimings();
+		Assert.assertNotNull(timings);
+		Assert.assertEquals(timings.getKey(), "EchoService#Echo");
+		Assert.assertEquals(timings.getStatusCode(), "200");
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(timings.getNanos(CallPhase.FIRST_BYTE)) >= 100, timings.toString());
+		Assert.assertTrue(timings.getNanos(CallPhase.SERIALIZE) > 0, timings.toString());
+		Assert.assertTrue(timings.getNanos(CallPhase.PARSE) > 0, timings.toString());
+		Assert.assertTrue(timings.getNanos(CallPhase.FIRST_BYTE) < timings.getTotalNanos());
+	}
+
+	@Features("API")
+	@Stories("SoapCallMetrics")
+	@Test(groups = { "regression", "soap" })
+	public void callsAreAggregatedPerOperation() {
+		aggregator = new LatencyAggregator();
+		SoapCallMetrics.addListener(aggregator);
+
+		echo.setFaultRate(0.5);
+		for (int call = 0; call < 40; call++) {
+			new EchoService().sendRequest();
+		}
+
+		OperationLatency latency = aggregator.getOperations().get("EchoService#Echo");
+		Assert.assertNotNull(latency);
+		Assert.assertEquals(latency.getCount(), 40);
+		Assert.assertEquals(latency.getErrorCount(), 40 - (latency.getStatusCodes().containsKey("200") ? latency.getStatusCodes().get("200") : 0));
+		Assert.assertEquals(latency.getHistogram(CallPhase.FIRST_BYTE).getTotalCount(), 40);
+	}
+
+	@Features("API")
+	@Stories("SoapCallMetrics")
+	@Test(groups = { "regression", "soap" })
+	public void reportIsExported() throws IOException {
+		aggregator = new LatencyAggregator();
+		SoapCallMetrics.addListener(aggregator);
+		for (int call = 0; call < 5; call++) {
+			new EchoService().sendRequest();
+		}
+
+		File csv = File.createTempFile("latency-report", ".csv");
+		File json = File.createTempFile("latency-report", ".json");
+		try {
+			LatencyReportExporter.writeCsv(aggregator, csv);
+			LatencyReportExporter.writeJson(aggregator, json);
+
+			String[] lines = read(csv).split("\n");
+			Assert.assertEquals(lines.length, 2);
+			Assert.assertTrue(lines[0].startsWith("service,operation,count,errors,serializeMean,serializeP50"), lines[0]);
+			Assert.assertTrue(lines[1].startsWith("EchoService,Echo,5,0,"), lines[1]);
+
+			String report = read(json);
+			Assert.assertTrue(report.contains("\"operation\" : \"Echo\""), report);
+			Assert.assertTrue(report.contains("\"firstByte\""), report);
+		} finally {
+			csv.delete();
+			json.delete();
+		}
+	}
+
+	private static String read(File file) throws IOException {
+		Scanner scanner = new Scanner(file, "UTF-8");
+		try {
+			return scanner.useDelimiter("\\A").next();
+		} finally {
+			scanner.close();
+		}
+	}
+
+	private class EchoService extends SoapService {
+		public EchoService() {
+			setServiceName("EchoService");
+			setServiceURL(stub.getURL("/echo"));
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.makeXMLDocument(REQUEST));
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.orasi.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+
+import javax.xml.soap.MimeHeaders;
+import javax.xml.soap.SOAPConstants;
+import javax.xml.soap.SOAPMessage;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.orasi.utils.XMLTools;
+import com.orasi.utils.XmlResources;
+import com.sun.management.ThreadMXBean;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestSoapMessageConversion {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final int CALLS = 2000;
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Header/><soap:Body><Echo><Value>1</Value></Echo></soap:Body></soap:Envelope>";
+	private static final byte[] RESPONSE = ("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><EchoResponse><EchoResult>1</EchoResult></EchoResponse></soap:Body></soap:Envelope>").getBytes(UTF8);
+
+	@Features("API")
+	@Stories("XMLTools")
+	@Test(groups = { "regression", "soap" })
+	public void directParseMatchesSoapMessage() throws Exception {
+		SOAPMessage message = XmlResources.getMessageFactory(SOAPConstants.SOAP_1_2_PROTOCOL)
+				.createMessage(new MimeHeaders(), new ByteArrayInputStream(REQUEST.getBytes(UTF8)));
+		Document fromMessage = XMLTools.makeXMLDocument(message);
+		Document direct = XMLTools.loadXML(REQUEST);
+
+		Assert.assertEquals(XMLTools.getValueByXpath(direct, "/Envelope/Body/Echo/Value"),
+				XMLTools.getValueByXpath(fromMessage, "/Envelope/Body/Echo/Value"));
+		Assert.assertEquals(XMLTools.getNamespaceURI(XMLTools.getChildElement(direct.getDocumentElement(), "Body")),
+				SOAPConstants.URI_NS_SOAP_1_2_ENVELOPE);
+		Assert.assertNull(XMLTools.getChildElement(direct.getDocumentElement(), "Fault"));
+	}
+
+	/**
+	 * Measures the bytes allocated by the current thread on the way to and
+	 * from the wire, comparing the previous SOAPMessage round trip with the
+	 * direct path now used by SoapService.sendRequest
+	 */
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "benchmark", "soap" })
+	public void bytesAllocatedPerCall() throws Exception {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof ThreadMXBean) || !((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			throw new SkipException("Allocated bytes are not measured by this JVM");
+		}
+		ThreadMXBean threads = (ThreadMXBean) bean;
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+		Document request = XMLTools.loadXML(REQUEST);
+
+		// Warm up both paths before measuring
+		for (int call = 0; call < CALLS; call++) {
+			roundTripThroughSoapMessage(request);
+			roundTripDirect(request);
+		}
+
+		long allocated = threads.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		for (int call = 0; call < CALLS; call++) {
+			roundTripThroughSoapMessage(request);
+		}
+		double soapMessageMicros = (System.nanoTime() - start) / 1000d / CALLS;
+		long soapMessageBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+		allocated = threads.getThreadAllocatedBytes(threadId);
+		start = System.nanoTime();
+		for (int call = 0; call < CALLS; call++) {
+			roundTripDirect(request);
+		}
+		double directMicros = (System.nanoTime() - start) / 1000d / CALLS;
+		long directBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+		Reporter.log(String.format("SOAPMessage round trip: %d bytes allocated, %.1f us per call. Direct: %d bytes allocated, %.1f us per call<br/>",
+				soapMessageBytes / CALLS, soapMessageMicros, directBytes / CALLS, directMicros), true);
+		Assert.assertTrue(directBytes < soapMessageBytes, "Direct path should allocate less than the SOAPMessage round trip");
+	}
+
+	/**
+	 * Request and response handling as it was done before the direct path:
+	 * the request is printed to a String, parsed into a SOAPMessage and written
+	 * out twice, the response is parsed by SAAJ, written out and parsed again
+	 */
+	private static void roundTripThroughSoapMessage(Document request) throws Exception {
+		String xml = XmlResources.toString(request);
+		SOAPMessage message = XmlResources.getMessageFactory(SOAPConstants.SOAP_1_2_PROTOCOL)
+				.createMessage(new MimeHeaders(), new ByteArrayInputStream(xml.getBytes(UTF8)));
+		message.writeTo(NullOutputStream.NULL_OUTPUT_STREAM);
+		if (message.saveRequired()) message.saveChanges();
+		ByteArrayOutputStream wire = new ByteArrayOutputStream();
+		message.writeTo(wire);
+		wire.toByteArray();
+
+		SOAPMessage response = XmlResources.getMessageFactory(SOAPConstants.DYNAMIC_SOAP_PROTOCOL)
+				.createMessage(headers(), new ByteArrayInputStream(RESPONSE));
+		response.getSOAPBody().normalize();
+		ByteArrayOutputStream reparse = new ByteArrayOutputStream();
+		response.writeTo(reparse);
+		XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(reparse.toByteArray()));
+	}
+
+	/**
+	 * Request and response handling as done by SoapService.sendRequest: the
+	 * request is serialized once and the response is parsed once
+	 */
+	private static void roundTripDirect(Document request) throws Exception {
+		XmlResources.toByteArray(request);
+		XmlResources.getMessageFactory(SOAPConstants.DYNAMIC_SOAP_PROTOCOL)
+				.createMessage(headers(), new ByteArrayInputStream(RESPONSE));
+		XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(RESPONSE));
+	}
+
+	private static MimeHeaders headers() {
+		MimeHeaders headers = new MimeHeaders();
+		headers.addHeader("Content-Type", SOAPConstants.SOAP_1_2_CONTENT_TYPE + "; charset=utf-8");
+		return headers;
+	}
+}
@@ -0,0 +1,117 @@
+package com.orasi.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.utils.XMLTools;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestSoapServiceConcurrency {
+	private static final int TASKS = 2000;
+	private static final String REQUEST = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+			+ "<soapenv:Header/><soapenv:Body><Echo><Value>?</Value></Echo></soapenv:Body></soapenv:Envelope>";
+	private static final String RESPONSE = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+			+ "<soapenv:Body><EchoResponse><EchoResult>%s</EchoResult></EchoResponse></soapenv:Body></soapenv:Envelope>";
+
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "regression", "soap", "concurrency" })
+	public void requestAndResponseStateIsIsolated() throws Exception {
+		int threads = Runtime.getRuntime().availableProcessors() * 4;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<Future<String>>();
+
+		try {
+			for (int task = 0; task < TASKS; task++) {
+				final String value = "value-" + task;
+				results.add(pool.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						start.await();
+						return roundTrip(value);
+					}
+				}));
+			}
+			start.countDown();
+
+			for (Future<String> result : results) {
+				String failure = result.get(2, TimeUnit.MINUTES);
+				Assert.assertNull(failure, failure);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Builds, "sends" and validates a request for a single value, yielding
+	 * between each step so other threads get the chance to interleave
+	 * @return null when every step only saw its own value, otherwise a description of the cross-talk
+	 */
+	private static String roundTrip(String value) {
+		EchoService service = new EchoService();
+		service.setValue(value);
+		Thread.yield();
+
+		if (!value.equals(service.getRequestNodeValueByXPath("/Envelope/Body/Echo/Value"))) {
+			return "Request for [ " + value + " ] was overwritten with [ " + service.getRequestNodeValueByXPath("/Envelope/Body/Echo/Value") + " ]";
+		}
+
+		service.respond();
+		Thread.yield();
+
+		if (!value.equals(service.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"))) {
+			return "Response for [ " + value + " ] was overwritten with [ " + service.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult") + " ]";
+		}
+
+		if (!service.validate(value)) {
+			return "Validation of [ " + value + " ] failed";
+		}
+
+		String table = service.getValidationTable();
+		if (!table.contains(">" + value + "<") || table.split("<tr>").length != 3) {
+			return "Validation table for [ " + value + " ] contained other results: " + table;
+		}
+		return null;
+	}
+
+	private static class EchoService extends SoapService {
+		public EchoService() {
+			setServiceName("EchoService");
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.loadXML(REQUEST));
+			removeComments();
+			removeWhiteSpace();
+		}
+
+		public void setValue(String value) {
+			setRequestNodeValueByXPath("/Envelope/Body/Echo/Value", value);
+		}
+
+		public void respond() {
+			setResponseDocument(XMLTools.makeXMLDocument(String.format(RESPONSE, getRequestNodeValueByXPath("/Envelope/Body/Echo/Value"))));
+		}
+
+		public boolean validate(String value) {
+			return validateNodeValueByXPath(getResponseDocument(),
+					new Object[][] { { "/Envelope/Body/EchoResponse/EchoResult", "^" + value + "$" } });
+		}
+
+		public String getValidationTable() {
+			return buffer.toString();
+		}
+	}
+}
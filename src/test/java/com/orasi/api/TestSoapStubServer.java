@@ -0,0 +1,193 @@
+package com.orasi.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.LocationSearchModule.USZip_Service.operations_USZip.GetInfoByState;
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubOperation;
+import com.orasi.api.soapServices.core.stub.StubRequest;
+import com.orasi.api.soapServices.core.stub.StubResponder;
+import com.orasi.api.soapServices.core.stub.StubService;
+import com.orasi.utils.XMLTools;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestSoapStubServer {
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><Echo><Value>?</Value></Echo></soap:Body></soap:Envelope>";
+
+	private SoapStubServer stub;
+	private StubOperation echo;
+	private volatile String soapAction;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() throws IOException {
+		stub = new SoapStubServer();
+		stub.start();
+
+		StubService usZip = stub.addService("/uszip.asmx", readResource("/stub/uszip.wsdl"));
+		usZip.addOperation("GetInfoByState").setResponder(new StubResponder() {
+			@Override
+			public String respond(StubRequest request) {
+				soapAction = request.getHeader("SOAPAction");
+				String state = request.getValueByXPath("/Envelope/Body/GetInfoByState/USState");
+				StringBuilder tables = new StringBuilder();
+				for (int row = 1; row <= 3; row++) {
+					tables.append("<Table><CITY>City ").append(row).append("</CITY><STATE>").append(state).append("</STATE></Table>");
+				}
+				return "<GetInfoByStateResponse xmlns=\"http://www.webserviceX.NET\"><GetInfoByStateResult><NewDataSet>"
+						+ tables + "</NewDataSet></GetInfoByStateResult></GetInfoByStateResponse>";
+			}
+		});
+
+		echo = stub.addService("/echo", null).addOperation("Echo");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (stub != null) stub.stop();
+	}
+
+	@BeforeMethod(alwaysRun = true)
+	public void resetEcho() {
+		SoapService.clearRedirects();
+		echo.setResponder(new StubResponder() {
+			@Override
+			public String respond(StubRequest request) {
+				return "<EchoResponse><EchoResult>" + request.getValueByXPath("/Envelope/Body/Echo/Value") + "</EchoResult></EchoResponse>";
+			}
+		});
+		echo.setLatency(0);
+		echo.setFaultRate(0);
+		echo.setFault(null, "Fault injected by stub server");
+	}
+
+	@Features("API")
+	@Stories("SoapStubServer")
+	@Test(groups = { "regression", "soap", "stub" })
+	public void serviceClassRunsAgainstStub() {
+		SoapService.redirect("http://www.webservicex.net", stub.getBaseURL());
+
+		GetInfoByState getInfo = new GetInfoByState();
+		getInfo.setStateName("CO");
+		getInfo.sendRequest();
+
+		Assert.assertEquals(getInfo.getResponseStatusCode(), "200");
+		Assert.assertEquals(soapAction, "\"http://www.webserviceX.NET/GetInfoByState\"", "The SOAPAction of the WSDL should be sent");
+		Assert.assertEquals(getInfo.getNumberOfResults(), 3);
+		Assert.assertEquals(getInfo.getResponseNodeValueByXPath(
+				"/Envelope/Body/GetInfoByStateResponse/GetInfoByStateResult/NewDataSet/Table/STATE"), "CO");
+	}
+
+	@Features("API")
+	@Stories("SoapStubServer")
+	@Test(groups = { "regression", "soap", "stub" })
+	public void longestRedirectPrefixIsUsed() {
+		SoapService.redirect("http://www.webservicex.net", "http://127.0.0.1:1");
+		SoapService.redirect("HTTP://www.webservicex.net/uszip.asmx", stub.getURL("/uszip.asmx"));
+		SoapService.redirect("http://www.webservicex.net/us", "http://127.0.0.1:1/us");
+
+		GetInfoByState getInfo = new GetInfoByState();
+		Assert.assertEquals(getInfo.getServiceURL(), stub.getURL("/uszip.asmx") + "?wsdl");
+		getInfo.setStateName("CO");
+		getInfo.sendRequest();
+		Assert.assertEquals(getInfo.getResponseStatusCode(), "200");
+	}
+
+	@Features("API")
+	@Stories("SoapStubServer")
+	@Test(groups = { "regression", "soap", "stub" })
+	public void responseIsDelayedByLatency() {
+		echo.setLatency(200);
+		EchoService operation = new EchoService("delayed");
+
+		long start = System.nanoTime();
+		operation.sendRequest();
+		long elapsed = (System.nanoTime() - start) / 1000000;
+
+		Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"), "delayed");
+		Assert.assertTrue(elapsed >= 200, "Response came back after " + elapsed + "ms");
+	}
+
+	@Features("API")
+	@Stories("SoapStubServer")
+	@Test(groups = { "regression", "soap", "stub" })
+	public void faultsAreInjected() {
+		echo.setFaultRate(1);
+		EchoService operation = new EchoService("fault");
+		operation.sendRequest();
+		Assert.assertEquals(operation.getResponseStatusCode(), "soap:Receiver");
+
+		echo.setFault("soap:Sender", "Rejected");
+		operation.sendRequest();
+		Assert.assertEquals(operation.getResponseStatusCode(), "soap:Sender");
+		Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/Fault/Reason/Text"), "Rejected");
+	}
+
+	@Features("API")
+	@Stories("SoapStubServer")
+	@Test(groups = { "regression", "soap", "stub" })
+	public void unknownOperationFaults() {
+		EchoService operation = new EchoService(REQUEST.replace("Echo>", "Unknown>"), null);
+		operation.sendRequest();
+
+		Assert.assertEquals(operation.getResponseStatusCode(), "soap:Sender");
+	}
+
+	@Features("API")
+	@Stories("SoapStubServer")
+	@Test(groups = { "benchmark", "soap", "stub" })
+	public void stubThroughput() {
+		echo.setLatency(1, 5);
+		List<EchoService> operations = new ArrayList<EchoService>();
+		for (int operation = 0; operation < 1000; operation++) {
+			operations.add(new EchoService("value-" + operation));
+		}
+
+		long start = System.nanoTime();
+		SoapService.sendAll(operations, 32);
+		double seconds = (System.nanoTime() - start) / 1000000000d;
+
+		for (int operation = 0; operation < operations.size(); operation++) {
+			Assert.assertEquals(operations.get(operation).getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"), "value-" + operation);
+		}
+		Reporter.log(String.format("%d requests against the stub with 1-5ms latency: %.0f requests/sec<br/>",
+				operations.size(), operations.size() / seconds), true);
+	}
+
+	private static String readResource(String path) throws IOException {
+		InputStream in = TestSoapStubServer.class.getResourceAsStream(path);
+		try {
+			return new Scanner(in, "UTF-8").useDelimiter("\\A").next();
+		} finally {
+			in.close();
+		}
+	}
+
+	private class EchoService extends SoapService {
+		public EchoService(String value) {
+			this(REQUEST, value);
+		}
+
+		public EchoService(String request, String value) {
+			setServiceName("EchoService");
+			setServiceURL(stub.getURL("/echo"));
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.makeXMLDocument(request));
+			if (value != null) setRequestNodeValueByXPath("/Envelope/Body/Echo/Value", value);
+		}
+	}
+}
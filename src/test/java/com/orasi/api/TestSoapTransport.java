@@ -0,0 +1,250 @@
+package com.orasi.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.soap.MimeHeaders;
+import javax.xml.soap.SOAPMessage;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.SoapService;
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.api.soapServices.core.transport.PooledHttpSoapTransport;
+import com.orasi.api.soapServices.core.transport.SaajSoapTransport;
+import com.orasi.api.soapServices.core.transport.SoapTransport;
+import com.orasi.api.soapServices.core.transport.SoapTransportResponse;
+import com.orasi.utils.XMLTools;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestSoapTransport {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String CONTENT_TYPE = "application/soap+xml; charset=utf-8";
+	private static final int REQUESTS = 500;
+	private static final byte[] REQUEST = ("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><Echo><Value>1</Value></Echo></soap:Body></soap:Envelope>").getBytes(UTF8);
+	private static final byte[] RESPONSE = ("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+			+ "<soap:Body><EchoResponse><EchoResult>1</EchoResult></EchoResponse></soap:Body></soap:Envelope>").getBytes(UTF8);
+
+	private static final byte[] FAULT = ("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Body><soap:Fault>"
+			+ "<soap:Code><soap:Value>soap:Receiver</soap:Value></soap:Code><soap:Reason><soap:Text xml:lang=\"en\">Echo failed</soap:Text></soap:Reason>"
+			+ "</soap:Fault></soap:Body></soap:Envelope>").getBytes(UTF8);
+
+	private static final Pattern VALUE = Pattern.compile("<Value>([^<]*)</Value>");
+
+	private HttpServer server;
+	private String url;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/echo", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				// Read the whole request so the connection can be reused, then
+				// echo its value back
+				InputStream in = exchange.getRequestBody();
+				ByteArrayOutputStream request = new ByteArrayOutputStream();
+				byte[] chunk = new byte[4096];
+				for (int read = in.read(chunk); read != -1; read = in.read(chunk)) {
+					request.write(chunk, 0, read);
+				}
+				Matcher value = VALUE.matcher(new String(request.toByteArray(), UTF8));
+				byte[] response = new String(RESPONSE, UTF8).replace("<EchoResult>1<", "<EchoResult>" + (value.find() ? value.group(1) : "") + "<").getBytes(UTF8);
+
+				exchange.getResponseHeaders().add("Content-Type", CONTENT_TYPE);
+				exchange.sendResponseHeaders(200, response.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(response);
+				out.close();
+			}
+		});
+		server.createContext("/fault", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				InputStream in = exchange.getRequestBody();
+				while (in.read() != -1) {
+					// Drain the request before answering
+				}
+				exchange.getResponseHeaders().add("Content-Type", CONTENT_TYPE);
+				exchange.sendResponseHeaders(500, FAULT.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(FAULT);
+				out.close();
+			}
+		});
+		server.createContext("/missing", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				InputStream in = exchange.getRequestBody();
+				while (in.read() != -1) {
+					// Drain the request before answering
+				}
+				byte[] page = "<html><body>Not Found</body></html>".getBytes(UTF8);
+				exchange.getResponseHeaders().add("Content-Type", "text/html");
+				exchange.sendResponseHeaders(404, page.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(page);
+				out.close();
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/echo";
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (server != null) server.stop(0);
+	}
+
+	@Features("API")
+	@Stories("SoapTransport")
+	@Test(groups = { "regression", "soap" })
+	public void pooledTransportReusesConnections() throws IOException {
+		PooledHttpSoapTransport transport = new PooledHttpSoapTransport();
+		try {
+			for (int request = 0; request < 50; request++) {
+				SoapTransportResponse response = transport.send(url, REQUEST, headers());
+				Assert.assertEquals(response.getStatusCode(), 200);
+				Assert.assertEquals(new String(response.getBody(), UTF8), new String(RESPONSE, UTF8));
+			}
+			Assert.assertEquals(transport.getRequestCount(), 50);
+			Assert.assertEquals(transport.getConnectionsCreated(), 1, "Sequential requests should share one connection");
+			Assert.assertEquals(transport.getConnectionsReused(), 49);
+			Assert.assertEquals(transport.getPoolStats().getLeased(), 0, "Connections should be released after each response");
+		} finally {
+			transport.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("SoapTransport")
+	@Test(groups = { "benchmark", "soap" })
+	public void pooledTransportThroughput() throws IOException {
+		SaajSoapTransport saaj = new SaajSoapTransport();
+		PooledHttpSoapTransport pooled = new PooledHttpSoapTransport();
+		try {
+			// Warm up both clients before measuring
+			run(saaj, 50);
+			run(pooled, 50);
+
+			double saajRate = run(saaj, REQUESTS);
+			double pooledRate = run(pooled, REQUESTS);
+			Reporter.log(String.format("SOAPConnection: %.0f requests/sec, pooled keep-alive: %.0f requests/sec (%.1fx)<br/>",
+					saajRate, pooledRate, pooledRate / saajRate), true);
+		} finally {
+			pooled.close();
+		}
+	}
+
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "regression", "soap" })
+	public void sendAllKeepsResponsesPerOperation() {
+		List<EchoService> operations = new ArrayList<EchoService>();
+		for (int operation = 0; operation < 100; operation++) {
+			operations.add(new EchoService(url, "value-" + operation));
+		}
+
+		Assert.assertEquals(SoapService.sendAll(operations, 8).size(), operations.size());
+		for (int operation = 0; operation < operations.size(); operation++) {
+			Assert.assertEquals(operations.get(operation).getResponseStatusCode(), "200");
+			Assert.assertEquals(operations.get(operation).getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"), "value-" + operation);
+		}
+	}
+
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "regression", "soap" })
+	public void sendRequestReadsResponseOnce() throws Exception {
+		EchoService operation = new EchoService(url, "single-parse");
+		SOAPMessage response = operation.sendRequest();
+
+		Assert.assertEquals(operation.getResponseStatusCode(), "200");
+		Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"), "single-parse");
+		Assert.assertEquals(response.getSOAPBody().getTextContent(), "single-parse", "Returned SOAPMessage should hold the same response");
+	}
+
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "regression", "soap" })
+	public void sendRequestReportsFaultCode() {
+		EchoService operation = new EchoService(url.replace("/echo", "/fault"), "fault");
+		operation.sendRequest();
+
+		Assert.assertEquals(operation.getResponseStatusCode(), "soap:Receiver");
+		Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/Fault/Reason/Text"), "Echo failed");
+	}
+
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "regression", "soap" })
+	public void sendRequestRejectsHttpErrors() {
+		EchoService operation = new EchoService(url.replace("/echo", "/missing"), "missing");
+		try {
+			operation.sendRequest();
+			Assert.fail("A 404 should not be read as a SOAP response");
+		} catch (SoapException e) {
+			Assert.assertTrue(e.getMessage().contains("[ 404 ]"), e.getMessage());
+			Assert.assertTrue(e.getMessage().contains("Not Found"), "The start of the body should be shown: " + e.getMessage());
+		}
+	}
+
+	@Features("API")
+	@Stories("SoapService")
+	@Test(groups = { "regression", "soap" })
+	public void streamingValidationDefersParsing() {
+		EchoService operation = new EchoService(url, "streamed");
+		operation.setStreamingValidation(true);
+		operation.sendRequest();
+
+		Assert.assertEquals(operation.getResponseStatusCode(), "200");
+		Assert.assertTrue(operation.validateResponse(new Object[][] { { "/Envelope/Body/EchoResponse/EchoResult", "streamed" } }),
+				"The response kept by the service should be validated");
+		Assert.assertEquals(operation.getResponseNodeValueByXPath("/Envelope/Body/EchoResponse/EchoResult"), "streamed",
+				"Response should still be parsed when it is asked for");
+	}
+
+	private double run(SoapTransport transport, int requests) throws IOException {
+		long start = System.nanoTime();
+		for (int request = 0; request < requests; request++) {
+			transport.send(url, REQUEST, headers());
+		}
+		return requests / ((System.nanoTime() - start) / 1000000000d);
+	}
+
+	private static MimeHeaders headers() {
+		MimeHeaders headers = new MimeHeaders();
+		headers.addHeader("Content-Type", CONTENT_TYPE);
+		return headers;
+	}
+
+	private static class EchoService extends SoapService {
+		public EchoService(String url, String value) {
+			setServiceName("EchoService");
+			setServiceURL(url);
+			setOperationName("Echo");
+			setRequestDocument(XMLTools.makeXMLDocument(new String(REQUEST, UTF8)));
+			setRequestNodeValueByXPath("/Envelope/Body/Echo/Value", value);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.orasi.api;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.orasi.api.soapServices.core.StreamingResponseValidator;
+import com.orasi.api.soapServices.core.StreamingResponseValidator.Result;
+import com.orasi.utils.Heap;
+import com.orasi.utils.XMLTools;
+import com.orasi.utils.XmlResources;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestStreamingResponseValidator {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String TABLE = "/Envelope/Body/GetInfoByStateResponse/GetInfoByStateResult/NewDataSet/Table";
+	private static final int ROWS = 20000;
+	private static final byte[] RESPONSE = buildResponse(ROWS);
+
+	@Features("API")
+	@Stories("StreamingResponseValidator")
+	@Test(groups = { "regression", "soap" })
+	public void streamingMatchesDom() throws Exception {
+		Object[][] scenarios = new Object[][] {
+				{ TABLE + "/CITY", "City 1" },
+				{ TABLE + "[3]/ZIP", "value:10003" },
+				{ TABLE + "[2]/@code", "c2" },
+				{ TABLE + "[4]", "attribute:code,c4" },
+				{ "/Envelope/Body/*/*/NewDataSet/Table[" + ROWS + "]/STATE", "ST" },
+				{ TABLE + "[5]/CITY/text()", "City 5" } };
+		Document doc = XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(RESPONSE));
+
+		List<Result> results = new StreamingResponseValidator(scenarios).validate(new ByteArrayInputStream(RESPONSE));
+		Assert.assertEquals(results.size(), scenarios.length);
+		for (int row = 0; row < scenarios.length; row++) {
+			Result result = results.get(row);
+			Assert.assertTrue(result.isPassed(), result.getXPath() + " " + result.getError());
+			if (!scenarios[row][1].toString().startsWith("attribute:")) {
+				Assert.assertEquals(result.getValue(), XMLTools.getValueByXpath(doc, result.getXPath()));
+			}
+		}
+	}
+
+	@Features("API")
+	@Stories("StreamingResponseValidator")
+	@Test(groups = { "regression", "soap" })
+	public void missingAndUnsupportedXPathsFail() throws Exception {
+		List<Result> results = new StreamingResponseValidator(new Object[][] {
+				{ TABLE + "/COUNTY", ".*" },
+				{ "//Table", ".*" },
+				{ TABLE + "/CITY", "City 2" } }).validate(new ByteArrayInputStream(RESPONSE));
+
+		Assert.assertFalse(results.get(0).isPassed());
+		Assert.assertTrue(results.get(0).getError().startsWith("No xpath was found"));
+		Assert.assertFalse(results.get(1).isPassed());
+		Assert.assertTrue(results.get(1).getError().startsWith("Streaming validation does not support"));
+		Assert.assertFalse(results.get(2).isPassed(), "Only the first matching node is validated");
+		Assert.assertEquals(results.get(2).getValue(), "City 1");
+	}
+
+	@Features("API")
+	@Stories("StreamingResponseValidator")
+	@Test(groups = { "benchmark", "soap" })
+	public void streamingUsesLessMemoryThanDom() throws Exception {
+		Object[][] scenarios = new Object[][] { { TABLE + "[" + ROWS + "]/ZIP", String.valueOf(10000 + ROWS) } };
+
+		long before = Heap.used();
+		Document doc = XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(RESPONSE));
+		long domBytes = Heap.used() - before;
+		Assert.assertNotNull(doc);
+		doc = null;
+
+		before = Heap.used();
+		List<Result> results = new StreamingResponseValidator(scenarios).validate(new ByteArrayInputStream(RESPONSE));
+		long streamingBytes = Heap.used() - before;
+		Assert.assertTrue(results.get(0).isPassed());
+
+		Reporter.log(String.format("%d byte response: DOM retained ~%d KB, streaming retained ~%d KB<br/>",
+				RESPONSE.length, domBytes / 1024, Math.max(0, streamingBytes) / 1024), true);
+	}
+
+	private static byte[] buildResponse(int rows) {
+		StringBuilder xml = new StringBuilder("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+				+ "<GetInfoByStateResponse><GetInfoByStateResult><NewDataSet>");
+		for (int row = 1; row <= rows; row++) {
+			xml.append("<Table code=\"c").append(row).append("\"><CITY>City ").append(row).append("</CITY><STATE>ST</STATE><ZIP>")
+					.append(10000 + row).append("</ZIP></Table>");
+		}
+		xml.append("</NewDataSet></GetInfoByStateResult></GetInfoByStateResponse></soap:Body></soap:Envelope>");
+		return xml.toString().getBytes(UTF8);
+	}
+}
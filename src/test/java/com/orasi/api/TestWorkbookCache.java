@@ -0,0 +1,123 @@
+package com.orasi.api;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.api.soapServices.core.scenario.ScenarioWorkbook;
+import com.orasi.api.soapServices.core.scenario.WorkbookCache;
+
+import jxl.Workbook;
+import jxl.write.Label;
+import jxl.write.WritableSheet;
+import jxl.write.WritableWorkbook;
+import jxl.write.WriteException;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestWorkbookCache {
+	private static final int SCENARIOS = 200;
+	private static final int CALLS = 500;
+	private static final String VALUE = "/Envelope/Body/Echo/Value";
+
+	private File file;
+
+	@BeforeClass(alwaysRun = true)
+	public void createWorkbook() throws IOException, WriteException {
+		file = File.createTempFile("workbook-cache", ".xls");
+		writeWorkbook("value");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void removeWorkbook() {
+		if (file != null) {
+			WorkbookCache.invalidate(file);
+			file.delete();
+		}
+	}
+
+	@Features("API")
+	@Stories("WorkbookCache")
+	@Test(groups = { "regression", "soap" })
+	public void workbookIsReadOnce() {
+		WorkbookCache.invalidate(file);
+		ScenarioWorkbook workbook = WorkbookCache.getWorkbook(file);
+		Assert.assertSame(WorkbookCache.getWorkbook(file), workbook);
+		Assert.assertSame(WorkbookCache.getWorkbook(file.getAbsolutePath()), workbook);
+
+		Object[][] values = WorkbookCache.getScenario(file, "Scenario42");
+		Assert.assertEquals(values.length, 1);
+		Assert.assertEquals(values[0], new Object[] { VALUE, "value-42" });
+
+		// Every caller gets its own copy of the values
+		values[0][1] = "changed";
+		Assert.assertEquals(WorkbookCache.getScenario(file, "Scenario42")[0][1], "value-42");
+	}
+
+	@Features("API")
+	@Stories("WorkbookCache")
+	@Test(groups = { "regression", "soap" }, dependsOnMethods = "workbookIsReadOnce")
+	public void changedWorkbookIsReadAgain() throws IOException, WriteException {
+		ScenarioWorkbook workbook = WorkbookCache.getWorkbook(file);
+		long modified = file.lastModified();
+		writeWorkbook("updated");
+		// Some file systems only keep the modified time to the second
+		file.setLastModified(modified + 2000);
+
+		Assert.assertNotSame(WorkbookCache.getWorkbook(file), workbook);
+		Assert.assertEquals(WorkbookCache.getScenario(file, "Scenario42")[0][1], "updated-42");
+	}
+
+	@Features("API")
+	@Stories("WorkbookCache")
+	@Test(groups = { "regression", "soap" }, expectedExceptions = SoapException.class)
+	public void missingScenarioIsReported() {
+		WorkbookCache.getScenario(file, "NotAScenario");
+	}
+
+	@Features("API")
+	@Stories("WorkbookCache")
+	@Test(groups = { "benchmark", "soap" })
+	public void cachedScenariosAreFasterThanReadingTheWorkbook() {
+		// Warm up both paths before measuring
+		for (int call = 0; call < 20; call++) {
+			ScenarioWorkbook.load(file).getScenario("Scenario" + call);
+			WorkbookCache.getScenario(file, "Scenario" + call);
+		}
+
+		long start = System.nanoTime();
+		for (int call = 0; call < CALLS; call++) {
+			ScenarioWorkbook.load(file).getScenario("Scenario" + (call % SCENARIOS));
+		}
+		double uncachedMillis = (System.nanoTime() - start) / 1000000d;
+
+		start = System.nanoTime();
+		for (int call = 0; call < CALLS; call++) {
+			WorkbookCache.getScenario(file, "Scenario" + (call % SCENARIOS));
+		}
+		double cachedMillis = (System.nanoTime() - start) / 1000000d;
+
+		Assert.assertTrue(cachedMillis < uncachedMillis, "Cached " + cachedMillis + "ms, uncached " + uncachedMillis + "ms");
+		Reporter.log(String.format("%d scenario lookups: workbook read each time %.1fms, cached %.1fms (%.1fx)<br/>",
+				CALLS, uncachedMillis, cachedMillis, uncachedMillis / cachedMillis), true);
+	}
+
+	private void writeWorkbook(String prefix) throws IOException, WriteException {
+		WritableWorkbook workbook = Workbook.createWorkbook(file);
+		WritableSheet sheet = workbook.createSheet("Scenarios", 0);
+		for (int scenario = 0; scenario < SCENARIOS; scenario++) {
+			int row = scenario * 3;
+			sheet.addCell(new Label(0, row, "Scenario" + scenario));
+			sheet.addCell(new Label(1, row + 1, VALUE));
+			sheet.addCell(new Label(2, row + 1, prefix + "-" + scenario));
+		}
+		workbook.write();
+		workbook.close();
+	}
+}
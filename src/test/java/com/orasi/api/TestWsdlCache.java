@@ -0,0 +1,110 @@
+package com.orasi.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Scanner;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.api.soapServices.core.WsdlCache;
+import com.orasi.api.soapServices.core.exceptions.SoapException;
+import com.orasi.api.soapServices.core.stub.SoapStubServer;
+import com.orasi.api.soapServices.core.stub.StubService;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+public class TestWsdlCache {
+	private SoapStubServer stub;
+	private StubService usZip;
+	private String wsdl;
+	private String serviceURL;
+
+	@BeforeClass(alwaysRun = true)
+	public void startStub() throws IOException {
+		wsdl = readResource("/stub/uszip.wsdl");
+		stub = new SoapStubServer();
+		stub.start();
+		usZip = stub.addService("/wsdlcache.asmx", wsdl);
+		serviceURL = stub.getURL("/wsdlcache.asmx") + "?WSDL";
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopStub() {
+		if (stub != null) stub.stop();
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void resetCache() {
+		System.clearProperty(WsdlCache.CACHE_DIRECTORY_PROPERTY);
+		usZip.setWsdl(wsdl);
+		WsdlCache.clear();
+	}
+
+	@Features("API")
+	@Stories("WsdlCache")
+	@Test(groups = { "regression", "soap" })
+	public void wsdlIsImportedOncePerURL() {
+		WsdlCache.clear();
+		int imports = WsdlCache.getImportCount();
+
+		String request = WsdlCache.getRequestTemplate(serviceURL, "GetInfoByState");
+		Assert.assertTrue(request.contains("GetInfoByState"), request);
+		Assert.assertSame(WsdlCache.getRequestTemplate(serviceURL, "GetInfoByState"), request, "The cached request template should be reused");
+		Assert.assertTrue(WsdlCache.getResponseTemplate(serviceURL, "GetInfoByZIP").contains("GetInfoByZIPResponse"));
+		Assert.assertSame(WsdlCache.getInterfaces(serviceURL), WsdlCache.getInterfaces(serviceURL));
+		Assert.assertEquals(WsdlCache.getSoapAction(serviceURL, "GetInfoByState"), "http://www.webserviceX.NET/GetInfoByState");
+
+		Assert.assertEquals(WsdlCache.getImportCount() - imports, 1, "Every operation of the URL should share one import");
+	}
+
+	@Features("API")
+	@Stories("WsdlCache")
+	@Test(groups = { "regression", "soap" })
+	public void templatesArePersistedAndReloaded() throws IOException {
+		File directory = Files.createTempDirectory("wsdlCache").toFile();
+		System.setProperty(WsdlCache.CACHE_DIRECTORY_PROPERTY, directory.getPath());
+		WsdlCache.clear();
+
+		String request = WsdlCache.getRequestTemplate(serviceURL, "GetInfoByState");
+		String response = WsdlCache.getResponseTemplate(serviceURL, "GetInfoByState");
+		String action = WsdlCache.getSoapAction(serviceURL, "GetInfoByState");
+		Assert.assertEquals(directory.listFiles().length, 3, "The request and response templates and the SOAPAction should be written");
+
+		// The WSDL can no longer be imported, so the templates have to come from the directory
+		WsdlCache.clear();
+		usZip.setWsdl(null);
+		int imports = WsdlCache.getImportCount();
+		Assert.assertEquals(WsdlCache.getRequestTemplate(serviceURL, "GetInfoByState"), request);
+		Assert.assertEquals(WsdlCache.getResponseTemplate(serviceURL, "GetInfoByState"), response);
+		Assert.assertEquals(WsdlCache.getSoapAction(serviceURL, "GetInfoByState"), action);
+		Assert.assertEquals(WsdlCache.getImportCount(), imports, "Persisted templates should not import the WSDL");
+	}
+
+	@Features("API")
+	@Stories("WsdlCache")
+	@Test(groups = { "regression", "soap" })
+	public void missingOperationRaisesSoapException() {
+		try {
+			WsdlCache.getRequestTemplate(serviceURL, "GetInfoByPlanet");
+			Assert.fail("An operation missing from the WSDL should fail");
+		} catch (SoapException se) {
+			Assert.assertTrue(se.getMessage().contains("Operation [ GetInfoByPlanet ] was not found"), se.getMessage());
+		}
+	}
+
+	private static String readResource(String path) throws IOException {
+		InputStream in = TestWsdlCache.class.getResourceAsStream(path);
+		try {
+			return new Scanner(in, "UTF-8").useDelimiter("\\A").next();
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.orasi.utils;
+
+/**
+ * @summary Heap measurement shared by the benchmark tests
+ * @version Created: 10/18/2026
+ */
+public final class Heap {
+	private Heap() {
+	}
+
+	/**
+	 * @summary Asks for a few collections first so the figure is close to what
+	 *          is still reachable, rather than what has not been collected yet
+	 * @return Bytes of heap in use
+	 */
+	public static long used() {
+		for (int gc = 0; gc < 3; gc++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,193 @@
+package com.orasi.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import com.orasi.utils.dataProviders.CSVDataProvider;
+import com.orasi.utils.dataProviders.CSVReader;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestCSVDataProvider {
+	private static final int LARGE_ROWS = 500000;
+
+	@Features("Utilities")
+	@Stories("CSVDataProvider")
+	@Title("quotedFieldsAreParsed")
+	@Test(groups = { "regression", "utils" })
+	public void quotedFieldsAreParsed() throws IOException {
+		File csv = write("\uFEFFName,Address,Notes\r\n"
+				+ "Jane,\"1 Main St, Apt 2\",\"She said \"\"hi\"\"\"\r\n"
+				+ "\r\n"
+				+ "John,\"Line one\r\nLine two\",\n"
+				+ "\"\",Short\n"
+				+ "Last,Row,\"No line break at the end\"");
+		Object[][] data = CSVDataProvider.getTestScenarioData(csv.getPath());
+		Assert.assertEquals(data.length, 4);
+		Assert.assertEquals(data[0], new Object[] { "Jane", "1 Main St, Apt 2", "She said \"hi\"" });
+		Assert.assertEquals(data[1], new Object[] { "John", "Line one\r\nLine two", "" });
+		Assert.assertEquals(data[2], new Object[] { "", "Short", "" }, "Missing values should be blank");
+		Assert.assertEquals(data[3], new Object[] { "Last", "Row", "No line break at the end" });
+
+		Assert.assertEquals(CSVDataProvider.getTestScenarioData(write("").getPath()).length, 0);
+	}
+
+	@Features("Utilities")
+	@Stories("CSVDataProvider")
+	@Title("fieldsLongerThanTheBufferAreParsed")
+	@Test(groups = { "regression", "utils" })
+	public void fieldsLongerThanTheBufferAreParsed() throws IOException {
+		StringBuilder longValue = new StringBuilder();
+		while (longValue.length() < CSVReader.DEFAULT_BUFFER_SIZE * 2) {
+			longValue.append("a,\"b\" ");
+		}
+		String quoted = "\"" + longValue.toString().replace("\"", "\"\"") + "\"";
+		CSVReader reader = new CSVReader(new StringReader("first," + quoted + ",last\n" + longValue.toString().replace(",", ";").replace("\"", "") + "\n"));
+		try {
+			String[] record = reader.readRecord();
+			Assert.assertEquals(record.length, 3);
+			Assert.assertEquals(record[1], longValue.toString());
+			Assert.assertEquals(record[2], "last");
+			Assert.assertEquals(reader.readRecord()[0], longValue.toString().replace(",", ";").replace("\"", ""));
+			Assert.assertNull(reader.readRecord());
+			Assert.assertEquals(reader.getRecordNumber(), 2);
+		} finally {
+			reader.close();
+		}
+
+		reader = new CSVReader(new StringReader("a,\"not closed\nb,c\n"));
+		try {
+			reader.readRecord();
+			Assert.fail("A quote that is never closed should fail");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage().contains("not closed"), e.getMessage());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("CSVDataProvider")
+	@Title("iteratorReadsRowsOnlyWhenAsked")
+	@Test(groups = { "regression", "utils" })
+	public void iteratorReadsRowsOnlyWhenAsked() throws IOException {
+		File csv = write("Id,Value\n1,one\n2,\"two, too\"\n3,\"not closed\n");
+		Iterator<Object[]> rows = CSVDataProvider.getTestScenarioIterator(csv.getPath());
+		Assert.assertEquals(rows.next(), new Object[] { "1", "one" });
+		Assert.assertEquals(rows.next(), new Object[] { "2", "two, too" }, "A broken row should not fail the rows before it");
+		try {
+			rows.hasNext();
+			Assert.fail("The broken row should fail once it is read");
+		} catch (RuntimeException e) {
+			Assert.assertTrue(e.getMessage().contains("row [ 4 ]"), e.getMessage());
+		}
+		Assert.assertFalse(rows.hasNext());
+	}
+
+	@Features("Utilities")
+	@Stories("CSVDataProvider")
+	@Title("streamedCsvMemory")
+	@Test(groups = { "benchmark", "utils" })
+	public void streamedCsvMemory() throws IOException {
+		File csv = File.createTempFile("large", ".csv");
+		csv.deleteOnExit();
+		Writer writer = new BufferedWriter(new FileWriter(csv));
+		try {
+			writer.write("Id,Name,City,Notes\n");
+			for (int row = 1; row <= LARGE_ROWS; row++) {
+				writer.write(row + ",Name " + row + ",City " + row % 1000 + ",Notes for row " + row + "\n");
+			}
+		} finally {
+			writer.close();
+		}
+
+		// Warm up both paths before measuring
+		readAllLines(csv);
+		countRows(CSVDataProvider.getTestScenarioIterator(csv.getPath()));
+
+		long baseline = Heap.used();
+		long start = System.nanoTime();
+		Object[][] data = readAllLines(csv);
+		double loadedMillis = (System.nanoTime() - start) / 1000000d;
+		long loaded = Heap.used() - baseline;
+		Assert.assertEquals(data.length, LARGE_ROWS);
+		data = null;
+
+		baseline = Heap.used();
+		long streamed = 0;
+		int rows = 0;
+		start = System.nanoTime();
+		Iterator<Object[]> iterator = CSVDataProvider.getTestScenarioIterator(csv.getPath());
+		while (iterator.hasNext()) {
+			if (++rows == LARGE_ROWS / 2) streamed = Heap.used() - baseline;
+			Assert.assertEquals(iterator.next().length, 4);
+		}
+		double streamedMillis = (System.nanoTime() - start) / 1000000d;
+		Assert.assertEquals(rows, LARGE_ROWS);
+
+		Reporter.log(String.format("%d rows (%.1fMB file): loaded %.0fms holding %.1fMB, streamed %.0fms holding %.1fMB<br/>",
+				LARGE_ROWS, csv.length() / 1048576d, loadedMillis, loaded / 1048576d, streamedMillis, streamed / 1048576d), true);
+	}
+
+	/**
+	 * Reads the file the way CSVDataProvider used to, holding every line and
+	 * then every row
+	 */
+	private static Object[][] readAllLines(File csv) throws IOException {
+		List<String> lines = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new FileReader(csv));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		} finally {
+			reader.close();
+		}
+		int columnCount = lines.get(0).split(",").length;
+		String[][] data = new String[lines.size() - 1][columnCount];
+		for (int rowNum = 1; rowNum < lines.size(); rowNum++) {
+			String[] rowSplit = lines.get(rowNum).split(",");
+			for (int colNum = 0; colNum < columnCount; colNum++) {
+				data[rowNum - 1][colNum] = rowSplit[colNum];
+			}
+		}
+		return data;
+	}
+
+	private static int countRows(Iterator<Object[]> rows) {
+		int count = 0;
+		while (rows.hasNext()) {
+			rows.next();
+			count++;
+		}
+		return count;
+	}
+
+	private static File write(String content) throws IOException {
+		File csv = File.createTempFile("data", ".csv");
+		csv.deleteOnExit();
+		Writer writer = new FileWriter(csv);
+		try {
+			writer.write(content);
+		} finally {
+			writer.close();
+		}
+		return csv;
+	}
+}
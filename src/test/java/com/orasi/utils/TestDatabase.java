@@ -0,0 +1,536 @@
+package com.orasi.utils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.dbcp2.DelegatingStatement;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orasi.utils.dataProviders.ParallelDatabaseDataProvider;
+import com.orasi.utils.database.Column;
+import com.orasi.utils.database.Database;
+import com.orasi.utils.database.DatabaseException;
+import com.orasi.utils.database.Recordset;
+import com.orasi.utils.database.StreamingRecordset;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+@Test(singleThreaded = true)
+public class TestDatabase {
+	private static final int QUERIES = 2000;
+	private static final int LARGE_ROWS = 200000;
+	private static final int LOOKUPS = 2000000;
+	private static final int DATASETS = 4;
+	private static final String SLOW_QUERY = "SELECT ID, NAME, PAUSE(?) FROM USERS WHERE ID BETWEEN ? AND ? ORDER BY ID";
+	private static final AtomicInteger pauses = new AtomicInteger();
+	private static final String QUERY = "SELECT ID, NAME, CITY FROM USERS WHERE ID = ?";
+
+	private H2Database db;
+
+	@BeforeClass(alwaysRun = true)
+	public void createTable() {
+		db = new H2Database("testDatabase");
+		db.setMaxConnections(4);
+		db.executeUpdate("CREATE TABLE USERS (ID INT PRIMARY KEY, NAME VARCHAR(50), CITY VARCHAR(50))");
+		for (int id = 1; id <= 100; id++) {
+			db.executeUpdate("INSERT INTO USERS VALUES (?, ?, ?)", id, "User " + id, id % 10 == 0 ? null : "City " + id);
+		}
+		db.executeUpdate("CREATE ALIAS PAUSE FOR \"" + TestDatabase.class.getName() + ".pause\"");
+	}
+
+	/**
+	 * Called by the database for each row of {@link #SLOW_QUERY}, to stand in
+	 * for a query that takes a while to return its rows
+	 */
+	public static int pause(int millis) throws InterruptedException {
+		pauses.incrementAndGet();
+		Thread.sleep(millis);
+		return millis;
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void closePool() {
+		ParallelDatabaseDataProvider.clearCache();
+		if (db != null) db.closeDataSource();
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("parameterizedQueryReturnsColumnsThenRows")
+	@Test(groups = { "regression", "utils" })
+	public void parameterizedQueryReturnsColumnsThenRows() {
+		Object[][] table = db.getResultSet("SELECT ID, NAME, CITY FROM USERS WHERE ID IN (?, ?) ORDER BY ID", 9, 10);
+		Assert.assertEquals(table.length, 3);
+		Assert.assertEquals(table[0], new Object[] { "ID", "NAME", "CITY" });
+		Assert.assertEquals(table[1], new Object[] { "9", "User 9", "City 9" });
+		Assert.assertEquals(table[2], new Object[] { "10", "User 10", "NULL" });
+
+		Assert.assertEquals(db.getResultSet("SELECT COUNT(*) TOTAL FROM USERS")[1][0], "100");
+		Assert.assertEquals(db.getResultSet("SELECT ID FROM USERS WHERE NAME = ?", "x' OR '1'='1").length, 1, "Parameters should never be read as SQL");
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("connectionsAreReturnedToThePool")
+	@Test(groups = { "regression", "utils" })
+	public void connectionsAreReturnedToThePool() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int thread = 0; thread < 8; thread++) {
+				final int offset = thread;
+				results.add(threads.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int found = 0;
+						for (int query = 0; query < 50; query++) {
+							if (db.getResultSet(QUERY, (query + offset) % 100 + 1).length == 2) found++;
+						}
+						return found;
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				Assert.assertEquals(result.get().intValue(), 50);
+			}
+		} finally {
+			threads.shutdownNow();
+		}
+		Assert.assertEquals(db.getDataSource().getNumActive(), 0, "Every connection should be returned to the pool");
+		Assert.assertTrue(db.getDataSource().getNumIdle() <= 4, "Idle connections: " + db.getDataSource().getNumIdle());
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("preparedStatementsAreReused")
+	@Test(groups = { "regression", "utils" })
+	public void preparedStatementsAreReused() throws Exception {
+		// A single connection, so both queries are run on the same statement cache
+		H2Database single = new H2Database("statementReuse");
+		single.setMaxConnections(1);
+		single.setStatementCacheSize(1);
+		single.setFetchSize(7);
+		try {
+			single.executeUpdate("CREATE TABLE USERS (ID INT PRIMARY KEY, NAME VARCHAR(50), CITY VARCHAR(50))");
+			single.executeUpdate("INSERT INTO USERS VALUES (1, 'User 1', 'City 1'), (2, 'User 2', 'City 2')");
+
+			Assert.assertEquals(single.getResultSet(QUERY, 1).length, 2);
+			Statement prepared = cachedStatement(single);
+			Assert.assertEquals(prepared.getFetchSize(), 7, "The cached statement should be the one the query prepared");
+
+			Assert.assertEquals(single.getResultSet(QUERY, 2)[1][1], "User 2");
+			Assert.assertSame(cachedStatement(single), prepared, "The second query should reuse the cached statement");
+			Assert.assertFalse(prepared.isClosed(), "The cached statement should still be open");
+		} finally {
+			single.closeDataSource();
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("failedQueriesRaiseDatabaseException")
+	@Test(groups = { "regression", "utils" })
+	public void failedQueriesRaiseDatabaseException() {
+		try {
+			db.getResultSet("SELECT * FROM MISSING_TABLE");
+			Assert.fail("A missing table should fail the query");
+		} catch (DatabaseException e) {
+			Assert.assertTrue(e.getMessage().contains("MISSING_TABLE"), e.getMessage());
+		}
+		Assert.assertEquals(db.getDataSource().getNumActive(), 0, "A failed query should still return its connection");
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("pooledQueryThroughput")
+	@Test(groups = { "benchmark", "utils" })
+	public void pooledQueryThroughput() throws Exception {
+		// Warm up both paths before measuring
+		queryWithNewConnection(200);
+		queryWithPool(200);
+
+		double newConnection = queryWithNewConnection(QUERIES);
+		double pooled = queryWithPool(QUERIES);
+
+		Reporter.log(String.format("%d queries: connection per query %.0f/sec, pooled with cached statements %.0f/sec (%.1fx)<br/>",
+				QUERIES, QUERIES / newConnection, QUERIES / pooled, newConnection / pooled), true);
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("streamingRecordsetReadsRowsInOrder")
+	@Test(groups = { "regression", "utils" })
+	public void streamingRecordsetReadsRowsInOrder() {
+		StreamingRecordset rs = db.getStreamingRecordset("SELECT ID, NAME, CITY FROM USERS WHERE ID <= ? ORDER BY ID", 20);
+		try {
+			Assert.assertEquals(rs.getColumnCount(), 3);
+			Assert.assertEquals(rs.getColumnIndex("city"), 3);
+			Assert.assertTrue(rs.isFirst());
+
+			int rows = 0;
+			while (rs.hasNext()) {
+				rows++;
+				Assert.assertEquals(rs.getRowNumber(), rows);
+				Assert.assertEquals(rs.getValue("ID"), String.valueOf(rows));
+				Assert.assertEquals(rs.getValue(2), "User " + rows);
+				Assert.assertEquals(rs.getValue("CITY"), rows % 10 == 0 ? "NULL" : "City " + rows);
+				Assert.assertEquals(rs.getValue("MISSING"), "");
+				rs.moveNext();
+			}
+			Assert.assertEquals(rows, 20);
+			Assert.assertTrue(rs.isLast());
+			Assert.assertEquals(db.getDataSource().getNumActive(), 0, "Reading the last row should return the connection");
+		} finally {
+			rs.close();
+		}
+
+		rs = db.getStreamingRecordset("SELECT ID FROM USERS WHERE ID > ?", 1000);
+		Assert.assertFalse(rs.hasNext());
+		try {
+			rs.getValue("ID");
+			Assert.fail("An empty recordset has no current row");
+		} catch (DatabaseException e) {
+			Assert.assertTrue(e.getMessage().contains("No current row"), e.getMessage());
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("closingStreamingRecordsetReturnsTheConnection")
+	@Test(groups = { "regression", "utils" })
+	public void closingStreamingRecordsetReturnsTheConnection() {
+		StreamingRecordset rs = db.getStreamingRecordset("SELECT ID, NAME FROM USERS ORDER BY ID");
+		try {
+			rs.moveNext();
+			rs.moveNext();
+			Assert.assertEquals(rs.getValue("ID"), "3");
+			Assert.assertEquals(db.getDataSource().getNumActive(), 1, "An open recordset holds its connection");
+		} finally {
+			rs.close();
+		}
+		Assert.assertEquals(db.getDataSource().getNumActive(), 0);
+		Assert.assertFalse(rs.hasNext());
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("streamedExtractMemory")
+	@Test(groups = { "benchmark", "utils" })
+	public void streamedExtractMemory() {
+		db.executeUpdate("CREATE TABLE LARGE AS SELECT X ID, 'Name ' || X NAME, 'City ' || MOD(X, 1000) CITY, CURRENT_TIMESTAMP() CREATED FROM SYSTEM_RANGE(1, ?)", LARGE_ROWS);
+		try {
+			long baseline = Heap.used();
+			long start = System.nanoTime();
+			Object[][] table = db.getResultSet("SELECT * FROM LARGE");
+			double materializedMillis = (System.nanoTime() - start) / 1000000d;
+			long materialized = Heap.used() - baseline;
+			Assert.assertEquals(table.length, LARGE_ROWS + 1);
+			table = null;
+
+			baseline = Heap.used();
+			long streamed = 0;
+			int rows = 0;
+			start = System.nanoTime();
+			StreamingRecordset rs = db.getStreamingRecordset("SELECT * FROM LARGE");
+			try {
+				while (rs.hasNext()) {
+					if (++rows == LARGE_ROWS / 2) streamed = Heap.used() - baseline;
+					Assert.assertNotNull(rs.getValue("NAME"));
+					rs.moveNext();
+				}
+			} finally {
+				rs.close();
+			}
+			double streamedMillis = (System.nanoTime() - start) / 1000000d;
+			Assert.assertEquals(rows, LARGE_ROWS);
+
+			Reporter.log(String.format("%d rows: materialized %.1fms holding %.1fMB, streamed %.1fms holding %.1fMB<br/>",
+					LARGE_ROWS, materializedMillis, materialized / 1048576d, streamedMillis, streamed / 1048576d), true);
+		} finally {
+			db.executeUpdate("DROP TABLE LARGE");
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("recordsetColumnsAreTypedFromTheQuery")
+	@Test(groups = { "regression", "utils" })
+	public void recordsetColumnsAreTypedFromTheQuery() {
+		Recordset rs = db.getRecordset("SELECT ID, NAME, CITY, ID * 1.5 RATIO, MOD(ID, 2) = 0 EVEN FROM USERS WHERE ID BETWEEN ? AND ? ORDER BY ID", 9, 10);
+		Assert.assertEquals(rs.getRowCount(), 2);
+		Assert.assertEquals(rs.getColumnType("ID"), Column.Type.LONG);
+		Assert.assertEquals(rs.getColumnType("name"), Column.Type.STRING);
+		Assert.assertEquals(rs.getColumnType("Even"), Column.Type.BOOLEAN);
+		Assert.assertEquals(rs.getColumnIndex("city"), 3);
+		Assert.assertEquals(rs.getColumnIndex("MISSING"), 0);
+
+		Assert.assertEquals(rs.getLong("ID"), 9);
+		Assert.assertEquals(rs.getValue("ID"), "9");
+		Assert.assertEquals(rs.getDouble("RATIO"), 13.5, 0.001);
+		Assert.assertFalse(rs.getBoolean("EVEN"));
+		Assert.assertEquals(rs.getValue("MISSING"), "");
+		rs.moveNext();
+		Assert.assertTrue(rs.getBoolean("EVEN"));
+		Assert.assertTrue(rs.isNull("CITY"));
+		Assert.assertEquals(rs.getValue("CITY"), "NULL");
+
+		String query = "SELECT ID, NAME, CITY FROM USERS WHERE ID BETWEEN ? AND ? ORDER BY ID";
+		Assert.assertEquals(db.getRecordset(query, 1, 20).getArray(), db.getResultSet(query, 1, 20));
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("recordsetKeepsTheValuesOfAnArray")
+	@Test(groups = { "regression", "utils" })
+	public void recordsetKeepsTheValuesOfAnArray() {
+		Object[][] table = db.getResultSet("SELECT ID, NAME, CITY FROM USERS WHERE ID <= ? ORDER BY ID", 10);
+		Recordset rs = new Recordset(table);
+		Assert.assertEquals(rs.getArray(), table);
+		Assert.assertEquals(rs.getValue("name", 0), "NAME");
+		Assert.assertEquals(rs.getValue(3, 10), "NULL");
+		Assert.assertEquals(rs.getLong("ID", 4), 4);
+
+		rs = new Recordset(new Object[][] { { "COUNT", "TOTAL", "ACTIVE" }, { 3, 1.5, true }, { 4L, null, false } });
+		Assert.assertEquals(rs.getColumnType("COUNT"), Column.Type.LONG);
+		Assert.assertEquals(rs.getColumnType("TOTAL"), Column.Type.DOUBLE);
+		Assert.assertEquals(rs.getColumnType("ACTIVE"), Column.Type.BOOLEAN);
+		Assert.assertEquals(rs.getLong("COUNT", 2), 4);
+		Assert.assertTrue(rs.isNull("TOTAL", 2));
+		try {
+			rs.getDouble("TOTAL", 2);
+			Assert.fail("A null value has no number");
+		} catch (DatabaseException e) {
+			Assert.assertTrue(e.getMessage().contains("NULL"), e.getMessage());
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("columnarRecordsetMemoryAndLookup")
+	@Test(groups = { "benchmark", "utils" })
+	public void columnarRecordsetMemoryAndLookup() {
+		db.executeUpdate("CREATE TABLE TYPED AS SELECT X ID, 'Name ' || X NAME, 'City ' || MOD(X, 1000) CITY, X * 1.5 RATIO, MOD(X, 2) = 0 EVEN FROM SYSTEM_RANGE(1, ?)", LARGE_ROWS);
+		try {
+			long baseline = Heap.used();
+			Object[][] table = db.getResultSet("SELECT * FROM TYPED ORDER BY ID");
+			long array = Heap.used() - baseline;
+			table = null;
+
+			baseline = Heap.used();
+			Recordset rs = db.getRecordset("SELECT * FROM TYPED ORDER BY ID");
+			long columnar = Heap.used() - baseline;
+			Assert.assertEquals(rs.getRowCount(), LARGE_ROWS);
+			table = db.getResultSet("SELECT * FROM TYPED WHERE ID <= ? ORDER BY ID", 1000);
+
+			// Warm up both lookups before measuring
+			scanLookups(table, LOOKUPS / 10);
+			indexedLookups(rs, LOOKUPS / 10);
+			double scan = scanLookups(table, LOOKUPS);
+			double indexed = indexedLookups(rs, LOOKUPS);
+
+			Reporter.log(String.format("%d rows: Object[][] holding %.1fMB, columnar holding %.1fMB. %d lookups by name: header scan %.0fms, indexed %.0fms (%.1fx)<br/>",
+					LARGE_ROWS, array / 1048576d, columnar / 1048576d, LOOKUPS, scan * 1000, indexed * 1000, scan / indexed), true);
+		} finally {
+			db.executeUpdate("DROP TABLE TYPED");
+		}
+	}
+
+	/**
+	 * Looks values up the way Recordset used to, scanning the column names
+	 * for every value
+	 */
+	private static double scanLookups(Object[][] table, int lookups) {
+		long start = System.nanoTime();
+		for (int lookup = 0; lookup < lookups; lookup++) {
+			int index = 0;
+			for (int columnIndex = 0; columnIndex < table[0].length; columnIndex++) {
+				if (table[0][columnIndex].toString().equalsIgnoreCase("even")) {
+					index = columnIndex + 1;
+					break;
+				}
+			}
+			Assert.assertNotNull(table[lookup % 1000 + 1][index - 1].toString());
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	private static double indexedLookups(Recordset rs, int lookups) {
+		long start = System.nanoTime();
+		for (int lookup = 0; lookup < lookups; lookup++) {
+			Assert.assertNotNull(rs.getValue("even", lookup % 1000 + 1));
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("parallelProviderKeepsTheRowsOfEachQuery")
+	@Test(groups = { "regression", "utils" })
+	public void parallelProviderKeepsTheRowsOfEachQuery() {
+		ParallelDatabaseDataProvider provider = new ParallelDatabaseDataProvider(db);
+		Object[][] expected = db.getResultSet(SLOW_QUERY, 1, 11, 15);
+		int queried = pauses.get();
+
+		List<Object[]> rows = toList(provider.getTestData(SLOW_QUERY, 1, 11, 15));
+		Assert.assertEquals(rows.size(), 5);
+		for (int row = 0; row < rows.size(); row++) {
+			Assert.assertEquals(rows.get(row), expected[row + 1]);
+		}
+		Assert.assertEquals(pauses.get() - queried, 5, "Each row should be read once");
+
+		rows.get(0)[1] = "Changed by a test";
+		Assert.assertEquals(toList(new ParallelDatabaseDataProvider(db).getTestData(SLOW_QUERY, 1, 11, 15)).get(0)[1], "User 11",
+				"Kept rows should not change with the tests");
+		Assert.assertEquals(pauses.get() - queried, 5, "The same query should not be run again");
+
+		Assert.assertEquals(toList(provider.getTestData(SLOW_QUERY, 1, 16, 17)).size(), 2);
+		Assert.assertEquals(pauses.get() - queried, 7, "Different parameters should run the query");
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("parallelProviderRaisesFailedQueries")
+	@Test(groups = { "regression", "utils" })
+	public void parallelProviderRaisesFailedQueries() {
+		ParallelDatabaseDataProvider provider = new ParallelDatabaseDataProvider(db);
+		Iterator<Object[]> rows = provider.getTestData("SELECT * FROM MISSING_DATA");
+		try {
+			rows.hasNext();
+			Assert.fail("A missing table should fail the data provider");
+		} catch (DatabaseException e) {
+			Assert.assertTrue(e.getCause().getMessage().contains("MISSING_DATA"), e.getCause().getMessage());
+		}
+
+		db.executeUpdate("CREATE TABLE MISSING_DATA (ID INT)");
+		try {
+			db.executeUpdate("INSERT INTO MISSING_DATA VALUES (?)", 1);
+			Assert.assertEquals(toList(provider.getTestData("SELECT * FROM MISSING_DATA")).size(), 1, "A failed query should be run again");
+		} finally {
+			db.executeUpdate("DROP TABLE MISSING_DATA");
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("Database")
+	@Title("parallelProviderFetchesDatasetsConcurrently")
+	@Test(groups = { "benchmark", "utils" })
+	public void parallelProviderFetchesDatasetsConcurrently() {
+		long start = System.nanoTime();
+		for (int dataset = 0; dataset < DATASETS; dataset++) {
+			Assert.assertEquals(db.getResultSet(SLOW_QUERY, 10, dataset * 10 + 1, dataset * 10 + 10).length, 11);
+		}
+		double sequential = (System.nanoTime() - start) / 1000000d;
+
+		ParallelDatabaseDataProvider provider = new ParallelDatabaseDataProvider(db);
+		start = System.nanoTime();
+		for (int dataset = 0; dataset < DATASETS; dataset++) {
+			provider.prefetch(SLOW_QUERY, 10, dataset * 10 + 1, dataset * 10 + 10);
+		}
+		double firstRow = 0;
+		for (int dataset = 0; dataset < DATASETS; dataset++) {
+			Iterator<Object[]> rows = provider.getTestData(SLOW_QUERY, 10, dataset * 10 + 1, dataset * 10 + 10);
+			Assert.assertEquals(rows.next()[0], String.valueOf(dataset * 10 + 1));
+			if (dataset == 0) firstRow = (System.nanoTime() - start) / 1000000d;
+			Assert.assertEquals(toList(rows).size(), 9);
+		}
+		double parallel = (System.nanoTime() - start) / 1000000d;
+
+		Reporter.log(String.format("%d datasets: sequential %.0fms, parallel %.0fms (%.1fx), first row after %.0fms<br/>",
+				DATASETS, sequential, parallel, sequential / parallel, firstRow), true);
+	}
+
+	private static List<Object[]> toList(Iterator<Object[]> rows) {
+		List<Object[]> list = new ArrayList<Object[]>();
+		while (rows.hasNext()) {
+			list.add(rows.next());
+		}
+		return list;
+	}
+
+	/**
+	 * Queries the way Database used to, opening a connection and statement
+	 * for every query
+	 */
+	private double queryWithNewConnection(int queries) throws Exception {
+		long start = System.nanoTime();
+		for (int query = 0; query < queries; query++) {
+			Connection connection = DriverManager.getConnection(db.getUrl(), "sa", "");
+			try {
+				Statement statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+				ResultSet resultSet = statement.executeQuery("SELECT ID, NAME, CITY FROM USERS WHERE ID = " + (query % 100 + 1));
+				Assert.assertTrue(resultSet.next());
+				statement.close();
+			} finally {
+				connection.close();
+			}
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	private double queryWithPool(int queries) {
+		long start = System.nanoTime();
+		for (int query = 0; query < queries; query++) {
+			Assert.assertEquals(db.getResultSet(QUERY, query % 100 + 1).length, 2);
+		}
+		return (System.nanoTime() - start) / 1000000000d;
+	}
+
+	/**
+	 * Returns the driver's statement cached by the pooled connection for
+	 * {@link #QUERY}, looked up the same way the Database prepares it
+	 */
+	private static Statement cachedStatement(Database database) throws Exception {
+		Connection connection = database.getConnection();
+		try {
+			PreparedStatement statement = connection.prepareStatement(QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			try {
+				return ((DelegatingStatement) statement).getInnermostDelegate();
+			} finally {
+				statement.close();
+			}
+		} finally {
+			connection.close();
+		}
+	}
+
+	private static class H2Database extends Database {
+		private H2Database(String name) {
+			setDbDriver("org.h2.Driver");
+			// Lazy execution makes H2 stream rows to the client instead of buffering the result
+			setDbConnectionString("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1");
+			setDbUserName("sa");
+			setDbPassword("");
+		}
+
+		private String getUrl() {
+			return getDbConnectionString();
+		}
+
+		@Override
+		protected void setDbDriver(String driver) {
+			super.strDriver = driver;
+		}
+
+		@Override
+		protected void setDbConnectionString(String connection) {
+			super.strConnectionString = connection;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.orasi.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+@Test(singleThreaded = true)
+public class TestPayloadLogger {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private ByteArrayOutputStream output;
+
+	@BeforeMethod(alwaysRun = true)
+	public void captureOutput() {
+		output = new ByteArrayOutputStream();
+		PayloadLogger.setOutput(new PrintStream(output, true));
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void resetLogger() {
+		PayloadLogger.flush(5, TimeUnit.SECONDS);
+		PayloadLogger.setLevel(TestReporter.NONE);
+		PayloadLogger.setMaxLength(PayloadLogger.DEFAULT_MAX_LENGTH);
+		PayloadLogger.setSampleRate(1);
+		PayloadLogger.setOutput(System.out);
+	}
+
+	@Features("Utilities")
+	@Stories("PayloadLogger")
+	@Title("nothingIsPrintedByDefault")
+	@Test(groups = { "regression", "utils" })
+	public void nothingIsPrintedByDefault() {
+		PayloadLogger.log("REQUEST", "<Envelope/>");
+		Assert.assertTrue(PayloadLogger.flush(5, TimeUnit.SECONDS));
+		Assert.assertEquals(output.size(), 0);
+	}
+
+	@Features("Utilities")
+	@Stories("PayloadLogger")
+	@Title("payloadsAreTruncatedAtInfo")
+	@Test(groups = { "regression", "utils" })
+	public void payloadsAreTruncatedAtInfo() {
+		PayloadLogger.setLevel(TestReporter.INFO);
+		PayloadLogger.setMaxLength(10);
+		PayloadLogger.log("STRING", "0123456789abcdef");
+		PayloadLogger.log("BYTES", repeat('x', 1000).getBytes(UTF8));
+		Assert.assertTrue(PayloadLogger.flush(5, TimeUnit.SECONDS));
+
+		String printed = new String(output.toByteArray(), UTF8);
+		Assert.assertTrue(printed.contains("STRING"), printed);
+		Assert.assertTrue(printed.contains("0123456789... [ truncated 6 of 16 characters ]"), printed);
+		Assert.assertTrue(printed.contains("xxxxxxxxxx... [ truncated, 1000 bytes in total ]"), printed);
+		Assert.assertFalse(printed.contains("xxxxxxxxxxx"), printed);
+	}
+
+	@Features("Utilities")
+	@Stories("PayloadLogger")
+	@Title("payloadsAreOnlyTruncatedWhenLogged")
+	@Test(groups = { "regression", "utils" })
+	public void payloadsAreOnlyTruncatedWhenLogged() {
+		PayloadLogger.setMaxLength(10);
+		Assert.assertEquals(PayloadLogger.truncate("0123456789abcdef"), "0123456789abcdef", "Report payloads should be whole while logging is off");
+
+		PayloadLogger.setLevel(TestReporter.INFO);
+		Assert.assertEquals(PayloadLogger.truncate("0123456789abcdef"), "0123456789... [ truncated 6 of 16 characters ]");
+	}
+
+	@Features("Utilities")
+	@Stories("PayloadLogger")
+	@Title("payloadsArePrintedInFullAtDebug")
+	@Test(groups = { "regression", "utils" })
+	public void payloadsArePrintedInFullAtDebug() {
+		PayloadLogger.setLevel(TestReporter.DEBUG);
+		PayloadLogger.setMaxLength(10);
+		PayloadLogger.log("BYTES", repeat('x', 1000).getBytes(UTF8));
+		Assert.assertTrue(PayloadLogger.flush(5, TimeUnit.SECONDS));
+
+		Assert.assertTrue(new String(output.toByteArray(), UTF8).contains(repeat('x', 1000)));
+	}
+
+	@Features("Utilities")
+	@Stories("PayloadLogger")
+	@Title("oneInNIsSampled")
+	@Test(groups = { "regression", "utils" })
+	public void oneInNIsSampled() {
+		PayloadLogger.setLevel(TestReporter.INFO);
+		PayloadLogger.setSampleRate(10);
+		for (int payload = 0; payload < 100; payload++) {
+			PayloadLogger.log("PAYLOAD", "value");
+		}
+		Assert.assertTrue(PayloadLogger.flush(5, TimeUnit.SECONDS));
+
+		String printed = new String(output.toByteArray(), UTF8);
+		Assert.assertEquals(printed.split("PAYLOAD", -1).length - 1, 10, printed);
+	}
+
+	@Features("Utilities")
+	@Stories("PayloadLogger")
+	@Title("loggingDoesNotBlockCallers")
+	@Test(groups = { "benchmark", "utils" })
+	public void loggingDoesNotBlockCallers() {
+		final String payload = repeat('x', 64 * 1024);
+		PayloadLogger.setLevel(TestReporter.DEBUG);
+		PayloadLogger.setOutput(new PrintStream(new ByteArrayOutputStream() {
+			@Override
+			public synchronized void write(byte[] bytes, int offset, int length) {
+				// Stands in for a slow console
+				try {
+					TimeUnit.MICROSECONDS.sleep(50);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}));
+
+		long start = System.nanoTime();
+		for (int call = 0; call < 500; call++) {
+			PayloadLogger.log("PAYLOAD", payload);
+		}
+		long queued = System.nanoTime() - start;
+		Assert.assertTrue(PayloadLogger.flush(30, TimeUnit.SECONDS));
+		long printed = System.nanoTime() - start;
+
+		Reporter.log(String.format("500 x 64KB payloads queued in %.2fms, printed in %.2fms, %d dropped<br/>",
+				queued / 1000000d, printed / 1000000d, PayloadLogger.getDroppedCount()), true);
+	}
+
+	private static String repeat(char character, int count) {
+		StringBuilder builder = new StringBuilder(count);
+		for (int index = 0; index < count; index++) {
+			builder.append(character);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,93 @@
+package com.orasi.utils;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+@Test(singleThreaded = true)
+public class TestXPathCache {
+
+	@BeforeMethod(groups = { "regression", "utils" })
+	public void reset() {
+		XPathCache.clear();
+	}
+
+	@AfterMethod(groups = { "regression", "utils" }, alwaysRun = true)
+	public void restoreSize() {
+		XPathCache.setMaxSize(XPathCache.DEFAULT_MAX_SIZE);
+	}
+
+	@Features("Utilities")
+	@Stories("XPathCache")
+	@Title("compileIsCached")
+	@Test(groups = { "regression", "utils" })
+	public void compileIsCached() throws XPathExpressionException {
+		XPathExpression first = XPathCache.compile("/Envelope/Body");
+		XPathExpression second = XPathCache.compile("/Envelope/Body");
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals(XPathCache.getMissCount(), 1);
+		Assert.assertEquals(XPathCache.getHitCount(), 1);
+	}
+
+	@Features("Utilities")
+	@Stories("XPathCache")
+	@Title("eachThreadCompilesItsOwn")
+	@Test(groups = { "regression", "utils" })
+	public void eachThreadCompilesItsOwn() throws Exception {
+		final XPathExpression local = XPathCache.compile("/Envelope/Body");
+		final AtomicReference<XPathExpression> other = new AtomicReference<XPathExpression>();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					other.set(XPathCache.compile("/Envelope/Body"));
+				} catch (XPathExpressionException xpe) {
+					throw new RuntimeException(xpe);
+				}
+			}
+		});
+		thread.start();
+		thread.join();
+
+		Assert.assertNotNull(other.get());
+		Assert.assertNotSame(other.get(), local, "Expressions are not thread safe and must not be shared");
+	}
+
+	@Features("Utilities")
+	@Stories("XPathCache")
+	@Title("cacheIsBounded")
+	@Test(groups = { "regression", "utils" })
+	public void cacheIsBounded() throws XPathExpressionException {
+		XPathCache.setMaxSize(2);
+		XPathExpression first = XPathCache.compile("/a");
+		XPathCache.compile("/b");
+		XPathCache.compile("/c");
+
+		Assert.assertNotSame(XPathCache.compile("/a"), first, "Least recently used expression should have been evicted");
+		Assert.assertEquals(XPathCache.getMissCount(), 4);
+	}
+
+	@Features("Utilities")
+	@Stories("XPathCache")
+	@Title("clearDiscardsExpressions")
+	@Test(groups = { "regression", "utils" })
+	public void clearDiscardsExpressions() throws XPathExpressionException {
+		XPathExpression first = XPathCache.compile("/Envelope");
+		XPathCache.clear();
+
+		Assert.assertNotSame(XPathCache.compile("/Envelope"), first);
+		Assert.assertEquals(XPathCache.getHitCount(), 0);
+		Assert.assertEquals(XPathCache.getMissCount(), 1);
+	}
+}
@@ -0,0 +1,104 @@
+package com.orasi.utils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestXmlResources {
+	private static final int PARSES = 5000;
+	private static final byte[] XML = ("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+			+ "<soapenv:Body><Echo><Value>1</Value></Echo></soapenv:Body></soapenv:Envelope>").getBytes(Charset.forName("UTF-8"));
+
+	@Features("Utilities")
+	@Stories("XmlResources")
+	@Title("builderIsReusedPerThread")
+	@Test(groups = { "regression", "utils" })
+	public void builderIsReusedPerThread() throws Exception {
+		final DocumentBuilder local = XmlResources.getDocumentBuilder();
+		Assert.assertSame(XmlResources.getDocumentBuilder(), local);
+
+		final AtomicReference<DocumentBuilder> other = new AtomicReference<DocumentBuilder>();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				other.set(XmlResources.getDocumentBuilder());
+			}
+		});
+		thread.start();
+		thread.join();
+
+		Assert.assertNotNull(other.get());
+		Assert.assertNotSame(other.get(), local, "Document builders are not thread safe and must not be shared");
+	}
+
+	@Features("Utilities")
+	@Stories("XmlResources")
+	@Title("builderKeepsConfiguration")
+	@Test(groups = { "regression", "utils" })
+	public void builderKeepsConfiguration() throws Exception {
+		for (int parse = 0; parse < 3; parse++) {
+			Document doc = XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(XML));
+			Assert.assertEquals(XMLTools.getValueByXpath(doc, "/Envelope/Body/Echo/Value"), "1");
+		}
+	}
+
+	@Features("Utilities")
+	@Stories("XmlResources")
+	@Title("transformerIsResetBetweenUses")
+	@Test(groups = { "regression", "utils" })
+	public void transformerIsResetBetweenUses() throws Exception {
+		Transformer transformer = XmlResources.getTransformer();
+		transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+
+		Assert.assertTrue(XmlResources.toString(XMLTools.makeXMLDocument(new String(XML, "UTF-8"))).startsWith("<?xml"),
+				"Output properties changed by one caller should not leak into the next");
+	}
+
+	@Features("Utilities")
+	@Stories("XmlResources")
+	@Title("pooledBuilderThroughput")
+	@Test(groups = { "benchmark", "utils" })
+	public void pooledBuilderThroughput() throws Exception {
+		// Warm up both paths before measuring
+		parseWithNewFactory(500);
+		parseWithPool(500);
+
+		double newFactory = parseWithNewFactory(PARSES);
+		double pooled = parseWithPool(PARSES);
+		Reporter.log(String.format("New factory per parse: %.0f parses/sec, pooled builder: %.0f parses/sec (%.1fx)<br/>",
+				newFactory, pooled, pooled / newFactory), true);
+	}
+
+	private static double parseWithNewFactory(int parses) throws Exception {
+		long start = System.nanoTime();
+		for (int parse = 0; parse < parses; parse++) {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(false);
+			factory.setIgnoringElementContentWhitespace(true);
+			factory.newDocumentBuilder().parse(new ByteArrayInputStream(XML));
+		}
+		return parses / ((System.nanoTime() - start) / 1000000000d);
+	}
+
+	private static double parseWithPool(int parses) throws Exception {
+		long start = System.nanoTime();
+		for (int parse = 0; parse < parses; parse++) {
+			XmlResources.getDocumentBuilder().parse(new ByteArrayInputStream(XML));
+		}
+		return parses / ((System.nanoTime() - start) / 1000000000d);
+	}
+}